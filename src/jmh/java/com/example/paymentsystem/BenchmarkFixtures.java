@@ -0,0 +1,102 @@
+package com.example.paymentsystem;
+
+import com.example.paymentsystem.dto.PaymentExecutionDTO;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentExecution;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Realistic, fully populated entities and DTOs shared by the benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    private BenchmarkFixtures() {
+    }
+
+    public static PaymentOrder order(long id) {
+        PaymentOrder order = new PaymentOrder();
+        order.setId(id);
+        order.setOrderReference("ORD-" + String.format("%08X", id));
+        order.setCustomerId("CUST" + (id % 1000));
+        order.setCustomerName("John Doe");
+        order.setCustomerEmail("john.doe@example.com");
+        order.setAmount(new BigDecimal("1250.75"));
+        order.setCurrency("USD");
+        order.setStatus(PaymentOrderStatus.PROCESSING);
+        order.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        order.setDescription("Payment for Order #" + id);
+        order.setBeneficiaryName("ABC Corp");
+        order.setBeneficiaryAccount("1234567890");
+        order.setBeneficiaryBank("XYZ Bank");
+        order.setBeneficiaryBankCode("XYZ001");
+        order.setCreatedAt(NOW);
+        order.setUpdatedAt(NOW);
+        return order;
+    }
+
+    public static PaymentExecution execution(long id, PaymentOrder order) {
+        PaymentExecution execution = new PaymentExecution();
+        execution.setId(id);
+        execution.setExecutionReference("EXE-" + String.format("%08X", id));
+        execution.setPaymentOrder(order);
+        execution.setStatus(ExecutionStatus.SUCCESS);
+        execution.setAmount(order.getAmount());
+        execution.setCurrency(order.getCurrency());
+        execution.setGatewayTransactionId("TXN-" + id);
+        execution.setGatewayProvider("STRIPE");
+        execution.setRetryAttempt(0);
+        execution.setGatewayResponse("Payment processed successfully");
+        execution.setCreatedAt(NOW);
+        execution.setUpdatedAt(NOW);
+        execution.setProcessedAt(NOW);
+        return execution;
+    }
+
+    public static PaymentOrderDTO orderDTO(long id) {
+        PaymentOrderDTO dto = new PaymentOrderDTO();
+        dto.setId(id);
+        dto.setOrderReference("ORD-" + String.format("%08X", id));
+        dto.setCustomerId("CUST" + (id % 1000));
+        dto.setCustomerName("John Doe");
+        dto.setCustomerEmail("john.doe@example.com");
+        dto.setAmount(new BigDecimal("1250.75"));
+        dto.setCurrency("USD");
+        dto.setStatus(PaymentOrderStatus.PENDING);
+        dto.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        dto.setDescription("Payment for Order #" + id);
+        dto.setBeneficiaryName("ABC Corp");
+        dto.setBeneficiaryAccount("1234567890");
+        dto.setBeneficiaryBank("XYZ Bank");
+        dto.setBeneficiaryBankCode("XYZ001");
+        dto.setCreatedAt(NOW);
+        dto.setUpdatedAt(NOW);
+        return dto;
+    }
+
+    public static PaymentExecutionDTO executionDTO(long id) {
+        PaymentExecutionDTO dto = new PaymentExecutionDTO();
+        dto.setId(id);
+        dto.setExecutionReference("EXE-" + String.format("%08X", id));
+        dto.setPaymentOrderId(id);
+        dto.setOrderReference("ORD-" + String.format("%08X", id));
+        dto.setStatus(ExecutionStatus.SUCCESS);
+        dto.setAmount(new BigDecimal("1250.75"));
+        dto.setCurrency("USD");
+        dto.setGatewayTransactionId("TXN-" + id);
+        dto.setGatewayProvider("STRIPE");
+        dto.setRetryAttempt(0);
+        dto.setGatewayResponse("Payment processed successfully");
+        dto.setCreatedAt(NOW);
+        dto.setUpdatedAt(NOW);
+        dto.setProcessedAt(NOW);
+        return dto;
+    }
+}
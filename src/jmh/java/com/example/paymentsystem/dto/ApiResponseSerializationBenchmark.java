@@ -0,0 +1,59 @@
+package com.example.paymentsystem.dto;
+
+import com.example.paymentsystem.BenchmarkFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiResponse serialization with the same ObjectMapper setup Spring Boot uses, for a single
+ * execution and for a page of executions, in each encoding the API can negotiate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"1", "100"})
+    public int items;
+
+    private ObjectMapper mapper;
+    private ApiResponse<?> response;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        mapper = switch (format) {
+            case "cbor" -> json.copyWith(new CBORFactory());
+            case "smile" -> json.copyWith(new SmileFactory());
+            default -> json;
+        };
+
+        if (items == 1) {
+            response = ApiResponse.success(BenchmarkFixtures.executionDTO(1L));
+        } else {
+            List<PaymentExecutionDTO> executions = new ArrayList<>(items);
+            for (int i = 0; i < items; i++) {
+                executions.add(BenchmarkFixtures.executionDTO(i));
+            }
+            response = ApiResponse.success(executions);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.paymentsystem.exception;
+
+import com.example.paymentsystem.dto.ApiResponse;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error paths including construction of the exception, as a failing request would pay for them.
+ * Logging goes to a NOP appender (see logback-test.xml) so the numbers cover building log
+ * events but not console I/O.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private MethodParameter parameter;
+    private long id;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        parameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("target", PaymentOrderDTO.class), 0);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<Void>> resourceNotFound() {
+        return handler.handleResourceNotFoundException(
+                new ResourceNotFoundException("Payment order not found with ID: " + (++id)));
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<Void>> invalidOperation() {
+        return handler.handleInvalidOperationException(
+                new InvalidOperationException("Cannot update order in status: COMPLETED"));
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<Map<String, String>>> validationFailed() {
+        BeanPropertyBindingResult result = new BeanPropertyBindingResult(new PaymentOrderDTO(), "paymentOrderDTO");
+        result.addError(new FieldError("paymentOrderDTO", "customerId", "Customer ID is required"));
+        result.addError(new FieldError("paymentOrderDTO", "amount", "Amount must be greater than 0"));
+        return handler.handleValidationExceptions(new MethodArgumentNotValidException(parameter, result));
+    }
+
+    @SuppressWarnings("unused")
+    private void target(PaymentOrderDTO dto) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.paymentsystem.journal;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of journaling a committed transition and of rebuilding the status view on startup.
+ * {@code append} writes into 64MB segments and rolls as they fill; the page cache absorbs the
+ * writes, as it does between the scheduled forces in production. Each iteration starts from a
+ * fresh directory so disk use stays bounded. {@code replay} opens a journal of {@code records}
+ * transitions (200k executions moving through five statuses each).
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ExecutionJournalBenchmark {
+
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private static final ExecutionStatus[] LIFECYCLE = {
+            ExecutionStatus.INITIATED, ExecutionStatus.PROCESSING, ExecutionStatus.SUCCESS,
+            ExecutionStatus.SETTLED, ExecutionStatus.REVERSED
+    };
+
+    @State(Scope.Benchmark)
+    public static class AppendState {
+        Path directory;
+        ExecutionJournal journal;
+        long counter;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-append");
+            journal = new ExecutionJournal(directory, SEGMENT_BYTES);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            journal.close();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ReplayState {
+        @Param({"1000000"})
+        int records;
+
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-replay");
+            try (ExecutionJournal journal = new ExecutionJournal(directory, SEGMENT_BYTES)) {
+                for (int i = 0; i < records; i++) {
+                    journal.append(event(i / LIFECYCLE.length, i % LIFECYCLE.length));
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public JournalRecord append(AppendState state) {
+        long n = state.counter++;
+        return state.journal.append(event(n / LIFECYCLE.length, (int) (n % LIFECYCLE.length)));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, batchSize = 1)
+    @Measurement(iterations = 5, batchSize = 1)
+    public int replay(ReplayState state) throws IOException {
+        try (ExecutionJournal journal = new ExecutionJournal(state.directory, SEGMENT_BYTES)) {
+            return journal.getView().size();
+        }
+    }
+
+    private static PaymentExecutionStatusChangedEvent event(long execution, int step) {
+        return new PaymentExecutionStatusChangedEvent(
+                execution + 1, "EXE-" + (execution + 1), execution / 2 + 1, null, null,
+                step == 0 ? null : LIFECYCLE[step - 1], LIFECYCLE[step], LocalDateTime.MIN);
+    }
+}
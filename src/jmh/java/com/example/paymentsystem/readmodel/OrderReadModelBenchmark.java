@@ -0,0 +1,129 @@
+package com.example.paymentsystem.readmodel;
+
+import com.example.paymentsystem.BenchmarkFixtures;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.dto.PaymentOrderViewDTO;
+import com.example.paymentsystem.dto.ReadModelStatsDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import com.example.paymentsystem.event.PaymentOrderChangedEvent;
+import com.example.paymentsystem.shard.ShardRouter;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read model lookups over {@code orders} orders, ten per customer, half of them executed. Compare
+ * {@code getOrderById} with {@code MappingBenchmark.orderEntityToDTO}, which is only the mapping
+ * half of the database path it replaces. {@code customerTotal} sums amounts held as minor units;
+ * {@code customerTotalBigDecimal} sums the same orders as BigDecimal for comparison.
+ *
+ * Setup also measures the heap the model retains. Every string is a distinct copy, as it would be
+ * after loading from the database, so the measurement is not flattered by shared literals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Benchmark)
+public class OrderReadModelBenchmark {
+
+    @Param({"1000000"})
+    private int orders;
+
+    private OrderReadModel readModel;
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+        readModel = new OrderReadModel(null, null, ShardRouter.unsharded(), true, orders, 0);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= orders; id++) {
+            PaymentOrder order = distinctStrings(BenchmarkFixtures.order(id), id);
+            readModel.onOrderChanged(PaymentOrderChangedEvent.of(order));
+            if (id % 2 == 0) {
+                String reference = "EXE-" + String.format("%08X", id);
+                readModel.onExecutionStatusChanged(new PaymentExecutionStatusChangedEvent(id, reference, id,
+                        order.getOrderReference(), order.getCustomerId(), null, ExecutionStatus.SUCCESS, now));
+            }
+        }
+        long retained = usedHeap() - before;
+        ReadModelStatsDTO stats = readModel.getStats();
+        System.out.printf("%nRead model with %d orders: measured %d bytes/order (%d MB per million), "
+                        + "estimated %d bytes/order (%d MB per million)%n",
+                orders, retained / orders, retained * 1_000_000 / orders / (1 << 20),
+                stats.getEstimatedBytesPerOrder(), stats.getEstimatedBytesPerMillionOrders() / (1 << 20));
+    }
+
+    @Benchmark
+    public PaymentOrderDTO getOrderById() {
+        return readModel.findById(randomId()).orElseThrow().toOrderDTO();
+    }
+
+    @Benchmark
+    public PaymentOrderViewDTO getOrderViewByReference() {
+        return readModel.findByReference("ORD-" + String.format("%08X", randomId())).orElseThrow().toViewDTO();
+    }
+
+    @Benchmark
+    public List<PaymentOrderDTO> listByCustomer() {
+        return readModel.findByCustomerId("CUST" + randomId() % (orders / 10)).stream()
+                .map(OrderView::toOrderDTO)
+                .toList();
+    }
+
+    /**
+     * Customer total as the stats endpoint serves it; run with {@code -prof gc} to see that only
+     * the lookup key and the returned BigDecimal are allocated.
+     */
+    @Benchmark
+    public BigDecimal customerTotal() {
+        return readModel.sumAmount("CUST" + randomId() % (orders / 10), PaymentOrderStatus.PROCESSING);
+    }
+
+    /**
+     * The same total summed as BigDecimal, the way it was before amounts were held as minor units.
+     */
+    @Benchmark
+    public BigDecimal customerTotalBigDecimal() {
+        return readModel.findByCustomerId("CUST" + randomId() % (orders / 10)).stream()
+                .filter(view -> view.order().status() == PaymentOrderStatus.PROCESSING)
+                .map(view -> view.order().amount().toBigDecimal())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, orders + 1);
+    }
+
+    private PaymentOrder distinctStrings(PaymentOrder order, long id) {
+        order.setCustomerId("CUST" + id % (orders / 10));
+        order.setCustomerName(copy(order.getCustomerName()));
+        order.setCustomerEmail(copy(order.getCustomerEmail()));
+        order.setCurrency(copy(order.getCurrency()));
+        order.setBeneficiaryName(copy(order.getBeneficiaryName()));
+        order.setBeneficiaryAccount(copy(order.getBeneficiaryAccount()));
+        order.setBeneficiaryBank(copy(order.getBeneficiaryBank()));
+        order.setBeneficiaryBankCode(copy(order.getBeneficiaryBankCode()));
+        return order;
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.paymentsystem.reference;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reference generation against the previous UUID-substring scheme, and what the key order does
+ * to inserts into a unique index. {@code insert} writes batches of {@code BATCH} rows into an H2
+ * table with a unique reference column, the way orders are inserted; {@code random} keys are 13
+ * random base32 characters (the same length, so only the order differs) and {@code time-ordered}
+ * keys come from the generator. The table starts empty each iteration and grows through it.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ReferenceGeneratorBenchmark {
+
+    private static final int BATCH = 500;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    @State(Scope.Benchmark)
+    public static class GeneratorState {
+        final ReferenceGenerator generator = new ReferenceGenerator(System::currentTimeMillis, 1);
+    }
+
+    @State(Scope.Benchmark)
+    public static class InsertState {
+        @Param({"random", "time-ordered"})
+        String keys;
+
+        final ReferenceGenerator generator = new ReferenceGenerator(System::currentTimeMillis, 1);
+        Connection connection;
+        PreparedStatement insert;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws SQLException {
+            connection = DriverManager.getConnection("jdbc:h2:mem:reference-bench;DB_CLOSE_DELAY=-1", "sa", "");
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS refs");
+                statement.execute("CREATE TABLE refs (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "reference VARCHAR(32) NOT NULL UNIQUE)");
+            }
+            connection.commit();
+            insert = connection.prepareStatement("INSERT INTO refs (reference) VALUES (?)");
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws SQLException {
+            insert.close();
+            connection.close();
+        }
+
+        String next() {
+            return "random".equals(keys) ? randomReference() : generator.nextOrderReference();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String uuidSubstring() {
+        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Threads(4)
+    public String uuidSubstringContended() {
+        return uuidSubstring();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String timeOrdered(GeneratorState state) {
+        return state.generator.nextOrderReference();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Threads(4)
+    public String timeOrderedContended(GeneratorState state) {
+        return state.generator.nextOrderReference();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public int[] insert(InsertState state) throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            state.insert.setString(1, state.next());
+            state.insert.addBatch();
+        }
+        int[] counts = state.insert.executeBatch();
+        state.connection.commit();
+        return counts;
+    }
+
+    private static String randomReference() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] reference = new char[4 + ReferenceGenerator.ID_LENGTH];
+        "ORD-".getChars(0, 4, reference, 0);
+        for (int i = 4; i < reference.length; i++) {
+            reference[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(reference);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.paymentsystem.service.impl;
+
+import com.example.paymentsystem.BenchmarkFixtures;
+import com.example.paymentsystem.config.ModelMapperConfig;
+import com.example.paymentsystem.dto.PaymentExecutionDTO;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.entity.PaymentExecution;
+import com.example.paymentsystem.entity.PaymentOrder;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO conversion as done on every service read and write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private PaymentExecutionServiceImpl executionService;
+    private PaymentOrder order;
+    private PaymentExecution execution;
+    private PaymentOrderDTO orderDTO;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        executionService = new PaymentExecutionServiceImpl(null, null, null, null, modelMapper, null, null, null, null, null,
+                null, null);
+        order = BenchmarkFixtures.order(1L);
+        execution = BenchmarkFixtures.execution(1L, order);
+        orderDTO = BenchmarkFixtures.orderDTO(1L);
+    }
+
+    @Benchmark
+    public PaymentExecutionDTO executionConvertToDTO() {
+        return executionService.convertToDTO(execution);
+    }
+
+    @Benchmark
+    public PaymentOrderDTO orderEntityToDTO() {
+        return modelMapper.map(order, PaymentOrderDTO.class);
+    }
+
+    @Benchmark
+    public PaymentOrder orderDTOToEntity() {
+        return modelMapper.map(orderDTO, PaymentOrder.class);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.paymentsystem.service.impl;
+
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order status validation. Reference generation is measured in ReferenceGeneratorBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceHelpersBenchmark {
+
+    @Benchmark
+    public PaymentOrderStatus validateStatusTransitionAllowed() {
+        PaymentOrderServiceImpl.validateStatusTransition(PaymentOrderStatus.PENDING, PaymentOrderStatus.PROCESSING);
+        return PaymentOrderStatus.PROCESSING;
+    }
+
+    @Benchmark
+    public Object validateStatusTransitionRejected() {
+        try {
+            PaymentOrderServiceImpl.validateStatusTransition(PaymentOrderStatus.CANCELLED, PaymentOrderStatus.PENDING);
+            return null;
+        } catch (InvalidOperationException e) {
+            return e;
+        }
+    }
+}
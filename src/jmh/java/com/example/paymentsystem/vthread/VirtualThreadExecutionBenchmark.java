@@ -0,0 +1,110 @@
+package com.example.paymentsystem.vthread;
+
+import com.example.paymentsystem.BenchmarkFixtures;
+import com.example.paymentsystem.PaymentSystemApplication;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.reference.ReferenceGenerator;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.service.PaymentExecutionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent executePayment throughput on a platform pool the size of Tomcat's default (200)
+ * against a virtual thread per call. Each invocation starts {@code IN_FLIGHT} executions at once
+ * against the whole application, with a fixed 20ms gateway and an H2 database.
+ *
+ * An execution holds a database connection only for its claim and its outcome, not across the
+ * gateway call, so the gateway wait is spent on the calling thread and {@code threads} decides
+ * how many of those waits overlap. {@code poolSize} bounds the short database steps.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@State(Scope.Benchmark)
+public class VirtualThreadExecutionBenchmark {
+
+    private static final int IN_FLIGHT = 400;
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"10", "300"})
+    int poolSize;
+
+    ConfigurableApplicationContext context;
+    PaymentExecutionService executionService;
+    PaymentOrderRepository orderRepository;
+    ReferenceGenerator referenceGenerator;
+    ExecutorService executor;
+    List<Long> orderIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(threads);
+        // As arguments, since properties() only sets defaults that application.yml overrides
+        context = new SpringApplicationBuilder(PaymentSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.url=jdbc:h2:mem:vthread-bench-" + threads + "-" + poolSize,
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.datasource.hikari.connection-timeout=60000",
+                        "--payment.read-model.enabled=false",
+                        "--payment.journal.enabled=false",
+                        "--payment.outbox.relay-enabled=false",
+                        "--payment.gateway.simulator.latency.distribution=FIXED",
+                        "--payment.gateway.simulator.latency.fixed=20ms",
+                        "--payment.gateway.simulator.success-rate=1.0");
+        executionService = context.getBean(PaymentExecutionService.class);
+        orderRepository = context.getBean(PaymentOrderRepository.class);
+        referenceGenerator = context.getBean(ReferenceGenerator.class);
+        executor = virtual
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(200);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void createOrders() {
+        List<PaymentOrder> orders = new ArrayList<>(IN_FLIGHT);
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            PaymentOrder order = BenchmarkFixtures.order(i);
+            order.setId(null);
+            order.setOrderReference(referenceGenerator.nextOrderReference());
+            order.setStatus(PaymentOrderStatus.PENDING);
+            orders.add(order);
+        }
+        orderIds = orderRepository.saveAll(orders).stream().map(PaymentOrder::getId).toList();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(IN_FLIGHT)
+    public int executePayments() throws Exception {
+        List<Future<?>> calls = new ArrayList<>(IN_FLIGHT);
+        for (Long orderId : orderIds) {
+            calls.add(executor.submit(() -> executionService.executePayment(orderId)));
+        }
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        return calls.size();
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.paymentsystem.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are released on a fixed schedule at the target rate
+ * whether or not earlier ones have completed, so a slow server shows up as growing latency
+ * rather than as a quietly reduced arrival rate. Latency is measured from each request's
+ * scheduled start, which corrects for coordinated omission when the generator falls behind.
+ *
+ * The workload follows the create -> execute -> poll flow: created orders are queued for
+ * execution and execution references are kept for the get-by-reference polls.
+ */
+final class LoadGenerator {
+
+    private static final int RECENT_EXECUTIONS = 4096;
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService callbackExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Operation[] weightedOperations;
+
+    private final Queue<Long> ordersToExecute = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<String> recentExecutions = new AtomicReferenceArray<>(RECENT_EXECUTIONS);
+    private final AtomicLong executionsSeen = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private long measureFromNanos;
+
+    LoadGenerator(LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .executor(callbackExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        int total = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        weightedOperations = new Operation[total];
+        int index = 0;
+        for (Map.Entry<Operation, Integer> entry : config.mix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                weightedOperations[index++] = entry.getKey();
+            }
+        }
+    }
+
+    Map<Operation, EndpointStats> run() throws InterruptedException {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rps();
+        long start = System.nanoTime();
+        measureFromNanos = start + config.warmup().toNanos();
+        long end = measureFromNanos + config.duration().toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            dispatch(pick(), intended);
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        callbackExecutor.shutdownNow();
+        return stats;
+    }
+
+    int outstanding() {
+        return inFlight.get();
+    }
+
+    private Operation pick() {
+        Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+        // Keep the flow consistent while the pools are still empty
+        if (operation == Operation.EXECUTE_PAYMENT && ordersToExecute.isEmpty()) {
+            return Operation.CREATE_ORDER;
+        }
+        if (operation == Operation.GET_EXECUTION && executionsSeen.get() == 0) {
+            return Operation.LIST_ORDERS;
+        }
+        return operation;
+    }
+
+    private void dispatch(Operation picked, long intendedStart) {
+        Operation operation = picked;
+        HttpRequest request = request(operation);
+        if (request == null) {
+            // The pool emptied between pick() and here
+            operation = operation == Operation.EXECUTE_PAYMENT ? Operation.CREATE_ORDER : Operation.LIST_ORDERS;
+            request = request(operation);
+        }
+
+        EndpointStats endpoint = stats.get(operation);
+        boolean measured = intendedStart >= measureFromNanos;
+        if (inFlight.get() >= config.maxInFlight()) {
+            if (measured) {
+                endpoint.recordDropped();
+            }
+            return;
+        }
+
+        Operation sent = operation;
+        inFlight.incrementAndGet();
+        long actualStart = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, failure) -> {
+                    long endNanos = System.nanoTime();
+                    inFlight.decrementAndGet();
+                    boolean success = failure == null && response.statusCode() / 100 == 2;
+                    if (measured) {
+                        endpoint.record(intendedStart, actualStart, endNanos, success);
+                    }
+                    if (success) {
+                        remember(sent, response.body());
+                    }
+                });
+    }
+
+    /**
+     * @return null when the operation needs an order or execution that does not exist yet
+     */
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case CREATE_ORDER -> HttpRequest.newBuilder(uri("/v1/payment-orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(newOrderJson()))
+                    .build();
+            case EXECUTE_PAYMENT -> {
+                Long orderId = ordersToExecute.poll();
+                yield orderId == null ? null
+                        : HttpRequest.newBuilder(uri("/v1/payment-executions/execute/" + orderId))
+                                .POST(HttpRequest.BodyPublishers.noBody())
+                                .build();
+            }
+            case GET_EXECUTION -> {
+                long seen = Math.min(executionsSeen.get(), RECENT_EXECUTIONS);
+                String reference = seen == 0 ? null
+                        : recentExecutions.get(ThreadLocalRandom.current().nextInt((int) seen));
+                yield reference == null ? null
+                        : HttpRequest.newBuilder(uri("/v1/payment-executions/reference/" + reference)).GET().build();
+            }
+            case LIST_ORDERS -> HttpRequest.newBuilder(uri("/v1/payment-orders/customer/" + randomCustomer()))
+                    .GET()
+                    .build();
+        };
+    }
+
+    private void remember(Operation operation, byte[] body) {
+        if (operation != Operation.CREATE_ORDER && operation != Operation.EXECUTE_PAYMENT) {
+            return;
+        }
+        try {
+            JsonNode data = objectMapper.readTree(body).path("data");
+            if (operation == Operation.CREATE_ORDER && data.hasNonNull("id")) {
+                ordersToExecute.offer(data.get("id").asLong());
+            } else if (data.hasNonNull("executionReference")) {
+                long slot = executionsSeen.getAndIncrement() % RECENT_EXECUTIONS;
+                recentExecutions.set((int) slot, data.get("executionReference").asText());
+            }
+        } catch (IOException e) {
+            // Response bodies are only mined for ids; a malformed one just isn't reused
+        }
+    }
+
+    private String newOrderJson() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        BigDecimal amount = BigDecimal.valueOf(random.nextDouble(1, 5_000)).setScale(2, RoundingMode.HALF_UP);
+        return """
+                {"customerId":"%s","customerName":"Load Test","customerEmail":"load.test@example.com",
+                 "amount":%s,"currency":"USD","paymentMethod":"CREDIT_CARD","description":"Load test order",
+                 "beneficiaryName":"ABC Corp","beneficiaryAccount":"1234567890","beneficiaryBank":"XYZ Bank"}
+                """.formatted(randomCustomer(), amount.toPlainString());
+    }
+
+    private String randomCustomer() {
+        return "LOAD" + ThreadLocalRandom.current().nextInt(config.customers());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+}
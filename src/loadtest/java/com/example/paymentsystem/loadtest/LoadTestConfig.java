@@ -0,0 +1,53 @@
+package com.example.paymentsystem.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from system properties:
+ *
+ * <pre>
+ * loadtest.rps       target arrival rate, requests per second (default 50)
+ * loadtest.duration  measured run length, ISO-8601 (default PT60S)
+ * loadtest.warmup    run length discarded before measuring (default PT15S)
+ * loadtest.mix       operation weights, e.g. create:30,execute:20,get:30,list:20
+ * loadtest.customers distinct customer ids to spread orders over (default 100)
+ * loadtest.max-in-flight  requests outstanding before new arrivals are dropped (default 10000)
+ * loadtest.output    directory for .hgrm percentile files (default target/loadtest)
+ * </pre>
+ */
+record LoadTestConfig(double rps, Duration duration, Duration warmup, Map<Operation, Integer> mix,
+                      int customers, int maxInFlight, Path output) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Double.parseDouble(System.getProperty("loadtest.rps", "50")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                parseMix(System.getProperty("loadtest.mix", "create:30,execute:20,get:30,list:20")),
+                Integer.getInteger("loadtest.customers", 100),
+                Integer.getInteger("loadtest.max-in-flight", 10_000),
+                Path.of(System.getProperty("loadtest.output", "target/loadtest")));
+    }
+
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries must look like op:weight, got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights must not be negative: " + entry);
+            }
+            mix.put(Operation.fromKey(parts[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix must have at least one positive weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.paymentsystem.loadtest;
+
+import com.example.paymentsystem.PaymentSystemApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Starts the application on a random port with an in-memory H2 database and the simulated
+ * gateway, drives the configured workload against it and prints per-endpoint percentiles.
+ * Full percentile distributions are written as .hgrm files for plotting.
+ *
+ * Any application property can be overridden with a system property, e.g.
+ * -Dserver.tomcat.threads.max=400.
+ */
+public final class LoadTestRunner {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        // System properties outrank application.yml; anything set with -D already wins
+        Map.of("server.port", "0",
+                "spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "spring.h2.console.enabled", "false",
+                "payment.rate-limit.enabled", "false",
+                "logging.level.root", "WARN")
+                .forEach(System.getProperties()::putIfAbsent);
+
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(PaymentSystemApplication.class).run(args);
+        int exitCode = 0;
+        try {
+            String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port")
+                    + app.getEnvironment().getProperty("server.servlet.context-path", "");
+            System.out.printf("Load test against %s: %.1f req/s for %s after %s warmup, mix %s%n",
+                    baseUrl, config.rps(), config.duration(), config.warmup(), config.mix());
+
+            LoadGenerator generator = new LoadGenerator(config, baseUrl);
+            Map<Operation, EndpointStats> results = generator.run();
+            if (generator.outstanding() > 0) {
+                System.out.printf("%d requests still outstanding after the drain timeout%n", generator.outstanding());
+                exitCode = 1;
+            }
+            report(config, results);
+        } finally {
+            app.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private static void report(LoadTestConfig config, Map<Operation, EndpointStats> results) throws IOException {
+        Files.createDirectories(config.output());
+        double seconds = config.duration().toNanos() / 1e9;
+
+        System.out.println();
+        System.out.println("Response time (from scheduled start, coordinated-omission corrected), ms");
+        System.out.printf("%-10s %8s %8s %7s %9s %9s %9s %9s %9s %9s %12s%n",
+                "operation", "count", "req/s", "errors", "dropped", "p50", "p90", "p99", "p99.9", "max",
+                "svc p99");
+
+        long total = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : results.entrySet()) {
+            Operation operation = entry.getKey();
+            EndpointStats stats = entry.getValue();
+            Histogram response = stats.responseTimes();
+            Histogram service = stats.serviceTimes();
+            total += response.getTotalCount();
+            if (response.getTotalCount() == 0 && stats.dropped() == 0) {
+                continue;
+            }
+
+            System.out.printf("%-10s %8d %8.1f %7d %9d %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                    operation.key(), response.getTotalCount(), response.getTotalCount() / seconds,
+                    stats.errors(), stats.dropped(),
+                    millis(response, 50), millis(response, 90), millis(response, 99), millis(response, 99.9),
+                    response.getMaxValue() / NANOS_PER_MILLI, millis(service, 99));
+
+            write(config.output().resolve(operation.key() + "-response.hgrm"), response);
+            write(config.output().resolve(operation.key() + "-service.hgrm"), service);
+        }
+        System.out.printf("%nAchieved %.1f req/s of %.1f target. Percentile files in %s%n",
+                total / seconds, config.rps(), config.output().toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+}
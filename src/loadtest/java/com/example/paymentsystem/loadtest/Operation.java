@@ -0,0 +1,30 @@
+package com.example.paymentsystem.loadtest;
+
+/**
+ * Requests the load generator can issue. Each maps onto one API endpoint.
+ */
+enum Operation {
+    CREATE_ORDER("create"),
+    EXECUTE_PAYMENT("execute"),
+    GET_EXECUTION("get"),
+    LIST_ORDERS("list");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of create, execute, get, list");
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.paymentsystem.config;
+
+import com.example.paymentsystem.entity.PaymentMethod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Behaviour of the simulated payment gateway. Each call picks a provider by weight, sleeps for a
+ * latency sampled from that provider's distribution and is approved with probability
+ * {@code provider success rate × payment method success rate}. Timeouts and errors can be
+ * injected on top. The defaults reproduce the original mock: one provider, a fixed 1s and 80%
+ * approvals.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.gateway.simulator")
+public class GatewaySimulatorProperties {
+
+    private Latency latency = new Latency();
+
+    /** Approval probability for providers without their own rate */
+    private double successRate = 0.8;
+
+    /** Multiplier on the provider's rate per payment method; methods not listed use 1.0 */
+    private Map<PaymentMethod, Double> methodSuccessRates = new EnumMap<>(PaymentMethod.class);
+
+    /** Calls that would take longer fail with GATEWAY_TIMEOUT after this long */
+    private Duration timeout = Duration.ofSeconds(30);
+
+    /** Fraction of calls that hang until the timeout regardless of their sampled latency */
+    private double timeoutRate = 0.0;
+
+    /** Fraction of calls that fail with GATEWAY_ERROR after their sampled latency */
+    private double errorRate = 0.0;
+
+    /** Providers by name; when none are configured every call goes to MOCK_GATEWAY */
+    private Map<String, Provider> providers = new LinkedHashMap<>();
+
+    public enum Distribution {
+        FIXED, LOG_NORMAL, BIMODAL
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Latency {
+
+        private Distribution distribution = Distribution.FIXED;
+
+        /** FIXED: every call takes this long */
+        private Duration fixed = Duration.ofSeconds(1);
+
+        /** LOG_NORMAL and the body of BIMODAL: median latency */
+        private Duration median = Duration.ofMillis(250);
+
+        /** LOG_NORMAL and the body of BIMODAL: standard deviation of ln(latency) */
+        private double sigma = 0.5;
+
+        /** BIMODAL: fraction of calls drawn from the tail instead of the body */
+        private double tailProbability = 0.02;
+
+        /** BIMODAL: median latency of the tail */
+        private Duration tailMedian = Duration.ofSeconds(3);
+
+        /** BIMODAL: standard deviation of ln(latency) in the tail */
+        private double tailSigma = 0.3;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Provider {
+
+        /** Relative share of calls routed to this provider */
+        private double weight = 1.0;
+
+        /** Overrides {@code success-rate} when set */
+        private Double successRate;
+
+        /** Overrides {@code latency} when set */
+        private Latency latency;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.paymentsystem.config;
+
+import com.example.paymentsystem.service.LatencySloService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times every request that reached a handler and records it under its route (method and path
+ * pattern), so /v1/payment-orders/1 and /v1/payment-orders/2 share a histogram. Requests that
+ * matched no handler are not recorded, which keeps arbitrary URLs from creating routes. Requests
+ * that went asynchronous (event streams) are skipped, since their response is still open.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class LatencySloFilter extends OncePerRequestFilter {
+
+    private final LatencySloService latencySloService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null && !request.isAsyncStarted()) {
+                latencySloService.record(request.getMethod() + " " + pattern, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.paymentsystem.config;
+
+import com.example.paymentsystem.outbox.JsonLinesOutboxSink;
+import com.example.paymentsystem.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * Local file log until a broker is wired in; defining another OutboxSink bean replaces it.
+     */
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    public JsonLinesOutboxSink jsonLinesOutboxSink(ObjectMapper objectMapper,
+                                                   @Value("${payment.outbox.file}") Path file) {
+        return new JsonLinesOutboxSink(objectMapper, file);
+    }
+}
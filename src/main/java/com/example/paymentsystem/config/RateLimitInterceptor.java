@@ -0,0 +1,77 @@
+package com.example.paymentsystem.config;
+
+import com.example.paymentsystem.exception.ErrorCode;
+import com.example.paymentsystem.exception.RateLimitExceededException;
+import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.service.OrderKeyResolver;
+import com.example.paymentsystem.service.RateLimiterService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the execution endpoints. Runs before the controller, so a throttled
+ * request never reaches the gateway. The bucket is picked by the customer and payment method of
+ * the order named in the path, so a caller cannot pick a laxer bucket or drain someone else's.
+ * An unknown order or execution is rejected here with 404.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiterService rateLimiterService;
+    private final OrderKeyResolver orderKeyResolver;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables == null) {
+            return true;
+        }
+        OrderKeyResolver.OrderKey key;
+        if (pathVariables.containsKey("orderId")) {
+            Long orderId = parseId(pathVariables.get("orderId"));
+            if (orderId == null) {
+                return true;
+            }
+            key = orderKeyResolver.forOrder(orderId).orElseThrow(() -> new ResourceNotFoundException(
+                    ErrorCode.ORDER_NOT_FOUND, "Payment order not found with ID: " + orderId));
+        } else {
+            Long executionId = parseId(pathVariables.get("id"));
+            if (executionId == null) {
+                return true;
+            }
+            key = orderKeyResolver.forExecution(executionId).orElseThrow(() -> new ResourceNotFoundException(
+                    ErrorCode.EXECUTION_NOT_FOUND, "Payment execution not found with ID: " + executionId));
+        }
+
+        long waitNanos = rateLimiterService.tryAcquire(key.customerId(), key.paymentMethod());
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            // Logged once, by the exception handler
+            throw new RateLimitExceededException(
+                    "Rate limit exceeded for customer " + key.customerId() + ", retry after " + retryAfterSeconds + "s",
+                    retryAfterSeconds);
+        }
+        return true;
+    }
+
+    /**
+     * A malformed id is left to the controller, which rejects it with 400.
+     */
+    private static Long parseId(String value) {
+        try {
+            return value == null ? null : Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
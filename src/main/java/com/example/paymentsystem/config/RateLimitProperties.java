@@ -0,0 +1,39 @@
+package com.example.paymentsystem.config;
+
+import com.example.paymentsystem.entity.PaymentMethod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Token bucket limits for execution endpoints, per customer. Payment methods without an entry
+ * in {@code methods} use the default bucket.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Limit defaults = new Limit(20, 10.0);
+    private Map<PaymentMethod, Limit> methods = new EnumMap<>(PaymentMethod.class);
+
+    public Limit limitFor(PaymentMethod method) {
+        return method != null ? methods.getOrDefault(method, defaults) : defaults;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /** Largest burst admitted at once */
+        private int capacity;
+
+        /** Sustained requests per second */
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.paymentsystem.config;
+
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.shard.ShardRoutingDataSource;
+import com.example.paymentsystem.shard.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single spring.datasource with one pool per {@code payment.sharding.shards} entry
+ * behind a routing DataSource. Only active with {@code payment.sharding.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource dataSource(ShardingProperties properties,
+                                             @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            // The request-scoped session would keep the first shard's connection for the request
+            throw new IllegalStateException("payment.sharding requires spring.jpa.open-in-view=false");
+        }
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("payment.sharding.enabled is set but payment.sharding.shards is empty");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            pool.setPoolName("shard-" + i);
+            shards.add(pool);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                         ShardRoutingDataSource dataSource,
+                                                         LeaseManager leaseManager,
+                                                         ShardingProperties properties) {
+        return new ShardSchemaInitializer(entityManagerFactory, dataSource, leaseManager, properties.getIdStride());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.paymentsystem.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Databases that orders and executions are spread over, by customer. The first shard is the home
+ * shard: it also holds the tables that are not sharded (idempotency records, job leases). Shards
+ * are placed on the hash ring by name, so appending a shard moves about 1/N of the customers and
+ * leaves the others where they are; their existing rows have to be moved by hand.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    /** Points per shard on the hash ring; more points give a more even spread */
+    private int virtualNodes = 128;
+
+    /**
+     * Step between the ids one shard's identity columns hand out, and so the largest number of
+     * shards. Shard i issues ids i + 1, i + 1 + stride, ... which tells the shard from the id.
+     */
+    private int idStride = 64;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shard {
+
+        /** Position on the hash ring; defaults to shard-i. Changing it moves the shard's customers */
+        private String name;
+
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.paymentsystem.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latency objectives per route. Routes are the HTTP method and the handler's path pattern
+ * (without the servlet context path), e.g. {@code POST /v1/payment-executions/execute/{orderId}}.
+ * Routes without a target are still measured, they just can never be in violation.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.slo")
+public class SloProperties {
+
+    private boolean enabled = true;
+
+    /** Width of one histogram slice; the 1m, 5m and 15m windows advance in steps of this size */
+    private long sliceMs = 15_000;
+
+    private List<Target> targets = new ArrayList<>();
+
+    public Target targetFor(String route) {
+        for (Target target : targets) {
+            if (target.getRoute().equals(route)) {
+                return target;
+            }
+        }
+        return null;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Target {
+
+        private String route;
+
+        /** Upper bound for the 95th percentile, or null for no p95 objective */
+        private Duration p95;
+
+        /** Upper bound for the 99th percentile, or null for no p99 objective */
+        private Duration p99;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.paymentsystem.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements each request issues and compares them with the configured budget.
+ * In LOG mode an overrun is logged once the request completes; in FAIL mode the statement that
+ * goes over the budget throws, which fails the request. The count is left in the request
+ * attribute {@link #STATEMENT_COUNT_ATTRIBUTE} so tests can assert on it.
+ */
+@Component
+@Slf4j
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_ATTRIBUTE = SqlBudgetFilter.class.getName() + ".statementCount";
+
+    public enum Mode {
+        OFF, LOG, FAIL
+    }
+
+    private final Mode mode;
+    private final int maxStatements;
+
+    public SqlBudgetFilter(@Value("${payment.sql-budget.mode:LOG}") Mode mode,
+                           @Value("${payment.sql-budget.max-statements:25}") int maxStatements) {
+        this.mode = mode;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (mode == Mode.OFF) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        SqlStatementCounter.start(mode == Mode.FAIL ? maxStatements : -1);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            request.setAttribute(STATEMENT_COUNT_ATTRIBUTE, statements);
+            if (statements > maxStatements) {
+                log.warn("{} {} issued {} SQL statements, budget is {}",
+                        request.getMethod(), request.getRequestURI(), statements, maxStatements);
+            }
+        }
+    }
+}
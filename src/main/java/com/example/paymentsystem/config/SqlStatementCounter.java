@@ -0,0 +1,85 @@
+package com.example.paymentsystem.config;
+
+import com.example.paymentsystem.exception.SqlBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start}
+ * and {@link #stop}. Registered through hibernate.session_factory.statement_inspector, so
+ * Hibernate instantiates it and the per-request state has to live in a static ThreadLocal.
+ *
+ * Statements issued through JdbcTemplate (bulk order import) bypass Hibernate and are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Budget> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @param failAbove statement count that makes the next statement throw, or -1 to only count
+     */
+    public static void start(int failAbove) {
+        CURRENT.set(new Budget(failAbove));
+    }
+
+    /**
+     * @return statements counted since {@link #start}, or 0 if counting was not started
+     */
+    public static int stop() {
+        Budget budget = CURRENT.get();
+        CURRENT.remove();
+        return budget != null ? budget.count : 0;
+    }
+
+    public static int current() {
+        Budget budget = CURRENT.get();
+        return budget != null ? budget.count : 0;
+    }
+
+    /**
+     * Makes statements the task issues on another thread count against the budget started on
+     * this one. The submitting thread must wait for the task, since the count is not synchronized.
+     */
+    public static Runnable propagate(Runnable task) {
+        Budget budget = CURRENT.get();
+        if (budget == null) {
+            return task;
+        }
+        return () -> {
+            Budget previous = CURRENT.get();
+            CURRENT.set(budget);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Budget budget = CURRENT.get();
+        if (budget != null) {
+            budget.count++;
+            if (budget.failAbove >= 0 && budget.count > budget.failAbove) {
+                throw new SqlBudgetExceededException(
+                        "Request exceeded its SQL budget (payment.sql-budget.max-statements) of "
+                                + budget.failAbove + " statements");
+            }
+        }
+        return sql;
+    }
+
+    private static final class Budget {
+
+        private final int failAbove;
+        private int count;
+
+        private Budget(int failAbove) {
+            this.failAbove = failAbove;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.paymentsystem.config;
+
+import com.example.paymentsystem.tracing.JsonLinesSpanExporter;
+import com.example.paymentsystem.tracing.TailSamplingSpanExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Picked up by the auto-configured application task executor, so @Async methods and async
+     * MVC handlers continue the trace (and MDC trace ids) of the thread that submitted them.
+     */
+    @Bean
+    public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    /**
+     * Spring Boot wraps every SpanExporter bean in its batch span processor.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "payment.tracing.export-file")
+    public SpanExporter paymentSpanExporter(
+            ObjectMapper objectMapper,
+            @Value("${payment.tracing.export-file}") Path exportFile,
+            @Value("${payment.tracing.slow-threshold:PT2S}") Duration slowThreshold,
+            @Value("${payment.tracing.baseline-ratio:0.01}") double baselineRatio,
+            @Value("${payment.tracing.max-pending-traces:10000}") int maxPendingTraces,
+            @Value("${payment.tracing.pending-timeout:PT30S}") Duration pendingTimeout) {
+        return new TailSamplingSpanExporter(new JsonLinesSpanExporter(objectMapper, exportFile),
+                slowThreshold.toNanos(), baselineRatio, maxPendingTraces, pendingTimeout.toNanos());
+    }
+}
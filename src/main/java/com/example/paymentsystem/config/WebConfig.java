@@ -0,0 +1,50 @@
+package com.example.paymentsystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    /**
+     * Spring MVC already registers CBOR (application/cbor) and Smile (application/x-jackson-smile)
+     * converters when their Jackson modules are on the classpath, but with a mapper of their own.
+     * They are swapped in place for ones reusing the application's ObjectMapper configuration, so
+     * DTOs serialize exactly as they do in JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> {
+            if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+                return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+            }
+            if (converter instanceof MappingJackson2SmileHttpMessageConverter) {
+                return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+            }
+            return converter;
+        });
+    }
+
+    /**
+     * Only the endpoints that hit the payment gateway are rate limited.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/v1/payment-executions/execute/*", "/v1/payment-executions/*/retry");
+    }
+}
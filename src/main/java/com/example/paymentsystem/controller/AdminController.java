@@ -0,0 +1,125 @@
+package com.example.paymentsystem.controller;
+
+import com.example.paymentsystem.dispatch.ExecutionLanes;
+import com.example.paymentsystem.dto.ApiResponse;
+import com.example.paymentsystem.dto.ExecutionLanesStatsDTO;
+import com.example.paymentsystem.dto.HibernateStatisticsDTO;
+import com.example.paymentsystem.dto.JobLeaseDTO;
+import com.example.paymentsystem.dto.JournalStatsDTO;
+import com.example.paymentsystem.dto.RateLimitBucketDTO;
+import com.example.paymentsystem.dto.ReadModelStatsDTO;
+import com.example.paymentsystem.dto.RouteLatencyDTO;
+import com.example.paymentsystem.dto.VirtualThreadStatsDTO;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.journal.ExecutionJournal;
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.service.HibernateStatisticsService;
+import com.example.paymentsystem.service.LatencySloService;
+import com.example.paymentsystem.service.RateLimiterService;
+import com.example.paymentsystem.vthread.PinningMonitor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Administration", description = "Operational APIs")
+public class AdminController {
+
+    private final RateLimiterService rateLimiterService;
+    private final HibernateStatisticsService hibernateStatisticsService;
+    private final LatencySloService latencySloService;
+    private final ObjectProvider<ExecutionJournal> executionJournal;
+    private final OrderReadModel orderReadModel;
+    private final ExecutionLanes executionLanes;
+    private final LeaseManager leaseManager;
+    private final PinningMonitor pinningMonitor;
+
+    @GetMapping("/rate-limits")
+    @Operation(summary = "Get current rate limit bucket levels, most depleted first")
+    public ResponseEntity<ApiResponse<List<RateLimitBucketDTO>>> getRateLimitBuckets() {
+        return ResponseEntity.ok(ApiResponse.success(rateLimiterService.getBuckets()));
+    }
+
+    @GetMapping("/hibernate-stats")
+    @Operation(summary = "Get Hibernate statistics: query counts, slowest queries, entity loads and cache ratios")
+    public ResponseEntity<ApiResponse<HibernateStatisticsDTO>> getHibernateStatistics(
+            @RequestParam(defaultValue = "10") int slowest) {
+        return ResponseEntity.ok(ApiResponse.success(hibernateStatisticsService.getStatistics(slowest)));
+    }
+
+    @DeleteMapping("/hibernate-stats")
+    @Operation(summary = "Reset Hibernate statistics")
+    public ResponseEntity<ApiResponse<Void>> resetHibernateStatistics() {
+        hibernateStatisticsService.reset();
+        return ResponseEntity.ok(ApiResponse.success("Hibernate statistics reset", null));
+    }
+
+    @GetMapping("/slo")
+    @Operation(summary = "Get per-route latency percentiles over 1m, 5m and 15m windows, SLO violations first")
+    public ResponseEntity<ApiResponse<List<RouteLatencyDTO>>> getLatencySlo(
+            @RequestParam(defaultValue = "false") boolean violatedOnly) {
+        List<RouteLatencyDTO> report = latencySloService.getReport();
+        if (violatedOnly) {
+            report = report.stream().filter(RouteLatencyDTO::isViolated).toList();
+        }
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
+
+    @GetMapping("/journal")
+    @Operation(summary = "Get execution journal segments, record counts, startup replay rate and status view")
+    public ResponseEntity<ApiResponse<JournalStatsDTO>> getJournalStats() {
+        ExecutionJournal journal = executionJournal.getIfAvailable();
+        if (journal == null) {
+            throw new ResourceNotFoundException("Execution journal is disabled");
+        }
+        return ResponseEntity.ok(ApiResponse.success(journal.getStats()));
+    }
+
+    @GetMapping("/read-model")
+    @Operation(summary = "Get order read model size, status breakdown and estimated memory per million orders")
+    public ResponseEntity<ApiResponse<ReadModelStatsDTO>> getReadModelStats() {
+        return ResponseEntity.ok(ApiResponse.success(orderReadModel.getStats()));
+    }
+
+    @PostMapping("/read-model/rebuild")
+    @Operation(summary = "Reload the order read model from the database")
+    public ResponseEntity<ApiResponse<ReadModelStatsDTO>> rebuildReadModel() {
+        if (!orderReadModel.isEnabled()) {
+            throw new InvalidOperationException("Order read model is disabled");
+        }
+        orderReadModel.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Order read model rebuilt", orderReadModel.getStats()));
+    }
+
+    @GetMapping("/execution-lanes")
+    @Operation(summary = "Get execution lane queue depths, completed work and rejections")
+    public ResponseEntity<ApiResponse<ExecutionLanesStatsDTO>> getExecutionLaneStats() {
+        return ResponseEntity.ok(ApiResponse.success(executionLanes.getStats()));
+    }
+
+    @GetMapping("/leases")
+    @Operation(summary = "Get background job leases: owner, fencing token, expiry and whether this node holds them")
+    public ResponseEntity<ApiResponse<List<JobLeaseDTO>>> getLeases() {
+        return ResponseEntity.ok(ApiResponse.success(leaseManager.getLeases()));
+    }
+
+    @GetMapping("/virtual-threads")
+    @Operation(summary = "Get whether requests run on virtual threads and where they were pinned to a carrier")
+    public ResponseEntity<ApiResponse<VirtualThreadStatsDTO>> getVirtualThreadStats() {
+        return ResponseEntity.ok(ApiResponse.success(pinningMonitor.getStats()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.paymentsystem.controller;
+
+import com.example.paymentsystem.dto.ApiResponse;
+import com.example.paymentsystem.dto.PaymentOrderViewDTO;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.service.OrderViewService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/payment-order-views")
+@RequiredArgsConstructor
+@Tag(name = "Payment Order Views", description = "Orders with their latest execution, served from the read model")
+public class OrderViewController {
+
+    private final OrderViewService orderViewService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get an order with its latest execution by order ID")
+    public ResponseEntity<ApiResponse<PaymentOrderViewDTO>> getOrderView(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(orderViewService.getOrderView(id)));
+    }
+
+    @GetMapping("/reference/{orderReference}")
+    @Operation(summary = "Get an order with its latest execution by order reference")
+    public ResponseEntity<ApiResponse<PaymentOrderViewDTO>> getOrderViewByReference(
+            @PathVariable String orderReference) {
+        return ResponseEntity.ok(ApiResponse.success(orderViewService.getOrderViewByReference(orderReference)));
+    }
+
+    @GetMapping("/customer/{customerId}")
+    @Operation(summary = "Get a customer's orders with their latest executions")
+    public ResponseEntity<ApiResponse<List<PaymentOrderViewDTO>>> getOrderViewsByCustomerId(
+            @PathVariable String customerId) {
+        return ResponseEntity.ok(ApiResponse.success(orderViewService.getOrderViewsByCustomerId(customerId)));
+    }
+
+    @GetMapping("/status/{status}")
+    @Operation(summary = "Get orders in a status with their latest executions")
+    public ResponseEntity<ApiResponse<List<PaymentOrderViewDTO>>> getOrderViewsByStatus(
+            @PathVariable PaymentOrderStatus status) {
+        return ResponseEntity.ok(ApiResponse.success(orderViewService.getOrderViewsByStatus(status)));
+    }
+}
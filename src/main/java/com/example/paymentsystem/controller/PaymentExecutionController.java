@@ -1,15 +1,21 @@
 package com.example.paymentsystem.controller;
 
+import com.example.paymentsystem.dispatch.ExecutionLanes;
 import com.example.paymentsystem.dto.ApiResponse;
+import com.example.paymentsystem.dto.PaymentExecutionCriteria;
 import com.example.paymentsystem.dto.PaymentExecutionDTO;
 import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.service.ExecutionEventStreamService;
+import com.example.paymentsystem.service.IdempotencyService;
 import com.example.paymentsystem.service.PaymentExecutionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -20,11 +26,19 @@ import java.util.List;
 public class PaymentExecutionController {
 
     private final PaymentExecutionService executionService;
+    private final ExecutionEventStreamService eventStreamService;
+    private final IdempotencyService idempotencyService;
+    private final ExecutionLanes executionLanes;
 
     @PostMapping("/execute/{orderId}")
     @Operation(summary = "Execute payment for an order")
-    public ResponseEntity<ApiResponse<PaymentExecutionDTO>> executePayment(@PathVariable Long orderId) {
-        PaymentExecutionDTO execution = executionService.executePayment(orderId);
+    public ResponseEntity<ApiResponse<PaymentExecutionDTO>> executePayment(
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @PathVariable Long orderId) {
+
+        PaymentExecutionDTO execution = idempotencyService.execute("execute-payment", idempotencyKey,
+                String.valueOf(orderId), PaymentExecutionDTO.class,
+                () -> executionService.executePayment(orderId));
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Payment execution initiated", execution));
@@ -48,47 +62,72 @@ public class PaymentExecutionController {
 
     @GetMapping("/order/{orderId}")
     @Operation(summary = "Get all executions for an order")
-    public ResponseEntity<ApiResponse<List<PaymentExecutionDTO>>> getExecutionsByOrderId(
-            @PathVariable Long orderId) {
+    public ResponseEntity<ApiResponse<List<?>>> getExecutionsByOrderId(
+            @PathVariable Long orderId,
+            @RequestParam(required = false) List<String> fields) {
         
-        List<PaymentExecutionDTO> executions = executionService.getExecutionsByOrderId(orderId);
+        List<?> executions = fields == null
+                ? executionService.getExecutionsByOrderId(orderId)
+                : executionService.getExecutionFields(PaymentExecutionCriteria.byOrderId(orderId), fields);
         return ResponseEntity.ok(ApiResponse.success(executions));
     }
 
+    @GetMapping(value = "/order/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream execution status changes for an order")
+    public SseEmitter streamExecutionEventsByOrderId(@PathVariable Long orderId) {
+        return eventStreamService.subscribeToOrder(orderId);
+    }
+
     @GetMapping("/order-reference/{orderReference}")
     @Operation(summary = "Get all executions for an order by reference")
-    public ResponseEntity<ApiResponse<List<PaymentExecutionDTO>>> getExecutionsByOrderReference(
-            @PathVariable String orderReference) {
+    public ResponseEntity<ApiResponse<List<?>>> getExecutionsByOrderReference(
+            @PathVariable String orderReference,
+            @RequestParam(required = false) List<String> fields) {
         
-        List<PaymentExecutionDTO> executions = executionService.getExecutionsByOrderReference(orderReference);
+        List<?> executions = fields == null
+                ? executionService.getExecutionsByOrderReference(orderReference)
+                : executionService.getExecutionFields(PaymentExecutionCriteria.byOrderReference(orderReference), fields);
         return ResponseEntity.ok(ApiResponse.success(executions));
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Get executions by status")
-    public ResponseEntity<ApiResponse<List<PaymentExecutionDTO>>> getExecutionsByStatus(
-            @PathVariable ExecutionStatus status) {
+    public ResponseEntity<ApiResponse<List<?>>> getExecutionsByStatus(
+            @PathVariable ExecutionStatus status,
+            @RequestParam(required = false) List<String> fields) {
         
-        List<PaymentExecutionDTO> executions = executionService.getExecutionsByStatus(status);
+        List<?> executions = fields == null
+                ? executionService.getExecutionsByStatus(status)
+                : executionService.getExecutionFields(PaymentExecutionCriteria.byStatus(status), fields);
         return ResponseEntity.ok(ApiResponse.success(executions));
     }
 
     @GetMapping("/customer/{customerId}")
     @Operation(summary = "Get executions by customer ID")
-    public ResponseEntity<ApiResponse<List<PaymentExecutionDTO>>> getExecutionsByCustomerId(
-            @PathVariable String customerId) {
+    public ResponseEntity<ApiResponse<List<?>>> getExecutionsByCustomerId(
+            @PathVariable String customerId,
+            @RequestParam(required = false) List<String> fields) {
         
-        List<PaymentExecutionDTO> executions = executionService.getExecutionsByCustomerId(customerId);
+        List<?> executions = fields == null
+                ? executionService.getExecutionsByCustomerId(customerId)
+                : executionService.getExecutionFields(PaymentExecutionCriteria.byCustomerId(customerId), fields);
         return ResponseEntity.ok(ApiResponse.success(executions));
     }
 
+    @GetMapping(value = "/customer/{customerId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream execution status changes for a customer")
+    public SseEmitter streamExecutionEventsByCustomerId(@PathVariable String customerId) {
+        return eventStreamService.subscribeToCustomer(customerId);
+    }
+
     @PatchMapping("/{id}/status")
     @Operation(summary = "Update execution status")
     public ResponseEntity<ApiResponse<PaymentExecutionDTO>> updateExecutionStatus(
             @PathVariable Long id,
             @RequestParam ExecutionStatus status) {
         
-        PaymentExecutionDTO execution = executionService.updateExecutionStatus(id, status);
+        PaymentExecutionDTO execution = executionLanes.forExecution(id,
+                () -> executionService.updateExecutionStatus(id, status));
         return ResponseEntity.ok(ApiResponse.success("Execution status updated", execution));
     }
 
@@ -102,14 +141,14 @@ public class PaymentExecutionController {
     @PostMapping("/{id}/settle")
     @Operation(summary = "Process settlement for execution")
     public ResponseEntity<ApiResponse<Void>> processSettlement(@PathVariable Long id) {
-        executionService.processSettlement(id);
+        executionLanes.forExecution(id, () -> executionService.processSettlement(id));
         return ResponseEntity.ok(ApiResponse.success("Settlement processed successfully", null));
     }
 
     @PostMapping("/{id}/reverse")
     @Operation(summary = "Reverse payment execution")
     public ResponseEntity<ApiResponse<Void>> reverseExecution(@PathVariable Long id) {
-        executionService.reverseExecution(id);
+        executionLanes.forExecution(id, () -> executionService.reverseExecution(id));
         return ResponseEntity.ok(ApiResponse.success("Payment execution reversed", null));
     }
 }
@@ -1,18 +1,31 @@
 package com.example.paymentsystem.controller;
 
 import com.example.paymentsystem.dto.ApiResponse;
+import com.example.paymentsystem.dto.BulkOrderSummary;
+import com.example.paymentsystem.dto.PaymentOrderCriteria;
 import com.example.paymentsystem.dto.PaymentOrderDTO;
 import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import com.example.paymentsystem.service.BulkOrderService;
+import com.example.paymentsystem.service.IdempotencyService;
 import com.example.paymentsystem.service.PaymentOrderService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,18 +37,61 @@ import java.util.List;
 public class PaymentOrderController {
 
     private final PaymentOrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final BulkOrderService bulkOrderService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create a new payment order")
     public ResponseEntity<ApiResponse<PaymentOrderDTO>> createOrder(
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody PaymentOrderDTO orderDTO) {
         
-        PaymentOrderDTO createdOrder = orderService.createOrder(orderDTO);
+        PaymentOrderDTO createdOrder = idempotencyService.execute("create-order", idempotencyKey,
+                idempotencyKey == null ? null : idempotencyService.fingerprint(orderDTO), PaymentOrderDTO.class,
+                () -> orderService.createOrder(orderDTO));
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Payment order created successfully", createdOrder));
     }
 
+    /**
+     * Request and response are both streamed: orders are parsed one array element at a time and
+     * each per-item result is written as soon as it is known, so large uploads never sit in memory.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create payment orders in bulk from a JSON array")
+    public void createOrdersBulk(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(request.getInputStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidOperationException("Bulk upload must be a JSON array of payment orders");
+            }
+
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+                generator.writeStartObject();
+                generator.writeObjectFieldStart("data");
+                generator.writeArrayFieldStart("results");
+                BulkOrderSummary summary = bulkOrderService.importOrders(parser, result -> {
+                    try {
+                        generator.writeObject(result);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Client stopped reading bulk results", e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeObjectField("summary", summary);
+                generator.writeEndObject();
+                generator.writeBooleanField("success", summary.isCompleted());
+                generator.writeStringField("message", summary.isCompleted()
+                        ? "Bulk upload processed" : summary.getError());
+                generator.writeObjectField("timestamp", LocalDateTime.now());
+                generator.writeEndObject();
+            }
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get payment order by ID")
     public ResponseEntity<ApiResponse<PaymentOrderDTO>> getOrderById(@PathVariable Long id) {
@@ -54,46 +110,62 @@ public class PaymentOrderController {
 
     @GetMapping
     @Operation(summary = "Get all payment orders")
-    public ResponseEntity<ApiResponse<List<PaymentOrderDTO>>> getAllOrders() {
-        List<PaymentOrderDTO> orders = orderService.getAllOrders();
+    public ResponseEntity<ApiResponse<List<?>>> getAllOrders(
+            @RequestParam(required = false) List<String> fields) {
+
+        List<?> orders = fields == null
+                ? orderService.getAllOrders()
+                : orderService.getOrderFields(PaymentOrderCriteria.all(), fields);
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
 
     @GetMapping("/customer/{customerId}")
     @Operation(summary = "Get payment orders by customer ID")
-    public ResponseEntity<ApiResponse<List<PaymentOrderDTO>>> getOrdersByCustomerId(
-            @PathVariable String customerId) {
+    public ResponseEntity<ApiResponse<List<?>>> getOrdersByCustomerId(
+            @PathVariable String customerId,
+            @RequestParam(required = false) List<String> fields) {
         
-        List<PaymentOrderDTO> orders = orderService.getOrdersByCustomerId(customerId);
+        List<?> orders = fields == null
+                ? orderService.getOrdersByCustomerId(customerId)
+                : orderService.getOrderFields(PaymentOrderCriteria.byCustomerId(customerId), fields);
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Get payment orders by status")
-    public ResponseEntity<ApiResponse<List<PaymentOrderDTO>>> getOrdersByStatus(
-            @PathVariable PaymentOrderStatus status) {
+    public ResponseEntity<ApiResponse<List<?>>> getOrdersByStatus(
+            @PathVariable PaymentOrderStatus status,
+            @RequestParam(required = false) List<String> fields) {
         
-        List<PaymentOrderDTO> orders = orderService.getOrdersByStatus(status);
+        List<?> orders = fields == null
+                ? orderService.getOrdersByStatus(status)
+                : orderService.getOrderFields(PaymentOrderCriteria.byStatus(status), fields);
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
 
     @GetMapping("/date-range")
     @Operation(summary = "Get payment orders between dates")
-    public ResponseEntity<ApiResponse<List<PaymentOrderDTO>>> getOrdersBetweenDates(
+    public ResponseEntity<ApiResponse<List<?>>> getOrdersBetweenDates(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) List<String> fields) {
         
-        List<PaymentOrderDTO> orders = orderService.getOrdersBetweenDates(startDate, endDate);
+        List<?> orders = fields == null
+                ? orderService.getOrdersBetweenDates(startDate, endDate)
+                : orderService.getOrderFields(PaymentOrderCriteria.createdBetween(startDate, endDate), fields);
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
 
     @GetMapping("/amount-range")
     @Operation(summary = "Get payment orders by amount range")
-    public ResponseEntity<ApiResponse<List<PaymentOrderDTO>>> getOrdersByAmountRange(
+    public ResponseEntity<ApiResponse<List<?>>> getOrdersByAmountRange(
             @RequestParam BigDecimal minAmount,
-            @RequestParam BigDecimal maxAmount) {
+            @RequestParam BigDecimal maxAmount,
+            @RequestParam(required = false) List<String> fields) {
         
-        List<PaymentOrderDTO> orders = orderService.getOrdersByAmountRange(minAmount, maxAmount);
+        List<?> orders = fields == null
+                ? orderService.getOrdersByAmountRange(minAmount, maxAmount)
+                : orderService.getOrderFields(PaymentOrderCriteria.amountBetween(minAmount, maxAmount), fields);
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
 
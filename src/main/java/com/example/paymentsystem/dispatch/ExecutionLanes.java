@@ -0,0 +1,327 @@
+package com.example.paymentsystem.dispatch;
+
+import com.example.paymentsystem.config.SqlStatementCounter;
+import com.example.paymentsystem.dto.ExecutionLanesStatsDTO;
+import com.example.paymentsystem.exception.ErrorCode;
+import com.example.paymentsystem.exception.LaneSaturatedException;
+import com.example.paymentsystem.metrics.PaymentMetrics;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.repository.PaymentExecutionRepository;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.shard.ShardContext;
+import com.example.paymentsystem.shard.ShardRouter;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs execution work on a fixed set of single-consumer lanes. Work is hashed to a lane by
+ * customer (or by order, see {@link KeyBy}), so two requests for the same key run one after the
+ * other in arrival order, while different keys spread over the lanes and run in parallel. This
+ * replaces the lost updates two concurrent executions of one order could otherwise race into,
+ * without a lock that every execution would contend on.
+ *
+ * Each lane has a bounded queue. A request that finds its lane full is rejected with
+ * {@link LaneSaturatedException} rather than queued without limit; other lanes keep accepting.
+ * The calling thread waits for the result, so callers see the same return values and exceptions
+ * as a direct call. Work still queued after {@code payment.execution.lanes.wait-timeout} is
+ * withdrawn and rejected; work that has started is always waited for. Tracing context, the
+ * shard and the SQL statement budget follow the work onto the lane.
+ *
+ * Only short database work belongs on a lane: everything queued behind it waits. Executions run
+ * their gateway call off the lane (see PaymentExecutionServiceImpl). Lane threads hold a database
+ * connection while they run a transaction, so the lane count should stay below the connection
+ * pool size. With {@code spring.threads.virtual.enabled} the lanes run on virtual threads.
+ */
+@Component
+@Slf4j
+public class ExecutionLanes {
+
+    public enum KeyBy {
+        CUSTOMER, ORDER
+    }
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+    private static final ThreadLocal<Lane> CURRENT_LANE = new ThreadLocal<>();
+
+    private final PaymentOrderRepository orderRepository;
+    private final PaymentExecutionRepository executionRepository;
+    private final OrderReadModel readModel;
+    private final ShardRouter shardRouter;
+    private final PaymentMetrics paymentMetrics;
+    private final boolean enabled;
+    private final KeyBy keyBy;
+    private final int queueCapacity;
+    private final long waitTimeoutNanos;
+    private final Lane[] lanes;
+    private final AtomicLong rejected = new AtomicLong();
+    private final ContextSnapshotFactory contextSnapshots = ContextSnapshotFactory.builder().build();
+
+    public ExecutionLanes(PaymentOrderRepository orderRepository,
+                          PaymentExecutionRepository executionRepository,
+                          OrderReadModel readModel,
+                          ShardRouter shardRouter,
+                          PaymentMetrics paymentMetrics,
+                          @Value("${payment.execution.lanes.enabled:true}") boolean enabled,
+                          @Value("${payment.execution.lanes.key-by:CUSTOMER}") KeyBy keyBy,
+                          @Value("${payment.execution.lanes.count:8}") int laneCount,
+                          @Value("${payment.execution.lanes.queue-capacity:64}") int queueCapacity,
+                          @Value("${payment.execution.lanes.wait-timeout:10s}") Duration waitTimeout,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.orderRepository = orderRepository;
+        this.executionRepository = executionRepository;
+        this.readModel = readModel;
+        this.shardRouter = shardRouter;
+        this.paymentMetrics = paymentMetrics;
+        this.enabled = enabled;
+        this.keyBy = keyBy;
+        this.queueCapacity = queueCapacity;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.lanes = new Lane[enabled ? laneCount : 0];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i, queueCapacity, virtualThreads);
+            paymentMetrics.registerLaneDepth(i, lanes[i].queue);
+            lanes[i].thread.start();
+        }
+    }
+
+    /**
+     * Runs work for an order on the lane of its customer, or of the order itself when keyed by
+     * order. The customer comes from the read model when it has the order and from the database
+     * otherwise; an unknown order is keyed by its id and left to the work to reject.
+     */
+    public <T> T forOrder(Long orderId, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        Object key = orderId;
+        if (keyBy == KeyBy.CUSTOMER) {
+            key = readModel.findById(orderId)
+                    .map(view -> view.order().customerId())
+                    .or(() -> shardRouter.onShard(shardRouter.shardForId(orderId),
+                            () -> orderRepository.findCustomerIdById(orderId)))
+                    .map(Object.class::cast)
+                    .orElse(orderId);
+        }
+        return run(key, work);
+    }
+
+    /**
+     * Runs work for an existing execution on the lane of its order's key. An unknown execution is
+     * keyed by its id and left to the work to reject.
+     */
+    public <T> T forExecution(Long executionId, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        Object key = shardRouter.onShard(shardRouter.shardForId(executionId),
+                        () -> executionRepository.findOrderKeyByExecutionId(executionId))
+                .map(order -> keyBy == KeyBy.CUSTOMER ? (Object) order.getCustomerId() : order.getOrderId())
+                .orElse("execution:" + executionId);
+        return run(key, work);
+    }
+
+    public void forExecution(Long executionId, Runnable work) {
+        forExecution(executionId, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the work on the lane the key hashes to and waits for it. Work submitted from a lane
+     * thread runs inline: waiting on a lane from a lane can deadlock.
+     *
+     * @throws LaneSaturatedException if the lane's queue is full, or the work has not started
+     *                                within the wait timeout
+     */
+    public <T> T run(Object key, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        if (CURRENT_LANE.get() != null) {
+            return work.get();
+        }
+        Lane lane = lanes[laneIndex(key)];
+
+        Integer shard = ShardContext.current();
+        LaneTask<T> task = new LaneTask<>(shard == null ? work : () -> shardRouter.onShard(shard, work));
+        Runnable propagated = SqlStatementCounter.propagate(contextSnapshots.captureAll().wrap(task));
+        Queued queued = new Queued(propagated, task);
+        if (!lane.queue.offer(queued)) {
+            rejected.incrementAndGet();
+            paymentMetrics.laneRejected();
+            throw new LaneSaturatedException("Execution lane " + lane.index + " is full ("
+                    + queueCapacity + " queued), retry shortly", RETRY_AFTER_SECONDS);
+        }
+        try {
+            return task.await(waitTimeoutNanos);
+        } catch (TimeoutException e) {
+            // Only work that has not started is withdrawn. Started work may already have
+            // committed its claim, so the caller waits for it and gets its real outcome.
+            if (!lane.queue.remove(queued)) {
+                return task.join();
+            }
+            rejected.incrementAndGet();
+            paymentMetrics.laneRejected();
+            throw new LaneSaturatedException(ErrorCode.EXECUTION_LANE_TIMEOUT,
+                    "Execution lane " + lane.index + " did not start the work in time, retry shortly",
+                    RETRY_AFTER_SECONDS);
+        }
+    }
+
+    int laneIndex(Object key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    public ExecutionLanesStatsDTO getStats() {
+        ExecutionLanesStatsDTO stats = new ExecutionLanesStatsDTO();
+        stats.setEnabled(enabled);
+        stats.setKeyBy(keyBy.name());
+        stats.setLanes(lanes.length);
+        stats.setQueueCapacity(queueCapacity);
+        List<Integer> depths = new ArrayList<>(lanes.length);
+        List<Long> completed = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            int depth = lane.queue.size();
+            depths.add(depth);
+            completed.add(lane.completed.get());
+            stats.setMaxDepth(Math.max(stats.getMaxDepth(), depth));
+        }
+        stats.setDepths(depths);
+        stats.setCompleted(completed);
+        stats.setRejected(rejected.get());
+        return stats;
+    }
+
+    /**
+     * Stops the lanes. Work still queued fails rather than hanging its callers.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+        for (Lane lane : lanes) {
+            try {
+                lane.thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            List<Queued> abandoned = new ArrayList<>();
+            lane.queue.drainTo(abandoned);
+            abandoned.forEach(queued -> queued.task.abandon());
+        }
+    }
+
+    private record Queued(Runnable runnable, LaneTask<?> task) {
+    }
+
+    private final class Lane implements Runnable {
+
+        private final int index;
+        private final BlockingQueue<Queued> queue;
+        private final Thread thread;
+        private final AtomicLong completed = new AtomicLong();
+
+        private Lane(int index, int capacity, boolean virtual) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            String name = "execution-lane-" + index;
+            // Virtual threads are always daemon threads
+            this.thread = virtual ? Thread.ofVirtual().name(name).unstarted(this)
+                    : Thread.ofPlatform().name(name).daemon().unstarted(this);
+        }
+
+        @Override
+        public void run() {
+            CURRENT_LANE.set(this);
+            while (!Thread.currentThread().isInterrupted()) {
+                Queued queued;
+                try {
+                    queued = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                paymentMetrics.recordLaneWait(System.nanoTime() - queued.task.enqueuedNanos);
+                try {
+                    queued.runnable.run();
+                } catch (Throwable t) {
+                    // The task has already handed the failure to its caller
+                    log.debug("Lane {} task failed", index, t);
+                }
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class LaneTask<T> implements Runnable {
+
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long enqueuedNanos = System.nanoTime();
+
+        private LaneTask(Supplier<T> work) {
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(work.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        void abandon() {
+            result.completeExceptionally(new IllegalStateException("Execution lanes are shutting down"));
+        }
+
+        T await(long timeoutNanos) throws TimeoutException {
+            try {
+                return result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an execution lane", e);
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause());
+            }
+        }
+
+        T join() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw unwrap(e.getCause());
+            }
+        }
+
+        private static RuntimeException unwrap(Throwable cause) {
+            if (cause instanceof RuntimeException runtime) {
+                return runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return new IllegalStateException(cause);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.paymentsystem.dto;
 
+import com.example.paymentsystem.exception.ErrorCode;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,6 +17,9 @@ public class ApiResponse<T> {
     private String message;
     private T data;
     private LocalDateTime timestamp;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ErrorCode errorCode;
     
     public ApiResponse(boolean success, String message, T data) {
         this.success = success;
@@ -34,4 +39,14 @@ public class ApiResponse<T> {
     public static <T> ApiResponse<T> error(String message) {
         return new ApiResponse<>(false, message, null);
     }
+
+    public static <T> ApiResponse<T> error(ErrorCode errorCode, String message) {
+        return error(errorCode, message, null);
+    }
+
+    public static <T> ApiResponse<T> error(ErrorCode errorCode, String message, T data) {
+        ApiResponse<T> response = new ApiResponse<>(false, message, data);
+        response.setErrorCode(errorCode);
+        return response;
+    }
 }
@@ -0,0 +1,32 @@
+package com.example.paymentsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderItemResult {
+
+    // Zero-based position of the order in the uploaded array
+    private int index;
+
+    private boolean accepted;
+
+    private String orderReference;
+
+    private Map<String, String> errors;
+
+    public static BulkOrderItemResult accepted(int index, String orderReference) {
+        return new BulkOrderItemResult(index, true, orderReference, null);
+    }
+
+    public static BulkOrderItemResult rejected(int index, Map<String, String> errors) {
+        return new BulkOrderItemResult(index, false, null, errors);
+    }
+}
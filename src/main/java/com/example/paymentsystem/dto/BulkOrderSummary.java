@@ -0,0 +1,22 @@
+package com.example.paymentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderSummary {
+
+    private int received;
+
+    private int accepted;
+
+    private int rejected;
+
+    // False when the upload could not be read to the end, e.g. malformed JSON
+    private boolean completed;
+
+    private String error;
+}
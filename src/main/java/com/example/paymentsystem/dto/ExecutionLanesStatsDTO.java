@@ -0,0 +1,21 @@
+package com.example.paymentsystem.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ExecutionLanesStatsDTO {
+
+    private boolean enabled;
+    private String keyBy;
+    private int lanes;
+    private int queueCapacity;
+
+    private List<Integer> depths;
+    private int maxDepth;
+    private List<Long> completed;
+    private long rejected;
+}
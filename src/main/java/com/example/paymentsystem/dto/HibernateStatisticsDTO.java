@@ -0,0 +1,63 @@
+package com.example.paymentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class HibernateStatisticsDTO {
+
+    private boolean enabled;
+    private long startTime;
+
+    private long prepareStatementCount;
+    private long queryExecutionCount;
+    private long queryExecutionMaxTimeMs;
+    private String queryExecutionMaxTimeQuery;
+    private List<QueryStats> slowestQueries;
+
+    private long entityLoadCount;
+    private long entityFetchCount;
+    private long entityInsertCount;
+    private long entityUpdateCount;
+    private long collectionLoadCount;
+    private long collectionFetchCount;
+
+    private long secondLevelCacheHitCount;
+    private long secondLevelCacheMissCount;
+    private long secondLevelCachePutCount;
+    private double secondLevelCacheHitRatio;
+    private List<CacheRegionStats> cacheRegions;
+
+    private long transactionCount;
+    private long sessionOpenCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QueryStats {
+
+        private String query;
+        private long executionCount;
+        private long executionRowCount;
+        private long executionAvgTimeMs;
+        private long executionMaxTimeMs;
+        private long executionTotalTimeMs;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheRegionStats {
+
+        private String region;
+        private long hitCount;
+        private long missCount;
+        private long putCount;
+        private double hitRatio;
+        private long elementCountInMemory;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.paymentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLeaseDTO {
+
+    private String name;
+    private String owner;
+    private long fencingToken;
+    private Instant expiresAt;
+    private boolean expired;
+    private boolean heldByThisNode;
+}
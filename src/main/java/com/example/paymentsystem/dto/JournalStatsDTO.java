@@ -0,0 +1,26 @@
+package com.example.paymentsystem.dto;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class JournalStatsDTO {
+
+    private String directory;
+    private int segments;
+    private int segmentBytes;
+    private long records;
+    private long lastSequence;
+
+    private long replayedRecords;
+    private long replayMillis;
+    private long replayRecordsPerSecond;
+    private int corruptRecords;
+
+    private int executionsTracked;
+    private Map<ExecutionStatus, Long> executionsByStatus;
+}
@@ -0,0 +1,30 @@
+package com.example.paymentsystem.dto;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+
+/**
+ * Filter behind the payment execution list endpoints; null components are not applied.
+ */
+public record PaymentExecutionCriteria(
+        Long orderId,
+        String orderReference,
+        ExecutionStatus status,
+        String customerId
+) {
+
+    public static PaymentExecutionCriteria byOrderId(Long orderId) {
+        return new PaymentExecutionCriteria(orderId, null, null, null);
+    }
+
+    public static PaymentExecutionCriteria byOrderReference(String orderReference) {
+        return new PaymentExecutionCriteria(null, orderReference, null, null);
+    }
+
+    public static PaymentExecutionCriteria byStatus(ExecutionStatus status) {
+        return new PaymentExecutionCriteria(null, null, status, null);
+    }
+
+    public static PaymentExecutionCriteria byCustomerId(String customerId) {
+        return new PaymentExecutionCriteria(null, null, null, customerId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.paymentsystem.dto;
+
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filter behind the payment order list endpoints; null components are not applied.
+ */
+public record PaymentOrderCriteria(
+        String customerId,
+        PaymentOrderStatus status,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo,
+        BigDecimal minAmount,
+        BigDecimal maxAmount
+) {
+
+    public static PaymentOrderCriteria all() {
+        return new PaymentOrderCriteria(null, null, null, null, null, null);
+    }
+
+    public static PaymentOrderCriteria byCustomerId(String customerId) {
+        return new PaymentOrderCriteria(customerId, null, null, null, null, null);
+    }
+
+    public static PaymentOrderCriteria byStatus(PaymentOrderStatus status) {
+        return new PaymentOrderCriteria(null, status, null, null, null, null);
+    }
+
+    public static PaymentOrderCriteria createdBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        return new PaymentOrderCriteria(null, null, startDate, endDate, null, null);
+    }
+
+    public static PaymentOrderCriteria amountBetween(BigDecimal minAmount, BigDecimal maxAmount) {
+        return new PaymentOrderCriteria(null, null, null, null, minAmount, maxAmount);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.paymentsystem.dto;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order together with its most recent execution and the number of executions attempted so
+ * far. The latest execution fields are null until the order has been executed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentOrderViewDTO {
+
+    private PaymentOrderDTO order;
+
+    private Long latestExecutionId;
+
+    private String latestExecutionReference;
+
+    private ExecutionStatus latestExecutionStatus;
+
+    private LocalDateTime latestExecutionUpdatedAt;
+
+    private int executionAttempts;
+}
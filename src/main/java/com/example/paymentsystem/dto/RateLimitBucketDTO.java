@@ -0,0 +1,18 @@
+package com.example.paymentsystem.dto;
+
+import com.example.paymentsystem.entity.PaymentMethod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucketDTO {
+
+    private String customerId;
+    private PaymentMethod paymentMethod;
+    private int capacity;
+    private double refillPerSecond;
+    private double availableTokens;
+}
@@ -0,0 +1,30 @@
+package com.example.paymentsystem.dto;
+
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class ReadModelStatsDTO {
+
+    private boolean enabled;
+    private boolean serving;
+    private boolean overflowed;
+
+    private int orders;
+    private int maxOrders;
+    private int customers;
+    private int ordersWithExecutions;
+    private Map<PaymentOrderStatus, Integer> ordersByStatus;
+
+    private long estimatedBytes;
+    private long estimatedBytesPerOrder;
+    private long estimatedBytesPerMillionOrders;
+
+    private long rebuildMillis;
+    private int rebuiltOrders;
+    private long eventsApplied;
+}
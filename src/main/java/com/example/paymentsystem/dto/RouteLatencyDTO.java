@@ -0,0 +1,33 @@
+package com.example.paymentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteLatencyDTO {
+
+    private String route;
+    private Double p95TargetMs;
+    private Double p99TargetMs;
+    private boolean violated;
+    private List<WindowStats> windows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WindowStats {
+
+        private String window;
+        private long count;
+        private double p50Ms;
+        private double p95Ms;
+        private double p99Ms;
+        private double maxMs;
+        private boolean violated;
+    }
+}
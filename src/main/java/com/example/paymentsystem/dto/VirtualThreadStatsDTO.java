@@ -0,0 +1,31 @@
+package com.example.paymentsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class VirtualThreadStatsDTO {
+
+    private boolean virtualThreads;
+    private boolean pinningMonitored;
+    private long pinningThresholdMs;
+    private long pinnedEvents;
+    private List<PinningSite> sites;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PinningSite {
+
+        private String site;
+        private String caller;
+        private long count;
+        private long totalTimeMs;
+        private long maxTimeMs;
+        private List<String> stack;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.paymentsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A named lease on a background job, or on one partition of it. At most one node owns a lease
+ * until it expires. Every change of owner increments the fencing token, so work done under an
+ * older token can be told apart from work done by the current owner.
+ */
+@Entity
+@Table(name = "job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLease {
+
+    // Job name, e.g. "idempotency-purge", "outbox-relay/partition/3" or "outbox-relay/member/<node>"
+    @Id
+    @Column(length = 200)
+    private String name;
+
+    // Null once released
+    @Column(length = 128)
+    private String owner;
+
+    @Column(nullable = false)
+    private long fencingToken;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    private Instant acquiredAt;
+
+    private Instant renewedAt;
+}
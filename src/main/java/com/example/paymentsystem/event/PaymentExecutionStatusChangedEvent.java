@@ -0,0 +1,36 @@
+package com.example.paymentsystem.event;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentExecution;
+import com.example.paymentsystem.entity.PaymentOrder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by the execution service every time a payment execution moves to a new status.
+ * previousStatus is null when the execution has just been created.
+ */
+public record PaymentExecutionStatusChangedEvent(
+        Long executionId,
+        String executionReference,
+        Long orderId,
+        String orderReference,
+        String customerId,
+        ExecutionStatus previousStatus,
+        ExecutionStatus status,
+        LocalDateTime occurredAt
+) {
+
+    public static PaymentExecutionStatusChangedEvent of(PaymentExecution execution, ExecutionStatus previousStatus) {
+        PaymentOrder order = execution.getPaymentOrder();
+        return new PaymentExecutionStatusChangedEvent(
+                execution.getId(),
+                execution.getExecutionReference(),
+                order.getId(),
+                order.getOrderReference(),
+                order.getCustomerId(),
+                previousStatus,
+                execution.getStatus(),
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.paymentsystem.event;
+
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published every time a payment order is created or modified, with the order's state at that
+ * point copied out of the entity, so listeners running after commit never touch the entity.
+ */
+public record PaymentOrderChangedEvent(
+        Long orderId,
+        String orderReference,
+        String customerId,
+        String customerName,
+        String customerEmail,
+        BigDecimal amount,
+        String currency,
+        PaymentOrderStatus status,
+        PaymentMethod paymentMethod,
+        String description,
+        String beneficiaryName,
+        String beneficiaryAccount,
+        String beneficiaryBank,
+        String beneficiaryBankCode,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime scheduledAt,
+        LocalDateTime completedAt
+) {
+
+    public static PaymentOrderChangedEvent of(PaymentOrder order) {
+        return new PaymentOrderChangedEvent(
+                order.getId(),
+                order.getOrderReference(),
+                order.getCustomerId(),
+                order.getCustomerName(),
+                order.getCustomerEmail(),
+                order.getAmount(),
+                order.getCurrency(),
+                order.getStatus(),
+                order.getPaymentMethod(),
+                order.getDescription(),
+                order.getBeneficiaryName(),
+                order.getBeneficiaryAccount(),
+                order.getBeneficiaryBank(),
+                order.getBeneficiaryBankCode(),
+                order.getCreatedAt(),
+                order.getUpdatedAt(),
+                order.getScheduledAt(),
+                order.getCompletedAt());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.paymentsystem.event;
+
+/**
+ * Published when a payment order is deleted, and recorded in the outbox.
+ */
+public record PaymentOrderDeletedEvent(Long orderId) {
+}
@@ -0,0 +1,30 @@
+package com.example.paymentsystem.event;
+
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recorded in the outbox every time a payment order moves to a new status. previousStatus is null
+ * when the order has just been created.
+ */
+public record PaymentOrderStatusChangedEvent(
+        Long orderId,
+        String orderReference,
+        String customerId,
+        PaymentOrderStatus previousStatus,
+        PaymentOrderStatus status,
+        LocalDateTime occurredAt
+) {
+
+    public static PaymentOrderStatusChangedEvent of(PaymentOrder order, PaymentOrderStatus previousStatus) {
+        return new PaymentOrderStatusChangedEvent(
+                order.getId(),
+                order.getOrderReference(),
+                order.getCustomerId(),
+                previousStatus,
+                order.getStatus(),
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.paymentsystem.event;
+
+import java.util.List;
+
+/**
+ * Published once per bulk insert batch. The batch goes through JDBC rather than JPA, so only the
+ * references are known; listeners that need the orders load them.
+ */
+public record PaymentOrdersImportedEvent(List<String> orderReferences) {
+}
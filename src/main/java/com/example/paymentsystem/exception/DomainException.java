@@ -0,0 +1,20 @@
+package com.example.paymentsystem.exception;
+
+/**
+ * Base for exceptions that describe an expected outcome of a request rather than a bug. They are
+ * stackless: the handler only needs the code and message, and filling in a stack trace through
+ * the servlet, filter and proxy frames is most of the cost of throwing one.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+
+    protected DomainException(ErrorCode errorCode, String message, Throwable cause) {
+        super(message, cause, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.paymentsystem.exception;
+
+import org.slf4j.event.Level;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Machine-readable codes returned in {@code ApiResponse.errorCode}, with the status and the level
+ * the handler logs them at. Client errors stay below WARN: a 404 for a reference that has not
+ * propagated yet is expected traffic, not an incident.
+ */
+public enum ErrorCode {
+
+    RESOURCE_NOT_FOUND(HttpStatus.NOT_FOUND, Level.DEBUG),
+    ORDER_NOT_FOUND(HttpStatus.NOT_FOUND, Level.DEBUG),
+    EXECUTION_NOT_FOUND(HttpStatus.NOT_FOUND, Level.DEBUG),
+    INVALID_OPERATION(HttpStatus.BAD_REQUEST, Level.INFO),
+    VALIDATION_FAILED(HttpStatus.BAD_REQUEST, Level.INFO),
+    RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS, Level.INFO),
+    EXECUTION_LANE_FULL(HttpStatus.SERVICE_UNAVAILABLE, Level.INFO),
+    EXECUTION_LANE_TIMEOUT(HttpStatus.SERVICE_UNAVAILABLE, Level.WARN),
+    SQL_BUDGET_EXCEEDED(HttpStatus.INTERNAL_SERVER_ERROR, Level.ERROR),
+    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, Level.ERROR);
+
+    private final HttpStatus status;
+    private final Level logLevel;
+
+    ErrorCode(HttpStatus status, Level logLevel) {
+        this.status = status;
+        this.logLevel = logLevel;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public Level getLogLevel() {
+        return logLevel;
+    }
+}
@@ -1,14 +1,18 @@
 package com.example.paymentsystem.exception;
 
 import com.example.paymentsystem.dto.ApiResponse;
+import com.example.paymentsystem.logging.LogRateLimiter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.slf4j.event.Level;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,20 +20,53 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    // Client errors log at most one line per code per interval; the line carries the number
+    // suppressed since the previous one. Unexpected errors are never rate limited.
+    private static final Duration CLIENT_ERROR_LOG_INTERVAL = Duration.ofSeconds(1);
+
+    private final Map<ErrorCode, LogRateLimiter> logLimiters = new EnumMap<>(ErrorCode.class);
+
+    public GlobalExceptionHandler() {
+        for (ErrorCode code : ErrorCode.values()) {
+            logLimiters.put(code, new LogRateLimiter(CLIENT_ERROR_LOG_INTERVAL));
+        }
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ApiResponse<Void>> handleResourceNotFoundException(ResourceNotFoundException ex) {
-        log.error("Resource not found: {}", ex.getMessage());
-        return ResponseEntity
-                .status(HttpStatus.NOT_FOUND)
-                .body(ApiResponse.error(ex.getMessage()));
+        return clientError(ex.getErrorCode(), ex.getMessage());
     }
 
     @ExceptionHandler(InvalidOperationException.class)
     public ResponseEntity<ApiResponse<Void>> handleInvalidOperationException(InvalidOperationException ex) {
-        log.error("Invalid operation: {}", ex.getMessage());
+        return clientError(ex.getErrorCode(), ex.getMessage());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRateLimitExceededException(RateLimitExceededException ex) {
+        logClientError(ErrorCode.RATE_LIMITED, ex.getMessage());
+        return ResponseEntity
+                .status(ErrorCode.RATE_LIMITED.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ErrorCode.RATE_LIMITED, ex.getMessage()));
+    }
+
+    @ExceptionHandler(LaneSaturatedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLaneSaturatedException(LaneSaturatedException ex) {
+        logClientError(ex.getErrorCode(), ex.getMessage());
         return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(ApiResponse.error(ex.getMessage()));
+                .status(ex.getErrorCode().getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getErrorCode(), ex.getMessage()));
+    }
+
+    @ExceptionHandler(SqlBudgetExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleSqlBudgetExceededException(SqlBudgetExceededException ex) {
+        // An N+1 or similar in the code, not the client's fault; the stack trace shows the statement
+        log.error("{}", ex.getMessage(), ex);
+        return ResponseEntity
+                .status(ErrorCode.SQL_BUDGET_EXCEEDED.getStatus())
+                .body(ApiResponse.error(ErrorCode.SQL_BUDGET_EXCEEDED, ex.getMessage()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -43,17 +80,41 @@ public class GlobalExceptionHandler {
             errors.put(fieldName, errorMessage);
         });
         
-        log.error("Validation failed: {}", errors);
+        logClientError(ErrorCode.VALIDATION_FAILED, errors);
         return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(new ApiResponse<>(false, "Validation failed", errors));
+                .status(ErrorCode.VALIDATION_FAILED.getStatus())
+                .body(ApiResponse.error(ErrorCode.VALIDATION_FAILED, "Validation failed", errors));
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleGlobalException(Exception ex) {
         log.error("Unexpected error occurred: {}", ex.getMessage(), ex);
         return ResponseEntity
-                .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(ApiResponse.error("An unexpected error occurred: " + ex.getMessage()));
+                .status(ErrorCode.INTERNAL_ERROR.getStatus())
+                .body(ApiResponse.error(ErrorCode.INTERNAL_ERROR, "An unexpected error occurred: " + ex.getMessage()));
+    }
+
+    private ResponseEntity<ApiResponse<Void>> clientError(ErrorCode code, String message) {
+        logClientError(code, message);
+        return ResponseEntity
+                .status(code.getStatus())
+                .body(ApiResponse.error(code, message));
+    }
+
+    private void logClientError(ErrorCode code, Object detail) {
+        Level level = code.getLogLevel();
+        if (!log.isEnabledForLevel(level)) {
+            return;
+        }
+        long suppressed = logLimiters.get(code).tryAcquire();
+        if (suppressed == LogRateLimiter.DENIED) {
+            return;
+        }
+        log.atLevel(level)
+                .setMessage("Request rejected: {}")
+                .addArgument(detail)
+                .addKeyValue("errorCode", code)
+                .addKeyValue("suppressed", suppressed)
+                .log();
     }
 }
@@ -1,12 +1,12 @@
 package com.example.paymentsystem.exception;
 
-public class InvalidOperationException extends RuntimeException {
+public class InvalidOperationException extends DomainException {
     
     public InvalidOperationException(String message) {
-        super(message);
+        super(ErrorCode.INVALID_OPERATION, message, null);
     }
     
     public InvalidOperationException(String message, Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.INVALID_OPERATION, message, cause);
     }
 }
@@ -0,0 +1,24 @@
+package com.example.paymentsystem.exception;
+
+/**
+ * The execution lane a request hashes to already has a full queue, or did not finish the work
+ * within the wait timeout. Answered with 503 and a Retry-After so clients back off instead of
+ * piling more work onto a lane that is behind.
+ */
+public class LaneSaturatedException extends DomainException {
+
+    private final long retryAfterSeconds;
+
+    public LaneSaturatedException(String message, long retryAfterSeconds) {
+        this(ErrorCode.EXECUTION_LANE_FULL, message, retryAfterSeconds);
+    }
+
+    public LaneSaturatedException(ErrorCode errorCode, String message, long retryAfterSeconds) {
+        super(errorCode, message, null);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.paymentsystem.exception;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends DomainException {
     
     public ResourceNotFoundException(String message) {
-        super(message);
+        this(ErrorCode.RESOURCE_NOT_FOUND, message);
     }
     
     public ResourceNotFoundException(String message, Throwable cause) {
-        super(message, cause);
+        super(ErrorCode.RESOURCE_NOT_FOUND, message, cause);
+    }
+
+    public ResourceNotFoundException(ErrorCode errorCode, String message) {
+        super(errorCode, message, null);
     }
 }
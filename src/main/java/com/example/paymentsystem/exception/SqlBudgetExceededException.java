@@ -0,0 +1,8 @@
+package com.example.paymentsystem.exception;
+
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
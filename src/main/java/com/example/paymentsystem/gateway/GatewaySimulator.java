@@ -0,0 +1,90 @@
+package com.example.paymentsystem.gateway;
+
+import com.example.paymentsystem.config.GatewaySimulatorProperties;
+import com.example.paymentsystem.entity.PaymentMethod;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides the outcome and latency of a simulated gateway call. Everything derived from the
+ * properties is built once in the constructor; {@link #simulate} only reads immutable state and
+ * the caller's random source.
+ */
+public class GatewaySimulator {
+
+    public enum Result {
+        APPROVED, DECLINED, TIMEOUT, ERROR
+    }
+
+    public record Response(String provider, Result result, long latencyNanos) {
+    }
+
+    private record Provider(String name, double cumulativeWeight, double successRate,
+                            LatencyDistribution latency) {
+    }
+
+    static final String DEFAULT_PROVIDER = "MOCK_GATEWAY";
+
+    private final Provider[] providers;
+    private final double totalWeight;
+    private final Map<PaymentMethod, Double> methodSuccessRates;
+    private final long timeoutNanos;
+    private final double timeoutRate;
+    private final double errorRate;
+
+    public GatewaySimulator(GatewaySimulatorProperties properties) {
+        Map<String, GatewaySimulatorProperties.Provider> configured = properties.getProviders().isEmpty()
+                ? Map.of(DEFAULT_PROVIDER, new GatewaySimulatorProperties.Provider())
+                : properties.getProviders();
+        this.providers = new Provider[configured.size()];
+        double cumulative = 0;
+        int i = 0;
+        for (Map.Entry<String, GatewaySimulatorProperties.Provider> entry : configured.entrySet()) {
+            GatewaySimulatorProperties.Provider provider = entry.getValue();
+            cumulative += provider.getWeight();
+            providers[i++] = new Provider(
+                    entry.getKey(),
+                    cumulative,
+                    provider.getSuccessRate() != null ? provider.getSuccessRate() : properties.getSuccessRate(),
+                    LatencyDistribution.of(provider.getLatency() != null ? provider.getLatency() : properties.getLatency()));
+        }
+        this.totalWeight = cumulative;
+        this.methodSuccessRates = new EnumMap<>(PaymentMethod.class);
+        this.methodSuccessRates.putAll(properties.getMethodSuccessRates());
+        this.timeoutNanos = properties.getTimeout().toNanos();
+        this.timeoutRate = properties.getTimeoutRate();
+        this.errorRate = properties.getErrorRate();
+    }
+
+    public Response simulate(PaymentMethod method, RandomGenerator random) {
+        Provider provider = pickProvider(random);
+        if (timeoutRate > 0 && random.nextDouble() < timeoutRate) {
+            return new Response(provider.name(), Result.TIMEOUT, timeoutNanos);
+        }
+        long latency = provider.latency().sampleNanos(random);
+        if (latency >= timeoutNanos) {
+            return new Response(provider.name(), Result.TIMEOUT, timeoutNanos);
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            return new Response(provider.name(), Result.ERROR, latency);
+        }
+        double approval = provider.successRate() * methodSuccessRates.getOrDefault(method, 1.0);
+        return new Response(provider.name(), random.nextDouble() < approval ? Result.APPROVED : Result.DECLINED,
+                latency);
+    }
+
+    private Provider pickProvider(RandomGenerator random) {
+        if (providers.length == 1) {
+            return providers[0];
+        }
+        double point = random.nextDouble() * totalWeight;
+        for (Provider provider : providers) {
+            if (point < provider.cumulativeWeight()) {
+                return provider;
+            }
+        }
+        return providers[providers.length - 1];
+    }
+}
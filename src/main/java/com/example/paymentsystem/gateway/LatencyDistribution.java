@@ -0,0 +1,55 @@
+package com.example.paymentsystem.gateway;
+
+import com.example.paymentsystem.config.GatewaySimulatorProperties;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Gateway response time model. Implementations are immutable and take the random source as an
+ * argument, so concurrent callers each use their own {@code ThreadLocalRandom} without sharing state.
+ */
+public sealed interface LatencyDistribution {
+
+    long sampleNanos(RandomGenerator random);
+
+    static LatencyDistribution of(GatewaySimulatorProperties.Latency latency) {
+        return switch (latency.getDistribution()) {
+            case FIXED -> new Fixed(latency.getFixed().toNanos());
+            case LOG_NORMAL -> new LogNormal(latency.getMedian().toNanos(), latency.getSigma());
+            case BIMODAL -> new Bimodal(
+                    new LogNormal(latency.getMedian().toNanos(), latency.getSigma()),
+                    new LogNormal(latency.getTailMedian().toNanos(), latency.getTailSigma()),
+                    latency.getTailProbability());
+        };
+    }
+
+    record Fixed(long nanos) implements LatencyDistribution {
+
+        @Override
+        public long sampleNanos(RandomGenerator random) {
+            return nanos;
+        }
+    }
+
+    /** ln(latency) is normal with mean ln(median), so half of the samples fall below the median. */
+    record LogNormal(double mu, double sigma) implements LatencyDistribution {
+
+        public LogNormal(long medianNanos, double sigma) {
+            this(Math.log(Math.max(medianNanos, 1)), sigma);
+        }
+
+        @Override
+        public long sampleNanos(RandomGenerator random) {
+            return (long) Math.exp(mu + sigma * random.nextGaussian());
+        }
+    }
+
+    /** A fast body with an occasional slow tail, e.g. an issuer that sometimes goes to a fallback path. */
+    record Bimodal(LogNormal body, LogNormal tail, double tailProbability) implements LatencyDistribution {
+
+        @Override
+        public long sampleNanos(RandomGenerator random) {
+            return random.nextDouble() < tailProbability ? tail.sampleNanos(random) : body.sampleNanos(random);
+        }
+    }
+}
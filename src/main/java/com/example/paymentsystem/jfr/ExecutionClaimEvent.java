@@ -0,0 +1,11 @@
+package com.example.paymentsystem.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.payment.ExecutionClaim")
+@Label("Execution Claim")
+@Description("Order loaded and validated, execution record created")
+public class ExecutionClaimEvent extends PaymentPhaseEvent {
+}
@@ -0,0 +1,11 @@
+package com.example.paymentsystem.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.payment.ExecutionFinalize")
+@Label("Execution Finalize")
+@Description("Execution and order updated with the gateway result")
+public class ExecutionFinalizeEvent extends PaymentPhaseEvent {
+}
@@ -0,0 +1,11 @@
+package com.example.paymentsystem.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.payment.GatewayCall")
+@Label("Gateway Call")
+@Description("Call to the payment gateway; status is the gateway outcome")
+public class GatewayCallEvent extends PaymentPhaseEvent {
+}
@@ -0,0 +1,11 @@
+package com.example.paymentsystem.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.payment.OrderCreate")
+@Label("Order Create")
+@Description("Payment order mapped, referenced and persisted")
+public class OrderCreateEvent extends PaymentPhaseEvent {
+}
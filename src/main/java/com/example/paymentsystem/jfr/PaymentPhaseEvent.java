@@ -0,0 +1,59 @@
+package com.example.paymentsystem.jfr;
+
+import com.example.paymentsystem.entity.PaymentExecution;
+import com.example.paymentsystem.entity.PaymentOrder;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base for the payment phase JFR events. Duration comes from begin()/end().
+ *
+ * Callers create the event, call begin() and later one of the finish methods. Fields are only
+ * filled in when the event will actually be committed, so with no recording running (or the
+ * event disabled) begin/end/shouldCommit are no-ops and the JIT can drop the allocation.
+ */
+@Category({"Payment System", "Execution"})
+@StackTrace(false)
+public abstract class PaymentPhaseEvent extends Event {
+
+    @Label("Reference")
+    protected String reference;
+
+    @Label("Order Reference")
+    protected String orderReference;
+
+    @Label("Provider")
+    protected String provider;
+
+    @Label("Status")
+    protected String status;
+
+    public void finish(PaymentExecution execution) {
+        finish(execution, execution.getStatus() != null ? execution.getStatus().name() : null);
+    }
+
+    public void finish(PaymentExecution execution, String status) {
+        end();
+        if (shouldCommit()) {
+            this.reference = execution.getExecutionReference();
+            this.orderReference = execution.getPaymentOrder() != null
+                    ? execution.getPaymentOrder().getOrderReference()
+                    : null;
+            this.provider = execution.getGatewayProvider();
+            this.status = status;
+            commit();
+        }
+    }
+
+    public void finish(PaymentOrder order) {
+        end();
+        if (shouldCommit()) {
+            this.reference = order.getOrderReference();
+            this.orderReference = order.getOrderReference();
+            this.status = order.getStatus() != null ? order.getStatus().name() : null;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.paymentsystem.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.payment.Reversal")
+@Label("Reversal")
+@Description("Execution reversed and order refunded")
+public class ReversalEvent extends PaymentPhaseEvent {
+}
@@ -0,0 +1,11 @@
+package com.example.paymentsystem.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.payment.Settlement")
+@Label("Settlement")
+@Description("Successful execution settled")
+public class SettlementEvent extends PaymentPhaseEvent {
+}
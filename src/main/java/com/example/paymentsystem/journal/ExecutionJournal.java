@@ -0,0 +1,236 @@
+package com.example.paymentsystem.journal;
+
+import com.example.paymentsystem.dto.JournalStatsDTO;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit journal of execution state transitions, kept in memory-mapped segment files
+ * next to (not in) the relational store. Each committed transition becomes one 64-byte
+ * {@link JournalRecord}; when a segment is full the journal rolls to a new file named after its
+ * first sequence number.
+ *
+ * On startup every segment is replayed in order, CRCs are checked and the
+ * {@link ExecutionStatusView} is rebuilt. A damaged record can only be a torn write at the tail
+ * after a crash, so the journal truncates there and appends from the last good record. Data
+ * reaches the page cache on append, which survives a process crash; {@link #force()} runs every
+ * {@code payment.journal.force-interval-ms} to bound what a power loss can take. Only enable it
+ * with a database that outlives the process, since replay trusts the ids it finds.
+ *
+ * Appends and forces share a ReentrantLock rather than the monitor: an append waiting behind a
+ * force would otherwise pin its carrier thread when running on a virtual thread.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.journal.enabled", havingValue = "true")
+@Slf4j
+public class ExecutionJournal implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FileChannel lockChannel;
+    private final ExecutionStatusView view = new ExecutionStatusView();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private JournalSegment current;
+    private int segments;
+    private long nextSequence = 1;
+    private long records;
+    private boolean dirty;
+    private boolean closed;
+
+    private long replayedRecords;
+    private long replayNanos;
+    private int corruptRecords;
+
+    @Autowired
+    public ExecutionJournal(@Value("${payment.journal.directory}") Path directory,
+                            @Value("${payment.journal.segment-size:64MB}") DataSize segmentSize) throws IOException {
+        this(directory, Math.toIntExact(segmentSize.toBytes()));
+    }
+
+    public ExecutionJournal(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes < JournalRecord.SIZE) {
+            throw new IllegalArgumentException("Segment size must hold at least one record: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes - segmentBytes % JournalRecord.SIZE;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve("journal.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Journal directory " + directory + " is in use by another journal");
+        }
+        replayAll();
+    }
+
+    private void replayAll() throws IOException {
+        long start = System.nanoTime();
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(ExecutionJournal::isSegment).sorted().toList();
+        }
+        for (Path file : files) {
+            JournalSegment segment = JournalSegment.open(file, segmentBytes);
+            corruptRecords += segment.replay(record -> {
+                view.apply(record);
+                nextSequence = record.sequence() + 1;
+                replayedRecords++;
+            });
+            current = segment;
+            segments++;
+        }
+        records = replayedRecords;
+        if (current == null) {
+            current = openSegment(nextSequence);
+        }
+        replayNanos = System.nanoTime() - start;
+        log.atInfo().setMessage("Execution journal replayed")
+                .addKeyValue("directory", directory)
+                .addKeyValue("segments", segments)
+                .addKeyValue("records", replayedRecords)
+                .addKeyValue("millis", replayNanos / 1_000_000)
+                .addKeyValue("corrupt", corruptRecords)
+                .log();
+    }
+
+    /**
+     * Journals transitions once they are committed; rolled back ones never happened.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExecutionStatusChanged(PaymentExecutionStatusChangedEvent event) {
+        append(event);
+    }
+
+    public JournalRecord append(PaymentExecutionStatusChangedEvent event) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Execution journal is closed");
+            }
+            Instant now = Instant.now();
+            JournalRecord record = new JournalRecord(
+                    nextSequence,
+                    ChronoUnit.MICROS.between(Instant.EPOCH, now),
+                    event.executionId(),
+                    event.orderId() == null ? 0 : event.orderId(),
+                    event.executionReference(),
+                    event.previousStatus(),
+                    event.status());
+            if (!current.append(record)) {
+                roll(record.sequence());
+                current.append(record);
+            }
+            nextSequence++;
+            records++;
+            dirty = true;
+            view.apply(record);
+            return record;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll(long firstSequence) {
+        current.force();
+        try {
+            current = openSegment(firstSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll execution journal segment", e);
+        }
+    }
+
+    private JournalSegment openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        segments++;
+        return JournalSegment.open(file, segmentBytes);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.journal.force-interval-ms:1000}")
+    public void force() {
+        lock.lock();
+        try {
+            if (dirty && !closed) {
+                current.force();
+                dirty = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ExecutionStatusView getView() {
+        return view;
+    }
+
+    public JournalStatsDTO getStats() {
+        lock.lock();
+        try {
+            JournalStatsDTO stats = new JournalStatsDTO();
+            stats.setDirectory(directory.toString());
+            stats.setSegments(segments);
+            stats.setSegmentBytes(segmentBytes);
+            stats.setRecords(records);
+            stats.setLastSequence(nextSequence - 1);
+            stats.setReplayedRecords(replayedRecords);
+            stats.setReplayMillis(replayNanos / 1_000_000);
+            stats.setReplayRecordsPerSecond(replayNanos == 0 ? 0 : replayedRecords * 1_000_000_000L / replayNanos);
+            stats.setCorruptRecords(corruptRecords);
+            stats.setExecutionsTracked(view.size());
+            stats.setExecutionsByStatus(view.countsByStatus());
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            current.close();
+            lockChannel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+}
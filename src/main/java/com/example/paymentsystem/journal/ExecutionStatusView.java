@@ -0,0 +1,53 @@
+package com.example.paymentsystem.journal;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latest status of every execution in the journal and how many executions are in each status,
+ * rebuilt from the journal on startup and kept current by appends.
+ */
+public class ExecutionStatusView {
+
+    private static final ExecutionStatus[] STATUSES = ExecutionStatus.values();
+
+    private final Map<Long, ExecutionStatus> latest = new ConcurrentHashMap<>();
+    private final LongAdder[] countsByStatus = new LongAdder[STATUSES.length];
+
+    public ExecutionStatusView() {
+        for (int i = 0; i < countsByStatus.length; i++) {
+            countsByStatus[i] = new LongAdder();
+        }
+    }
+
+    void apply(JournalRecord record) {
+        ExecutionStatus previous = latest.put(record.executionId(), record.status());
+        if (previous != null) {
+            countsByStatus[previous.ordinal()].decrement();
+        }
+        countsByStatus[record.status().ordinal()].increment();
+    }
+
+    public ExecutionStatus statusOf(long executionId) {
+        return latest.get(executionId);
+    }
+
+    public int size() {
+        return latest.size();
+    }
+
+    public Map<ExecutionStatus, Long> countsByStatus() {
+        Map<ExecutionStatus, Long> counts = new EnumMap<>(ExecutionStatus.class);
+        for (ExecutionStatus status : STATUSES) {
+            long count = countsByStatus[status.ordinal()].sum();
+            if (count > 0) {
+                counts.put(status, count);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.paymentsystem.journal;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * One execution state transition, stored as a fixed 64-byte little-endian record:
+ *
+ * <pre>
+ *  0  marker 'J'            1  layout version
+ *  2  previous status + 1   3  status
+ *     (0 = created)
+ *  4  CRC32C of bytes 0-3 and 8-63
+ *  8  sequence             16  timestamp, epoch micros
+ * 24  execution id         32  order id
+ * 40  execution reference, US-ASCII, zero padded to 24 bytes
+ * </pre>
+ *
+ * A zero marker means the rest of the segment has never been written.
+ */
+public record JournalRecord(
+        long sequence,
+        long timestampMicros,
+        long executionId,
+        long orderId,
+        String executionReference,
+        ExecutionStatus previousStatus,
+        ExecutionStatus status
+) {
+
+    public static final int SIZE = 64;
+
+    static final byte MARKER = 'J';
+    static final byte VERSION = 1;
+
+    private static final int CRC_OFFSET = 4;
+    private static final int BODY_OFFSET = 8;
+    private static final int REFERENCE_OFFSET = 40;
+    private static final int REFERENCE_LENGTH = SIZE - REFERENCE_OFFSET;
+    private static final ExecutionStatus[] STATUSES = ExecutionStatus.values();
+
+    public JournalRecord {
+        if (executionReference.length() > REFERENCE_LENGTH) {
+            throw new IllegalArgumentException("Execution reference longer than " + REFERENCE_LENGTH
+                    + " characters: " + executionReference);
+        }
+    }
+
+    /**
+     * Writes this record at {@code offset}, which must be followed by at least {@link #SIZE} bytes.
+     */
+    void writeTo(ByteBuffer buffer, int offset) {
+        buffer.put(offset, MARKER);
+        buffer.put(offset + 1, VERSION);
+        buffer.put(offset + 2, (byte) (previousStatus == null ? 0 : previousStatus.ordinal() + 1));
+        buffer.put(offset + 3, (byte) status.ordinal());
+        buffer.putLong(offset + 8, sequence);
+        buffer.putLong(offset + 16, timestampMicros);
+        buffer.putLong(offset + 24, executionId);
+        buffer.putLong(offset + 32, orderId);
+        byte[] reference = executionReference.getBytes(StandardCharsets.US_ASCII);
+        buffer.put(offset + REFERENCE_OFFSET, reference);
+        for (int i = reference.length; i < REFERENCE_LENGTH; i++) {
+            buffer.put(offset + REFERENCE_OFFSET + i, (byte) 0);
+        }
+        buffer.putInt(offset + CRC_OFFSET, crc(buffer, offset));
+    }
+
+    /**
+     * @return the record at {@code offset}, or null if the slot has never been written
+     * @throws CorruptRecordException if the slot holds a torn or damaged record
+     */
+    static JournalRecord readFrom(ByteBuffer buffer, int offset) {
+        byte marker = buffer.get(offset);
+        if (marker == 0) {
+            return null;
+        }
+        if (marker != MARKER || buffer.get(offset + 1) != VERSION
+                || buffer.getInt(offset + CRC_OFFSET) != crc(buffer, offset)) {
+            throw new CorruptRecordException(offset);
+        }
+        int previous = buffer.get(offset + 2);
+        int length = 0;
+        while (length < REFERENCE_LENGTH && buffer.get(offset + REFERENCE_OFFSET + length) != 0) {
+            length++;
+        }
+        byte[] reference = new byte[length];
+        buffer.get(offset + REFERENCE_OFFSET, reference);
+        return new JournalRecord(
+                buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32),
+                new String(reference, StandardCharsets.US_ASCII),
+                previous == 0 ? null : STATUSES[previous - 1],
+                STATUSES[buffer.get(offset + 3)]);
+    }
+
+    private static int crc(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        crc.update(buffer.slice(offset + BODY_OFFSET, SIZE - BODY_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    static class CorruptRecordException extends RuntimeException {
+
+        CorruptRecordException(int offset) {
+            super("Corrupt journal record at offset " + offset, null, false, false);
+        }
+    }
+}
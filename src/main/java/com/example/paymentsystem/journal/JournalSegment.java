@@ -0,0 +1,101 @@
+package com.example.paymentsystem.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * A fixed-size, memory-mapped journal file. Appends are plain stores into the mapping; the OS
+ * writes them back on its own schedule and {@link #force()} makes them durable. Not thread-safe:
+ * {@link ExecutionJournal} serializes access.
+ */
+@Slf4j
+class JournalSegment implements AutoCloseable {
+
+    private final Path file;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+    private int position;
+
+    private JournalSegment(Path file, int capacity, MappedByteBuffer buffer) {
+        this.file = file;
+        this.capacity = capacity;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps {@code file}, creating and zero-filling it to {@code capacity} bytes if it does not exist.
+     */
+    static JournalSegment open(Path file, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            int size = (int) Math.max(channel.size(), capacity);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new JournalSegment(file, size - size % JournalRecord.SIZE, buffer);
+        }
+    }
+
+    /**
+     * Reads records from the start of the segment until the first unwritten slot and leaves the
+     * append position there. A damaged record ends the replay; it and everything after it are
+     * zeroed so appends continue from the last good record.
+     *
+     * @return number of damaged records found (0 or 1)
+     */
+    int replay(Consumer<JournalRecord> consumer) {
+        position = 0;
+        while (position < capacity) {
+            JournalRecord record;
+            try {
+                record = JournalRecord.readFrom(buffer, position);
+            } catch (JournalRecord.CorruptRecordException e) {
+                log.atWarn().setMessage("Truncating journal segment at damaged record")
+                        .addKeyValue("segment", file.getFileName())
+                        .addKeyValue("offset", position)
+                        .log();
+                for (int i = position; i < capacity; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                return 1;
+            }
+            if (record == null) {
+                return 0;
+            }
+            consumer.accept(record);
+            position += JournalRecord.SIZE;
+        }
+        return 0;
+    }
+
+    /**
+     * @return false if the segment is full
+     */
+    boolean append(JournalRecord record) {
+        if (position + JournalRecord.SIZE > capacity) {
+            return false;
+        }
+        record.writeTo(buffer, position);
+        position += JournalRecord.SIZE;
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    int position() {
+        return position;
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.paymentsystem.lease;
+
+/**
+ * A lease this node holds. {@code partition} is -1 for a whole-job lease.
+ *
+ * @param fencingToken increases with every change of owner; pass the lease to
+ *                     {@link LeaseManager#fence} before a write only the owner may make
+ */
+public record Lease(String name, String owner, long fencingToken, int partition) {
+}
@@ -0,0 +1,12 @@
+package com.example.paymentsystem.lease;
+
+/**
+ * The lease was taken over by another node; the work that was about to be fenced must not commit.
+ */
+public class LeaseLostException extends IllegalStateException {
+
+    public LeaseLostException(Lease lease) {
+        super("Lease " + lease.name() + " with fencing token " + lease.fencingToken() + " is no longer held by "
+                + lease.owner());
+    }
+}
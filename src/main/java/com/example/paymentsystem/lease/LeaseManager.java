@@ -0,0 +1,323 @@
+package com.example.paymentsystem.lease;
+
+import com.example.paymentsystem.dto.JobLeaseDTO;
+import com.example.paymentsystem.entity.JobLease;
+import com.example.paymentsystem.repository.JobLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Leases on background jobs, kept in the job_leases table so that nodes sharing the database
+ * agree on who runs what. A {@code @Scheduled} method that must run on one node at a time wraps
+ * its body in {@link #runExclusive}; one whose work splits into partitions uses
+ * {@link #runPartitioned}, and the partitions are spread over the live nodes.
+ *
+ * A lease lasts {@code payment.lease.ttl} and is renewed by the heartbeat, so a node that stops
+ * loses its leases within one ttl and another node takes them over. A node that pauses past its
+ * ttl can still believe it holds a lease; writes only the owner may make should call
+ * {@link #fence} in their transaction, which fails once the fencing token has moved on.
+ *
+ * A partitioned job also keeps a member lease per node, named after the node, to count the live
+ * nodes. A node deletes its own member row when it releases its leases; rows left by nodes that
+ * stopped without releasing are deleted by the others once they have been expired for
+ * {@value #MEMBER_PURGE_TTLS} ttls.
+ *
+ * Times are UTC instants, so nodes in different zones, or crossing a DST change, agree on when a
+ * lease expires. Expiry is still compared against each node's own clock, so clocks must agree to
+ * well within the ttl.
+ */
+@Component
+@Slf4j
+public class LeaseManager {
+
+    private static final Instant NEVER_HELD = Instant.EPOCH;
+    private static final int NO_PARTITION = -1;
+    private static final int MEMBER_PURGE_TTLS = 4;
+    private static final String MEMBER_SEGMENT = "/member/";
+
+    private final JobLeaseRepository leaseRepository;
+    private final Clock clock;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration ttl;
+    private final Duration heartbeatInterval;
+
+    private final Map<String, Held> held = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastBalanced = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LeaseManager(JobLeaseRepository leaseRepository,
+                        @Value("${payment.lease.enabled:true}") boolean enabled,
+                        @Value("${payment.lease.node-id:}") String nodeId,
+                        @Value("${payment.lease.ttl:PT15S}") Duration ttl,
+                        @Value("${payment.lease.heartbeat-interval-ms:5000}") long heartbeatIntervalMs) {
+        this(leaseRepository, Clock.systemUTC(), enabled,
+                nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId,
+                ttl, Duration.ofMillis(heartbeatIntervalMs));
+    }
+
+    public LeaseManager(JobLeaseRepository leaseRepository, Clock clock, boolean enabled, String nodeId,
+                        Duration ttl, Duration heartbeatInterval) {
+        if (heartbeatInterval.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("Lease heartbeat interval " + heartbeatInterval
+                    + " must be shorter than the ttl " + ttl);
+        }
+        this.leaseRepository = leaseRepository;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.ttl = ttl;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Until when this node is sure to hold the lease: its last renewal plus the ttl. Empty when
+     * the lease is not held, including after the heartbeat found it taken over.
+     */
+    public Optional<Instant> heldUntil(String name) {
+        Held current = held.get(name);
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.renewedAt.plus(ttl));
+    }
+
+    /**
+     * Runs the work if this node holds, or can take, the job's lease.
+     *
+     * @return whether the work ran
+     */
+    public boolean runExclusive(String job, Consumer<Lease> work) {
+        Optional<Lease> lease = enabled ? acquire(job, NO_PARTITION) : Optional.of(unfenced(job, NO_PARTITION));
+        lease.ifPresent(work);
+        return lease.isPresent();
+    }
+
+    /**
+     * Runs the work once for each of the job's partitions this node owns.
+     *
+     * @return number of partitions the work ran for
+     */
+    public int runPartitioned(String job, int partitions, Consumer<Lease> work) {
+        List<Lease> owned = acquirePartitions(job, partitions);
+        owned.forEach(work);
+        return owned.size();
+    }
+
+    /**
+     * Takes this node's share of the job's partitions: ceil(partitions / live nodes), counting
+     * the nodes that have run the job within the ttl. Partitions above the share are released
+     * so a node that has just joined can take them. Ownership is rebalanced at most once per
+     * heartbeat interval; in between the partitions already held are returned.
+     */
+    public List<Lease> acquirePartitions(String job, int partitions) {
+        if (!enabled) {
+            List<Lease> all = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++) {
+                all.add(unfenced(partitionName(job, p), p));
+            }
+            return all;
+        }
+
+        Instant now = now();
+        Instant balanced = lastBalanced.get(job);
+        if (balanced != null && balanced.plus(heartbeatInterval).isAfter(now)) {
+            return heldPartitions(job, now);
+        }
+        lastBalanced.put(job, now);
+
+        String memberPrefix = memberPrefix(job);
+        if (acquire(memberPrefix + nodeId, NO_PARTITION).isEmpty()) {
+            return List.of();
+        }
+        leaseRepository.deleteExpired(memberPrefix, now.minus(ttl.multipliedBy(MEMBER_PURGE_TTLS)));
+        long members = Math.max(1, leaseRepository.countLive(memberPrefix, now));
+        long share = (partitions + members - 1) / members;
+
+        List<Lease> owned = new ArrayList<>();
+        for (Lease lease : heldPartitions(job, now)) {
+            if (lease.partition() >= partitions || owned.size() >= share) {
+                release(lease);
+            } else {
+                acquire(lease.name(), lease.partition()).ifPresent(owned::add);
+            }
+        }
+        for (int p = 0; p < partitions && owned.size() < share; p++) {
+            String name = partitionName(job, p);
+            if (!held.containsKey(name)) {
+                acquire(name, p).ifPresent(owned::add);
+            }
+        }
+        owned.sort(Comparator.comparingInt(Lease::partition));
+        return owned;
+    }
+
+    /**
+     * Fails the surrounding transaction's fenced write if the lease has changed hands since it
+     * was issued. Must be called inside that transaction; the lease row stays locked until it
+     * ends, so a takeover cannot slip in before the write commits.
+     *
+     * @throws LeaseLostException if another node holds the lease now
+     */
+    public void fence(Lease lease) {
+        if (enabled && leaseRepository.fence(lease.name(), lease.owner(), lease.fencingToken(), now()) == 0) {
+            held.remove(lease.name());
+            throw new LeaseLostException(lease);
+        }
+    }
+
+    /**
+     * Hands the lease back. A member lease is deleted instead, since no other node will use it.
+     */
+    public void release(Lease lease) {
+        if (held.remove(lease.name()) != null) {
+            if (lease.name().contains(MEMBER_SEGMENT)) {
+                leaseRepository.deleteOwned(lease.name(), lease.owner(), lease.fencingToken());
+            } else {
+                leaseRepository.release(lease.name(), lease.owner(), lease.fencingToken(), now());
+            }
+            log.atInfo().setMessage("Released job lease").addKeyValue("lease", lease.name()).log();
+        }
+    }
+
+    /**
+     * Extends every lease this node holds. A lease that cannot be extended was taken over while
+     * this node was not looking and is dropped.
+     */
+    @Scheduled(fixedDelayString = "${payment.lease.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        for (Held current : List.copyOf(held.values())) {
+            renew(current);
+        }
+    }
+
+    /**
+     * Hands leases back on shutdown so other nodes need not wait for them to expire.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        for (Held current : List.copyOf(held.values())) {
+            try {
+                release(current.lease);
+            } catch (RuntimeException e) {
+                log.debug("Could not release lease {} on shutdown: {}", current.lease.name(), e.getMessage());
+            }
+        }
+    }
+
+    public List<JobLeaseDTO> getLeases() {
+        Instant now = now();
+        return leaseRepository.findAllOrderByName().stream()
+                .map(lease -> new JobLeaseDTO(lease.getName(), lease.getOwner(), lease.getFencingToken(),
+                        lease.getExpiresAt(), lease.getOwner() == null || lease.getExpiresAt().isBefore(now),
+                        nodeId.equals(lease.getOwner()) && held.containsKey(lease.getName())))
+                .toList();
+    }
+
+    Optional<Lease> acquire(String name, int partition) {
+        Held current = held.get(name);
+        if (current != null) {
+            if (current.renewedAt.plus(heartbeatInterval).isAfter(now())) {
+                return Optional.of(current.lease);
+            }
+            return renew(current);
+        }
+
+        ensureExists(name);
+        Instant now = now();
+        if (leaseRepository.takeOver(name, nodeId, now, now.plus(ttl)) == 0) {
+            return Optional.empty();
+        }
+        JobLease row = leaseRepository.findById(name).orElseThrow();
+        if (!nodeId.equals(row.getOwner())) {
+            return Optional.empty();
+        }
+        Lease lease = new Lease(name, nodeId, row.getFencingToken(), partition);
+        held.put(name, new Held(lease, now));
+        log.atInfo().setMessage("Acquired job lease")
+                .addKeyValue("lease", name)
+                .addKeyValue("fencingToken", lease.fencingToken())
+                .log();
+        return Optional.of(lease);
+    }
+
+    private Optional<Lease> renew(Held current) {
+        Lease lease = current.lease;
+        Instant now = now();
+        if (leaseRepository.renew(lease.name(), nodeId, lease.fencingToken(), now, now.plus(ttl)) == 1) {
+            held.put(lease.name(), new Held(lease, now));
+            return Optional.of(lease);
+        }
+        held.remove(lease.name());
+        log.atWarn().setMessage("Lost job lease to another node")
+                .addKeyValue("lease", lease.name())
+                .addKeyValue("fencingToken", lease.fencingToken())
+                .log();
+        return Optional.empty();
+    }
+
+    private List<Lease> heldPartitions(String job, Instant now) {
+        String prefix = job + "/partition/";
+        return held.values().stream()
+                .filter(current -> current.lease.name().startsWith(prefix))
+                .filter(current -> current.renewedAt.plus(ttl).isAfter(now))
+                .map(current -> current.lease)
+                .sorted(Comparator.comparingInt(Lease::partition))
+                .toList();
+    }
+
+    private void ensureExists(String name) {
+        if (leaseRepository.existsById(name)) {
+            return;
+        }
+        try {
+            leaseRepository.saveAndFlush(new JobLease(name, null, 0, NEVER_HELD, null, null));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+    }
+
+    private Lease unfenced(String name, int partition) {
+        return new Lease(name, nodeId, 0, partition);
+    }
+
+    private Instant now() {
+        return clock.instant();
+    }
+
+    private static String memberPrefix(String job) {
+        return job + MEMBER_SEGMENT;
+    }
+
+    static String partitionName(String job, int partition) {
+        return job + "/partition/" + partition;
+    }
+
+    private record Held(Lease lease, Instant renewedAt) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.paymentsystem.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+
+    /**
+     * High-volume lookups that change nothing. The prod logging profile samples these, see
+     * {@link MarkerSamplingFilter}.
+     */
+    public static final Marker READ_PATH = MarkerFactory.getMarker("READ_PATH");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.paymentsystem.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets one log line through per interval and counts the rest, so a burst of identical client
+ * errors costs a counter increment instead of a log event each. The permitted line reports how
+ * many were suppressed since the previous one.
+ */
+public class LogRateLimiter {
+
+    /** Returned by {@link #tryAcquire()} when the caller should not log. */
+    public static final long DENIED = -1;
+
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextPermitAt;
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogRateLimiter(Duration interval) {
+        this(interval, System::nanoTime);
+    }
+
+    LogRateLimiter(Duration interval, LongSupplier nanoClock) {
+        this.intervalNanos = interval.toNanos();
+        this.nanoClock = nanoClock;
+        this.nextPermitAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * @return the number of calls suppressed since the last permit, or {@link #DENIED}
+     */
+    public long tryAcquire() {
+        long now = nanoClock.getAsLong();
+        long next = nextPermitAt.get();
+        if (now - next >= 0 && nextPermitAt.compareAndSet(next, now + intervalNanos)) {
+            return suppressed.sumThenReset();
+        }
+        suppressed.increment();
+        return DENIED;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.paymentsystem.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Passes roughly one in {@code sampleEvery} events that carry the configured marker at INFO or
+ * below; WARN and ERROR always pass, as do unmarked events. Attached to the async appender, so
+ * dropped events never reach its queue.
+ *
+ * This is an appender filter rather than a TurboFilter because logback 1.4 routes the SLF4J fluent
+ * API (used for key/value logging) straight to the appenders, past the turbo filter chain.
+ */
+public class MarkerSamplingFilter extends Filter<ILoggingEvent> {
+
+    private String marker = LogMarkers.READ_PATH.getName();
+    private int sampleEvery = 100;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (sampleEvery <= 1 || event.getLevel().isGreaterOrEqual(Level.WARN) || !hasMarker(event)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(sampleEvery) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean hasMarker(ILoggingEvent event) {
+        List<Marker> markers = event.getMarkerList();
+        if (markers == null) {
+            return false;
+        }
+        for (Marker candidate : markers) {
+            if (candidate.getName().equals(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+}
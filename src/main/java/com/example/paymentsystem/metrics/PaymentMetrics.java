@@ -0,0 +1,160 @@
+package com.example.paymentsystem.metrics;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution lifecycle and gateway meters.
+ *
+ * Every meter is registered up front (gateway timers once per provider) and looked up by array
+ * index or a plain map get, so recording on the request path does not allocate: no Tags, no
+ * Timer.Sample, just a nanoTime delta handed to an existing Timer.
+ */
+@Component
+public class PaymentMetrics {
+
+    public enum GatewayOutcome {
+        SUCCESS, DECLINED, ERROR
+    }
+
+    private static final String UNKNOWN_PROVIDER = "UNKNOWN";
+    private static final ExecutionStatus[] STATUSES = ExecutionStatus.values();
+    private static final GatewayOutcome[] OUTCOMES = GatewayOutcome.values();
+
+    private final MeterRegistry registry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // [previous status ordinal + 1, 0 meaning "none"][new status ordinal]
+    private final Counter[][] transitions = new Counter[STATUSES.length + 1][STATUSES.length];
+    private final ConcurrentMap<String, Timer[]> gatewayTimers = new ConcurrentHashMap<>();
+
+    private final Timer executionTotal;
+    private final Timer executionDb;
+    private final Timer executionGateway;
+    private final Timer laneWait;
+    private final Counter laneRejections;
+    private final Timer virtualThreadPinned;
+
+    public PaymentMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        for (int from = 0; from <= STATUSES.length; from++) {
+            String fromTag = from == 0 ? "NONE" : STATUSES[from - 1].name();
+            for (ExecutionStatus to : STATUSES) {
+                transitions[from][to.ordinal()] = Counter.builder("payment.execution.transitions")
+                        .description("Execution status transitions")
+                        .tag("from", fromTag)
+                        .tag("to", to.name())
+                        .register(registry);
+            }
+        }
+
+        executionTotal = executionTimer("total");
+        executionDb = executionTimer("db");
+        executionGateway = executionTimer("gateway");
+
+        Gauge.builder("payment.executions.in_flight", inFlight, AtomicInteger::get)
+                .description("Executions and retries currently being processed")
+                .register(registry);
+
+        laneWait = Timer.builder("payment.execution.lanes.wait")
+                .description("Time execution work spends queued for its lane")
+                .publishPercentileHistogram()
+                .register(registry);
+        laneRejections = Counter.builder("payment.execution.lanes.rejected")
+                .description("Execution work rejected because its lane queue was full")
+                .register(registry);
+        virtualThreadPinned = Timer.builder("payment.virtual_threads.pinned")
+                .description("Times a virtual thread blocked while pinned to its carrier thread, past the reporting threshold")
+                .register(registry);
+    }
+
+    public void registerLaneDepth(int lane, Collection<?> queue) {
+        Gauge.builder("payment.execution.lanes.depth", queue, Collection::size)
+                .description("Execution work queued on a lane, not counting the item running")
+                .tag("lane", String.valueOf(lane))
+                .register(registry);
+    }
+
+    public void recordLaneWait(long nanos) {
+        laneWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void laneRejected() {
+        laneRejections.increment();
+    }
+
+    public void recordVirtualThreadPinned(long nanos) {
+        virtualThreadPinned.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void executionStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * @param totalNanos   whole executePayment / retryExecution call
+     * @param gatewayNanos portion spent waiting on the gateway; the remainder is reported as the db phase
+     */
+    public void executionFinished(long totalNanos, long gatewayNanos) {
+        inFlight.decrementAndGet();
+        executionTotal.record(totalNanos, TimeUnit.NANOSECONDS);
+        executionGateway.record(gatewayNanos, TimeUnit.NANOSECONDS);
+        executionDb.record(totalNanos - gatewayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordGatewayCall(String provider, GatewayOutcome outcome, long nanos) {
+        String key = provider != null ? provider : UNKNOWN_PROVIDER;
+        Timer[] timers = gatewayTimers.get(key);
+        if (timers == null) {
+            timers = gatewayTimers.computeIfAbsent(key, this::registerGatewayTimers);
+        }
+        timers[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counted after commit so rolled back transitions are not reported.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExecutionStatusChanged(PaymentExecutionStatusChangedEvent event) {
+        int from = event.previousStatus() == null ? 0 : event.previousStatus().ordinal() + 1;
+        transitions[from][event.status().ordinal()].increment();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private Timer[] registerGatewayTimers(String provider) {
+        Timer[] timers = new Timer[OUTCOMES.length];
+        for (GatewayOutcome outcome : OUTCOMES) {
+            timers[outcome.ordinal()] = Timer.builder("payment.gateway.calls")
+                    .description("Payment gateway call latency")
+                    .tag("provider", provider)
+                    .tag("outcome", outcome.name())
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        return timers;
+    }
+
+    private Timer executionTimer(String phase) {
+        return Timer.builder("payment.execution.duration")
+                .description("executePayment and retryExecution time, split into db and gateway phases")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.paymentsystem.money;
+
+import com.example.paymentsystem.exception.InvalidOperationException;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A currency code and the number of decimals its amounts are held to. Instances for well-formed
+ * codes are interned, so a currency can be compared with {@code ==} and a million amounts in it
+ * share one instance. There are at most 26³ such codes, so the table cannot grow without bound.
+ *
+ * The scale is the currency's ISO minor unit, but never less than the two decimals of the amount
+ * columns, so every amount the database holds converts exactly. Codes the JDK does not know get
+ * two decimals. Amounts are still limited to the columns' two decimals: a three-decimal currency
+ * such as KWD counts in fils, but only whole multiples of ten fils are accepted, since the column
+ * would round the rest.
+ */
+public final class CurrencyUnit {
+
+    /** Decimals of the amount columns in payment_orders and payment_executions */
+    public static final int STORED_SCALE = 2;
+
+    private static final ConcurrentMap<String, CurrencyUnit> UNITS = new ConcurrentHashMap<>();
+
+    private final String code;
+    private final int scale;
+
+    private CurrencyUnit(String code, int scale) {
+        this.code = code;
+        this.scale = scale;
+    }
+
+    public static CurrencyUnit of(String code) {
+        CurrencyUnit unit = UNITS.get(code);
+        if (unit != null) {
+            return unit;
+        }
+        if (!isWellFormed(code)) {
+            return new CurrencyUnit(code, STORED_SCALE);
+        }
+        return UNITS.computeIfAbsent(code, c -> new CurrencyUnit(c, Math.max(isoDigits(c), STORED_SCALE)));
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * Exact conversion into minor units.
+     *
+     * @throws InvalidOperationException if the amount has more decimals than the currency or the
+     *                                   amount columns hold, or does not fit in a long
+     */
+    public long toMinorUnits(BigDecimal amount) {
+        if (amount.scale() > STORED_SCALE && amount.stripTrailingZeros().scale() > STORED_SCALE) {
+            throw new InvalidOperationException("Amount " + amount.toPlainString() + " has more than "
+                    + STORED_SCALE + " decimals, the most an amount is stored with");
+        }
+        try {
+            return amount.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidOperationException("Amount " + amount.toPlainString() + " cannot be held exactly in "
+                    + code + " with " + scale + " decimals");
+        }
+    }
+
+    public BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof CurrencyUnit unit && code.equals(unit.code);
+    }
+
+    @Override
+    public int hashCode() {
+        return code.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+
+    private static boolean isWellFormed(String code) {
+        if (code == null || code.length() != 3) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int isoDigits(String code) {
+        try {
+            return Currency.getInstance(code).getDefaultFractionDigits();
+        } catch (IllegalArgumentException e) {
+            return STORED_SCALE;
+        }
+    }
+}
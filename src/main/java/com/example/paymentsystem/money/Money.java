@@ -0,0 +1,70 @@
+package com.example.paymentsystem.money;
+
+import com.example.paymentsystem.exception.InvalidOperationException;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * An amount as a count of minor units of an interned {@link CurrencyUnit}. Used inside the
+ * execution and aggregation paths in place of BigDecimal: comparisons and sums are arithmetic on
+ * a long, and a Money that does not escape is usually never allocated at all. Entities, DTOs and
+ * events keep BigDecimal; {@link #of} and {@link #toBigDecimal} convert exactly at that boundary.
+ */
+public record Money(long minorUnits, CurrencyUnit currency) implements Comparable<Money> {
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    /**
+     * @throws InvalidOperationException if the amount cannot be held exactly in the currency
+     */
+    public static Money of(BigDecimal amount, String currencyCode) {
+        CurrencyUnit currency = CurrencyUnit.of(currencyCode);
+        return new Money(currency.toMinorUnits(amount), currency);
+    }
+
+    /**
+     * The minor units of {@link #of} without building the Money, for checks that need only the count.
+     *
+     * @throws InvalidOperationException if the amount cannot be held exactly in the currency
+     */
+    public static long minorUnits(BigDecimal amount, String currencyCode) {
+        return CurrencyUnit.of(currencyCode).toMinorUnits(amount);
+    }
+
+    public static Money zero(CurrencyUnit currency) {
+        return new Money(0, currency);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return currency.toDecimal(minorUnits);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return currency.code() + " " + toBigDecimal().toPlainString();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new InvalidOperationException("Cannot combine " + currency + " and " + other.currency + " amounts");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.paymentsystem.outbox;
+
+import com.example.paymentsystem.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Default sink: appends each event to a local file, one JSON object per line, and forces the file
+ * to disk on flush so acknowledged events survive a crash. Downstream jobs can tail the file
+ * until a broker is wired in. Writes are serialized by a ReentrantLock, not the monitor, so a
+ * relay on a virtual thread unmounts while it waits for the disk.
+ */
+public class JsonLinesOutboxSink implements OutboxSink, AutoCloseable {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final BufferedWriter writer;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public JsonLinesOutboxSink(ObjectMapper objectMapper, Path file) {
+        this.objectMapper = objectMapper;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open outbox file " + file, e);
+        }
+    }
+
+    @Override
+    public void publish(OutboxEvent event) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", event.getId());
+        json.put("aggregateType", event.getAggregateType());
+        json.put("aggregateId", event.getAggregateId());
+        json.put("eventType", event.getEventType());
+        json.put("createdAt", event.getCreatedAt().toString());
+        json.put("payload", objectMapper.readTree(event.getPayload()));
+        String line = objectMapper.writeValueAsString(json);
+        lock.lock();
+        try {
+            writer.write(line);
+            writer.newLine();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            writer.flush();
+            channel.force(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            writer.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.paymentsystem.outbox;
+
+import com.example.paymentsystem.entity.OutboxEvent;
+import com.example.paymentsystem.lease.Lease;
+import com.example.paymentsystem.lease.LeaseLostException;
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.repository.OutboxEventRepository;
+import com.example.paymentsystem.shard.ShardContext;
+import com.example.paymentsystem.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drains the outbox to the {@link OutboxSink} in id order and deletes what the sink accepted.
+ *
+ * When the sink rejects an event, later events of the same aggregate in that batch are held back
+ * so consumers never see them out of order; other aggregates carry on. Ids follow insert order,
+ * which matches commit order for any one aggregate because its changes are serialized by the
+ * service transactions that write them.
+ *
+ * The scheduled relay is split into {@code payment.outbox.partitions} partitions by aggregate id,
+ * and each node relays the partitions it holds a lease on, so an aggregate's events are only
+ * ever relayed by one node at a time. Deleting a delivered batch is fenced: a node that has lost
+ * the partition stops there and leaves the batch to the new owner.
+ *
+ * With sharding enabled events are written on their order's shard, and each partition is
+ * drained from every shard in turn under the one lease.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    static final String RELAY_JOB = "outbox-relay";
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxSink sink;
+    private final LeaseManager leaseManager;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate shardTransactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int partitions;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       OutboxSink sink,
+                       LeaseManager leaseManager,
+                       ShardRouter shardRouter,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${payment.outbox.relay-enabled:true}") boolean enabled,
+                       @Value("${payment.outbox.batch-size:200}") int batchSize,
+                       @Value("${payment.outbox.partitions:4}") int partitions) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.leaseManager = leaseManager;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
+        this.shardTransactionTemplate = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
+        if (shardTransactionTemplate != null) {
+            shardTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.partitions = partitions;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.relay-interval-ms:500}")
+    public void scheduledRelay() {
+        if (enabled) {
+            leaseManager.runPartitioned(RELAY_JOB, partitions, this::relayPending);
+        }
+    }
+
+    /**
+     * Relays every partition from this node, regardless of leases, until the outbox is empty or
+     * a batch could not be fully delivered.
+     *
+     * @return number of events delivered and deleted
+     */
+    public int relayPending() {
+        return relayPending(null);
+    }
+
+    /**
+     * Relays the lease's partition, or everything when the lease is null, from every shard.
+     */
+    int relayPending(Lease lease) {
+        return shardRouter.onEveryShard(() -> relayShard(lease)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private int relayShard(Lease lease) {
+        Pageable page = PageRequest.of(0, batchSize);
+        int total = 0;
+        while (true) {
+            List<OutboxEvent> batch = lease == null
+                    ? outboxRepository.findOldest(page)
+                    : outboxRepository.findOldestInPartition(partitions, lease.partition(), page);
+            if (batch.isEmpty()) {
+                return total;
+            }
+            int delivered = relayBatch(batch, lease);
+            total += delivered;
+            if (delivered < batch.size() || batch.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    int relayBatch(List<OutboxEvent> batch) {
+        return relayBatch(batch, null);
+    }
+
+    int relayBatch(List<OutboxEvent> batch, Lease lease) {
+        List<Long> published = new ArrayList<>(batch.size());
+        Set<String> blocked = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blocked.contains(aggregate)) {
+                continue;
+            }
+            try {
+                sink.publish(event);
+                published.add(event.getId());
+            } catch (Exception e) {
+                blocked.add(aggregate);
+                log.atWarn().setMessage("Outbox sink rejected event")
+                        .addKeyValue("outboxId", event.getId())
+                        .addKeyValue("aggregate", aggregate)
+                        .addKeyValue("error", e.getMessage())
+                        .log();
+            }
+        }
+        if (published.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.flush();
+        } catch (Exception e) {
+            log.atWarn().setMessage("Outbox sink flush failed, batch will be redelivered")
+                    .addKeyValue("events", published.size())
+                    .addKeyValue("error", e.getMessage())
+                    .log();
+            return 0;
+        }
+        if (lease == null) {
+            outboxRepository.deleteAllByIdInBatch(published);
+        } else {
+            try {
+                deleteFenced(published, lease);
+            } catch (LeaseLostException e) {
+                log.atWarn().setMessage("Outbox partition taken over, batch left to the new owner")
+                        .addKeyValue("lease", lease.name())
+                        .addKeyValue("events", published.size())
+                        .log();
+                return 0;
+            }
+        }
+        log.atDebug().setMessage("Relayed outbox events").addKeyValue("events", published.size()).log();
+        return published.size();
+    }
+
+    private void deleteFenced(List<Long> published, Lease lease) {
+        Integer shard = ShardContext.current();
+        if (shard == null || shard == ShardRouter.HOME_SHARD) {
+            transactionTemplate.executeWithoutResult(status -> {
+                leaseManager.fence(lease);
+                outboxRepository.deleteAllByIdInBatch(published);
+            });
+            return;
+        }
+        // Leases live on the home shard: the fenced lease row stays locked there until the delete
+        // has committed on the events' shard, so no new owner can relay them in between
+        shardRouter.onShard(ShardRouter.HOME_SHARD, () -> transactionTemplate.executeWithoutResult(status -> {
+            leaseManager.fence(lease);
+            shardRouter.onShard(shard, () -> shardTransactionTemplate.executeWithoutResult(
+                    inner -> outboxRepository.deleteAllByIdInBatch(published)));
+        }));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.paymentsystem.outbox;
+
+import com.example.paymentsystem.entity.OutboxEvent;
+
+/**
+ * Destination of relayed outbox events. {@link #publish} is called in outbox order; an event
+ * counts as delivered only after a later {@link #flush} returns, so a sink that buffers must not
+ * report success before the buffer is durable. Throwing from either method leaves the events in
+ * the outbox for the next relay run, which makes delivery at-least-once: consumers deduplicate on
+ * the outbox id.
+ */
+public interface OutboxSink {
+
+    void publish(OutboxEvent event) throws Exception;
+
+    default void flush() throws Exception {
+    }
+}
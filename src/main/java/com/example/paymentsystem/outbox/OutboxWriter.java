@@ -0,0 +1,75 @@
+package com.example.paymentsystem.outbox;
+
+import com.example.paymentsystem.entity.OutboxEvent;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import com.example.paymentsystem.event.PaymentOrderDeletedEvent;
+import com.example.paymentsystem.event.PaymentOrderStatusChangedEvent;
+import com.example.paymentsystem.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appends status changes to the outbox. Propagation is MANDATORY: the row must commit or roll
+ * back together with the change it describes, so calling this outside a transaction is a bug.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    public static final String ORDER_AGGREGATE = "PaymentOrder";
+    public static final String EXECUTION_AGGREGATE = "PaymentExecution";
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderStatusChanged(PaymentOrder order, PaymentOrderStatus previousStatus) {
+        append(ORDER_AGGREGATE, order.getId(), "PaymentOrderStatusChanged",
+                PaymentOrderStatusChangedEvent.of(order, previousStatus));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderDeleted(Long orderId) {
+        append(ORDER_AGGREGATE, orderId, "PaymentOrderDeleted", new PaymentOrderDeletedEvent(orderId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void executionStatusChanged(PaymentExecutionStatusChangedEvent event) {
+        append(EXECUTION_AGGREGATE, event.executionId(), "PaymentExecutionStatusChanged", event);
+    }
+
+    /**
+     * The creation event of an order inserted without JPA. Nothing is saved: the caller inserts
+     * the row in the transaction that inserts the order.
+     */
+    public OutboxEvent orderCreated(Long orderId, String orderReference, String customerId) {
+        return event(ORDER_AGGREGATE, orderId, "PaymentOrderStatusChanged", new PaymentOrderStatusChangedEvent(
+                orderId, orderReference, customerId, null, PaymentOrderStatus.PENDING, LocalDateTime.now()));
+    }
+
+    private void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        outboxRepository.save(event(aggregateType, aggregateId, eventType, payload));
+    }
+
+    private OutboxEvent event(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(String.valueOf(aggregateId));
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + eventType + " for outbox", e);
+        }
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+}
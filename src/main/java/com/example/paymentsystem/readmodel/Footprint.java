@@ -0,0 +1,66 @@
+package com.example.paymentsystem.readmodel;
+
+/**
+ * Estimated retained heap of the read model. Assumes a 64-bit JVM with compressed oops: 12-byte
+ * object headers, 4-byte references and 8-byte alignment. Strings are assumed compact, so Latin-1
+ * content takes one byte per char. Pooled strings and enum constants are shared and not charged
+ * to any order, and so are interned currencies.
+ */
+final class Footprint {
+
+    static final int VIEW = align(12 + 4 + 4 + 4);
+    static final int ORDER = align(12 + 6 * 8 + 12 * 4);
+    static final int LATEST_EXECUTION = align(12 + 8 + 4 + 4 + 8);
+    static final int BOXED_LONG = align(12 + 8);
+    static final int MAP_NODE = align(12 + 4 + 4 + 4 + 4);
+
+    /**
+     * Per order: the boxed id shared by all four maps, a node in the id map, the reference map
+     * and both index sets, and about two table slots in each of those four tables.
+     */
+    static final int INDEX_ENTRY = BOXED_LONG + 4 * MAP_NODE + 4 * 2 * 4;
+
+    /**
+     * Per customer: the index map node plus a HashSet with its backing HashMap and a small table.
+     */
+    static final int CUSTOMER_ENTRY = MAP_NODE + align(12 + 4) + align(12 + 4 * 4 + 4 * 4) + align(16 + 16 * 4);
+
+    private Footprint() {
+    }
+
+    static long of(OrderView view, StringPool strings) {
+        OrderView.Order order = view.order();
+        long bytes = INDEX_ENTRY + VIEW + ORDER
+                + string(order.orderReference(), strings)
+                + string(order.customerId(), strings)
+                + string(order.customerName(), strings)
+                + string(order.customerEmail(), strings)
+                + string(order.description(), strings)
+                + string(order.beneficiaryName(), strings)
+                + string(order.beneficiaryAccount(), strings)
+                + string(order.beneficiaryBank(), strings)
+                + string(order.beneficiaryBankCode(), strings);
+        if (view.latestExecution() != null) {
+            bytes += LATEST_EXECUTION + string(view.latestExecution().executionReference(), strings);
+        }
+        return bytes;
+    }
+
+    static long string(String value, StringPool strings) {
+        if (value == null || strings.isPooled(value)) {
+            return 0;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > 0xFF) {
+                length = value.length() * 2;
+                break;
+            }
+        }
+        return align(12 + 4 + 4 + 1 + 1) + align(16 + length);
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+}
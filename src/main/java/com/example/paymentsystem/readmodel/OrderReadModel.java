@@ -0,0 +1,453 @@
+package com.example.paymentsystem.readmodel;
+
+import com.example.paymentsystem.dto.ReadModelStatsDTO;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import com.example.paymentsystem.event.PaymentOrderChangedEvent;
+import com.example.paymentsystem.event.PaymentOrderDeletedEvent;
+import com.example.paymentsystem.event.PaymentOrdersImportedEvent;
+import com.example.paymentsystem.money.CurrencyUnit;
+import com.example.paymentsystem.repository.PaymentExecutionRepository;
+import com.example.paymentsystem.repository.PaymentExecutionRepository.LatestExecutionSummary;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory read side for orders: one {@link OrderView} per order, indexed by id, reference,
+ * customer and status, and kept current from the domain events the services publish after each
+ * commit. Lookups by id and reference are lock-free map reads. Writes and the customer and status
+ * listings share a read-write lock, so a listing never sees an order half-way through a change.
+ *
+ * The model is rebuilt from the database on startup and only serves reads once that is done;
+ * until then callers query the database. It only hears about writes made through this instance,
+ * so with another instance writing to the same database its listings would miss that instance's
+ * orders and show stale statuses. It is therefore only loaded when
+ * {@code payment.read-model.single-instance} is true. Past {@code payment.read-model.max-orders}
+ * the model drops its contents and stops serving rather than grow without bound; every read then
+ * goes to the database until a rebuild finds the orders fit again.
+ */
+@Component
+@Slf4j
+public class OrderReadModel {
+
+    private static final int STRING_POOL_SIZE = 4096;
+    private static final Comparator<OrderView> BY_ID = Comparator.comparingLong(OrderView::id);
+
+    private final PaymentOrderRepository orderRepository;
+    private final PaymentExecutionRepository executionRepository;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int maxOrders;
+    private final int rebuildPageSize;
+
+    private final ConcurrentMap<Long, OrderView> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> idByReference = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> idsByCustomer = new HashMap<>();
+    private final Map<PaymentOrderStatus, Set<Long>> idsByStatus = new EnumMap<>(PaymentOrderStatus.class);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final StringPool strings = new StringPool(STRING_POOL_SIZE);
+    private final LongAdder eventsApplied = new LongAdder();
+
+    private volatile boolean serving;
+    private volatile boolean overflowed;
+    private volatile long rebuildNanos;
+    private volatile int rebuiltOrders;
+
+    @Autowired
+    public OrderReadModel(PaymentOrderRepository orderRepository,
+                          PaymentExecutionRepository executionRepository,
+                          ShardRouter shardRouter,
+                          @Value("${payment.read-model.enabled:true}") boolean enabled,
+                          @Value("${payment.read-model.single-instance:true}") boolean singleInstance,
+                          @Value("${payment.read-model.max-orders:250000}") int maxOrders,
+                          @Value("${payment.read-model.rebuild-page-size:5000}") int rebuildPageSize) {
+        this(orderRepository, executionRepository, shardRouter, enabled && singleInstance, maxOrders, rebuildPageSize);
+        if (enabled && !singleInstance) {
+            log.atInfo().setMessage("Order read model disabled: other instances share the database").log();
+        }
+    }
+
+    public OrderReadModel(PaymentOrderRepository orderRepository,
+                          PaymentExecutionRepository executionRepository,
+                          ShardRouter shardRouter,
+                          boolean enabled,
+                          int maxOrders,
+                          int rebuildPageSize) {
+        this.orderRepository = orderRepository;
+        this.executionRepository = executionRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.maxOrders = maxOrders;
+        this.rebuildPageSize = rebuildPageSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isServing() {
+        return serving;
+    }
+
+    public Optional<OrderView> findById(long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<OrderView> findByReference(String orderReference) {
+        Long id = idByReference.get(orderReference);
+        return id == null ? Optional.empty() : findById(id);
+    }
+
+    public List<OrderView> findByCustomerId(String customerId) {
+        return list(() -> idsByCustomer.get(customerId));
+    }
+
+    public List<OrderView> findByStatus(PaymentOrderStatus status) {
+        return list(() -> idsByStatus.get(status));
+    }
+
+    /**
+     * Sum of the amounts of a customer's orders in a status, as the database's SUM would give it.
+     * Orders in one currency are summed as longs without allocating; a customer with orders in
+     * several currencies has the others added as BigDecimal.
+     */
+    public BigDecimal sumAmount(String customerId, PaymentOrderStatus status) {
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = idsByCustomer.get(customerId);
+            if (ids == null) {
+                return BigDecimal.ZERO;
+            }
+            CurrencyUnit currency = null;
+            long minorUnits = 0;
+            BigDecimal otherCurrencies = null;
+            for (Long id : ids) {
+                OrderView.Order order = byId.get(id).order();
+                if (order.status() != status) {
+                    continue;
+                }
+                if (currency == null || order.currency() == currency) {
+                    currency = order.currency();
+                    minorUnits = Math.addExact(minorUnits, order.amountMinorUnits());
+                } else {
+                    BigDecimal amount = order.currency().toDecimal(order.amountMinorUnits());
+                    otherCurrencies = otherCurrencies == null ? amount : otherCurrencies.add(amount);
+                }
+            }
+            if (currency == null) {
+                return BigDecimal.ZERO;
+            }
+            BigDecimal total = currency.toDecimal(minorUnits);
+            return otherCurrencies == null ? total : total.add(otherCurrencies);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<OrderView> list(Supplier<Set<Long>> index) {
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = index.get();
+            if (ids == null) {
+                return List.of();
+            }
+            List<OrderView> views = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                views.add(byId.get(id));
+            }
+            views.sort(BY_ID);
+            return views;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reloads every order from the database in id order, shard by shard. Events that arrive
+     * meanwhile are applied as usual; each page is merged under the write lock, keeping whichever
+     * side is newer. Concurrent rebuilds queue on a ReentrantLock, which unlike a monitor does not
+     * pin a virtual thread through the database reads.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            serving = false;
+            long start = System.nanoTime();
+            writeLocked(() -> {
+                byId.clear();
+                idByReference.clear();
+                idsByCustomer.clear();
+                idsByStatus.clear();
+                overflowed = false;
+            });
+
+            int loaded = shardRouter.onEveryShard(this::loadShard).stream().mapToInt(Integer::intValue).sum();
+
+            rebuildNanos = System.nanoTime() - start;
+            rebuiltOrders = loaded;
+            serving = !overflowed;
+            log.atInfo().setMessage("Order read model rebuilt")
+                    .addKeyValue("orders", loaded)
+                    .addKeyValue("millis", rebuildNanos / 1_000_000)
+                    .addKeyValue("serving", serving)
+                    .log();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private int loadShard() {
+        int loaded = 0;
+        long afterId = 0;
+        List<PaymentOrder> page;
+        do {
+            page = orderRepository.findPageAfter(afterId, PageRequest.ofSize(rebuildPageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Long> ids = page.stream().map(PaymentOrder::getId).toList();
+            Map<Long, LatestExecutionSummary> latest = new HashMap<>();
+            for (LatestExecutionSummary summary : executionRepository.findLatestByOrderIds(ids)) {
+                latest.put(summary.getOrderId(), summary);
+            }
+            List<OrderView> views = new ArrayList<>(page.size());
+            for (PaymentOrder order : page) {
+                views.add(toView(order, latest.get(order.getId())));
+            }
+            writeLocked(() -> views.forEach(this::merge));
+            loaded += page.size();
+            afterId = ids.get(ids.size() - 1);
+        } while (page.size() == rebuildPageSize && !overflowed);
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(PaymentOrderChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        OrderView.Order order = OrderView.Order.of(event, strings);
+        apply(() -> upsert(order));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderDeleted(PaymentOrderDeletedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        apply(() -> {
+            OrderView removed = byId.remove(event.orderId());
+            if (removed != null) {
+                idByReference.remove(removed.order().orderReference());
+                unindex(removed.order());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersImported(PaymentOrdersImportedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<OrderView.Order> orders = orderRepository.findByOrderReferenceIn(event.orderReferences()).stream()
+                .map(order -> OrderView.Order.of(PaymentOrderChangedEvent.of(order), strings))
+                .toList();
+        apply(() -> orders.forEach(this::upsert));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExecutionStatusChanged(PaymentExecutionStatusChangedEvent event) {
+        if (!enabled || event.orderId() == null) {
+            return;
+        }
+        OrderView.LatestExecution execution = new OrderView.LatestExecution(event.executionId(),
+                event.executionReference(), event.status(), OrderView.toNanos(event.occurredAt()));
+        boolean created = event.previousStatus() == null;
+        apply(() -> {
+            OrderView current = byId.get(event.orderId());
+            // Orders created elsewhere are picked up by the next rebuild
+            if (current == null) {
+                return;
+            }
+            OrderView.LatestExecution latest = execution.isNewerThan(current.latestExecution())
+                    ? execution : current.latestExecution();
+            int attempts = current.executionAttempts() + (created ? 1 : 0);
+            byId.put(event.orderId(), new OrderView(current.order(), latest, attempts));
+        });
+    }
+
+    // Callers hold the write lock for everything below
+
+    private void upsert(OrderView.Order order) {
+        OrderView current = byId.get(order.id());
+        if (current == null) {
+            put(new OrderView(order, null, 0));
+        } else if (order.updatedAt() >= current.order().updatedAt()) {
+            replace(current, new OrderView(order, current.latestExecution(), current.executionAttempts()));
+        }
+    }
+
+    /**
+     * Rebuild path: the loaded view may race with events applied since the rebuild started, so the
+     * newer order state and the newer latest execution win independently.
+     */
+    private void merge(OrderView loaded) {
+        OrderView current = byId.get(loaded.id());
+        if (current == null) {
+            put(loaded);
+            return;
+        }
+        OrderView.Order order = loaded.order().updatedAt() >= current.order().updatedAt()
+                ? loaded.order() : current.order();
+        OrderView.LatestExecution latest = loaded.latestExecution() != null
+                && loaded.latestExecution().isNewerThan(current.latestExecution())
+                ? loaded.latestExecution() : current.latestExecution();
+        int attempts = Math.max(loaded.executionAttempts(), current.executionAttempts());
+        replace(current, new OrderView(order, latest, attempts));
+    }
+
+    private void put(OrderView view) {
+        if (overflowed) {
+            return;
+        }
+        if (byId.size() >= maxOrders) {
+            overflow();
+            return;
+        }
+        Long id = view.id();
+        byId.put(id, view);
+        idByReference.put(view.order().orderReference(), id);
+        idsByCustomer.computeIfAbsent(view.order().customerId(), k -> new HashSet<>()).add(id);
+        idsByStatus.computeIfAbsent(view.order().status(), k -> new HashSet<>()).add(id);
+    }
+
+    private void replace(OrderView current, OrderView next) {
+        byId.put(next.id(), next);
+        if (current.order().status() != next.order().status()
+                || !current.order().customerId().equals(next.order().customerId())) {
+            unindex(current.order());
+            Long id = next.id();
+            idsByCustomer.computeIfAbsent(next.order().customerId(), k -> new HashSet<>()).add(id);
+            idsByStatus.computeIfAbsent(next.order().status(), k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void unindex(OrderView.Order order) {
+        removeFrom(idsByCustomer, order.customerId(), order.id());
+        removeFrom(idsByStatus, order.status(), order.id());
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Long>> index, K key, long id) {
+        Set<Long> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private void overflow() {
+        overflowed = true;
+        serving = false;
+        byId.clear();
+        idByReference.clear();
+        idsByCustomer.clear();
+        idsByStatus.clear();
+        log.atWarn().setMessage("Order read model exceeded its capacity; reads use the database until it is rebuilt")
+                .addKeyValue("maxOrders", maxOrders)
+                .log();
+    }
+
+    private void apply(Runnable update) {
+        eventsApplied.increment();
+        writeLocked(update);
+    }
+
+    private void writeLocked(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private OrderView toView(PaymentOrder order, LatestExecutionSummary summary) {
+        OrderView.Order view = OrderView.Order.of(PaymentOrderChangedEvent.of(order), strings);
+        if (summary == null) {
+            return new OrderView(view, null, 0);
+        }
+        OrderView.LatestExecution latest = new OrderView.LatestExecution(summary.getExecutionId(),
+                summary.getExecutionReference(), summary.getStatus(), OrderView.toNanos(summary.getUpdatedAt()));
+        return new OrderView(view, latest, Math.toIntExact(summary.getAttempts()));
+    }
+
+    public ReadModelStatsDTO getStats() {
+        ReadModelStatsDTO stats = new ReadModelStatsDTO();
+        stats.setEnabled(enabled);
+        stats.setServing(serving);
+        stats.setOverflowed(overflowed);
+        stats.setMaxOrders(maxOrders);
+        stats.setRebuildMillis(rebuildNanos / 1_000_000);
+        stats.setRebuiltOrders(rebuiltOrders);
+        stats.setEventsApplied(eventsApplied.sum());
+
+        lock.readLock().lock();
+        try {
+            long bytes = (long) idsByCustomer.size() * Footprint.CUSTOMER_ENTRY;
+            int withExecutions = 0;
+            for (OrderView view : byId.values()) {
+                bytes += Footprint.of(view, strings);
+                if (view.latestExecution() != null) {
+                    withExecutions++;
+                }
+            }
+            Map<PaymentOrderStatus, Integer> byStatus = new EnumMap<>(PaymentOrderStatus.class);
+            idsByStatus.forEach((status, ids) -> byStatus.put(status, ids.size()));
+
+            int orders = byId.size();
+            stats.setOrders(orders);
+            stats.setCustomers(idsByCustomer.size());
+            stats.setOrdersWithExecutions(withExecutions);
+            stats.setOrdersByStatus(byStatus);
+            stats.setEstimatedBytes(bytes);
+            stats.setEstimatedBytesPerOrder(orders == 0 ? 0 : bytes / orders);
+            stats.setEstimatedBytesPerMillionOrders(orders == 0 ? 0 : bytes * 1_000_000 / orders);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.paymentsystem.readmodel;
+
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.dto.PaymentOrderViewDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.event.PaymentOrderChangedEvent;
+import com.example.paymentsystem.money.CurrencyUnit;
+import com.example.paymentsystem.money.Money;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Denormalized view of one order: the order, its most recent execution and how many executions
+ * it has had. Views are replaced, never modified, so a reader holding one sees the order and its
+ * latest execution as of the same moment.
+ *
+ * Timestamps are held as nanoseconds since the epoch, reading the LocalDateTime as if it were UTC.
+ * The conversion is exact both ways and saves the three objects behind every LocalDateTime.
+ */
+public record OrderView(Order order, LatestExecution latestExecution, int executionAttempts) {
+
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    public record Order(
+            long id,
+            String orderReference,
+            String customerId,
+            String customerName,
+            String customerEmail,
+            long amountMinorUnits,
+            CurrencyUnit currency,
+            PaymentOrderStatus status,
+            PaymentMethod paymentMethod,
+            String description,
+            String beneficiaryName,
+            String beneficiaryAccount,
+            String beneficiaryBank,
+            String beneficiaryBankCode,
+            long createdAt,
+            long updatedAt,
+            long scheduledAt,
+            long completedAt
+    ) {
+
+        public Money amount() {
+            return new Money(amountMinorUnits, currency);
+        }
+
+        /**
+         * Low-cardinality strings go through the pool so a million orders share a few instances.
+         * The amount is held as minor units of the interned currency, which needs no objects.
+         */
+        static Order of(PaymentOrderChangedEvent event, StringPool strings) {
+            CurrencyUnit currency = CurrencyUnit.of(event.currency());
+            return new Order(
+                    event.orderId(),
+                    event.orderReference(),
+                    event.customerId(),
+                    event.customerName(),
+                    event.customerEmail(),
+                    currency.toMinorUnits(event.amount()),
+                    currency,
+                    event.status(),
+                    event.paymentMethod(),
+                    event.description(),
+                    event.beneficiaryName(),
+                    event.beneficiaryAccount(),
+                    strings.canonical(event.beneficiaryBank()),
+                    strings.canonical(event.beneficiaryBankCode()),
+                    toNanos(event.createdAt()),
+                    toNanos(event.updatedAt()),
+                    toNanos(event.scheduledAt()),
+                    toNanos(event.completedAt()));
+        }
+    }
+
+    public record LatestExecution(long id, String executionReference, ExecutionStatus status, long updatedAt) {
+
+        boolean isNewerThan(LatestExecution other) {
+            return other == null || id > other.id || (id == other.id && updatedAt >= other.updatedAt);
+        }
+    }
+
+    public long id() {
+        return order.id();
+    }
+
+    public PaymentOrderDTO toOrderDTO() {
+        return new PaymentOrderDTO(
+                order.id(),
+                order.orderReference(),
+                order.customerId(),
+                order.customerName(),
+                order.customerEmail(),
+                order.currency().toDecimal(order.amountMinorUnits()),
+                order.currency().code(),
+                order.status(),
+                order.paymentMethod(),
+                order.description(),
+                order.beneficiaryName(),
+                order.beneficiaryAccount(),
+                order.beneficiaryBank(),
+                order.beneficiaryBankCode(),
+                fromNanos(order.createdAt()),
+                fromNanos(order.updatedAt()),
+                fromNanos(order.scheduledAt()),
+                fromNanos(order.completedAt()));
+    }
+
+    public PaymentOrderViewDTO toViewDTO() {
+        if (latestExecution == null) {
+            return new PaymentOrderViewDTO(toOrderDTO(), null, null, null, null, executionAttempts);
+        }
+        return new PaymentOrderViewDTO(
+                toOrderDTO(),
+                latestExecution.id(),
+                latestExecution.executionReference(),
+                latestExecution.status(),
+                fromNanos(latestExecution.updatedAt()),
+                executionAttempts);
+    }
+
+    static long toNanos(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        if (nanos == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
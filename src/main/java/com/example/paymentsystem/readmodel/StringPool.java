@@ -0,0 +1,37 @@
+package com.example.paymentsystem.readmodel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonical instances for low-cardinality strings such as currencies and bank names. Once full it
+ * stops admitting new values, so a stream of distinct inputs cannot grow it without bound.
+ */
+final class StringPool {
+
+    private final ConcurrentMap<String, String> pool = new ConcurrentHashMap<>();
+    private final int capacity;
+
+    StringPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = pool.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (pool.size() >= capacity) {
+            return value;
+        }
+        pooled = pool.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    boolean isPooled(String value) {
+        return value != null && pool.get(value) == value;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.paymentsystem.reference;
+
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.shard.ShardContext;
+import com.example.paymentsystem.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Order and execution references built from a 63-bit time-ordered id: 41 bits of milliseconds
+ * since 2024-01-01, a 10-bit node id and a 12-bit sequence. The id is written as 13 Crockford
+ * base32 characters after the prefix (and the shard tag when sharding is on), e.g.
+ * {@code ORD-01HV4K9Z2M0G7}. The alphabet is in ASCII order, so references from one node sort in
+ * the order they were issued and new rows land at the right edge of the unique index.
+ *
+ * The millisecond and sequence are one counter advanced with a single compare-and-set, so ids
+ * from one node are strictly increasing without a lock. A node that issues more than 4096
+ * references in a millisecond borrows from the next one, and a clock that steps back is ignored
+ * until it catches up. Ids from different nodes cannot collide as long as their node ids differ.
+ *
+ * The node id is {@code payment.reference.node-id}, or when that is unset, the first free
+ * reference-node lease from a start derived from the lease node id. The lease is renewed by the
+ * lease heartbeat. Once the lease runs out without a renewal the generator tries to take it back,
+ * and stops issuing references if another node holds it, since that node may be issuing ids with
+ * the same node id. Without job leases the node id must be set explicitly. The lease is always
+ * read and taken on the home shard, where the lease table lives, even when a reference is issued
+ * for another shard. Checks take a ReentrantLock rather than the monitor, since they query the
+ * database and would pin a virtual thread's carrier meanwhile.
+ */
+@Component
+@Slf4j
+public class ReferenceGenerator {
+
+    public static final int ID_LENGTH = 13;
+    public static final int MAX_NODES = 1 << 10;
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ORDER_PREFIX = "ORD-".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXECUTION_PREFIX = "EXE-".getBytes(StandardCharsets.US_ASCII);
+
+    private final LongSupplier clock;
+    private final long nodeBits;
+    private final int nodeId;
+    private final LeaseManager leaseManager;
+    private final ShardRouter shardRouter;
+    private final String leaseName;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    /** Epoch millisecond up to which the node id's lease is known to be held */
+    private volatile long leaseValidUntil = Long.MAX_VALUE;
+
+    /** Milliseconds since the epoch shifted left by the sequence bits, plus the sequence */
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public ReferenceGenerator(LeaseManager leaseManager, ShardRouter shardRouter,
+                              @Value("${payment.reference.node-id:-1}") int nodeId) {
+        this(System::currentTimeMillis, nodeId >= 0 ? nodeId : claimNodeId(leaseManager, shardRouter),
+                nodeId >= 0 ? null : leaseManager, shardRouter);
+    }
+
+    public ReferenceGenerator(LongSupplier clock, int nodeId) {
+        this(clock, nodeId, null, ShardRouter.unsharded());
+    }
+
+    /**
+     * @param leaseManager holds the node id's lease, or null for a node id set by configuration
+     */
+    ReferenceGenerator(LongSupplier clock, int nodeId, LeaseManager leaseManager, ShardRouter shardRouter) {
+        if (nodeId < 0 || nodeId >= MAX_NODES) {
+            throw new IllegalArgumentException("Reference node id must be between 0 and " + (MAX_NODES - 1)
+                    + ", got " + nodeId);
+        }
+        this.clock = clock;
+        this.nodeId = nodeId;
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.leaseManager = leaseManager;
+        this.shardRouter = shardRouter;
+        this.leaseName = leaseName(nodeId);
+        if (leaseManager != null) {
+            leaseValidUntil = Long.MIN_VALUE;
+        }
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public String nextOrderReference() {
+        return format(ORDER_PREFIX, nextId());
+    }
+
+    public String nextExecutionReference() {
+        return format(EXECUTION_PREFIX, nextId());
+    }
+
+    long nextId() {
+        long millis = clock.getAsLong();
+        if (millis >= leaseValidUntil) {
+            checkLease(millis);
+        }
+        long now = (millis - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long current = state.get();
+            long next = Math.max(current + 1, now);
+            if (state.compareAndSet(current, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * The millisecond a reference's id was issued in, as far as the issuing node's clock knew.
+     */
+    public static Instant issuedAt(String reference) {
+        long id = 0;
+        for (int i = reference.length() - ID_LENGTH; i < reference.length(); i++) {
+            id = id << 5 | decode(reference.charAt(i));
+        }
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+
+    private static String format(byte[] prefix, long id) {
+        Integer shard = ShardContext.current();
+        int idStart = prefix.length + (shard != null ? 2 : 0);
+        byte[] reference = new byte[idStart + ID_LENGTH];
+        System.arraycopy(prefix, 0, reference, 0, prefix.length);
+        if (shard != null) {
+            reference[prefix.length] = HEX[(shard >>> 4) & 0xF];
+            reference[prefix.length + 1] = HEX[shard & 0xF];
+        }
+        for (int i = reference.length - 1; i >= idStart; i--) {
+            reference[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(reference, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int decode(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not a reference id character: " + c);
+    }
+
+    /**
+     * Called once the lease is due for a renewal this generator has not seen. Renewals by the
+     * heartbeat just move the deadline; a lease that lapsed is taken back unless another node
+     * has it.
+     *
+     * @throws IllegalStateException if another node holds this node id
+     */
+    private void checkLease(long millis) {
+        leaseLock.lock();
+        try {
+            if (millis < leaseValidUntil) {
+                return;
+            }
+            long heldUntil = leaseManager.heldUntil(leaseName).map(Instant::toEpochMilli).orElse(Long.MIN_VALUE);
+            if (heldUntil <= millis) {
+                if (!shardRouter.onShard(ShardRouter.HOME_SHARD,
+                        () -> leaseManager.runExclusive(leaseName, lease -> { }))) {
+                    log.atError().setMessage("Reference node id is leased by another node; not issuing references")
+                            .addKeyValue("nodeId", nodeId)
+                            .log();
+                    throw new IllegalStateException("Reference node id " + nodeId
+                            + " is leased by another node; restart this node to claim another");
+                }
+                heldUntil = leaseManager.heldUntil(leaseName).map(Instant::toEpochMilli).orElse(Long.MIN_VALUE);
+            }
+            leaseValidUntil = heldUntil;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private static String leaseName(int nodeId) {
+        return "reference-node/" + nodeId;
+    }
+
+    private static int claimNodeId(LeaseManager leaseManager, ShardRouter shardRouter) {
+        if (!leaseManager.isEnabled()) {
+            // runExclusive always succeeds without leases, so nothing keeps two nodes apart
+            throw new IllegalStateException("Set payment.reference.node-id when payment.lease.enabled is false");
+        }
+        int start = Math.floorMod(leaseManager.getNodeId().hashCode(), MAX_NODES);
+        for (int i = 0; i < MAX_NODES; i++) {
+            int candidate = (start + i) % MAX_NODES;
+            if (shardRouter.onShard(ShardRouter.HOME_SHARD,
+                    () -> leaseManager.runExclusive(leaseName(candidate), lease -> { }))) {
+                log.atInfo().setMessage("Claimed reference node id").addKeyValue("nodeId", candidate).log();
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("All " + MAX_NODES + " reference node ids are leased by other nodes");
+    }
+}
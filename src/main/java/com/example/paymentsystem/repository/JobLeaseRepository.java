@@ -0,0 +1,91 @@
+package com.example.paymentsystem.repository;
+
+import com.example.paymentsystem.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Every change of owner is a single conditional UPDATE, so two nodes racing for a lease are
+ * serialized by the row lock and exactly one of them sees an update count of 1.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Takes the lease if it is free or expired, incrementing the fencing token.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE JobLease l SET l.owner = :owner, l.fencingToken = l.fencingToken + 1,
+                   l.acquiredAt = :now, l.renewedAt = :now, l.expiresAt = :expiresAt
+            WHERE l.name = :name AND (l.owner IS NULL OR l.expiresAt < :now)
+            """)
+    int takeOver(@Param("name") String name, @Param("owner") String owner,
+                 @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Extends the lease if nobody has taken it over since the token was issued. An expired lease
+     * nobody took over is still ours to extend.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE JobLease l SET l.renewedAt = :now, l.expiresAt = :expiresAt
+            WHERE l.name = :name AND l.owner = :owner AND l.fencingToken = :token
+            """)
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("token") long token,
+              @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE JobLease l SET l.owner = NULL, l.expiresAt = :now
+            WHERE l.name = :name AND l.owner = :owner AND l.fencingToken = :token
+            """)
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("token") long token,
+                @Param("now") Instant now);
+
+    /**
+     * Deletes a lease row the caller owns, for rows named after the node that no other node uses.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM JobLease l WHERE l.name = :name AND l.owner = :owner AND l.fencingToken = :token")
+    int deleteOwned(@Param("name") String name, @Param("owner") String owner, @Param("token") long token);
+
+    /**
+     * Deletes the lease rows under the prefix that expired before the given time.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM JobLease l WHERE l.name LIKE :prefix% AND l.expiresAt < :expiredBefore")
+    int deleteExpired(@Param("prefix") String prefix, @Param("expiredBefore") Instant expiredBefore);
+
+    /**
+     * Touches the lease inside the caller's transaction. The row stays locked until that
+     * transaction ends, so a takeover waits for the fenced write to commit or roll back.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query("""
+            UPDATE JobLease l SET l.renewedAt = :now
+            WHERE l.name = :name AND l.owner = :owner AND l.fencingToken = :token
+            """)
+    int fence(@Param("name") String name, @Param("owner") String owner, @Param("token") long token,
+              @Param("now") Instant now);
+
+    @Query("SELECT COUNT(l) FROM JobLease l WHERE l.name LIKE :prefix% AND l.owner IS NOT NULL AND l.expiresAt >= :now")
+    long countLive(@Param("prefix") String prefix, @Param("now") Instant now);
+
+    @Query("SELECT l FROM JobLease l ORDER BY l.name")
+    List<JobLease> findAllOrderByName();
+}
@@ -0,0 +1,25 @@
+package com.example.paymentsystem.repository;
+
+import com.example.paymentsystem.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+    List<OutboxEvent> findOldest(Pageable pageable);
+
+    /**
+     * Oldest events of one partition, partitioned by aggregate id. The table only holds the
+     * undelivered backlog, so the unindexed predicate is cheap.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE MOD(CAST(e.aggregateId AS Long), :partitions) = :partition ORDER BY e.id")
+    List<OutboxEvent> findOldestInPartition(@Param("partitions") int partitions, @Param("partition") int partition,
+                                            Pageable pageable);
+}
@@ -2,32 +2,58 @@ package com.example.paymentsystem.repository;
 
 import com.example.paymentsystem.entity.ExecutionStatus;
 import com.example.paymentsystem.entity.PaymentExecution;
+import com.example.paymentsystem.entity.PaymentMethod;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PaymentExecutionRepository extends JpaRepository<PaymentExecution, Long> {
 
+    // Finders that feed convertToDTO fetch the order in the same statement; it needs the
+    // order reference, and loading it lazily costs one extra query per distinct order.
+
+    @Override
+    @EntityGraph(attributePaths = "paymentOrder")
+    Optional<PaymentExecution> findById(Long id);
+
+    @EntityGraph(attributePaths = "paymentOrder")
     Optional<PaymentExecution> findByExecutionReference(String executionReference);
 
+    @EntityGraph(attributePaths = "paymentOrder")
     List<PaymentExecution> findByPaymentOrderId(Long paymentOrderId);
 
+    @EntityGraph(attributePaths = "paymentOrder")
     List<PaymentExecution> findByStatus(ExecutionStatus status);
 
     Optional<PaymentExecution> findByGatewayTransactionId(String gatewayTransactionId);
 
+    @EntityGraph(attributePaths = "paymentOrder")
     @Query("SELECT e FROM PaymentExecution e WHERE e.paymentOrder.id = :orderId ORDER BY e.createdAt DESC")
     List<PaymentExecution> findExecutionsByOrderIdOrderByCreatedAtDesc(@Param("orderId") Long orderId);
 
+    @EntityGraph(attributePaths = "paymentOrder")
     @Query("SELECT e FROM PaymentExecution e WHERE e.paymentOrder.orderReference = :orderReference")
     List<PaymentExecution> findByOrderReference(@Param("orderReference") String orderReference);
 
+    /**
+     * Locks the execution until the transaction ends, so recording an execution's outcome and
+     * failing it as stale cannot both apply.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = "paymentOrder")
+    @Query("SELECT e FROM PaymentExecution e WHERE e.id = :id")
+    Optional<PaymentExecution> findByIdForUpdate(@Param("id") Long id);
+
     @Query("SELECT e FROM PaymentExecution e WHERE e.status = :status AND e.createdAt < :threshold")
     List<PaymentExecution> findStaleExecutions(
             @Param("status") ExecutionStatus status,
@@ -40,8 +66,49 @@ public interface PaymentExecutionRepository extends JpaRepository<PaymentExecuti
             @Param("status") ExecutionStatus status
     );
 
+    @EntityGraph(attributePaths = "paymentOrder")
     @Query("SELECT e FROM PaymentExecution e WHERE e.paymentOrder.customerId = :customerId ORDER BY e.createdAt DESC")
     List<PaymentExecution> findByCustomerId(@Param("customerId") String customerId);
 
     boolean existsByExecutionReference(String executionReference);
+
+    /**
+     * The most recent execution of each of the given orders with the order's execution count.
+     * Orders without executions are absent from the result.
+     */
+    @Query("""
+            SELECT e.paymentOrder.id AS orderId, e.id AS executionId, e.executionReference AS executionReference,
+                   e.status AS status, e.updatedAt AS updatedAt,
+                   (SELECT COUNT(c) FROM PaymentExecution c WHERE c.paymentOrder.id = e.paymentOrder.id) AS attempts
+            FROM PaymentExecution e
+            WHERE e.paymentOrder.id IN :orderIds
+              AND e.id = (SELECT MAX(m.id) FROM PaymentExecution m WHERE m.paymentOrder.id = e.paymentOrder.id)
+            """)
+    List<LatestExecutionSummary> findLatestByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT e.paymentOrder.id AS orderId, e.paymentOrder.customerId AS customerId, "
+            + "e.paymentOrder.paymentMethod AS paymentMethod FROM PaymentExecution e WHERE e.id = :executionId")
+    Optional<OrderKey> findOrderKeyByExecutionId(@Param("executionId") Long executionId);
+
+    interface OrderKey {
+        Long getOrderId();
+
+        String getCustomerId();
+
+        PaymentMethod getPaymentMethod();
+    }
+
+    interface LatestExecutionSummary {
+        Long getOrderId();
+
+        Long getExecutionId();
+
+        String getExecutionReference();
+
+        ExecutionStatus getStatus();
+
+        LocalDateTime getUpdatedAt();
+
+        Long getAttempts();
+    }
 }
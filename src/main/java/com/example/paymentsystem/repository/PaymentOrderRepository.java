@@ -2,6 +2,7 @@ package com.example.paymentsystem.repository;
 
 import com.example.paymentsystem.entity.PaymentOrder;
 import com.example.paymentsystem.entity.PaymentOrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,4 +56,20 @@ public interface PaymentOrderRepository extends JpaRepository<PaymentOrder, Long
     );
 
     boolean existsByOrderReference(String orderReference);
+
+    List<PaymentOrder> findByOrderReferenceIn(Collection<String> orderReferences);
+
+    @Query("SELECT p.customerId FROM PaymentOrder p WHERE p.id = :id")
+    Optional<String> findCustomerIdById(@Param("id") Long id);
+
+    @Query("SELECT p.id AS orderId, p.customerId AS customerId, p.paymentMethod AS paymentMethod "
+            + "FROM PaymentOrder p WHERE p.id = :id")
+    Optional<PaymentExecutionRepository.OrderKey> findOrderKeyById(@Param("id") Long id);
+
+    /**
+     * Keyset paging for full scans: each page starts after the last id of the previous one, so
+     * late pages cost the same as early ones and no count query is issued.
+     */
+    @Query("SELECT p FROM PaymentOrder p WHERE p.id > :afterId ORDER BY p.id")
+    List<PaymentOrder> findPageAfter(@Param("afterId") long afterId, Pageable pageable);
 }
@@ -0,0 +1,159 @@
+package com.example.paymentsystem.repository;
+
+import com.example.paymentsystem.dto.PaymentExecutionCriteria;
+import com.example.paymentsystem.dto.PaymentOrderCriteria;
+import com.example.paymentsystem.entity.PaymentExecution;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse fieldset queries: only the requested columns are selected and each row comes back
+ * as a map keyed by the DTO property name, so neither entities nor DTOs are materialized.
+ */
+@Repository
+public class PaymentProjectionRepository {
+
+    // DTO property -> entity attribute path
+    private static final Map<String, String[]> ORDER_FIELDS = new LinkedHashMap<>();
+    private static final Map<String, String[]> EXECUTION_FIELDS = new LinkedHashMap<>();
+
+    static {
+        for (String field : List.of("id", "orderReference", "customerId", "customerName", "customerEmail",
+                "amount", "currency", "status", "paymentMethod", "description", "beneficiaryName",
+                "beneficiaryAccount", "beneficiaryBank", "beneficiaryBankCode", "createdAt", "updatedAt",
+                "scheduledAt", "completedAt")) {
+            ORDER_FIELDS.put(field, new String[]{field});
+        }
+
+        for (String field : List.of("id", "executionReference", "status", "amount", "currency",
+                "gatewayTransactionId", "gatewayProvider", "retryAttempt", "errorMessage", "errorCode",
+                "gatewayResponse", "createdAt", "updatedAt", "processedAt", "settledAt", "remarks")) {
+            EXECUTION_FIELDS.put(field, new String[]{field});
+        }
+        EXECUTION_FIELDS.put("paymentOrderId", new String[]{"paymentOrder", "id"});
+        EXECUTION_FIELDS.put("orderReference", new String[]{"paymentOrder", "orderReference"});
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<Map<String, Object>> findOrderFields(PaymentOrderCriteria criteria, List<String> fields) {
+        List<String> selected = resolve(fields, ORDER_FIELDS);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<PaymentOrder> order = query.from(PaymentOrder.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.customerId() != null) {
+            predicates.add(cb.equal(order.get("customerId"), criteria.customerId()));
+        }
+        if (criteria.status() != null) {
+            predicates.add(cb.equal(order.get("status"), criteria.status()));
+        }
+        if (criteria.createdFrom() != null && criteria.createdTo() != null) {
+            predicates.add(cb.between(order.get("createdAt"), criteria.createdFrom(), criteria.createdTo()));
+        }
+        if (criteria.minAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.get("amount"), criteria.minAmount()));
+        }
+        if (criteria.maxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(order.get("amount"), criteria.maxAmount()));
+        }
+
+        query.multiselect(selections(order, selected, ORDER_FIELDS))
+                .where(predicates.toArray(Predicate[]::new));
+        return toMaps(entityManager.createQuery(query).getResultList(), selected);
+    }
+
+    public List<Map<String, Object>> findExecutionFields(PaymentExecutionCriteria criteria, List<String> fields) {
+        List<String> selected = resolve(fields, EXECUTION_FIELDS);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<PaymentExecution> execution = query.from(PaymentExecution.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.orderId() != null) {
+            predicates.add(cb.equal(execution.get("paymentOrder").get("id"), criteria.orderId()));
+        }
+        if (criteria.orderReference() != null) {
+            predicates.add(cb.equal(execution.get("paymentOrder").get("orderReference"), criteria.orderReference()));
+        }
+        if (criteria.status() != null) {
+            predicates.add(cb.equal(execution.get("status"), criteria.status()));
+        }
+        if (criteria.customerId() != null) {
+            predicates.add(cb.equal(execution.get("paymentOrder").get("customerId"), criteria.customerId()));
+        }
+
+        query.multiselect(selections(execution, selected, EXECUTION_FIELDS))
+                .where(predicates.toArray(Predicate[]::new));
+        // Same ordering as the full-entity queries behind these endpoints
+        if (criteria.orderId() != null || criteria.customerId() != null) {
+            query.orderBy(cb.desc(execution.get("createdAt")));
+        }
+        return toMaps(entityManager.createQuery(query).getResultList(), selected);
+    }
+
+    private static List<String> resolve(List<String> fields, Map<String, String[]> allowed) {
+        LinkedHashSet<String> selected = new LinkedHashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.containsKey(name)) {
+                throw new InvalidOperationException(
+                        "Unknown field '" + name + "'. Allowed fields: " + String.join(", ", allowed.keySet()));
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidOperationException("At least one field must be requested");
+        }
+        return List.copyOf(selected);
+    }
+
+    private static List<Selection<?>> selections(Root<?> root, List<String> fields, Map<String, String[]> paths) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(path(root, paths.get(field)));
+        }
+        return selections;
+    }
+
+    private static Path<Object> path(Root<?> root, String[] attributes) {
+        Path<Object> path = root.get(attributes[0]);
+        for (int i = 1; i < attributes.length; i++) {
+            path = path.get(attributes[i]);
+        }
+        return path;
+    }
+
+    private static List<Map<String, Object>> toMaps(List<Tuple> rows, List<String> fields) {
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                values.put(fields.get(i), row.get(i));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+}
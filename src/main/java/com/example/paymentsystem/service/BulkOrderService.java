@@ -0,0 +1,16 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.dto.BulkOrderItemResult;
+import com.example.paymentsystem.dto.BulkOrderSummary;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.util.function.Consumer;
+
+public interface BulkOrderService {
+
+    /**
+     * Reads payment orders from a parser positioned on the start of a JSON array and
+     * reports the outcome of every element to the result sink as soon as it is known.
+     */
+    BulkOrderSummary importOrders(JsonParser parser, Consumer<BulkOrderItemResult> resultSink);
+}
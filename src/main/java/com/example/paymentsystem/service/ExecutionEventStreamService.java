@@ -0,0 +1,231 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans execution status changes out to Server-Sent Events subscribers.
+ * Emitters are parked on the servlet container's async support, so idle subscribers
+ * hold a connection but no request thread.
+ *
+ * Events are handed to a per-subscriber queue and written by a small pool of sender threads, so
+ * the thread committing a payment never waits on a client's socket. A subscriber whose queue
+ * fills up is disconnected rather than buffered without limit; it can reconnect and read the
+ * current state through the REST API.
+ */
+@Service
+@Slf4j
+public class ExecutionEventStreamService {
+
+    static final String STATUS_EVENT_NAME = "execution-status";
+
+    private final ConcurrentMap<Long, Set<Subscriber>> orderSubscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Subscriber>> customerSubscribers = new ConcurrentHashMap<>();
+    private final long emitterTimeoutMillis;
+    private final int queueCapacity;
+    private final Executor senders;
+
+    @Autowired
+    public ExecutionEventStreamService(@Value("${payment.events.sse-timeout-ms:1800000}") long emitterTimeoutMillis,
+                                       @Value("${payment.events.subscriber-queue-capacity:64}") int queueCapacity,
+                                       @Value("${payment.events.sender-threads:2}") int senderThreads,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(emitterTimeoutMillis, queueCapacity, virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-sender-", 0).factory())
+                : Executors.newFixedThreadPool(senderThreads, Thread.ofPlatform().name("sse-sender-", 0).daemon().factory()));
+    }
+
+    ExecutionEventStreamService(long emitterTimeoutMillis, int queueCapacity, Executor senders) {
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.queueCapacity = queueCapacity;
+        this.senders = senders;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (senders instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    public SseEmitter subscribeToOrder(Long orderId) {
+        return register(orderSubscribers, orderId);
+    }
+
+    public SseEmitter subscribeToCustomer(String customerId) {
+        return register(customerSubscribers, customerId);
+    }
+
+    public int getSubscriberCount() {
+        return count(orderSubscribers) + count(customerSubscribers);
+    }
+
+    /**
+     * Delivered after the surrounding transaction commits so subscribers never see
+     * a status that is later rolled back. Only queues the event; the sender threads write it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExecutionStatusChanged(PaymentExecutionStatusChangedEvent event) {
+        broadcast(orderSubscribers, event.orderId(), event);
+        broadcast(customerSubscribers, event.customerId(), event);
+    }
+
+    /**
+     * Keeps idle connections alive through proxies and flushes out subscribers whose
+     * connection has already gone away.
+     */
+    @Scheduled(fixedDelayString = "${payment.events.sse-heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        heartbeat(orderSubscribers);
+        heartbeat(customerSubscribers);
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeoutMillis);
+    }
+
+    private <K> SseEmitter register(ConcurrentMap<K, Set<Subscriber>> subscribers, K key) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(key, emitter);
+        subscriber.unregister = () -> unregister(subscribers, key, subscriber);
+        subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(subscriber.unregister);
+        emitter.onTimeout(subscriber.unregister);
+        emitter.onError(ex -> subscriber.unregister.run());
+
+        log.debug("SSE subscriber registered for {}", key);
+        return emitter;
+    }
+
+    private <K> void unregister(ConcurrentMap<K, Set<Subscriber>> subscribers, K key, Subscriber subscriber) {
+        subscribers.computeIfPresent(key, (k, emitters) -> {
+            emitters.remove(subscriber);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private <K> void broadcast(ConcurrentMap<K, Set<Subscriber>> subscribers, K key,
+                               PaymentExecutionStatusChangedEvent event) {
+        if (key == null) {
+            return;
+        }
+        Set<Subscriber> emitters = subscribers.get(key);
+        if (emitters == null) {
+            return;
+        }
+        for (Subscriber subscriber : emitters) {
+            // A builder per subscriber: building one appends to it
+            subscriber.enqueue(SseEmitter.event()
+                    .id(event.executionReference() + ":" + event.status())
+                    .name(STATUS_EVENT_NAME)
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private <K> void heartbeat(ConcurrentMap<K, Set<Subscriber>> subscribers) {
+        subscribers.forEach((key, emitters) -> {
+            for (Subscriber subscriber : emitters) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    private static int count(ConcurrentMap<?, Set<Subscriber>> subscribers) {
+        int total = 0;
+        for (Set<Subscriber> emitters : subscribers.values()) {
+            total += emitters.size();
+        }
+        return total;
+    }
+
+    /**
+     * One connected client. At most one sender thread drains its queue at a time, so its events
+     * are written in order.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final Object key;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private Runnable unregister;
+
+        private Subscriber(Object key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (!pending.offer(event)) {
+                log.atInfo().setMessage("Disconnecting SSE subscriber that is not keeping up")
+                        .addKeyValue("key", key)
+                        .addKeyValue("queued", queueCapacity)
+                        .log();
+                disconnect(null);
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = pending.poll()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping SSE subscriber for {}: {}", key, e.getMessage());
+                    disconnect(e);
+                    return;
+                }
+            }
+            scheduled.set(false);
+            // An event queued after the last poll but before the flag was cleared
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void disconnect(Throwable error) {
+            pending.clear();
+            if (error == null) {
+                emitter.complete();
+            } else {
+                emitter.completeWithError(error);
+            }
+            unregister.run();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.dto.HibernateStatisticsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only view over Hibernate's session factory statistics. Counters are only maintained when
+ * hibernate.generate_statistics is on.
+ */
+@Service
+public class HibernateStatisticsService {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public HibernateStatisticsDTO getStatistics(int slowestQueries) {
+        HibernateStatisticsDTO dto = new HibernateStatisticsDTO();
+        dto.setEnabled(statistics.isStatisticsEnabled());
+        dto.setStartTime(statistics.getStart().toEpochMilli());
+
+        dto.setPrepareStatementCount(statistics.getPrepareStatementCount());
+        dto.setQueryExecutionCount(statistics.getQueryExecutionCount());
+        dto.setQueryExecutionMaxTimeMs(statistics.getQueryExecutionMaxTime());
+        dto.setQueryExecutionMaxTimeQuery(statistics.getQueryExecutionMaxTimeQueryString());
+        dto.setSlowestQueries(slowestQueries(slowestQueries));
+
+        dto.setEntityLoadCount(statistics.getEntityLoadCount());
+        dto.setEntityFetchCount(statistics.getEntityFetchCount());
+        dto.setEntityInsertCount(statistics.getEntityInsertCount());
+        dto.setEntityUpdateCount(statistics.getEntityUpdateCount());
+        dto.setCollectionLoadCount(statistics.getCollectionLoadCount());
+        dto.setCollectionFetchCount(statistics.getCollectionFetchCount());
+
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+        dto.setSecondLevelCacheHitCount(hits);
+        dto.setSecondLevelCacheMissCount(misses);
+        dto.setSecondLevelCachePutCount(statistics.getSecondLevelCachePutCount());
+        dto.setSecondLevelCacheHitRatio(ratio(hits, misses));
+        dto.setCacheRegions(cacheRegions());
+
+        dto.setTransactionCount(statistics.getTransactionCount());
+        dto.setSessionOpenCount(statistics.getSessionOpenCount());
+        return dto;
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    private List<HibernateStatisticsDTO.QueryStats> slowestQueries(int limit) {
+        List<HibernateStatisticsDTO.QueryStats> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics stats = statistics.getQueryStatistics(query);
+            queries.add(new HibernateStatisticsDTO.QueryStats(query, stats.getExecutionCount(),
+                    stats.getExecutionRowCount(), stats.getExecutionAvgTime(), stats.getExecutionMaxTime(),
+                    stats.getExecutionTotalTime()));
+        }
+        queries.sort(Comparator.comparingLong(HibernateStatisticsDTO.QueryStats::getExecutionMaxTimeMs).reversed());
+        return queries.size() > limit ? new ArrayList<>(queries.subList(0, limit)) : queries;
+    }
+
+    private List<HibernateStatisticsDTO.CacheRegionStats> cacheRegions() {
+        List<HibernateStatisticsDTO.CacheRegionStats> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            regions.add(new HibernateStatisticsDTO.CacheRegionStats(region, stats.getHitCount(), stats.getMissCount(),
+                    stats.getPutCount(), ratio(stats.getHitCount(), stats.getMissCount()),
+                    stats.getElementCountInMemory()));
+        }
+        return regions;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
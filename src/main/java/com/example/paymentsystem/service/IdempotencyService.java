@@ -0,0 +1,254 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.entity.IdempotencyRecord;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Replays the original response for requests carrying an already seen Idempotency-Key.
+ *
+ * Keys live in two tiers: an in-memory map that also coalesces concurrent duplicates while the
+ * first request is still running, and the idempotency_records table that survives restarts and
+ * is shared between nodes. Nothing is locked in the database; two nodes racing on the same key
+ * both execute and the first stored response wins for later replays.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String PURGE_JOB = "idempotency-purge";
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper canonicalMapper;
+    private final LeaseManager leaseManager;
+    private final Duration recordTtl;
+    private final Duration localTtl;
+    private final long inFlightWaitMillis;
+
+    private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              ObjectMapper objectMapper,
+                              ObjectProvider<LeaseManager> leaseManager,
+                              @Value("${payment.idempotency.ttl:PT24H}") Duration recordTtl,
+                              @Value("${payment.idempotency.local-ttl:PT10M}") Duration localTtl,
+                              @Value("${payment.idempotency.in-flight-wait-ms:30000}") long inFlightWaitMillis) {
+        this(recordRepository, objectMapper, leaseManager.getIfAvailable(), recordTtl, localTtl, inFlightWaitMillis);
+    }
+
+    /**
+     * @param leaseManager null to purge the table on every call
+     */
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              ObjectMapper objectMapper,
+                              LeaseManager leaseManager,
+                              Duration recordTtl,
+                              Duration localTtl,
+                              long inFlightWaitMillis) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.canonicalMapper = canonicalMapper(objectMapper);
+        this.leaseManager = leaseManager;
+        this.recordTtl = recordTtl;
+        this.localTtl = localTtl;
+        this.inFlightWaitMillis = inFlightWaitMillis;
+    }
+
+    /**
+     * SHA-256 of the request's canonical JSON, in hex: properties and map keys sorted and
+     * decimals without trailing zeros, so 100.0 and 100.00 give the same fingerprint.
+     */
+    public String fingerprint(Object request) {
+        try {
+            byte[] json = canonicalMapper.writeValueAsBytes(canonicalMapper.valueToTree(request));
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to fingerprint idempotent request", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ObjectMapper canonicalMapper(ObjectMapper objectMapper) {
+        return objectMapper.copy().setNodeFactory(JsonNodeFactory.withExactBigDecimals(false))
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    }
+
+    /**
+     * Runs the action once per scope and key. Without a key the action simply runs.
+     *
+     * @param fingerprint identifies the request payload; reusing a key for a different
+     *                    payload is rejected rather than silently replayed
+     */
+    public <T> T execute(String scope, String key, String fingerprint, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidOperationException(
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = scope + ":" + key;
+        while (true) {
+            Slot slot = new Slot(fingerprint);
+            Slot existing = slots.putIfAbsent(id, slot);
+            if (existing == null) {
+                return executeFirst(id, slot, responseType, action);
+            }
+            if (existing.isExpired(localTtl)) {
+                slots.remove(id, existing);
+                continue;
+            }
+            verifyFingerprint(existing.fingerprint, fingerprint);
+            log.debug("Coalescing duplicate request for idempotency key {}", id);
+            return read(awaitResponse(existing), responseType);
+        }
+    }
+
+    /**
+     * Drops expired keys from both tiers. Every node purges its own map; the shared table is
+     * purged by whichever node holds the purge lease.
+     */
+    @Scheduled(fixedDelayString = "${payment.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        slots.entrySet().removeIf(entry -> entry.getValue().isExpired(localTtl));
+        if (leaseManager == null) {
+            purgeExpiredRecords();
+        } else {
+            leaseManager.runExclusive(PURGE_JOB, lease -> purgeExpiredRecords());
+        }
+    }
+
+    private void purgeExpiredRecords() {
+        int deleted = recordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired idempotency records", deleted);
+        }
+    }
+
+    private <T> T executeFirst(String id, Slot slot, Class<T> responseType, Supplier<T> action) {
+        try {
+            Optional<IdempotencyRecord> stored = recordRepository.findById(id)
+                    .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()));
+            if (stored.isPresent()) {
+                verifyFingerprint(stored.get().getRequestFingerprint(), slot.fingerprint);
+                slot.complete(stored.get().getResponseBody());
+                return read(stored.get().getResponseBody(), responseType);
+            }
+
+            T response = action.get();
+            String body = write(response);
+            store(id, slot.fingerprint, body);
+            slot.complete(body);
+            return response;
+        } catch (RuntimeException e) {
+            // Failed requests are not remembered so the client can retry with the same key
+            slots.remove(id, slot);
+            slot.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void store(String id, String fingerprint, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            recordRepository.save(new IdempotencyRecord(id, fingerprint, body, now, now.plus(recordTtl)));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Idempotency record {} was stored concurrently by another node", id);
+        }
+    }
+
+    private String awaitResponse(Slot slot) {
+        try {
+            return slot.response.get(inFlightWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new InvalidOperationException(
+                    "A request with the same " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for duplicate request", e);
+        }
+    }
+
+    private static void verifyFingerprint(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new InvalidOperationException(
+                    IDEMPOTENCY_KEY_HEADER + " has already been used for a different request");
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize idempotent response", e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to deserialize idempotent response", e);
+        }
+    }
+
+    private static final class Slot {
+
+        private final String fingerprint;
+        private final CompletableFuture<String> response = new CompletableFuture<>();
+        private volatile long completedAtNanos;
+
+        private Slot(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private void complete(String body) {
+            completedAtNanos = System.nanoTime();
+            response.complete(body);
+        }
+
+        private boolean isExpired(Duration ttl) {
+            return response.isDone() && System.nanoTime() - completedAtNanos > ttl.toNanos();
+        }
+    }
+}
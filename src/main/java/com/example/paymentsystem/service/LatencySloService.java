@@ -0,0 +1,174 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.config.SloProperties;
+import com.example.paymentsystem.dto.RouteLatencyDTO;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sliding-window latency percentiles per route, checked against {@link SloProperties}.
+ *
+ * Requests are recorded into an HdrHistogram Recorder per route, which is wait-free for writers.
+ * Every slice interval the recorder's contents are swapped out into a ring of slice histograms
+ * covering the longest window; a window's percentiles are the sum of its most recent slices, so
+ * figures lag by at most one slice. Slices come from packed histograms and a slice without
+ * traffic is kept as null, so memory follows the traffic rather than the number of routes.
+ */
+@Service
+public class LatencySloService {
+
+    public enum Window {
+        ONE_MINUTE("1m", Duration.ofMinutes(1)),
+        FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+        FIFTEEN_MINUTES("15m", Duration.ofMinutes(15));
+
+        private final String label;
+        private final Duration length;
+
+        Window(String label, Duration length) {
+            this.label = label;
+            this.length = length;
+        }
+    }
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final Window[] WINDOWS = Window.values();
+
+    private final SloProperties properties;
+    private final int[] slicesPerWindow = new int[WINDOWS.length];
+    private final int ringSize;
+
+    private final ConcurrentMap<String, RouteHistogram> routes = new ConcurrentHashMap<>();
+
+    public LatencySloService(SloProperties properties) {
+        this.properties = properties;
+        for (Window window : WINDOWS) {
+            slicesPerWindow[window.ordinal()] = (int) Math.max(1,
+                    (window.length.toMillis() + properties.getSliceMs() - 1) / properties.getSliceMs());
+        }
+        this.ringSize = slicesPerWindow[Window.FIFTEEN_MINUTES.ordinal()];
+    }
+
+    /**
+     * @param route HTTP method and handler path pattern
+     */
+    public void record(String route, long durationNanos) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        RouteHistogram histogram = routes.get(route);
+        if (histogram == null) {
+            histogram = routes.computeIfAbsent(route, key -> new RouteHistogram(ringSize));
+        }
+        histogram.recorder.recordValue(durationNanos / 1_000);
+    }
+
+    @Scheduled(fixedRateString = "${payment.slo.slice-ms:15000}", initialDelayString = "${payment.slo.slice-ms:15000}")
+    public void rotate() {
+        routes.values().forEach(RouteHistogram::rotate);
+    }
+
+    /**
+     * Every configured route plus every route that has seen traffic, violations first.
+     */
+    public List<RouteLatencyDTO> getReport() {
+        TreeSet<String> names = new TreeSet<>(routes.keySet());
+        properties.getTargets().forEach(target -> names.add(target.getRoute()));
+
+        List<RouteLatencyDTO> report = new ArrayList<>(names.size());
+        for (String route : names) {
+            report.add(routeReport(route));
+        }
+        report.sort((a, b) -> Boolean.compare(b.isViolated(), a.isViolated()));
+        return report;
+    }
+
+    private RouteLatencyDTO routeReport(String route) {
+        SloProperties.Target target = properties.targetFor(route);
+        Double p95Target = target != null ? millis(target.getP95()) : null;
+        Double p99Target = target != null ? millis(target.getP99()) : null;
+        RouteHistogram histogram = routes.get(route);
+
+        List<RouteLatencyDTO.WindowStats> windows = new ArrayList<>(WINDOWS.length);
+        boolean violated = false;
+        for (Window window : WINDOWS) {
+            Histogram sum = histogram != null
+                    ? histogram.aggregate(slicesPerWindow[window.ordinal()])
+                    : new Histogram(SIGNIFICANT_DIGITS);
+            RouteLatencyDTO.WindowStats stats = windowStats(window, sum, p95Target, p99Target);
+            violated |= stats.isViolated();
+            windows.add(stats);
+        }
+        return new RouteLatencyDTO(route, p95Target, p99Target, violated, windows);
+    }
+
+    private static RouteLatencyDTO.WindowStats windowStats(Window window, Histogram sum,
+                                                           Double p95Target, Double p99Target) {
+        long count = sum.getTotalCount();
+        double p95 = microsToMillis(sum.getValueAtPercentile(95.0));
+        double p99 = microsToMillis(sum.getValueAtPercentile(99.0));
+        boolean violated = count > 0
+                && ((p95Target != null && p95 > p95Target) || (p99Target != null && p99 > p99Target));
+        return new RouteLatencyDTO.WindowStats(window.label, count,
+                microsToMillis(sum.getValueAtPercentile(50.0)), p95, p99,
+                microsToMillis(sum.getMaxValue()), violated);
+    }
+
+    private static Double millis(Duration duration) {
+        return duration != null ? duration.toNanos() / 1_000_000.0 : null;
+    }
+
+    private static double microsToMillis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static final class RouteHistogram {
+
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS, true);
+
+        // Ring of slice histograms, slices[head] being the newest; guarded by this
+        private final Histogram[] slices;
+        private int head;
+        private Histogram spare;
+
+        private RouteHistogram(int ringSize) {
+            this.slices = new Histogram[ringSize];
+        }
+
+        private synchronized void rotate() {
+            head = (head + 1) % slices.length;
+            Histogram evicted = slices[head];
+            Histogram recycle = evicted != null ? evicted : spare;
+            Histogram interval = recorder.getIntervalHistogram(recycle);
+            if (recycle == spare) {
+                spare = null;
+            }
+            if (interval.getTotalCount() == 0) {
+                slices[head] = null;
+                spare = interval;
+            } else {
+                slices[head] = interval;
+            }
+        }
+
+        private synchronized Histogram aggregate(int sliceCount) {
+            Histogram sum = new Histogram(SIGNIFICANT_DIGITS);
+            for (int i = 0; i < sliceCount; i++) {
+                Histogram slice = slices[(head - i + slices.length) % slices.length];
+                if (slice != null) {
+                    sum.add(slice);
+                }
+            }
+            return sum;
+        }
+    }
+}
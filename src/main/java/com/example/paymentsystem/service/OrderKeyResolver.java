@@ -0,0 +1,47 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.repository.PaymentExecutionRepository;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.shard.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Who an order or execution belongs to, as stored rather than as claimed by the caller. Orders
+ * come from the read model when it has them and otherwise cost one indexed query on the order's
+ * shard; executions always cost one query.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderKeyResolver {
+
+    public record OrderKey(Long orderId, String customerId, PaymentMethod paymentMethod) {
+    }
+
+    private final OrderReadModel readModel;
+    private final PaymentOrderRepository orderRepository;
+    private final PaymentExecutionRepository executionRepository;
+    private final ShardRouter shardRouter;
+
+    public Optional<OrderKey> forOrder(Long orderId) {
+        return readModel.findById(orderId)
+                .map(view -> new OrderKey(orderId, view.order().customerId(), view.order().paymentMethod()))
+                .or(() -> shardRouter.onShard(shardRouter.shardForId(orderId),
+                                () -> orderRepository.findOrderKeyById(orderId))
+                        .map(OrderKeyResolver::toKey));
+    }
+
+    public Optional<OrderKey> forExecution(Long executionId) {
+        return shardRouter.onShard(shardRouter.shardForId(executionId),
+                        () -> executionRepository.findOrderKeyByExecutionId(executionId))
+                .map(OrderKeyResolver::toKey);
+    }
+
+    private static OrderKey toKey(PaymentExecutionRepository.OrderKey key) {
+        return new OrderKey(key.getOrderId(), key.getCustomerId(), key.getPaymentMethod());
+    }
+}
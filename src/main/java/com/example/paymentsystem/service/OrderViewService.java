@@ -0,0 +1,17 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.dto.PaymentOrderViewDTO;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+
+import java.util.List;
+
+public interface OrderViewService {
+
+    PaymentOrderViewDTO getOrderView(Long id);
+
+    PaymentOrderViewDTO getOrderViewByReference(String orderReference);
+
+    List<PaymentOrderViewDTO> getOrderViewsByCustomerId(String customerId);
+
+    List<PaymentOrderViewDTO> getOrderViewsByStatus(PaymentOrderStatus status);
+}
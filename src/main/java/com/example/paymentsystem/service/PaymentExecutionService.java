@@ -1,9 +1,11 @@
 package com.example.paymentsystem.service;
 
+import com.example.paymentsystem.dto.PaymentExecutionCriteria;
 import com.example.paymentsystem.dto.PaymentExecutionDTO;
 import com.example.paymentsystem.entity.ExecutionStatus;
 
 import java.util.List;
+import java.util.Map;
 
 public interface PaymentExecutionService {
 
@@ -21,6 +23,11 @@ public interface PaymentExecutionService {
 
     List<PaymentExecutionDTO> getExecutionsByCustomerId(String customerId);
 
+    /**
+     * Sparse fieldset variant of the list lookups: selects and returns only the requested DTO properties.
+     */
+    List<Map<String, Object>> getExecutionFields(PaymentExecutionCriteria criteria, List<String> fields);
+
     PaymentExecutionDTO updateExecutionStatus(Long id, ExecutionStatus newStatus);
 
     PaymentExecutionDTO retryExecution(Long executionId);
@@ -1,18 +1,34 @@
 package com.example.paymentsystem.service;
 
+import com.example.paymentsystem.config.GatewaySimulatorProperties;
 import com.example.paymentsystem.entity.PaymentExecution;
 import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.gateway.GatewaySimulator;
+import com.example.paymentsystem.money.Money;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.paymentsystem.logging.LogMarkers.READ_PATH;
 
 @Service
 @Slf4j
 public class PaymentGatewayService {
 
-    private final Random random = new Random();
+    private final GatewaySimulator simulator;
+
+    public PaymentGatewayService() {
+        this(new GatewaySimulatorProperties());
+    }
+
+    @Autowired
+    public PaymentGatewayService(GatewaySimulatorProperties properties) {
+        this.simulator = new GatewaySimulator(properties);
+    }
 
     /**
      * Simulates payment processing through a payment gateway
@@ -20,28 +36,59 @@ public class PaymentGatewayService {
      * like Stripe, PayPal, Razorpay, etc.
      */
     public boolean processPayment(PaymentExecution execution, PaymentOrder order) {
-        log.info("Processing payment through gateway for execution: {}", execution.getExecutionReference());
+        log.atInfo().setMessage("Processing payment through gateway")
+                .addKeyValue("executionReference", execution.getExecutionReference())
+                .log();
 
         try {
+            // ThreadLocalRandom rather than a shared Random (or UUID.randomUUID's SecureRandom),
+            // which would serialize concurrent executions on one seed
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            GatewaySimulator.Response response = simulator.simulate(order.getPaymentMethod(), random);
+
             // Simulate API call delay
-            Thread.sleep(1000);
+            TimeUnit.NANOSECONDS.sleep(response.latencyNanos());
 
             // Simulate gateway transaction
-            String gatewayTransactionId = "GW-" + UUID.randomUUID().toString();
+            String gatewayTransactionId = "GW-" + new UUID(random.nextLong(), random.nextLong());
             execution.setGatewayTransactionId(gatewayTransactionId);
-            execution.setGatewayProvider("MOCK_GATEWAY");
+            execution.setGatewayProvider(response.provider());
+
+            if (response.result() == GatewaySimulator.Result.TIMEOUT) {
+                execution.setGatewayResponse("Gateway timed out");
+                execution.setErrorCode("GATEWAY_TIMEOUT");
+                execution.setErrorMessage("No response from " + response.provider());
+                log.atWarn().setMessage("Gateway call timed out")
+                        .addKeyValue("executionReference", execution.getExecutionReference())
+                        .addKeyValue("provider", response.provider())
+                        .log();
+                return false;
+            }
+            if (response.result() == GatewaySimulator.Result.ERROR) {
+                execution.setGatewayResponse("Gateway error");
+                execution.setErrorCode("GATEWAY_ERROR");
+                execution.setErrorMessage("Provider " + response.provider() + " returned an error");
+                log.atWarn().setMessage("Gateway returned an error")
+                        .addKeyValue("executionReference", execution.getExecutionReference())
+                        .addKeyValue("provider", response.provider())
+                        .log();
+                return false;
+            }
 
-            // Simulate success/failure (80% success rate)
-            boolean success = random.nextInt(100) < 80;
+            boolean success = response.result() == GatewaySimulator.Result.APPROVED;
 
             if (success) {
                 execution.setGatewayResponse("Payment processed successfully");
-                log.info("Payment successful for execution: {}", execution.getExecutionReference());
+                log.atInfo().setMessage("Gateway approved payment")
+                        .addKeyValue("executionReference", execution.getExecutionReference())
+                        .log();
             } else {
                 execution.setGatewayResponse("Payment declined by gateway");
                 execution.setErrorCode("GATEWAY_DECLINED");
                 execution.setErrorMessage("Insufficient funds or invalid payment method");
-                log.warn("Payment failed for execution: {}", execution.getExecutionReference());
+                log.atWarn().setMessage("Gateway declined payment")
+                        .addKeyValue("executionReference", execution.getExecutionReference())
+                        .log();
             }
 
             return success;
@@ -66,8 +113,7 @@ public class PaymentGatewayService {
      * Validate payment details before processing
      */
     public boolean validatePaymentDetails(PaymentOrder order) {
-        // Add validation logic
-        if (order.getAmount().doubleValue() <= 0) {
+        if (Money.minorUnits(order.getAmount(), order.getCurrency()) <= 0) {
             return false;
         }
         if (order.getBeneficiaryAccount() == null || order.getBeneficiaryAccount().isEmpty()) {
@@ -80,7 +126,9 @@ public class PaymentGatewayService {
      * Check payment status from gateway
      */
     public String checkPaymentStatus(String gatewayTransactionId) {
-        log.info("Checking payment status for transaction: {}", gatewayTransactionId);
+        log.atInfo().addMarker(READ_PATH).setMessage("Checking gateway payment status")
+                .addKeyValue("gatewayTransactionId", gatewayTransactionId)
+                .log();
         // In real implementation, call gateway API to check status
         return "COMPLETED";
     }
@@ -89,7 +137,9 @@ public class PaymentGatewayService {
      * Initiate refund through gateway
      */
     public boolean initiateRefund(String gatewayTransactionId) {
-        log.info("Initiating refund for transaction: {}", gatewayTransactionId);
+        log.atInfo().setMessage("Initiating gateway refund")
+                .addKeyValue("gatewayTransactionId", gatewayTransactionId)
+                .log();
         // In real implementation, call gateway refund API
         return true;
     }
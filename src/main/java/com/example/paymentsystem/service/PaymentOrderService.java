@@ -1,11 +1,13 @@
 package com.example.paymentsystem.service;
 
+import com.example.paymentsystem.dto.PaymentOrderCriteria;
 import com.example.paymentsystem.dto.PaymentOrderDTO;
 import com.example.paymentsystem.entity.PaymentOrderStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface PaymentOrderService {
 
@@ -25,6 +27,11 @@ public interface PaymentOrderService {
 
     List<PaymentOrderDTO> getOrdersByAmountRange(BigDecimal minAmount, BigDecimal maxAmount);
 
+    /**
+     * Sparse fieldset variant of the list lookups: selects and returns only the requested DTO properties.
+     */
+    List<Map<String, Object>> getOrderFields(PaymentOrderCriteria criteria, List<String> fields);
+
     PaymentOrderDTO updateOrderStatus(Long id, PaymentOrderStatus newStatus);
 
     PaymentOrderDTO updateOrder(Long id, PaymentOrderDTO orderDTO);
@@ -0,0 +1,125 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.config.RateLimitProperties;
+import com.example.paymentsystem.dto.RateLimitBucketDTO;
+import com.example.paymentsystem.entity.PaymentMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets keyed by customer and payment method.
+ *
+ * Each bucket is the generic cell rate algorithm: a single AtomicLong holding the theoretical
+ * arrival time of the next request, advanced with a CAS. A bucket whose arrival time is in the
+ * past is full and indistinguishable from a new one, which is what lets idle buckets be evicted.
+ */
+@Service
+@Slf4j
+public class RateLimiterService {
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimiterService(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimiterService(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one token from the customer's bucket.
+     *
+     * @return 0 when the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String customerId, PaymentMethod method) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.computeIfAbsent(new BucketKey(customerId, method),
+                key -> new Bucket(properties.limitFor(method), now));
+        return bucket.tryAcquire(now);
+    }
+
+    public List<RateLimitBucketDTO> getBuckets() {
+        long now = nanoClock.getAsLong();
+        List<RateLimitBucketDTO> snapshot = new ArrayList<>(buckets.size());
+        buckets.forEach((key, bucket) -> snapshot.add(new RateLimitBucketDTO(key.customerId(), key.method(),
+                bucket.capacity, bucket.refillPerSecond, bucket.available(now))));
+        snapshot.sort(Comparator.comparingDouble(RateLimitBucketDTO::getAvailableTokens));
+        return snapshot;
+    }
+
+    /**
+     * Drops buckets that have refilled completely; they would behave exactly like a fresh bucket.
+     */
+    @Scheduled(fixedDelayString = "${payment.rate-limit.evict-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        if (before != buckets.size()) {
+            log.debug("Evicted {} idle rate limit buckets", before - buckets.size());
+        }
+    }
+
+    private record BucketKey(String customerId, PaymentMethod method) {
+    }
+
+    private static final class Bucket {
+
+        private final int capacity;
+        private final double refillPerSecond;
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final AtomicLong theoreticalArrival;
+
+        private Bucket(RateLimitProperties.Limit limit, long now) {
+            this.capacity = Math.max(1, limit.getCapacity());
+            this.refillPerSecond = limit.getRefillPerSecond();
+            this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+            this.burstToleranceNanos = emissionIntervalNanos * capacity;
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        private long tryAcquire(long now) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long next = Math.max(tat, now) + emissionIntervalNanos;
+                long excess = next - now - burstToleranceNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (theoreticalArrival.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private double available(long now) {
+            long backlog = Math.max(0, theoreticalArrival.get() - now);
+            return (double) (burstToleranceNanos - backlog) / emissionIntervalNanos;
+        }
+
+        private boolean isFull(long now) {
+            return theoreticalArrival.get() - now <= 0;
+        }
+    }
+}
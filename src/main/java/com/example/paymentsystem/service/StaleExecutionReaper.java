@@ -0,0 +1,73 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.service.impl.PaymentExecutionServiceImpl;
+import com.example.paymentsystem.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Fails executions that were claimed but never got an outcome, so their orders can be retried.
+ * An execution is claimed and finished in separate transactions with the gateway call in
+ * between; a node that stops in between, or an outcome transaction that fails, would otherwise
+ * leave the execution and its order PROCESSING for good.
+ *
+ * An execution counts as stale once it has been PROCESSING for
+ * {@code payment.execution.recovery.stale-after}, which must be well above the gateway timeout.
+ * One node at a time runs the job, under its lease, over every shard.
+ */
+@Component
+@Slf4j
+public class StaleExecutionReaper {
+
+    static final String REAPER_JOB = "stale-execution-reaper";
+
+    private final PaymentExecutionServiceImpl executionService;
+    private final LeaseManager leaseManager;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final Duration staleAfter;
+
+    public StaleExecutionReaper(PaymentExecutionServiceImpl executionService,
+                                LeaseManager leaseManager,
+                                ShardRouter shardRouter,
+                                @Value("${payment.execution.recovery.enabled:true}") boolean enabled,
+                                @Value("${payment.execution.recovery.stale-after:PT5M}") Duration staleAfter) {
+        this.executionService = executionService;
+        this.leaseManager = leaseManager;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.staleAfter = staleAfter;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.execution.recovery.interval-ms:60000}")
+    public void scheduledReap() {
+        if (enabled) {
+            leaseManager.runExclusive(REAPER_JOB, lease -> reap());
+        }
+    }
+
+    /**
+     * Fails every stale execution on every shard, regardless of the lease.
+     *
+     * @return number of executions failed
+     */
+    public int reap() {
+        LocalDateTime claimedBefore = LocalDateTime.now().minus(staleAfter);
+        int failed = shardRouter.onEveryShard(() -> executionService.failStaleExecutions(claimedBefore)).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (failed > 0) {
+            log.atWarn().setMessage("Failed stale executions")
+                    .addKeyValue("count", failed)
+                    .addKeyValue("staleAfter", staleAfter)
+                    .log();
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.paymentsystem.service.impl;
+
+import com.example.paymentsystem.dto.BulkOrderItemResult;
+import com.example.paymentsystem.dto.BulkOrderSummary;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.entity.OutboxEvent;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.event.PaymentOrdersImportedEvent;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import com.example.paymentsystem.money.Money;
+import com.example.paymentsystem.outbox.OutboxWriter;
+import com.example.paymentsystem.reference.ReferenceGenerator;
+import com.example.paymentsystem.service.BulkOrderService;
+import com.example.paymentsystem.shard.ShardRouter;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Streams orders out of the request body one array element at a time and inserts the valid ones
+ * with JDBC batches, so memory use is bounded by the batch size rather than the upload size.
+ * With sharding enabled each batch is split by the customers' shards and each part is inserted
+ * in its own transaction on its shard. Each order's creation event is inserted into the outbox in
+ * a second batch of the same transaction, using the ids the order batch generated.
+ */
+@Service
+@Slf4j
+public class BulkOrderServiceImpl implements BulkOrderService {
+
+    private static final String INSERT_ORDER_SQL = """
+            INSERT INTO payment_orders (order_reference, customer_id, customer_name, customer_email, amount,
+                currency, status, payment_method, description, beneficiary_name, beneficiary_account,
+                beneficiary_bank, beneficiary_bank_code, scheduled_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_OUTBOX_SQL = """
+            INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxWriter outboxWriter;
+    private final ShardRouter shardRouter;
+    private final ReferenceGenerator referenceGenerator;
+    private final int batchSize;
+
+    public BulkOrderServiceImpl(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                OutboxWriter outboxWriter,
+                                ShardRouter shardRouter,
+                                ReferenceGenerator referenceGenerator,
+                                @Value("${payment.order.bulk.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.outboxWriter = outboxWriter;
+        this.shardRouter = shardRouter;
+        this.referenceGenerator = referenceGenerator;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public BulkOrderSummary importOrders(JsonParser parser, Consumer<BulkOrderItemResult> resultSink) {
+        BulkOrderSummary summary = new BulkOrderSummary();
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        int index = 0;
+
+        try {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == null) {
+                    throw new IOException("Unexpected end of input inside the order array");
+                }
+                JsonNode element = parser.readValueAsTree();
+                PaymentOrderDTO order = toOrder(element, index, resultSink, summary);
+                if (order != null) {
+                    int shard = shardRouter.shardForCustomer(order.getCustomerId());
+                    batch.add(new PendingOrder(index, order, shard,
+                            shardRouter.onShard(shard, referenceGenerator::nextOrderReference)));
+                    if (batch.size() == batchSize) {
+                        flush(batch, resultSink, summary);
+                    }
+                }
+                index++;
+            }
+            summary.setCompleted(true);
+        } catch (IOException e) {
+            log.warn("Bulk order upload aborted at element {}: {}", index, e.getMessage());
+            summary.setError("Upload aborted at element " + index + ": " + e.getMessage());
+        }
+
+        flush(batch, resultSink, summary);
+        summary.setReceived(index);
+        log.atInfo().setMessage("Bulk order upload processed")
+                .addKeyValue("accepted", summary.getAccepted())
+                .addKeyValue("rejected", summary.getRejected())
+                .log();
+        return summary;
+    }
+
+    private PaymentOrderDTO toOrder(JsonNode element, int index, Consumer<BulkOrderItemResult> resultSink,
+                                    BulkOrderSummary summary) {
+        PaymentOrderDTO order;
+        try {
+            order = objectMapper.treeToValue(element, PaymentOrderDTO.class);
+        } catch (JsonProcessingException e) {
+            reject(index, Map.of("order", e.getOriginalMessage()), resultSink, summary);
+            return null;
+        }
+
+        Set<ConstraintViolation<PaymentOrderDTO>> violations = validator.validate(order);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+            reject(index, errors, resultSink, summary);
+            return null;
+        }
+        try {
+            order.setAmount(Money.of(order.getAmount(), order.getCurrency()).toBigDecimal());
+        } catch (InvalidOperationException e) {
+            reject(index, Map.of("amount", e.getMessage()), resultSink, summary);
+            return null;
+        }
+        return order;
+    }
+
+    private void flush(List<PendingOrder> batch, Consumer<BulkOrderItemResult> resultSink, BulkOrderSummary summary) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (shardRouter.isEnabled()) {
+            batch.stream()
+                    .collect(Collectors.groupingBy(PendingOrder::shard, TreeMap::new, Collectors.toList()))
+                    .forEach((shard, orders) -> shardRouter.onShard(shard, () -> insertBatch(orders, resultSink, summary)));
+        } else {
+            insertBatch(batch, resultSink, summary);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Inserts the batch in one transaction. If that fails the orders are retried one at a time,
+     * each in its own transaction, so only the orders that fail themselves are rejected.
+     */
+    private void insertBatch(List<PendingOrder> batch, Consumer<BulkOrderItemResult> resultSink,
+                             BulkOrderSummary summary) {
+        try {
+            insertAndPublish(batch);
+        } catch (DataAccessException e) {
+            log.warn("Bulk order batch of {} failed, inserting its orders one by one: {}", batch.size(),
+                    e.getMessage());
+            for (PendingOrder pending : batch) {
+                try {
+                    insertAndPublish(List.of(pending));
+                } catch (DataAccessException rowFailure) {
+                    log.warn("Bulk order element {} failed: {}", pending.index(), rowFailure.getMessage());
+                    reject(pending.index(), Map.of("order", rowFailure.getMostSpecificCause().getMessage()),
+                            resultSink, summary);
+                    continue;
+                }
+                accept(pending, resultSink, summary);
+            }
+            return;
+        }
+        for (PendingOrder pending : batch) {
+            accept(pending, resultSink, summary);
+        }
+    }
+
+    private void insertAndPublish(List<PendingOrder> orders) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = insert(orders);
+            insertOutboxEvents(orders, ids);
+            eventPublisher.publishEvent(new PaymentOrdersImportedEvent(
+                    orders.stream().map(PendingOrder::orderReference).toList()));
+        });
+    }
+
+    /**
+     * @return the generated order ids, in batch order
+     */
+    private List<Long> insert(List<PendingOrder> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_ORDER_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setOrder(ps, batch.get(i), now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keyHolder);
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private static void setOrder(PreparedStatement ps, PendingOrder pending, Timestamp now) throws SQLException {
+        PaymentOrderDTO order = pending.order();
+        ps.setString(1, pending.orderReference());
+        ps.setString(2, order.getCustomerId());
+        ps.setString(3, order.getCustomerName());
+        ps.setString(4, order.getCustomerEmail());
+        ps.setBigDecimal(5, order.getAmount());
+        ps.setString(6, order.getCurrency());
+        ps.setString(7, PaymentOrderStatus.PENDING.name());
+        ps.setString(8, order.getPaymentMethod().name());
+        ps.setString(9, order.getDescription());
+        ps.setString(10, order.getBeneficiaryName());
+        ps.setString(11, order.getBeneficiaryAccount());
+        ps.setString(12, order.getBeneficiaryBank());
+        ps.setString(13, order.getBeneficiaryBankCode());
+        ps.setTimestamp(14, order.getScheduledAt() != null ? Timestamp.valueOf(order.getScheduledAt()) : null);
+        ps.setTimestamp(15, now);
+        ps.setTimestamp(16, now);
+    }
+
+    private void insertOutboxEvents(List<PendingOrder> batch, List<Long> ids) {
+        if (ids.size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " generated order ids, got " + ids.size());
+        }
+        List<OutboxEvent> events = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingOrder pending = batch.get(i);
+            events.add(outboxWriter.orderCreated(ids.get(i), pending.orderReference(), pending.order().getCustomerId()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getAggregateType());
+            ps.setString(2, event.getAggregateId());
+            ps.setString(3, event.getEventType());
+            ps.setString(4, event.getPayload());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+
+    private static void accept(PendingOrder pending, Consumer<BulkOrderItemResult> resultSink,
+                               BulkOrderSummary summary) {
+        summary.setAccepted(summary.getAccepted() + 1);
+        resultSink.accept(BulkOrderItemResult.accepted(pending.index(), pending.orderReference()));
+    }
+
+    private static void reject(int index, Map<String, String> errors, Consumer<BulkOrderItemResult> resultSink,
+                               BulkOrderSummary summary) {
+        summary.setRejected(summary.getRejected() + 1);
+        resultSink.accept(BulkOrderItemResult.rejected(index, errors));
+    }
+
+    private record PendingOrder(int index, PaymentOrderDTO order, int shard, String orderReference) {
+    }
+}
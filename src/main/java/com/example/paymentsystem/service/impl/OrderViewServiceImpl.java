@@ -0,0 +1,118 @@
+package com.example.paymentsystem.service.impl;
+
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.dto.PaymentOrderViewDTO;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.exception.ErrorCode;
+import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.readmodel.OrderView;
+import com.example.paymentsystem.repository.PaymentExecutionRepository;
+import com.example.paymentsystem.repository.PaymentExecutionRepository.LatestExecutionSummary;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.service.OrderViewService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.paymentsystem.logging.LogMarkers.READ_PATH;
+
+/**
+ * Serves order views from the {@link OrderReadModel}, falling back to the database while the
+ * model is rebuilding or has overflowed, and for single orders it has not heard of. Runs without
+ * a transaction of its own: the read model needs none and each fallback query opens its own.
+ */
+@Service
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderViewServiceImpl implements OrderViewService {
+
+    private final OrderReadModel readModel;
+    private final PaymentOrderRepository orderRepository;
+    private final PaymentExecutionRepository executionRepository;
+    private final ModelMapper modelMapper;
+
+    @Override
+    public PaymentOrderViewDTO getOrderView(Long id) {
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment order view").addKeyValue("orderId", id).log();
+        if (readModel.isServing()) {
+            OrderView view = readModel.findById(id).orElse(null);
+            if (view != null) {
+                return view.toViewDTO();
+            }
+        }
+        PaymentOrder order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND,
+                        "Payment order not found with ID: " + id));
+        return loadViews(List.of(order)).get(0);
+    }
+
+    @Override
+    public PaymentOrderViewDTO getOrderViewByReference(String orderReference) {
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment order view")
+                .addKeyValue("orderReference", orderReference)
+                .log();
+        if (readModel.isServing()) {
+            OrderView view = readModel.findByReference(orderReference).orElse(null);
+            if (view != null) {
+                return view.toViewDTO();
+            }
+        }
+        PaymentOrder order = orderRepository.findByOrderReference(orderReference)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND,
+                        "Payment order not found with reference: " + orderReference));
+        return loadViews(List.of(order)).get(0);
+    }
+
+    @Override
+    public List<PaymentOrderViewDTO> getOrderViewsByCustomerId(String customerId) {
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment order views")
+                .addKeyValue("customerId", customerId)
+                .log();
+        if (readModel.isServing()) {
+            return readModel.findByCustomerId(customerId).stream().map(OrderView::toViewDTO).toList();
+        }
+        return loadViews(orderRepository.findByCustomerId(customerId));
+    }
+
+    @Override
+    public List<PaymentOrderViewDTO> getOrderViewsByStatus(PaymentOrderStatus status) {
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment order views").addKeyValue("status", status).log();
+        if (readModel.isServing()) {
+            return readModel.findByStatus(status).stream().map(OrderView::toViewDTO).toList();
+        }
+        return loadViews(orderRepository.findByStatus(status));
+    }
+
+    private List<PaymentOrderViewDTO> loadViews(List<PaymentOrder> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, LatestExecutionSummary> latest = executionRepository
+                .findLatestByOrderIds(orders.stream().map(PaymentOrder::getId).toList()).stream()
+                .collect(Collectors.toMap(LatestExecutionSummary::getOrderId, Function.identity()));
+        return orders.stream().map(order -> {
+            PaymentOrderViewDTO view = new PaymentOrderViewDTO();
+            view.setOrder(modelMapper.map(order, PaymentOrderDTO.class));
+            LatestExecutionSummary summary = latest.get(order.getId());
+            if (summary != null) {
+                view.setLatestExecutionId(summary.getExecutionId());
+                view.setLatestExecutionReference(summary.getExecutionReference());
+                view.setLatestExecutionStatus(summary.getStatus());
+                view.setLatestExecutionUpdatedAt(summary.getUpdatedAt());
+                view.setExecutionAttempts(Math.toIntExact(summary.getAttempts()));
+            }
+            return view;
+        }).toList();
+    }
+}
@@ -1,24 +1,45 @@
 package com.example.paymentsystem.service.impl;
 
+import com.example.paymentsystem.dispatch.ExecutionLanes;
+import com.example.paymentsystem.dto.PaymentExecutionCriteria;
 import com.example.paymentsystem.dto.PaymentExecutionDTO;
 import com.example.paymentsystem.entity.*;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import com.example.paymentsystem.event.PaymentOrderChangedEvent;
+import com.example.paymentsystem.exception.ErrorCode;
 import com.example.paymentsystem.exception.InvalidOperationException;
 import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.jfr.ExecutionClaimEvent;
+import com.example.paymentsystem.jfr.ExecutionFinalizeEvent;
+import com.example.paymentsystem.jfr.GatewayCallEvent;
+import com.example.paymentsystem.jfr.ReversalEvent;
+import com.example.paymentsystem.jfr.SettlementEvent;
+import com.example.paymentsystem.metrics.PaymentMetrics;
+import com.example.paymentsystem.money.Money;
+import com.example.paymentsystem.outbox.OutboxWriter;
+import com.example.paymentsystem.reference.ReferenceGenerator;
 import com.example.paymentsystem.repository.PaymentExecutionRepository;
 import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.repository.PaymentProjectionRepository;
 import com.example.paymentsystem.service.PaymentExecutionService;
 import com.example.paymentsystem.service.PaymentGatewayService;
+import com.example.paymentsystem.tracing.PaymentTracing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.example.paymentsystem.logging.LogMarkers.READ_PATH;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
@@ -27,21 +48,62 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
 
     private final PaymentExecutionRepository executionRepository;
     private final PaymentOrderRepository orderRepository;
+    private final PaymentProjectionRepository projectionRepository;
     private final PaymentGatewayService gatewayService;
     private final ModelMapper modelMapper;
-
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaymentMetrics paymentMetrics;
+    private final PaymentTracing paymentTracing;
+    private final OutboxWriter outboxWriter;
+    private final ReferenceGenerator referenceGenerator;
+    private final ExecutionLanes executionLanes;
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * Runs in three steps so that neither a lane nor a database connection is held while the
+     * gateway answers: the claim (lookup, validation, the new execution and the order moved to
+     * PROCESSING) commits on the order's execution lane, the gateway call runs on the calling
+     * thread outside any transaction, and the outcome is written in a transaction of its own. The
+     * PROCESSING order keeps a second execution of the same order out in between.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentExecutionDTO executePayment(Long orderId) {
-        log.info("Executing payment for order ID: {}", orderId);
+        long startNanos = System.nanoTime();
+        long gatewayNanos = 0;
+        paymentMetrics.executionStarted();
+        PaymentTracing.SpanScope span = paymentTracing.start("payment.execute")
+                .tag("payment.order.id", String.valueOf(orderId));
+        try {
+            log.atInfo().setMessage("Executing payment").addKeyValue("orderId", orderId).log();
+            PaymentExecution claimed = executionLanes.forOrder(orderId,
+                    () -> transactionOperations.execute(status -> claimExecution(orderId)));
+            span.tag("payment.execution.reference", claimed.getExecutionReference());
+
+            GatewayResult result = callGateway(claimed, claimed.getPaymentOrder());
+            gatewayNanos = result.nanos();
+            return recordOutcome(claimed, result);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+            paymentMetrics.executionFinished(System.nanoTime() - startNanos, gatewayNanos);
+        }
+    }
+
+    private PaymentExecution claimExecution(Long orderId) {
+        ExecutionClaimEvent claimEvent = new ExecutionClaimEvent();
+        claimEvent.begin();
 
-        PaymentOrder order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment order not found with ID: " + orderId));
+        PaymentOrder order = paymentTracing.inSpan("payment.order.lookup", () -> orderRepository.findById(orderId))
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND, "Payment order not found with ID: " + orderId));
 
         validateOrderForExecution(order);
 
         // Create execution record
         PaymentExecution execution = new PaymentExecution();
-        execution.setExecutionReference(generateExecutionReference());
+        execution.setExecutionReference(referenceGenerator.nextExecutionReference());
         execution.setPaymentOrder(order);
         execution.setAmount(order.getAmount());
         execution.setCurrency(order.getCurrency());
@@ -51,29 +113,21 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
         execution.setUpdatedAt(LocalDateTime.now());
 
         // Update order status
+        PaymentOrderStatus previousOrderStatus = order.getStatus();
         order.setStatus(PaymentOrderStatus.PROCESSING);
         order.setUpdatedAt(LocalDateTime.now());
+        publishOrderStatusChange(order, previousOrderStatus);
 
-        PaymentExecution savedExecution = executionRepository.save(execution);
-
-        // Process payment through gateway
-        try {
-            processPaymentThroughGateway(savedExecution, order);
-        } catch (Exception e) {
-            log.error("Payment execution failed: {}", e.getMessage(), e);
-            handleExecutionFailure(savedExecution, e.getMessage());
-        }
-
-        return convertToDTO(savedExecution);
+        return claim(execution, claimEvent);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PaymentExecutionDTO getExecutionById(Long id) {
-        log.info("Fetching payment execution with ID: {}", id);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment execution").addKeyValue("executionId", id).log();
 
         PaymentExecution execution = executionRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment execution not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.EXECUTION_NOT_FOUND, "Payment execution not found with ID: " + id));
 
         return convertToDTO(execution);
     }
@@ -81,10 +135,12 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
     @Override
     @Transactional(readOnly = true)
     public PaymentExecutionDTO getExecutionByReference(String executionReference) {
-        log.info("Fetching payment execution with reference: {}", executionReference);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment execution")
+                .addKeyValue("executionReference", executionReference)
+                .log();
 
         PaymentExecution execution = executionRepository.findByExecutionReference(executionReference)
-                .orElseThrow(() -> new ResourceNotFoundException(
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.EXECUTION_NOT_FOUND,
                         "Payment execution not found with reference: " + executionReference));
 
         return convertToDTO(execution);
@@ -93,7 +149,9 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
     @Override
     @Transactional(readOnly = true)
     public List<PaymentExecutionDTO> getExecutionsByOrderId(Long orderId) {
-        log.info("Fetching payment executions for order ID: {}", orderId);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment executions")
+                .addKeyValue("orderId", orderId)
+                .log();
 
         return executionRepository.findExecutionsByOrderIdOrderByCreatedAtDesc(orderId).stream()
                 .map(this::convertToDTO)
@@ -103,7 +161,9 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
     @Override
     @Transactional(readOnly = true)
     public List<PaymentExecutionDTO> getExecutionsByOrderReference(String orderReference) {
-        log.info("Fetching payment executions for order reference: {}", orderReference);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment executions")
+                .addKeyValue("orderReference", orderReference)
+                .log();
 
         return executionRepository.findByOrderReference(orderReference).stream()
                 .map(this::convertToDTO)
@@ -113,7 +173,7 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
     @Override
     @Transactional(readOnly = true)
     public List<PaymentExecutionDTO> getExecutionsByStatus(ExecutionStatus status) {
-        log.info("Fetching payment executions with status: {}", status);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment executions").addKeyValue("status", status).log();
 
         return executionRepository.findByStatus(status).stream()
                 .map(this::convertToDTO)
@@ -123,20 +183,37 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
     @Override
     @Transactional(readOnly = true)
     public List<PaymentExecutionDTO> getExecutionsByCustomerId(String customerId) {
-        log.info("Fetching payment executions for customer: {}", customerId);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment executions")
+                .addKeyValue("customerId", customerId)
+                .log();
 
         return executionRepository.findByCustomerId(customerId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getExecutionFields(PaymentExecutionCriteria criteria, List<String> fields) {
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment execution fields")
+                .addKeyValue("fields", fields)
+                .addKeyValue("criteria", criteria)
+                .log();
+
+        return projectionRepository.findExecutionFields(criteria, fields);
+    }
+
     @Override
     public PaymentExecutionDTO updateExecutionStatus(Long id, ExecutionStatus newStatus) {
-        log.info("Updating execution {} status to {}", id, newStatus);
+        log.atInfo().setMessage("Updating payment execution status")
+                .addKeyValue("executionId", id)
+                .addKeyValue("status", newStatus)
+                .log();
 
         PaymentExecution execution = executionRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment execution not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.EXECUTION_NOT_FOUND, "Payment execution not found with ID: " + id));
 
+        ExecutionStatus previousStatus = execution.getStatus();
         execution.setStatus(newStatus);
         execution.setUpdatedAt(LocalDateTime.now());
 
@@ -148,15 +225,46 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
         }
 
         PaymentExecution updatedExecution = executionRepository.save(execution);
+        publishStatusChange(updatedExecution, previousStatus);
         return convertToDTO(updatedExecution);
     }
 
+    /**
+     * Runs in the same three steps as {@link #executePayment(Long)}.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentExecutionDTO retryExecution(Long executionId) {
-        log.info("Retrying payment execution with ID: {}", executionId);
+        long startNanos = System.nanoTime();
+        long gatewayNanos = 0;
+        paymentMetrics.executionStarted();
+        PaymentTracing.SpanScope span = paymentTracing.start("payment.retry")
+                .tag("payment.execution.id", String.valueOf(executionId));
+        try {
+            log.atInfo().setMessage("Retrying payment execution").addKeyValue("executionId", executionId).log();
+            PaymentExecution claimed = executionLanes.forExecution(executionId,
+                    () -> transactionOperations.execute(status -> claimRetry(executionId)));
+            span.tag("payment.execution.reference", claimed.getExecutionReference());
+
+            GatewayResult result = callGateway(claimed, claimed.getPaymentOrder());
+            gatewayNanos = result.nanos();
+            return recordOutcome(claimed, result);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+            paymentMetrics.executionFinished(System.nanoTime() - startNanos, gatewayNanos);
+        }
+    }
+
+    private PaymentExecution claimRetry(Long executionId) {
+        ExecutionClaimEvent claimEvent = new ExecutionClaimEvent();
+        claimEvent.begin();
 
-        PaymentExecution originalExecution = executionRepository.findById(executionId)
-                .orElseThrow(() -> new ResourceNotFoundException(
+        PaymentExecution originalExecution = paymentTracing.inSpan("payment.execution.lookup",
+                        () -> executionRepository.findById(executionId))
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.EXECUTION_NOT_FOUND,
                         "Payment execution not found with ID: " + executionId));
 
         if (originalExecution.getStatus() != ExecutionStatus.FAILED) {
@@ -164,10 +272,13 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
         }
 
         PaymentOrder order = originalExecution.getPaymentOrder();
+        if (order.getStatus() == PaymentOrderStatus.PROCESSING) {
+            throw new InvalidOperationException("Order is already being processed");
+        }
 
         // Create new execution for retry
         PaymentExecution retryExecution = new PaymentExecution();
-        retryExecution.setExecutionReference(generateExecutionReference());
+        retryExecution.setExecutionReference(referenceGenerator.nextExecutionReference());
         retryExecution.setPaymentOrder(order);
         retryExecution.setAmount(order.getAmount());
         retryExecution.setCurrency(order.getCurrency());
@@ -176,24 +287,22 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
         retryExecution.setCreatedAt(LocalDateTime.now());
         retryExecution.setUpdatedAt(LocalDateTime.now());
 
-        PaymentExecution savedExecution = executionRepository.save(retryExecution);
-
-        try {
-            processPaymentThroughGateway(savedExecution, order);
-        } catch (Exception e) {
-            log.error("Payment retry failed: {}", e.getMessage(), e);
-            handleExecutionFailure(savedExecution, e.getMessage());
-        }
+        PaymentOrderStatus previousOrderStatus = order.getStatus();
+        order.setStatus(PaymentOrderStatus.PROCESSING);
+        order.setUpdatedAt(LocalDateTime.now());
+        publishOrderStatusChange(order, previousOrderStatus);
 
-        return convertToDTO(savedExecution);
+        return claim(retryExecution, claimEvent);
     }
 
     @Override
     public void processSettlement(Long executionId) {
-        log.info("Processing settlement for execution ID: {}", executionId);
+        log.atInfo().setMessage("Settling payment execution").addKeyValue("executionId", executionId).log();
+        SettlementEvent settlementEvent = new SettlementEvent();
+        settlementEvent.begin();
 
         PaymentExecution execution = executionRepository.findById(executionId)
-                .orElseThrow(() -> new ResourceNotFoundException(
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.EXECUTION_NOT_FOUND,
                         "Payment execution not found with ID: " + executionId));
 
         if (execution.getStatus() != ExecutionStatus.SUCCESS) {
@@ -205,14 +314,18 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
         execution.setUpdatedAt(LocalDateTime.now());
 
         executionRepository.save(execution);
+        publishStatusChange(execution, ExecutionStatus.SUCCESS);
+        settlementEvent.finish(execution);
     }
 
     @Override
     public void reverseExecution(Long executionId) {
-        log.info("Reversing payment execution with ID: {}", executionId);
+        log.atInfo().setMessage("Reversing payment execution").addKeyValue("executionId", executionId).log();
+        ReversalEvent reversalEvent = new ReversalEvent();
+        reversalEvent.begin();
 
         PaymentExecution execution = executionRepository.findById(executionId)
-                .orElseThrow(() -> new ResourceNotFoundException(
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.EXECUTION_NOT_FOUND,
                         "Payment execution not found with ID: " + executionId));
 
         if (execution.getStatus() != ExecutionStatus.SUCCESS && 
@@ -221,58 +334,214 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
                     "Can only reverse successful or settled executions");
         }
 
+        ExecutionStatus previousStatus = execution.getStatus();
         execution.setStatus(ExecutionStatus.REVERSED);
         execution.setUpdatedAt(LocalDateTime.now());
 
         PaymentOrder order = execution.getPaymentOrder();
+        PaymentOrderStatus previousOrderStatus = order.getStatus();
         order.setStatus(PaymentOrderStatus.REFUNDED);
         order.setUpdatedAt(LocalDateTime.now());
+        publishOrderStatusChange(order, previousOrderStatus);
 
         executionRepository.save(execution);
         orderRepository.save(order);
+        publishStatusChange(execution, previousStatus);
+        reversalEvent.finish(execution);
     }
 
-    private void processPaymentThroughGateway(PaymentExecution execution, PaymentOrder order) {
-        execution.setStatus(ExecutionStatus.PROCESSING);
-        execution.setUpdatedAt(LocalDateTime.now());
-        executionRepository.save(execution);
+    /**
+     * Saves the new execution and moves it to PROCESSING, in the claim transaction.
+     */
+    private PaymentExecution claim(PaymentExecution execution, ExecutionClaimEvent claimEvent) {
+        PaymentExecution savedExecution = paymentTracing.inSpan("payment.execution.claim",
+                () -> executionRepository.save(execution));
+        publishStatusChange(savedExecution, null);
+        claimEvent.finish(savedExecution);
+
+        savedExecution.setStatus(ExecutionStatus.PROCESSING);
+        savedExecution.setUpdatedAt(LocalDateTime.now());
+        paymentTracing.inSpan("payment.execution.mark-processing", () -> executionRepository.save(savedExecution));
+        publishStatusChange(savedExecution, ExecutionStatus.INITIATED);
+        return savedExecution;
+    }
 
-        // Call payment gateway service
-        boolean success = gatewayService.processPayment(execution, order);
+    /**
+     * The gateway's verdict on a claimed execution. The gateway writes its transaction id,
+     * provider and any error onto the (detached) execution, which finalize copies over.
+     */
+    private record GatewayResult(boolean success, long nanos) {
+    }
 
-        if (success) {
-            execution.setStatus(ExecutionStatus.SUCCESS);
-            execution.setProcessedAt(LocalDateTime.now());
-            updateOrderStatusOnSuccess(order);
-        } else {
-            execution.setStatus(ExecutionStatus.FAILED);
-            updateOrderStatusOnFailure(order);
+    /**
+     * Calls the gateway outside any transaction. A gateway that throws counts as a failed call,
+     * so the execution is still finalized.
+     */
+    private GatewayResult callGateway(PaymentExecution execution, PaymentOrder order) {
+        GatewayCallEvent gatewayEvent = new GatewayCallEvent();
+        gatewayEvent.begin();
+        PaymentTracing.SpanScope gatewaySpan = paymentTracing.start("payment.gateway.call");
+        long gatewayStart = System.nanoTime();
+        boolean success;
+        try {
+            success = gatewayService.processPayment(execution, order);
+        } catch (RuntimeException e) {
+            long gatewayNanos = System.nanoTime() - gatewayStart;
+            log.error("Payment execution failed: {}", e.getMessage(), e);
+            paymentMetrics.recordGatewayCall(execution.getGatewayProvider(), PaymentMetrics.GatewayOutcome.ERROR,
+                    gatewayNanos);
+            gatewayEvent.finish(execution, PaymentMetrics.GatewayOutcome.ERROR.name());
+            gatewaySpan.tag("payment.gateway.outcome", PaymentMetrics.GatewayOutcome.ERROR.name()).error(e).close();
+            execution.setErrorMessage(e.getMessage());
+            return new GatewayResult(false, gatewayNanos);
+        }
+        long gatewayNanos = System.nanoTime() - gatewayStart;
+        PaymentMetrics.GatewayOutcome outcome = gatewayOutcome(success, execution);
+        paymentMetrics.recordGatewayCall(execution.getGatewayProvider(), outcome, gatewayNanos);
+        gatewayEvent.finish(execution, outcome.name());
+        gatewaySpan.tag("payment.gateway.provider", execution.getGatewayProvider())
+                .tag("payment.gateway.outcome", outcome.name());
+        if (outcome == PaymentMetrics.GatewayOutcome.ERROR) {
+            gatewaySpan.tag("error", execution.getErrorCode());
         }
+        gatewaySpan.close();
+        return new GatewayResult(success, gatewayNanos);
+    }
 
-        execution.setUpdatedAt(LocalDateTime.now());
-        executionRepository.save(execution);
+    /**
+     * Runs {@link #finalizeExecution} in its own transaction. If that fails the execution stays
+     * PROCESSING until {@link #failStaleExecutions} fails it, so the gateway's verdict is logged
+     * here for reconciliation.
+     */
+    private PaymentExecutionDTO recordOutcome(PaymentExecution claimed, GatewayResult result) {
+        try {
+            return transactionOperations.execute(status -> convertToDTO(finalizeExecution(claimed, result)));
+        } catch (RuntimeException e) {
+            log.atError().setMessage("Could not record the gateway outcome; the execution stays PROCESSING")
+                    .addKeyValue("executionReference", claimed.getExecutionReference())
+                    .addKeyValue("gatewayTransactionId", claimed.getGatewayTransactionId())
+                    .addKeyValue("gatewaySuccess", result.success())
+                    .setCause(e)
+                    .log();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the gateway's outcome onto the stored execution and its order. An execution that is
+     * no longer PROCESSING was changed by someone else while the gateway answered (an operator
+     * status update, or {@link #failStaleExecutions}), so the outcome is logged for reconciliation
+     * instead of overwriting theirs.
+     */
+    private PaymentExecution finalizeExecution(PaymentExecution claimed, GatewayResult result) {
+        ExecutionFinalizeEvent finalizeEvent = new ExecutionFinalizeEvent();
+        finalizeEvent.begin();
+        try (PaymentTracing.SpanScope finalizeSpan = paymentTracing.start("payment.execution.finalize")) {
+            PaymentExecution execution = executionRepository.findByIdForUpdate(claimed.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.EXECUTION_NOT_FOUND,
+                            "Payment execution not found with ID: " + claimed.getId()));
+            if (execution.getStatus() != ExecutionStatus.PROCESSING) {
+                log.atError().setMessage("Execution changed while the gateway processed it; outcome not applied")
+                        .addKeyValue("executionReference", execution.getExecutionReference())
+                        .addKeyValue("status", execution.getStatus())
+                        .addKeyValue("gatewayTransactionId", claimed.getGatewayTransactionId())
+                        .addKeyValue("gatewaySuccess", result.success())
+                        .log();
+                finalizeSpan.tag("payment.execution.status", execution.getStatus().name());
+                return execution;
+            }
+
+            execution.setGatewayTransactionId(claimed.getGatewayTransactionId());
+            execution.setGatewayProvider(claimed.getGatewayProvider());
+            execution.setGatewayResponse(claimed.getGatewayResponse());
+            execution.setErrorCode(claimed.getErrorCode());
+            execution.setErrorMessage(claimed.getErrorMessage());
+            if (result.success()) {
+                execution.setStatus(ExecutionStatus.SUCCESS);
+                execution.setProcessedAt(LocalDateTime.now());
+                updateOrderStatusOnSuccess(execution.getPaymentOrder());
+            } else {
+                execution.setStatus(ExecutionStatus.FAILED);
+                updateOrderStatusOnFailure(execution.getPaymentOrder());
+            }
+
+            execution.setUpdatedAt(LocalDateTime.now());
+            executionRepository.save(execution);
+            publishStatusChange(execution, ExecutionStatus.PROCESSING);
+            finalizeEvent.finish(execution);
+            finalizeSpan.tag("payment.execution.status", execution.getStatus().name());
+            return execution;
+        }
+    }
+
+    /**
+     * Fails executions claimed before {@code claimedBefore} that still have no outcome: the node
+     * stopped between the claim and the outcome, or the outcome could not be written. Their orders
+     * move to FAILED so the execution can be retried. The gateway may have charged one of them,
+     * so each is logged at ERROR for reconciliation.
+     *
+     * @return number of executions failed
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int failStaleExecutions(LocalDateTime claimedBefore) {
+        List<Long> stale = executionRepository.findStaleExecutions(ExecutionStatus.PROCESSING, claimedBefore).stream()
+                .map(PaymentExecution::getId)
+                .toList();
+        int failed = 0;
+        for (Long id : stale) {
+            if (Boolean.TRUE.equals(transactionOperations.execute(status -> failStale(id)))) {
+                failed++;
+            }
+        }
+        return failed;
     }
 
-    private void handleExecutionFailure(PaymentExecution execution, String errorMessage) {
+    private boolean failStale(Long executionId) {
+        PaymentExecution execution = executionRepository.findByIdForUpdate(executionId).orElse(null);
+        if (execution == null || execution.getStatus() != ExecutionStatus.PROCESSING) {
+            // Its outcome was recorded after the lookup
+            return false;
+        }
+        log.atError().setMessage("Failing execution with no recorded outcome; reconcile it with the gateway")
+                .addKeyValue("executionReference", execution.getExecutionReference())
+                .addKeyValue("claimedAt", execution.getCreatedAt())
+                .log();
         execution.setStatus(ExecutionStatus.FAILED);
-        execution.setErrorMessage(errorMessage);
+        execution.setErrorCode("EXECUTION_ABANDONED");
+        execution.setErrorMessage("No gateway outcome was recorded for this execution");
         execution.setUpdatedAt(LocalDateTime.now());
         executionRepository.save(execution);
+        if (execution.getPaymentOrder().getStatus() == PaymentOrderStatus.PROCESSING) {
+            updateOrderStatusOnFailure(execution.getPaymentOrder());
+        }
+        publishStatusChange(execution, ExecutionStatus.PROCESSING);
+        return true;
+    }
 
-        updateOrderStatusOnFailure(execution.getPaymentOrder());
+    private static PaymentMetrics.GatewayOutcome gatewayOutcome(boolean success, PaymentExecution execution) {
+        if (success) {
+            return PaymentMetrics.GatewayOutcome.SUCCESS;
+        }
+        return "GATEWAY_DECLINED".equals(execution.getErrorCode())
+                ? PaymentMetrics.GatewayOutcome.DECLINED
+                : PaymentMetrics.GatewayOutcome.ERROR;
     }
 
     private void updateOrderStatusOnSuccess(PaymentOrder order) {
+        PaymentOrderStatus previousStatus = order.getStatus();
         order.setStatus(PaymentOrderStatus.COMPLETED);
         order.setCompletedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
         orderRepository.save(order);
+        publishOrderStatusChange(order, previousStatus);
     }
 
     private void updateOrderStatusOnFailure(PaymentOrder order) {
+        PaymentOrderStatus previousStatus = order.getStatus();
         order.setStatus(PaymentOrderStatus.FAILED);
         order.setUpdatedAt(LocalDateTime.now());
         orderRepository.save(order);
+        publishOrderStatusChange(order, previousStatus);
     }
 
     private void validateOrderForExecution(PaymentOrder order) {
@@ -282,13 +551,26 @@ public class PaymentExecutionServiceImpl implements PaymentExecutionService {
         if (order.getStatus() == PaymentOrderStatus.CANCELLED) {
             throw new InvalidOperationException("Cannot execute cancelled order");
         }
+        if (order.getStatus() == PaymentOrderStatus.PROCESSING) {
+            throw new InvalidOperationException("Order is already being processed");
+        }
+        if (Money.minorUnits(order.getAmount(), order.getCurrency()) <= 0) {
+            throw new InvalidOperationException("Order amount must be positive");
+        }
+    }
+
+    private void publishOrderStatusChange(PaymentOrder order, PaymentOrderStatus previousStatus) {
+        outboxWriter.orderStatusChanged(order, previousStatus);
+        eventPublisher.publishEvent(PaymentOrderChangedEvent.of(order));
     }
 
-    private String generateExecutionReference() {
-        return "EXE-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private void publishStatusChange(PaymentExecution execution, ExecutionStatus previousStatus) {
+        PaymentExecutionStatusChangedEvent event = PaymentExecutionStatusChangedEvent.of(execution, previousStatus);
+        outboxWriter.executionStatusChanged(event);
+        eventPublisher.publishEvent(event);
     }
 
-    private PaymentExecutionDTO convertToDTO(PaymentExecution execution) {
+    PaymentExecutionDTO convertToDTO(PaymentExecution execution) {
         PaymentExecutionDTO dto = modelMapper.map(execution, PaymentExecutionDTO.class);
         dto.setPaymentOrderId(execution.getPaymentOrder().getId());
         dto.setOrderReference(execution.getPaymentOrder().getOrderReference());
@@ -1,24 +1,39 @@
 package com.example.paymentsystem.service.impl;
 
+import com.example.paymentsystem.dto.PaymentOrderCriteria;
 import com.example.paymentsystem.dto.PaymentOrderDTO;
 import com.example.paymentsystem.entity.PaymentOrder;
 import com.example.paymentsystem.entity.PaymentOrderStatus;
-import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.event.PaymentOrderChangedEvent;
+import com.example.paymentsystem.event.PaymentOrderDeletedEvent;
+import com.example.paymentsystem.exception.ErrorCode;
 import com.example.paymentsystem.exception.InvalidOperationException;
+import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.jfr.OrderCreateEvent;
+import com.example.paymentsystem.money.Money;
+import com.example.paymentsystem.outbox.OutboxWriter;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.readmodel.OrderView;
+import com.example.paymentsystem.reference.ReferenceGenerator;
 import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.repository.PaymentProjectionRepository;
 import com.example.paymentsystem.service.PaymentOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.example.paymentsystem.logging.LogMarkers.READ_PATH;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
@@ -26,44 +41,75 @@ import java.util.stream.Collectors;
 public class PaymentOrderServiceImpl implements PaymentOrderService {
 
     private final PaymentOrderRepository orderRepository;
+    private final PaymentProjectionRepository projectionRepository;
     private final ModelMapper modelMapper;
+    private final OutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderReadModel readModel;
+    private final ReferenceGenerator referenceGenerator;
 
     @Override
     public PaymentOrderDTO createOrder(PaymentOrderDTO orderDTO) {
-        log.info("Creating new payment order for customer: {}", orderDTO.getCustomerId());
+        log.atInfo().setMessage("Creating payment order").addKeyValue("customerId", orderDTO.getCustomerId()).log();
+        OrderCreateEvent createEvent = new OrderCreateEvent();
+        createEvent.begin();
 
         PaymentOrder order = modelMapper.map(orderDTO, PaymentOrder.class);
-        
+        // Rejects amounts with more decimals than the currency or the column holds rather than let the column round them
+        order.setAmount(Money.of(order.getAmount(), order.getCurrency()).toBigDecimal());
+
         // Generate unique order reference
-        order.setOrderReference(generateOrderReference());
+        order.setOrderReference(referenceGenerator.nextOrderReference());
         order.setStatus(PaymentOrderStatus.PENDING);
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
 
         PaymentOrder savedOrder = orderRepository.save(order);
-        log.info("Payment order created with reference: {}", savedOrder.getOrderReference());
+        outboxWriter.orderStatusChanged(savedOrder, null);
+        eventPublisher.publishEvent(PaymentOrderChangedEvent.of(savedOrder));
+        log.atInfo().setMessage("Payment order created")
+                .addKeyValue("orderReference", savedOrder.getOrderReference())
+                .log();
+        createEvent.finish(savedOrder);
 
         return modelMapper.map(savedOrder, PaymentOrderDTO.class);
     }
 
+    // Reads the read model can answer run without a transaction of their own, so a hit costs no
+    // connection checkout; the fallback repository calls open their own.
+
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public PaymentOrderDTO getOrderById(Long id) {
-        log.info("Fetching payment order with ID: {}", id);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment order").addKeyValue("orderId", id).log();
+        if (readModel.isServing()) {
+            OrderView view = readModel.findById(id).orElse(null);
+            if (view != null) {
+                return view.toOrderDTO();
+            }
+        }
         
         PaymentOrder order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment order not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND, "Payment order not found with ID: " + id));
         
         return modelMapper.map(order, PaymentOrderDTO.class);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public PaymentOrderDTO getOrderByReference(String orderReference) {
-        log.info("Fetching payment order with reference: {}", orderReference);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment order")
+                .addKeyValue("orderReference", orderReference)
+                .log();
+        if (readModel.isServing()) {
+            OrderView view = readModel.findByReference(orderReference).orElse(null);
+            if (view != null) {
+                return view.toOrderDTO();
+            }
+        }
         
         PaymentOrder order = orderRepository.findByOrderReference(orderReference)
-                .orElseThrow(() -> new ResourceNotFoundException(
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND,
                         "Payment order not found with reference: " + orderReference));
         
         return modelMapper.map(order, PaymentOrderDTO.class);
@@ -72,7 +118,7 @@ public class PaymentOrderServiceImpl implements PaymentOrderService {
     @Override
     @Transactional(readOnly = true)
     public List<PaymentOrderDTO> getAllOrders() {
-        log.info("Fetching all payment orders");
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching all payment orders").log();
         
         return orderRepository.findAll().stream()
                 .map(order -> modelMapper.map(order, PaymentOrderDTO.class))
@@ -80,9 +126,14 @@ public class PaymentOrderServiceImpl implements PaymentOrderService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<PaymentOrderDTO> getOrdersByCustomerId(String customerId) {
-        log.info("Fetching payment orders for customer: {}", customerId);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment orders")
+                .addKeyValue("customerId", customerId)
+                .log();
+        if (readModel.isServing()) {
+            return readModel.findByCustomerId(customerId).stream().map(OrderView::toOrderDTO).toList();
+        }
         
         return orderRepository.findByCustomerId(customerId).stream()
                 .map(order -> modelMapper.map(order, PaymentOrderDTO.class))
@@ -90,9 +141,12 @@ public class PaymentOrderServiceImpl implements PaymentOrderService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<PaymentOrderDTO> getOrdersByStatus(PaymentOrderStatus status) {
-        log.info("Fetching payment orders with status: {}", status);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment orders").addKeyValue("status", status).log();
+        if (readModel.isServing()) {
+            return readModel.findByStatus(status).stream().map(OrderView::toOrderDTO).toList();
+        }
         
         return orderRepository.findByStatus(status).stream()
                 .map(order -> modelMapper.map(order, PaymentOrderDTO.class))
@@ -102,7 +156,10 @@ public class PaymentOrderServiceImpl implements PaymentOrderService {
     @Override
     @Transactional(readOnly = true)
     public List<PaymentOrderDTO> getOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching orders between {} and {}", startDate, endDate);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment orders")
+                .addKeyValue("from", startDate)
+                .addKeyValue("to", endDate)
+                .log();
         
         return orderRepository.findOrdersBetweenDates(startDate, endDate).stream()
                 .map(order -> modelMapper.map(order, PaymentOrderDTO.class))
@@ -112,22 +169,40 @@ public class PaymentOrderServiceImpl implements PaymentOrderService {
     @Override
     @Transactional(readOnly = true)
     public List<PaymentOrderDTO> getOrdersByAmountRange(BigDecimal minAmount, BigDecimal maxAmount) {
-        log.info("Fetching orders with amount between {} and {}", minAmount, maxAmount);
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment orders")
+                .addKeyValue("minAmount", minAmount)
+                .addKeyValue("maxAmount", maxAmount)
+                .log();
         
         return orderRepository.findOrdersByAmountRange(minAmount, maxAmount).stream()
                 .map(order -> modelMapper.map(order, PaymentOrderDTO.class))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOrderFields(PaymentOrderCriteria criteria, List<String> fields) {
+        log.atInfo().addMarker(READ_PATH).setMessage("Fetching payment order fields")
+                .addKeyValue("fields", fields)
+                .addKeyValue("criteria", criteria)
+                .log();
+
+        return projectionRepository.findOrderFields(criteria, fields);
+    }
+
     @Override
     public PaymentOrderDTO updateOrderStatus(Long id, PaymentOrderStatus newStatus) {
-        log.info("Updating order {} status to {}", id, newStatus);
+        log.atInfo().setMessage("Updating payment order status")
+                .addKeyValue("orderId", id)
+                .addKeyValue("status", newStatus)
+                .log();
         
         PaymentOrder order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment order not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND, "Payment order not found with ID: " + id));
 
         validateStatusTransition(order.getStatus(), newStatus);
         
+        PaymentOrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
         order.setUpdatedAt(LocalDateTime.now());
         
@@ -136,15 +211,17 @@ public class PaymentOrderServiceImpl implements PaymentOrderService {
         }
         
         PaymentOrder updatedOrder = orderRepository.save(order);
+        outboxWriter.orderStatusChanged(updatedOrder, previousStatus);
+        eventPublisher.publishEvent(PaymentOrderChangedEvent.of(updatedOrder));
         return modelMapper.map(updatedOrder, PaymentOrderDTO.class);
     }
 
     @Override
     public PaymentOrderDTO updateOrder(Long id, PaymentOrderDTO orderDTO) {
-        log.info("Updating payment order with ID: {}", id);
+        log.atInfo().setMessage("Updating payment order").addKeyValue("orderId", id).log();
         
         PaymentOrder existingOrder = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment order not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND, "Payment order not found with ID: " + id));
 
         // Only allow updates for pending orders
         if (existingOrder.getStatus() != PaymentOrderStatus.PENDING) {
@@ -159,15 +236,16 @@ public class PaymentOrderServiceImpl implements PaymentOrderService {
         existingOrder.setUpdatedAt(LocalDateTime.now());
         
         PaymentOrder updatedOrder = orderRepository.save(existingOrder);
+        eventPublisher.publishEvent(PaymentOrderChangedEvent.of(updatedOrder));
         return modelMapper.map(updatedOrder, PaymentOrderDTO.class);
     }
 
     @Override
     public void cancelOrder(Long id) {
-        log.info("Cancelling payment order with ID: {}", id);
+        log.atInfo().setMessage("Cancelling payment order").addKeyValue("orderId", id).log();
         
         PaymentOrder order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment order not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND, "Payment order not found with ID: " + id));
 
         if (order.getStatus() == PaymentOrderStatus.COMPLETED || 
             order.getStatus() == PaymentOrderStatus.CANCELLED) {
@@ -175,20 +253,25 @@ public class PaymentOrderServiceImpl implements PaymentOrderService {
                     "Cannot cancel order in status: " + order.getStatus());
         }
 
+        PaymentOrderStatus previousStatus = order.getStatus();
         order.setStatus(PaymentOrderStatus.CANCELLED);
         order.setUpdatedAt(LocalDateTime.now());
         orderRepository.save(order);
+        outboxWriter.orderStatusChanged(order, previousStatus);
+        eventPublisher.publishEvent(PaymentOrderChangedEvent.of(order));
     }
 
     @Override
     public void deleteOrder(Long id) {
-        log.info("Deleting payment order with ID: {}", id);
+        log.atInfo().setMessage("Deleting payment order").addKeyValue("orderId", id).log();
         
         if (!orderRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Payment order not found with ID: " + id);
+            throw new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND, "Payment order not found with ID: " + id);
         }
         
         orderRepository.deleteById(id);
+        outboxWriter.orderDeleted(id);
+        eventPublisher.publishEvent(new PaymentOrderDeletedEvent(id));
     }
 
     @Override
@@ -198,17 +281,16 @@ public class PaymentOrderServiceImpl implements PaymentOrderService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public BigDecimal getTotalAmountByCustomerAndStatus(String customerId, PaymentOrderStatus status) {
+        if (readModel.isServing()) {
+            return readModel.sumAmount(customerId, status);
+        }
         BigDecimal total = orderRepository.sumAmountByCustomerIdAndStatus(customerId, status);
         return total != null ? total : BigDecimal.ZERO;
     }
 
-    private String generateOrderReference() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-
-    private void validateStatusTransition(PaymentOrderStatus currentStatus, PaymentOrderStatus newStatus) {
+    static void validateStatusTransition(PaymentOrderStatus currentStatus, PaymentOrderStatus newStatus) {
         // Add validation logic for valid status transitions
         if (currentStatus == PaymentOrderStatus.COMPLETED && newStatus != PaymentOrderStatus.REFUNDED) {
             throw new InvalidOperationException(
@@ -0,0 +1,65 @@
+package com.example.paymentsystem.shard;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Hash ring mapping keys to shards. Each shard is placed at {@code virtualNodes} points derived
+ * from its name; a key belongs to the first point at or after its own hash. The points are kept
+ * in parallel sorted arrays, so a lookup is one hash and a binary search with no allocation.
+ *
+ * The hash is computed from the key's characters rather than {@link String#hashCode()}, is the
+ * same on every JVM and spreads similar keys such as CUST001 and CUST002 apart.
+ */
+final class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] shards;
+
+    ConsistentHashRing(List<String> shardNames, int virtualNodes) {
+        if (shardNames.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A hash ring needs at least one shard and one point per shard");
+        }
+        long[][] entries = new long[shardNames.size() * virtualNodes][];
+        int n = 0;
+        for (int shard = 0; shard < shardNames.size(); shard++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[n++] = new long[] {hash(shardNames.get(shard) + "#" + v), shard};
+            }
+        }
+        Arrays.sort(entries, Comparator.comparingLong(entry -> entry[0]));
+        points = new long[entries.length];
+        shards = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            shards[i] = (int) entries[i][1];
+        }
+    }
+
+    int shardFor(String key) {
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return shards[i == points.length ? 0 : i];
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units, finished with the MurmurHash3 mixer so that keys
+     * differing in their last character still land far apart.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
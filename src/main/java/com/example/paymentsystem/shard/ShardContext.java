@@ -0,0 +1,34 @@
+package com.example.paymentsystem.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's database work goes to. {@link ShardRoutingDataSource} reads it
+ * when a connection is taken, which for JPA is when a transaction begins, so it has to be set
+ * before the transaction starts and stays fixed until it ends. Unset means the home shard.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static <T> T call(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.paymentsystem.shard;
+
+import com.example.paymentsystem.config.ShardingProperties;
+import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.reference.ReferenceGenerator;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard a piece of work belongs to and runs it there. Customers are placed by a
+ * consistent hash of their id; orders and executions live on their customer's shard, and their
+ * ids and references say which one that is, so lookups by id or reference go to a single shard.
+ * Queries that are not scoped to one customer are gathered from every shard in parallel.
+ *
+ * With sharding disabled there is one shard, nothing is routed and every method simply runs the
+ * work on the calling thread.
+ */
+@Component
+public class ShardRouter {
+
+    public static final int HOME_SHARD = 0;
+
+    private static final int LEGACY_REFERENCE_LENGTH = "ORD-".length() + 2 + 8;
+    private static final int REFERENCE_LENGTH = "ORD-".length() + 2 + ReferenceGenerator.ID_LENGTH;
+
+    private final boolean enabled;
+    private final List<String> shardNames;
+    private final int idStride;
+    private final ConsistentHashRing ring;
+    private final ExecutorService gatherPool;
+    private final ContextSnapshotFactory contextSnapshots = ContextSnapshotFactory.builder().build();
+
+    @Autowired
+    public ShardRouter(ShardingProperties properties,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(properties.isEnabled(), shardNames(properties), properties.getVirtualNodes(), properties.getIdStride(),
+                virtualThreads);
+    }
+
+    public ShardRouter(boolean enabled, List<String> shardNames, int virtualNodes, int idStride) {
+        this(enabled, shardNames, virtualNodes, idStride, false);
+    }
+
+    /**
+     * @param virtualThreads gather on a new virtual thread per shard query instead of a fixed pool
+     *                       of platform threads
+     */
+    public ShardRouter(boolean enabled, List<String> shardNames, int virtualNodes, int idStride,
+                       boolean virtualThreads) {
+        if (enabled && (shardNames.isEmpty() || shardNames.size() > idStride || idStride > 256)) {
+            throw new IllegalArgumentException("Sharding needs between 1 and payment.sharding.id-stride (" + idStride
+                    + ", at most 256) shards, got " + shardNames.size());
+        }
+        this.enabled = enabled;
+        this.shardNames = enabled ? List.copyOf(shardNames) : List.of("home");
+        this.idStride = idStride;
+        this.ring = enabled ? new ConsistentHashRing(this.shardNames, virtualNodes) : null;
+        if (!enabled) {
+            this.gatherPool = null;
+        } else if (virtualThreads) {
+            this.gatherPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("shard-gather-", 0).factory());
+        } else {
+            this.gatherPool = Executors.newFixedThreadPool(this.shardNames.size(), gatherThreads());
+        }
+    }
+
+    /**
+     * A router for a single unsharded database.
+     */
+    public static ShardRouter unsharded() {
+        return new ShardRouter(false, List.of(), 1, 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<String> getShardNames() {
+        return shardNames;
+    }
+
+    public int shardForCustomer(String customerId) {
+        return enabled && customerId != null ? ring.shardFor(customerId) : HOME_SHARD;
+    }
+
+    /**
+     * The shard an order or execution id was issued by. Ids outside every shard's range are sent
+     * to the home shard, where they are not found.
+     */
+    public int shardForId(Long id) {
+        if (!enabled || id == null || id < 1) {
+            return HOME_SHARD;
+        }
+        int shard = (int) ((id - 1) % idStride);
+        return shard < shardNames.size() ? shard : HOME_SHARD;
+    }
+
+    /**
+     * The shard encoded in an order or execution reference, or -1 for a reference without one
+     * (issued before sharding was enabled, or malformed).
+     */
+    public int shardForReference(String reference) {
+        if (!enabled || reference == null
+                || reference.length() != REFERENCE_LENGTH && reference.length() != LEGACY_REFERENCE_LENGTH
+                || reference.charAt(3) != '-') {
+            return -1;
+        }
+        int high = Character.digit(reference.charAt(4), 16);
+        int low = Character.digit(reference.charAt(5), 16);
+        int shard = high < 0 || low < 0 ? -1 : high << 4 | low;
+        return shard < shardNames.size() ? shard : -1;
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return enabled ? ShardContext.call(shard, work) : work.get();
+    }
+
+    public void onShard(int shard, Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a single-row lookup on the shard the reference names. A reference without a shard is
+     * looked up on each shard in turn until one has it.
+     */
+    public <T> T onShardOfReference(String reference, Supplier<T> lookup) {
+        int shard = shardForReference(reference);
+        if (!enabled || shard >= 0) {
+            return onShard(shard, lookup);
+        }
+        ResourceNotFoundException notFound = null;
+        for (int i = 0; i < shardNames.size(); i++) {
+            try {
+                return ShardContext.call(i, lookup);
+            } catch (ResourceNotFoundException e) {
+                notFound = e;
+            }
+        }
+        throw notFound;
+    }
+
+    /**
+     * Runs the work once on every shard, one after the other, and returns the results in shard
+     * order. For background jobs, which have no caller waiting on them.
+     */
+    public <T> List<T> onEveryShard(Supplier<T> work) {
+        if (!enabled) {
+            return List.of(work.get());
+        }
+        List<T> results = new ArrayList<>(shardNames.size());
+        for (int i = 0; i < shardNames.size(); i++) {
+            results.add(ShardContext.call(i, work));
+        }
+        return results;
+    }
+
+    /**
+     * Scatter-gather: runs the query on every shard at once and concatenates the results in shard
+     * order. The first failure is thrown once every shard has answered. Tracing context follows
+     * the query onto the gather threads; statements they issue do not count against the caller's
+     * SQL budget.
+     */
+    public <T> List<T> gather(Supplier<List<T>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        Executor withContext = contextSnapshots.captureAll().wrapExecutor(gatherPool);
+        List<CompletableFuture<List<T>>> parts = new ArrayList<>(shardNames.size());
+        for (int i = 0; i < shardNames.size(); i++) {
+            int shard = i;
+            parts.add(CompletableFuture.supplyAsync(() -> ShardContext.call(shard, query), withContext));
+        }
+        List<T> gathered = new ArrayList<>();
+        RuntimeException failure = null;
+        for (CompletableFuture<List<T>> part : parts) {
+            try {
+                gathered.addAll(part.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return gathered;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (gatherPool != null) {
+            gatherPool.shutdownNow();
+        }
+    }
+
+    private static List<String> shardNames(ShardingProperties properties) {
+        List<String> names = new ArrayList<>();
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        for (int i = 0; i < shards.size(); i++) {
+            String name = shards.get(i).getName();
+            names.add(name == null || name.isBlank() ? "shard-" + i : name);
+        }
+        return names;
+    }
+
+    private static ThreadFactory gatherThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "shard-gather-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
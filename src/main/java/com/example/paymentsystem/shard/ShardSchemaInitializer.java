@@ -0,0 +1,118 @@
+package com.example.paymentsystem.shard;
+
+import com.example.paymentsystem.lease.LeaseManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Prepares every shard before the application uses it. Hibernate's ddl-auto only sees the home
+ * shard; the other shards get the mapped tables created when they have none yet. Later schema
+ * changes on those shards are not applied automatically.
+ *
+ * Each shard's order and execution identity columns are then set to step by the id stride from
+ * an offset of the shard's index, so an id tells which shard issued it. That is done once per
+ * column, while it does not yet step by the stride, with the next id placed above any existing
+ * row; a column already stepping by the stride is left alone, since running nodes are issuing
+ * ids from it. Nodes starting together take turns under the {@value #LEASE} lease. A column with
+ * rows from before sharding must not be written by nodes still running unsharded meanwhile.
+ */
+@Slf4j
+public class ShardSchemaInitializer {
+
+    static final List<String> SHARDED_TABLES = List.of("payment_orders", "payment_executions");
+    static final String LEASE = "shard-schema";
+
+    private static final Duration LEASE_WAIT = Duration.ofSeconds(60);
+    private static final Duration LEASE_POLL = Duration.ofMillis(200);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRoutingDataSource dataSource;
+    private final LeaseManager leaseManager;
+    private final int idStride;
+
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory, ShardRoutingDataSource dataSource,
+                                  LeaseManager leaseManager, int idStride) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.leaseManager = leaseManager;
+        this.idStride = idStride;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        long deadline = System.nanoTime() + LEASE_WAIT.toNanos();
+        while (!leaseManager.runExclusive(LEASE, lease -> {
+            try {
+                prepareShards();
+            } finally {
+                leaseManager.release(lease);
+            }
+        })) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Another node held the " + LEASE + " lease for over " + LEASE_WAIT);
+            }
+            try {
+                Thread.sleep(LEASE_POLL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for the " + LEASE + " lease", e);
+            }
+        }
+    }
+
+    private void prepareShards() {
+        for (int shard = 0; shard < dataSource.size(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource.shard(shard));
+            if (!tableExists(jdbc, SHARDED_TABLES.get(0))) {
+                ShardContext.call(shard, () -> {
+                    entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(true);
+                    return null;
+                });
+                log.atInfo().setMessage("Created schema on shard").addKeyValue("shard", shard).log();
+            }
+            for (String table : SHARDED_TABLES) {
+                if (identityIncrement(jdbc, table) == idStride) {
+                    continue;
+                }
+                long nextId = nextId(jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class), shard);
+                jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + idStride);
+                jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId);
+                log.atInfo().setMessage("Set shard identity column")
+                        .addKeyValue("shard", shard)
+                        .addKeyValue("table", table)
+                        .addKeyValue("nextId", nextId)
+                        .log();
+            }
+        }
+    }
+
+    /**
+     * The smallest id above {@code maxId} that belongs to the shard: one more than a multiple of
+     * the stride, plus the shard index.
+     */
+    long nextId(long maxId, int shard) {
+        return maxId - Math.floorMod(maxId - 1 - shard, idStride) + idStride;
+    }
+
+    private static long identityIncrement(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("SELECT IDENTITY_INCREMENT FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND LOWER(TABLE_NAME) = ? AND LOWER(COLUMN_NAME) = 'id'",
+                Long.class, table);
+    }
+
+    private static boolean tableExists(JdbcTemplate jdbc, String table) {
+        try {
+            jdbc.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE 1 = 0", Long.class);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.paymentsystem.shard;
+
+import com.example.paymentsystem.dto.PaymentOrderViewDTO;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.service.OrderViewService;
+import com.example.paymentsystem.service.impl.OrderViewServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Routes the database fallbacks of the order view service to the right shard. Views the read
+ * model serves need no routing; the status listing is only gathered when the model is not serving.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "payment.sharding", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardedOrderViewService implements OrderViewService {
+
+    private final OrderViewServiceImpl delegate;
+    private final ShardRouter router;
+    private final OrderReadModel readModel;
+
+    @Override
+    public PaymentOrderViewDTO getOrderView(Long id) {
+        return router.onShard(router.shardForId(id), () -> delegate.getOrderView(id));
+    }
+
+    @Override
+    public PaymentOrderViewDTO getOrderViewByReference(String orderReference) {
+        return router.onShardOfReference(orderReference, () -> delegate.getOrderViewByReference(orderReference));
+    }
+
+    @Override
+    public List<PaymentOrderViewDTO> getOrderViewsByCustomerId(String customerId) {
+        return router.onShard(router.shardForCustomer(customerId), () -> delegate.getOrderViewsByCustomerId(customerId));
+    }
+
+    @Override
+    public List<PaymentOrderViewDTO> getOrderViewsByStatus(PaymentOrderStatus status) {
+        if (readModel.isServing()) {
+            return delegate.getOrderViewsByStatus(status);
+        }
+        return router.gather(() -> delegate.getOrderViewsByStatus(status));
+    }
+}
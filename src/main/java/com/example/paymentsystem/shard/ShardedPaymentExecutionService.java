@@ -0,0 +1,104 @@
+package com.example.paymentsystem.shard;
+
+import com.example.paymentsystem.dto.PaymentExecutionCriteria;
+import com.example.paymentsystem.dto.PaymentExecutionDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.service.PaymentExecutionService;
+import com.example.paymentsystem.service.impl.PaymentExecutionServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs each execution service call on the shard of the order it belongs to. Executions are
+ * stored next to their order, and their ids and references name the same shard.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "payment.sharding", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardedPaymentExecutionService implements PaymentExecutionService {
+
+    private final PaymentExecutionServiceImpl delegate;
+    private final ShardRouter router;
+
+    @Override
+    public PaymentExecutionDTO executePayment(Long orderId) {
+        return router.onShard(router.shardForId(orderId), () -> delegate.executePayment(orderId));
+    }
+
+    @Override
+    public PaymentExecutionDTO getExecutionById(Long id) {
+        return router.onShard(router.shardForId(id), () -> delegate.getExecutionById(id));
+    }
+
+    @Override
+    public PaymentExecutionDTO getExecutionByReference(String executionReference) {
+        return router.onShardOfReference(executionReference, () -> delegate.getExecutionByReference(executionReference));
+    }
+
+    @Override
+    public List<PaymentExecutionDTO> getExecutionsByOrderId(Long orderId) {
+        return router.onShard(router.shardForId(orderId), () -> delegate.getExecutionsByOrderId(orderId));
+    }
+
+    @Override
+    public List<PaymentExecutionDTO> getExecutionsByOrderReference(String orderReference) {
+        return byReference(orderReference, () -> delegate.getExecutionsByOrderReference(orderReference));
+    }
+
+    @Override
+    public List<PaymentExecutionDTO> getExecutionsByStatus(ExecutionStatus status) {
+        return router.gather(() -> delegate.getExecutionsByStatus(status));
+    }
+
+    @Override
+    public List<PaymentExecutionDTO> getExecutionsByCustomerId(String customerId) {
+        return router.onShard(router.shardForCustomer(customerId), () -> delegate.getExecutionsByCustomerId(customerId));
+    }
+
+    @Override
+    public List<Map<String, Object>> getExecutionFields(PaymentExecutionCriteria criteria, List<String> fields) {
+        Supplier<List<Map<String, Object>>> query = () -> delegate.getExecutionFields(criteria, fields);
+        if (criteria.customerId() != null) {
+            return router.onShard(router.shardForCustomer(criteria.customerId()), query);
+        }
+        if (criteria.orderId() != null) {
+            return router.onShard(router.shardForId(criteria.orderId()), query);
+        }
+        if (criteria.orderReference() != null) {
+            return byReference(criteria.orderReference(), query);
+        }
+        return router.gather(query);
+    }
+
+    @Override
+    public PaymentExecutionDTO updateExecutionStatus(Long id, ExecutionStatus newStatus) {
+        return router.onShard(router.shardForId(id), () -> delegate.updateExecutionStatus(id, newStatus));
+    }
+
+    @Override
+    public PaymentExecutionDTO retryExecution(Long executionId) {
+        return router.onShard(router.shardForId(executionId), () -> delegate.retryExecution(executionId));
+    }
+
+    @Override
+    public void processSettlement(Long executionId) {
+        router.onShard(router.shardForId(executionId), () -> delegate.processSettlement(executionId));
+    }
+
+    @Override
+    public void reverseExecution(Long executionId) {
+        router.onShard(router.shardForId(executionId), () -> delegate.reverseExecution(executionId));
+    }
+
+    private <T> List<T> byReference(String orderReference, Supplier<List<T>> query) {
+        int shard = router.shardForReference(orderReference);
+        return shard >= 0 ? router.onShard(shard, query) : router.gather(query);
+    }
+}
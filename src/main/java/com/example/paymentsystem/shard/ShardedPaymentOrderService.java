@@ -0,0 +1,118 @@
+package com.example.paymentsystem.shard;
+
+import com.example.paymentsystem.dto.PaymentOrderCriteria;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.service.PaymentOrderService;
+import com.example.paymentsystem.service.impl.PaymentOrderServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs each order service call on the shard that holds its data, outside and ahead of the
+ * service's own transaction. Calls scoped to a customer, id or reference go to one shard; the
+ * rest are gathered from every shard. Listings the read model answers are not gathered, since
+ * the model already holds every shard's orders.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "payment.sharding", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardedPaymentOrderService implements PaymentOrderService {
+
+    private final PaymentOrderServiceImpl delegate;
+    private final ShardRouter router;
+    private final OrderReadModel readModel;
+
+    @Override
+    public PaymentOrderDTO createOrder(PaymentOrderDTO orderDTO) {
+        return router.onShard(router.shardForCustomer(orderDTO.getCustomerId()), () -> delegate.createOrder(orderDTO));
+    }
+
+    @Override
+    public PaymentOrderDTO getOrderById(Long id) {
+        return router.onShard(router.shardForId(id), () -> delegate.getOrderById(id));
+    }
+
+    @Override
+    public PaymentOrderDTO getOrderByReference(String orderReference) {
+        return router.onShardOfReference(orderReference, () -> delegate.getOrderByReference(orderReference));
+    }
+
+    @Override
+    public List<PaymentOrderDTO> getAllOrders() {
+        return router.gather(delegate::getAllOrders);
+    }
+
+    @Override
+    public List<PaymentOrderDTO> getOrdersByCustomerId(String customerId) {
+        return router.onShard(router.shardForCustomer(customerId), () -> delegate.getOrdersByCustomerId(customerId));
+    }
+
+    @Override
+    public List<PaymentOrderDTO> getOrdersByStatus(PaymentOrderStatus status) {
+        if (readModel.isServing()) {
+            return delegate.getOrdersByStatus(status);
+        }
+        return router.gather(() -> delegate.getOrdersByStatus(status));
+    }
+
+    @Override
+    public List<PaymentOrderDTO> getOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
+        return router.gather(() -> delegate.getOrdersBetweenDates(startDate, endDate));
+    }
+
+    @Override
+    public List<PaymentOrderDTO> getOrdersByAmountRange(BigDecimal minAmount, BigDecimal maxAmount) {
+        return router.gather(() -> delegate.getOrdersByAmountRange(minAmount, maxAmount));
+    }
+
+    @Override
+    public List<Map<String, Object>> getOrderFields(PaymentOrderCriteria criteria, List<String> fields) {
+        if (criteria.customerId() != null) {
+            return router.onShard(router.shardForCustomer(criteria.customerId()),
+                    () -> delegate.getOrderFields(criteria, fields));
+        }
+        return router.gather(() -> delegate.getOrderFields(criteria, fields));
+    }
+
+    @Override
+    public PaymentOrderDTO updateOrderStatus(Long id, PaymentOrderStatus newStatus) {
+        return router.onShard(router.shardForId(id), () -> delegate.updateOrderStatus(id, newStatus));
+    }
+
+    @Override
+    public PaymentOrderDTO updateOrder(Long id, PaymentOrderDTO orderDTO) {
+        return router.onShard(router.shardForId(id), () -> delegate.updateOrder(id, orderDTO));
+    }
+
+    @Override
+    public void cancelOrder(Long id) {
+        router.onShard(router.shardForId(id), () -> delegate.cancelOrder(id));
+    }
+
+    @Override
+    public void deleteOrder(Long id) {
+        router.onShard(router.shardForId(id), () -> delegate.deleteOrder(id));
+    }
+
+    @Override
+    public Long countOrdersByCustomerAndStatus(String customerId, PaymentOrderStatus status) {
+        return router.onShard(router.shardForCustomer(customerId),
+                () -> delegate.countOrdersByCustomerAndStatus(customerId, status));
+    }
+
+    @Override
+    public BigDecimal getTotalAmountByCustomerAndStatus(String customerId, PaymentOrderStatus status) {
+        return router.onShard(router.shardForCustomer(customerId),
+                () -> delegate.getTotalAmountByCustomerAndStatus(customerId, status));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.paymentsystem.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Manual spans for the phases of payment processing that HTTP and JDBC instrumentation cannot
+ * see. Each span becomes a child of whatever span is current (normally the HTTP server span) and
+ * is current itself until closed, so nested phases and log lines pick up its trace and span ids.
+ */
+@Component
+public class PaymentTracing {
+
+    private final Tracer tracer;
+
+    @Autowired
+    public PaymentTracing(ObjectProvider<Tracer> tracer) {
+        this(tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+
+    public PaymentTracing(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Starts a span and makes it current. Callers must {@link SpanScope#close() close} it on
+     * the same thread, normally in a finally block.
+     */
+    public SpanScope start(String name) {
+        Span span = tracer.nextSpan().name(name).start();
+        return new SpanScope(span, tracer.withSpan(span));
+    }
+
+    /**
+     * Runs a single step in its own span, marking the span as failed if the step throws.
+     */
+    public <T> T inSpan(String name, Supplier<T> step) {
+        SpanScope span = start(name);
+        try {
+            return step.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+
+    public static final class SpanScope implements AutoCloseable {
+
+        private final Span span;
+        private final Tracer.SpanInScope inScope;
+
+        private SpanScope(Span span, Tracer.SpanInScope inScope) {
+            this.span = span;
+            this.inScope = inScope;
+        }
+
+        public SpanScope tag(String key, String value) {
+            if (value != null) {
+                span.tag(key, value);
+            }
+            return this;
+        }
+
+        public SpanScope error(Throwable error) {
+            span.error(error);
+            return this;
+        }
+
+        @Override
+        public void close() {
+            inScope.close();
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.paymentsystem.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Tail sampler in front of a real exporter. Spans are held per trace until the local root span
+ * ends, then the whole trace is exported if any span failed or the root took longer than the
+ * slow threshold; other traces are kept with the baseline probability.
+ *
+ * Head sampling has to keep every trace for this to work (management.tracing.sampling.probability
+ * = 1.0), since a head sampler decides before anyone knows whether the request will be slow.
+ * Traces whose root never arrives (the process that owns it died, or it was dropped by the batch
+ * processor) are decided on the spans that did arrive once they are older than the pending timeout
+ * or the pending buffer is full.
+ */
+public class TailSamplingSpanExporter implements SpanExporter {
+
+    private static final AttributeKey<String> ERROR = AttributeKey.stringKey("error");
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+
+    private final SpanExporter delegate;
+    private final long slowThresholdNanos;
+    private final double baselineRatio;
+    private final int maxPendingTraces;
+    private final long pendingTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    // Both maps are only touched under this lock; the batch span processor exports from a single
+    // worker thread, so the lock is uncontended in practice.
+    private final Map<String, PendingTrace> pending = new LinkedHashMap<>();
+    private final Map<String, Boolean> decided = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > maxPendingTraces;
+        }
+    };
+
+    public TailSamplingSpanExporter(SpanExporter delegate, long slowThresholdNanos, double baselineRatio,
+                                    int maxPendingTraces, long pendingTimeoutNanos) {
+        this(delegate, slowThresholdNanos, baselineRatio, maxPendingTraces, pendingTimeoutNanos, System::nanoTime);
+    }
+
+    TailSamplingSpanExporter(SpanExporter delegate, long slowThresholdNanos, double baselineRatio,
+                             int maxPendingTraces, long pendingTimeoutNanos, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.slowThresholdNanos = slowThresholdNanos;
+        this.baselineRatio = baselineRatio;
+        this.maxPendingTraces = maxPendingTraces;
+        this.pendingTimeoutNanos = pendingTimeoutNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<SpanData> keep = new ArrayList<>();
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            for (SpanData span : spans) {
+                Boolean decision = decided.get(span.getTraceId());
+                if (decision != null) {
+                    // Late span of a trace whose root already ended, e.g. from an async task
+                    if (decision) {
+                        keep.add(span);
+                    }
+                    continue;
+                }
+
+                PendingTrace trace = pending.computeIfAbsent(span.getTraceId(), id -> new PendingTrace(now));
+                trace.spans.add(span);
+                if (isLocalRoot(span)) {
+                    pending.remove(span.getTraceId());
+                    decide(span.getTraceId(), trace, span.getEndEpochNanos() - span.getStartEpochNanos(), keep);
+                }
+            }
+            evictStale(now, keep);
+        }
+        return keep.isEmpty() ? CompletableResultCode.ofSuccess() : delegate.export(keep);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        List<SpanData> keep = new ArrayList<>();
+        synchronized (this) {
+            evictStale(Long.MAX_VALUE, keep);
+        }
+        if (!keep.isEmpty()) {
+            delegate.export(keep);
+        }
+        return delegate.shutdown();
+    }
+
+    synchronized int pendingTraceCount() {
+        return pending.size();
+    }
+
+    private void evictStale(long now, List<SpanData> keep) {
+        Iterator<Map.Entry<String, PendingTrace>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, PendingTrace> entry = it.next();
+            PendingTrace trace = entry.getValue();
+            boolean full = pending.size() > maxPendingTraces;
+            if (!full && now - trace.firstSeenNanos < pendingTimeoutNanos) {
+                // Insertion ordered, so every later trace is younger
+                break;
+            }
+            it.remove();
+            decide(entry.getKey(), trace, trace.longestSpanNanos(), keep);
+        }
+    }
+
+    private void decide(String traceId, PendingTrace trace, long durationNanos, List<SpanData> keep) {
+        boolean sampled = durationNanos >= slowThresholdNanos
+                || trace.hasError()
+                || (baselineRatio > 0 && ThreadLocalRandom.current().nextDouble() < baselineRatio);
+        decided.put(traceId, sampled);
+        if (sampled) {
+            keep.addAll(trace.spans);
+        }
+    }
+
+    private static boolean isLocalRoot(SpanData span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private static boolean isError(SpanData span) {
+        return span.getStatus().getStatusCode() == StatusCode.ERROR
+                || span.getAttributes().get(ERROR) != null
+                || "SERVER_ERROR".equals(span.getAttributes().get(OUTCOME));
+    }
+
+    private static final class PendingTrace {
+
+        private final long firstSeenNanos;
+        private final List<SpanData> spans = new ArrayList<>(8);
+
+        private PendingTrace(long firstSeenNanos) {
+            this.firstSeenNanos = firstSeenNanos;
+        }
+
+        private boolean hasError() {
+            for (SpanData span : spans) {
+                if (isError(span)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long longestSpanNanos() {
+            long longest = 0;
+            for (SpanData span : spans) {
+                longest = Math.max(longest, span.getEndEpochNanos() - span.getStartEpochNanos());
+            }
+            return longest;
+        }
+    }
+}
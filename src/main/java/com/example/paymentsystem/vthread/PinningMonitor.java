@@ -0,0 +1,193 @@
+package com.example.paymentsystem.vthread;
+
+import com.example.paymentsystem.dto.VirtualThreadStatsDTO;
+import com.example.paymentsystem.metrics.PaymentMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread, which on Java 21
+ * means blocking inside a synchronized block or method, or under a native frame. A pinned thread
+ * holds its carrier for the whole wait, so enough of them at once starve every other virtual
+ * thread of carriers.
+ *
+ * The JVM records a {@code jdk.VirtualThreadPinned} flight recorder event when a pinned virtual
+ * thread parks for longer than {@code payment.virtual-threads.pinning.threshold}. This monitor
+ * streams those events in-process, groups them by site (the first frame outside the JDK, which
+ * is usually the code that took the monitor) and reports each new site once in the log with the
+ * nearest application frame. Totals per site are served by {@code /v1/admin/virtual-threads}.
+ *
+ * Monitoring is on whenever {@code spring.threads.virtual.enabled} is, unless
+ * {@code payment.virtual-threads.pinning.enabled} says otherwise.
+ */
+@Component
+@Slf4j
+public class PinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String OTHER_SITE = "(other sites)";
+    static final int MAX_SITES = 64;
+
+    private static final int STACK_DEPTH = 12;
+    private static final String APPLICATION_PACKAGE = "com.example.paymentsystem.";
+
+    private final PaymentMetrics paymentMetrics;
+    private final boolean virtualThreads;
+    private final boolean enabled;
+    private final Duration threshold;
+    private final ConcurrentMap<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder pinnedEvents = new LongAdder();
+
+    private RecordingStream stream;
+
+    public PinningMonitor(PaymentMetrics paymentMetrics,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                          @Value("${payment.virtual-threads.pinning.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+                          @Value("${payment.virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        this.paymentMetrics = paymentMetrics;
+        this.virtualThreads = virtualThreads;
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.atInfo().setMessage("Monitoring virtual thread pinning")
+                .addKeyValue("thresholdMs", threshold.toMillis())
+                .log();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        // Another recording in the JVM (a profiler, jcmd JFR.start) can lower the threshold for
+        // every stream, so shorter waits arrive too
+        if (event.getDuration().compareTo(threshold) < 0) {
+            return;
+        }
+        List<String> stack = new ArrayList<>();
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                stack.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber());
+            }
+        }
+        record(stack, event.getDuration().toNanos());
+    }
+
+    /**
+     * @param stack frames from the innermost out, as {@code class.method:line}
+     */
+    void record(List<String> stack, long nanos) {
+        pinnedEvents.increment();
+        paymentMetrics.recordVirtualThreadPinned(nanos);
+
+        String siteName = firstMatching(stack, false);
+        Site site = sites.get(siteName);
+        if (site == null) {
+            if (sites.size() >= MAX_SITES) {
+                siteName = OTHER_SITE;
+            }
+            String caller = firstMatching(stack, true);
+            List<String> sample = List.copyOf(stack.subList(0, Math.min(STACK_DEPTH, stack.size())));
+            Site created = new Site(siteName, caller, sample);
+            site = sites.putIfAbsent(siteName, created);
+            if (site == null) {
+                site = created;
+                log.atWarn().setMessage("Virtual thread blocked while pinned to its carrier")
+                        .addKeyValue("site", siteName)
+                        .addKeyValue("caller", caller)
+                        .addKeyValue("millis", nanos / 1_000_000)
+                        .log();
+            }
+        }
+        site.record(nanos);
+    }
+
+    public VirtualThreadStatsDTO getStats() {
+        VirtualThreadStatsDTO stats = new VirtualThreadStatsDTO();
+        stats.setVirtualThreads(virtualThreads);
+        stats.setPinningMonitored(enabled);
+        stats.setPinningThresholdMs(threshold.toMillis());
+        stats.setPinnedEvents(pinnedEvents.sum());
+        stats.setSites(sites.values().stream()
+                .sorted(Comparator.comparingLong((Site site) -> site.totalNanos.sum()).reversed())
+                .map(Site::toDTO)
+                .toList());
+        return stats;
+    }
+
+    /**
+     * The first frame outside the JDK, or with {@code application} the first frame of this
+     * application; the innermost frame when there is none.
+     */
+    private static String firstMatching(List<String> stack, boolean application) {
+        for (String frame : stack) {
+            boolean matches = application ? frame.startsWith(APPLICATION_PACKAGE) : !isJdk(frame);
+            if (matches) {
+                return frame;
+            }
+        }
+        return stack.isEmpty() ? "(no stack trace)" : stack.get(0);
+    }
+
+    private static boolean isJdk(String frame) {
+        return frame.startsWith("java.") || frame.startsWith("javax.") || frame.startsWith("jdk.")
+                || frame.startsWith("sun.") || frame.startsWith("com.sun.");
+    }
+
+    private static final class Site {
+
+        private final String name;
+        private final String caller;
+        private final List<String> stack;
+        private final AtomicLong count = new AtomicLong();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Site(String name, String caller, List<String> stack) {
+            this.name = name;
+            this.caller = caller;
+            this.stack = stack;
+        }
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        VirtualThreadStatsDTO.PinningSite toDTO() {
+            return new VirtualThreadStatsDTO.PinningSite(name, caller, count.get(), totalNanos.sum() / 1_000_000,
+                    maxNanos.get() / 1_000_000, stack);
+        }
+    }
+}
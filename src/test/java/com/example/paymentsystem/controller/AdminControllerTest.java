@@ -0,0 +1,209 @@
+package com.example.paymentsystem.controller;
+
+import com.example.paymentsystem.dispatch.ExecutionLanes;
+import com.example.paymentsystem.dto.ExecutionLanesStatsDTO;
+import com.example.paymentsystem.dto.HibernateStatisticsDTO;
+import com.example.paymentsystem.dto.JobLeaseDTO;
+import com.example.paymentsystem.dto.JournalStatsDTO;
+import com.example.paymentsystem.dto.RateLimitBucketDTO;
+import com.example.paymentsystem.dto.ReadModelStatsDTO;
+import com.example.paymentsystem.dto.RouteLatencyDTO;
+import com.example.paymentsystem.dto.VirtualThreadStatsDTO;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.journal.ExecutionJournal;
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.service.HibernateStatisticsService;
+import com.example.paymentsystem.service.LatencySloService;
+import com.example.paymentsystem.service.OrderKeyResolver;
+import com.example.paymentsystem.service.RateLimiterService;
+import com.example.paymentsystem.vthread.PinningMonitor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminController.class)
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RateLimiterService rateLimiterService;
+
+    @MockBean
+    private OrderKeyResolver orderKeyResolver;
+
+    @MockBean
+    private LatencySloService latencySloService;
+
+    @MockBean
+    private HibernateStatisticsService hibernateStatisticsService;
+
+    @MockBean
+    private ExecutionJournal executionJournal;
+
+    @MockBean
+    private OrderReadModel orderReadModel;
+
+    @MockBean
+    private ExecutionLanes executionLanes;
+
+    @MockBean
+    private LeaseManager leaseManager;
+
+    @MockBean
+    private PinningMonitor pinningMonitor;
+
+    @Test
+    void getRateLimitBuckets_Returns200() throws Exception {
+        when(rateLimiterService.getBuckets()).thenReturn(List.of(
+                new RateLimitBucketDTO("CUST001", PaymentMethod.BANK_TRANSFER, 5, 1.0, 0.5)));
+
+        mockMvc.perform(get("/v1/admin/rate-limits"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].customerId").value("CUST001"))
+                .andExpect(jsonPath("$.data[0].paymentMethod").value("BANK_TRANSFER"))
+                .andExpect(jsonPath("$.data[0].availableTokens").value(0.5));
+    }
+
+    @Test
+    void getHibernateStatistics_Returns200() throws Exception {
+        HibernateStatisticsDTO stats = new HibernateStatisticsDTO();
+        stats.setEnabled(true);
+        stats.setQueryExecutionCount(42);
+        stats.setSlowestQueries(List.of(new HibernateStatisticsDTO.QueryStats(
+                "SELECT p FROM PaymentOrder p", 40, 400, 2, 15, 80)));
+        when(hibernateStatisticsService.getStatistics(5)).thenReturn(stats);
+
+        mockMvc.perform(get("/v1/admin/hibernate-stats").param("slowest", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.queryExecutionCount").value(42))
+                .andExpect(jsonPath("$.data.slowestQueries[0].executionMaxTimeMs").value(15));
+    }
+
+    @Test
+    void resetHibernateStatistics_Returns200() throws Exception {
+        mockMvc.perform(delete("/v1/admin/hibernate-stats"))
+                .andExpect(status().isOk());
+
+        verify(hibernateStatisticsService).reset();
+    }
+
+    @Test
+    void getLatencySlo_ViolatedOnly_FiltersRoutes() throws Exception {
+        RouteLatencyDTO.WindowStats slow = new RouteLatencyDTO.WindowStats("1m", 120, 30.0, 80.0, 140.0, 210.0, true);
+        when(latencySloService.getReport()).thenReturn(List.of(
+                new RouteLatencyDTO("GET /v1/payment-orders/{id}", 25.0, 50.0, true, List.of(slow)),
+                new RouteLatencyDTO("GET /v1/payment-orders", 100.0, 250.0, false, List.of())));
+
+        mockMvc.perform(get("/v1/admin/slo").param("violatedOnly", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].route").value("GET /v1/payment-orders/{id}"))
+                .andExpect(jsonPath("$.data[0].windows[0].p99Ms").value(140.0))
+                .andExpect(jsonPath("$.data[0].windows[0].violated").value(true));
+    }
+
+    @Test
+    void getJournalStats_Returns200() throws Exception {
+        JournalStatsDTO stats = new JournalStatsDTO();
+        stats.setSegments(2);
+        stats.setRecords(1_500_000);
+        stats.setReplayRecordsPerSecond(9_000_000);
+        when(executionJournal.getStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/v1/admin/journal"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.segments").value(2))
+                .andExpect(jsonPath("$.data.records").value(1_500_000))
+                .andExpect(jsonPath("$.data.replayRecordsPerSecond").value(9_000_000));
+    }
+
+    @Test
+    void getReadModelStats_Returns200() throws Exception {
+        ReadModelStatsDTO stats = new ReadModelStatsDTO();
+        stats.setServing(true);
+        stats.setOrders(2);
+        stats.setOrdersByStatus(Map.of(PaymentOrderStatus.PENDING, 2));
+        stats.setEstimatedBytesPerMillionOrders(640_000_000L);
+        when(orderReadModel.getStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/v1/admin/read-model"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.serving").value(true))
+                .andExpect(jsonPath("$.data.ordersByStatus.PENDING").value(2))
+                .andExpect(jsonPath("$.data.estimatedBytesPerMillionOrders").value(640_000_000L));
+    }
+
+    @Test
+    void rebuildReadModel_Disabled_Returns400() throws Exception {
+        when(orderReadModel.isEnabled()).thenReturn(false);
+
+        mockMvc.perform(post("/v1/admin/read-model/rebuild"))
+                .andExpect(status().isBadRequest());
+        verify(orderReadModel, never()).rebuild();
+    }
+
+    @Test
+    void getExecutionLaneStats_Returns200() throws Exception {
+        ExecutionLanesStatsDTO stats = new ExecutionLanesStatsDTO();
+        stats.setEnabled(true);
+        stats.setLanes(2);
+        stats.setDepths(List.of(0, 5));
+        stats.setMaxDepth(5);
+        stats.setRejected(3);
+        when(executionLanes.getStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/v1/admin/execution-lanes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.depths[1]").value(5))
+                .andExpect(jsonPath("$.data.maxDepth").value(5))
+                .andExpect(jsonPath("$.data.rejected").value(3));
+    }
+
+    @Test
+    void getLeases_Returns200() throws Exception {
+        when(leaseManager.getLeases()).thenReturn(List.of(new JobLeaseDTO("outbox-relay/partition/0", "node-a", 3,
+                Instant.parse("2024-03-01T10:00:15Z"), false, true)));
+
+        mockMvc.perform(get("/v1/admin/leases"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].name").value("outbox-relay/partition/0"))
+                .andExpect(jsonPath("$.data[0].fencingToken").value(3))
+                .andExpect(jsonPath("$.data[0].heldByThisNode").value(true));
+    }
+
+    @Test
+    void getVirtualThreadStats_Returns200() throws Exception {
+        VirtualThreadStatsDTO stats = new VirtualThreadStatsDTO();
+        stats.setVirtualThreads(true);
+        stats.setPinningMonitored(true);
+        stats.setPinnedEvents(2);
+        stats.setSites(List.of(new VirtualThreadStatsDTO.PinningSite("org.h2.store.fs.FileUtils.size:120",
+                "com.example.paymentsystem.service.PaymentExecutionServiceImpl.executePayment:88", 2, 61, 40, List.of())));
+        when(pinningMonitor.getStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/v1/admin/virtual-threads"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.virtualThreads").value(true))
+                .andExpect(jsonPath("$.data.pinnedEvents").value(2))
+                .andExpect(jsonPath("$.data.sites[0].site").value("org.h2.store.fs.FileUtils.size:120"))
+                .andExpect(jsonPath("$.data.sites[0].maxTimeMs").value(40));
+    }
+}
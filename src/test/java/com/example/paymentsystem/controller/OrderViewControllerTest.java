@@ -0,0 +1,92 @@
+package com.example.paymentsystem.controller;
+
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.dto.PaymentOrderViewDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.exception.ErrorCode;
+import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.service.LatencySloService;
+import com.example.paymentsystem.service.OrderKeyResolver;
+import com.example.paymentsystem.service.OrderViewService;
+import com.example.paymentsystem.service.RateLimiterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OrderViewController.class)
+class OrderViewControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderViewService orderViewService;
+
+    @MockBean
+    private RateLimiterService rateLimiterService;
+
+    @MockBean
+    private OrderKeyResolver orderKeyResolver;
+
+    @MockBean
+    private LatencySloService latencySloService;
+
+    private PaymentOrderViewDTO view;
+
+    @BeforeEach
+    void setUp() {
+        PaymentOrderDTO order = new PaymentOrderDTO();
+        order.setId(1L);
+        order.setOrderReference("ORD-TEST123");
+        order.setCustomerId("CUST001");
+        order.setStatus(PaymentOrderStatus.COMPLETED);
+        view = new PaymentOrderViewDTO(order, 7L, "EXE-TEST123", ExecutionStatus.SUCCESS,
+                LocalDateTime.of(2024, 1, 1, 12, 0), 2);
+    }
+
+    @Test
+    void getOrderView_Returns200WithLatestExecution() throws Exception {
+        when(orderViewService.getOrderView(1L)).thenReturn(view);
+
+        mockMvc.perform(get("/v1/payment-order-views/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.order.orderReference").value("ORD-TEST123"))
+                .andExpect(jsonPath("$.data.latestExecutionReference").value("EXE-TEST123"))
+                .andExpect(jsonPath("$.data.latestExecutionStatus").value("SUCCESS"))
+                .andExpect(jsonPath("$.data.executionAttempts").value(2));
+    }
+
+    @Test
+    void getOrderViewByReference_NotFound_Returns404() throws Exception {
+        when(orderViewService.getOrderViewByReference("ORD-MISSING")).thenThrow(
+                new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND, "Payment order not found with reference: ORD-MISSING"));
+
+        mockMvc.perform(get("/v1/payment-order-views/reference/ORD-MISSING"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorCode").value("ORDER_NOT_FOUND"));
+    }
+
+    @Test
+    void getOrderViewsByCustomerAndStatus_Returns200() throws Exception {
+        when(orderViewService.getOrderViewsByCustomerId("CUST001")).thenReturn(List.of(view));
+        when(orderViewService.getOrderViewsByStatus(PaymentOrderStatus.COMPLETED)).thenReturn(List.of(view));
+
+        mockMvc.perform(get("/v1/payment-order-views/customer/CUST001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].order.customerId").value("CUST001"));
+        mockMvc.perform(get("/v1/payment-order-views/status/COMPLETED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].latestExecutionId").value(7));
+    }
+}
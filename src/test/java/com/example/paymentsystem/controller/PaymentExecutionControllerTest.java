@@ -1,10 +1,25 @@
 package com.example.paymentsystem.controller;
 
+import com.example.paymentsystem.dispatch.ExecutionLanes;
+import com.example.paymentsystem.dto.PaymentExecutionCriteria;
 import com.example.paymentsystem.dto.PaymentExecutionDTO;
 import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.exception.ErrorCode;
 import com.example.paymentsystem.exception.InvalidOperationException;
+import com.example.paymentsystem.exception.LaneSaturatedException;
 import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.repository.IdempotencyRecordRepository;
+import com.example.paymentsystem.service.ExecutionEventStreamService;
+import com.example.paymentsystem.service.IdempotencyService;
 import com.example.paymentsystem.service.PaymentExecutionService;
+import com.example.paymentsystem.service.LatencySloService;
+import com.example.paymentsystem.service.OrderKeyResolver;
+import com.example.paymentsystem.service.RateLimiterService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,18 +27,31 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PaymentExecutionController.class)
+@Import(IdempotencyService.class)
 class PaymentExecutionControllerTest {
 
     @Autowired
@@ -32,10 +60,41 @@ class PaymentExecutionControllerTest {
     @MockBean
     private PaymentExecutionService executionService;
 
+    @MockBean
+    private ExecutionEventStreamService eventStreamService;
+
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @MockBean
+    private RateLimiterService rateLimiterService;
+
+    @MockBean
+    private OrderKeyResolver orderKeyResolver;
+
+    @MockBean
+    private LatencySloService latencySloService;
+
+    @MockBean
+    private ExecutionLanes executionLanes;
+
     private PaymentExecutionDTO executionDTO;
 
     @BeforeEach
     void setUp() {
+        when(orderKeyResolver.forOrder(anyLong())).thenAnswer(invocation ->
+                Optional.of(new OrderKeyResolver.OrderKey(invocation.getArgument(0), "CUST001", PaymentMethod.CREDIT_CARD)));
+        when(orderKeyResolver.forExecution(anyLong()))
+                .thenReturn(Optional.of(new OrderKeyResolver.OrderKey(1L, "CUST001", PaymentMethod.CREDIT_CARD)));
+        when(executionLanes.forOrder(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(executionLanes.forExecution(anyLong(), any(Supplier.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(executionLanes).forExecution(anyLong(), any(Runnable.class));
+
         executionDTO = new PaymentExecutionDTO();
         executionDTO.setId(1L);
         executionDTO.setExecutionReference("EXE-TEST123");
@@ -71,6 +130,81 @@ class PaymentExecutionControllerTest {
             mockMvc.perform(post("/v1/payment-executions/execute/999"))
                     .andExpect(status().isNotFound());
         }
+
+        @Test
+        void executePayment_WithRepeatedIdempotencyKey_ExecutesOnce() throws Exception {
+            when(executionService.executePayment(1L)).thenReturn(executionDTO);
+
+            for (int i = 0; i < 2; i++) {
+                mockMvc.perform(post("/v1/payment-executions/execute/1")
+                                .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "execute-key-1"))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.data.executionReference").value("EXE-TEST123"));
+            }
+
+            verify(executionService, times(1)).executePayment(1L);
+        }
+
+        @Test
+        void executePayment_RateLimited_Returns429WithoutCallingService() throws Exception {
+            when(orderKeyResolver.forOrder(1L))
+                    .thenReturn(Optional.of(new OrderKeyResolver.OrderKey(1L, "CUST001", PaymentMethod.BANK_TRANSFER)));
+            when(rateLimiterService.tryAcquire("CUST001", PaymentMethod.BANK_TRANSFER))
+                    .thenReturn(1_500_000_000L);
+
+            mockMvc.perform(post("/v1/payment-executions/execute/1")
+                            .header("X-Customer-Id", "SOMEONE-ELSE")
+                            .header("X-Payment-Method", "CREDIT_CARD"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "2"))
+                    .andExpect(jsonPath("$.success").value(false));
+
+            verify(rateLimiterService, never()).tryAcquire(eq("SOMEONE-ELSE"), any());
+            verifyNoInteractions(executionService);
+        }
+
+        @Test
+        void executePayment_UnknownOrder_Returns404BeforeRateLimit() throws Exception {
+            when(orderKeyResolver.forOrder(99L)).thenReturn(Optional.empty());
+
+            mockMvc.perform(post("/v1/payment-executions/execute/99"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.errorCode").value("ORDER_NOT_FOUND"));
+
+            verifyNoInteractions(rateLimiterService, executionService);
+        }
+
+        @Test
+        void executePayment_LaneFull_Returns503WithRetryAfter() throws Exception {
+            when(executionService.executePayment(1L))
+                    .thenThrow(new LaneSaturatedException("Execution lane 3 is full (64 queued), retry shortly", 1));
+
+            mockMvc.perform(post("/v1/payment-executions/execute/1"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.errorCode").value("EXECUTION_LANE_FULL"));
+        }
+
+        @Test
+        void executePayment_LaneTimedOut_Returns503() throws Exception {
+            when(executionService.executePayment(1L)).thenThrow(new LaneSaturatedException(
+                    ErrorCode.EXECUTION_LANE_TIMEOUT, "Execution lane 3 did not start the work in time, retry shortly", 1));
+
+            mockMvc.perform(post("/v1/payment-executions/execute/1"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.errorCode").value("EXECUTION_LANE_TIMEOUT"));
+        }
+
+        @Test
+        void executePayment_UsesBucketOfOrderOwner() throws Exception {
+            when(executionService.executePayment(1L)).thenReturn(executionDTO);
+
+            mockMvc.perform(post("/v1/payment-executions/execute/1"))
+                    .andExpect(status().isCreated());
+
+            verify(rateLimiterService).tryAcquire("CUST001", PaymentMethod.CREDIT_CARD);
+        }
     }
 
     @Nested
@@ -123,6 +257,94 @@ class PaymentExecutionControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Binary Content Negotiation")
+    class BinaryContentNegotiation {
+
+        private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+        @Autowired
+        private RequestMappingHandlerAdapter handlerAdapter;
+
+        @Test
+        void binaryConverters_RegisteredOnce() {
+            List<HttpMessageConverter<?>> converters = handlerAdapter.getMessageConverters();
+
+            assertEquals(1, converters.stream().filter(MappingJackson2CborHttpMessageConverter.class::isInstance).count());
+            assertEquals(1, converters.stream().filter(MappingJackson2SmileHttpMessageConverter.class::isInstance).count());
+        }
+
+        @Test
+        void getExecutionById_AcceptCbor_ReturnsCbor() throws Exception {
+            when(executionService.getExecutionById(1L)).thenReturn(executionDTO);
+
+            byte[] body = mockMvc.perform(get("/v1/payment-executions/1").accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            JsonNode response = new ObjectMapper(new CBORFactory()).readTree(body);
+            assertTrue(response.get("success").asBoolean());
+            assertEquals("EXE-TEST123", response.get("data").get("executionReference").asText());
+            assertEquals(0, new BigDecimal("100.00").compareTo(response.get("data").get("amount").decimalValue()));
+        }
+
+        @Test
+        void getExecutionById_AcceptSmile_ReturnsSmile() throws Exception {
+            when(executionService.getExecutionById(1L)).thenReturn(executionDTO);
+
+            byte[] body = mockMvc.perform(get("/v1/payment-executions/1").accept(SMILE))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(SMILE))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            JsonNode response = new ObjectMapper(new SmileFactory()).readTree(body);
+            assertEquals("EXE-TEST123", response.get("data").get("executionReference").asText());
+        }
+
+        @Test
+        void getExecutionsByOrderId_BinaryPayloadsAreSmallerThanJson() throws Exception {
+            when(executionService.getExecutionsByOrderId(1L)).thenReturn(representativeExecutions(200));
+
+            int json = payloadSize(MediaType.APPLICATION_JSON);
+            int cbor = payloadSize(MediaType.APPLICATION_CBOR);
+            int smile = payloadSize(SMILE);
+
+            assertTrue(cbor < json, "CBOR " + cbor + " bytes vs JSON " + json);
+            assertTrue(smile < json, "Smile " + smile + " bytes vs JSON " + json);
+        }
+
+        private int payloadSize(MediaType mediaType) throws Exception {
+            return mockMvc.perform(get("/v1/payment-executions/order/1").accept(mediaType))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray().length;
+        }
+
+        private List<PaymentExecutionDTO> representativeExecutions(int count) {
+            List<PaymentExecutionDTO> executions = new ArrayList<>(count);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < count; i++) {
+                PaymentExecutionDTO dto = new PaymentExecutionDTO();
+                dto.setId((long) i);
+                dto.setExecutionReference("EXE-" + (10_000_000 + i));
+                dto.setPaymentOrderId(1L);
+                dto.setOrderReference("ORD-TEST123");
+                dto.setStatus(i % 5 == 0 ? ExecutionStatus.FAILED : ExecutionStatus.SUCCESS);
+                dto.setAmount(new BigDecimal("1250.75"));
+                dto.setCurrency("USD");
+                dto.setGatewayTransactionId("GW-3f2b8c1e-7a41-4c2e-9d55-" + (100_000_000_000L + i));
+                dto.setGatewayProvider("MOCK_GATEWAY");
+                dto.setRetryAttempt(i % 3);
+                dto.setGatewayResponse("Payment processed successfully");
+                dto.setCreatedAt(now);
+                dto.setUpdatedAt(now);
+                dto.setProcessedAt(now);
+                executions.add(dto);
+            }
+            return executions;
+        }
+    }
+
     @Nested
     @DisplayName("Get Executions by Order Reference")
     class GetExecutionsByOrderReference {
@@ -149,6 +371,20 @@ class PaymentExecutionControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.data[0].status").value("SUCCESS"));
         }
+
+        @Test
+        void getExecutionsByStatus_WithFields_ReturnsOnlyRequestedFields() throws Exception {
+            when(executionService.getExecutionFields(PaymentExecutionCriteria.byStatus(ExecutionStatus.SUCCESS),
+                    List.of("executionReference", "status")))
+                    .thenReturn(List.of(Map.of("executionReference", "EXE-TEST123", "status", "SUCCESS")));
+
+            mockMvc.perform(get("/v1/payment-executions/status/SUCCESS").param("fields", "executionReference,status"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data[0].executionReference").value("EXE-TEST123"))
+                    .andExpect(jsonPath("$.data[0].gatewayResponse").doesNotExist());
+
+            verify(executionService, never()).getExecutionsByStatus(any());
+        }
     }
 
     @Nested
@@ -165,6 +401,32 @@ class PaymentExecutionControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Stream Execution Events")
+    class StreamExecutionEvents {
+        @Test
+        void streamByOrderId_StartsAsyncEventStream() throws Exception {
+            when(eventStreamService.subscribeToOrder(1L)).thenReturn(new SseEmitter());
+
+            mockMvc.perform(get("/v1/payment-executions/order/1/events")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+
+            verify(eventStreamService).subscribeToOrder(1L);
+        }
+
+        @Test
+        void streamByCustomerId_StartsAsyncEventStream() throws Exception {
+            when(eventStreamService.subscribeToCustomer("CUST001")).thenReturn(new SseEmitter());
+
+            mockMvc.perform(get("/v1/payment-executions/customer/CUST001/events")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+
+            verify(eventStreamService).subscribeToCustomer("CUST001");
+        }
+    }
+
     @Nested
     @DisplayName("Update Execution Status")
     class UpdateExecutionStatus {
@@ -200,6 +462,17 @@ class PaymentExecutionControllerTest {
             mockMvc.perform(post("/v1/payment-executions/1/retry"))
                     .andExpect(status().isBadRequest());
         }
+
+        @Test
+        void retryExecution_RateLimited_Returns429() throws Exception {
+            when(rateLimiterService.tryAcquire(eq("CUST001"), any())).thenReturn(10L);
+
+            mockMvc.perform(post("/v1/payment-executions/1/retry"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"));
+
+            verifyNoInteractions(executionService);
+        }
     }
 
     @Nested
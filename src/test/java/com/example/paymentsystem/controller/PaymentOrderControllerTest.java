@@ -1,11 +1,21 @@
 package com.example.paymentsystem.controller;
 
+import com.example.paymentsystem.dto.BulkOrderItemResult;
+import com.example.paymentsystem.dto.BulkOrderSummary;
+import com.example.paymentsystem.dto.PaymentOrderCriteria;
 import com.example.paymentsystem.dto.PaymentOrderDTO;
 import com.example.paymentsystem.entity.PaymentMethod;
 import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.exception.ErrorCode;
 import com.example.paymentsystem.exception.InvalidOperationException;
 import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.repository.IdempotencyRecordRepository;
+import com.example.paymentsystem.service.BulkOrderService;
+import com.example.paymentsystem.service.IdempotencyService;
+import com.example.paymentsystem.service.LatencySloService;
+import com.example.paymentsystem.service.OrderKeyResolver;
 import com.example.paymentsystem.service.PaymentOrderService;
+import com.example.paymentsystem.service.RateLimiterService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,12 +25,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +41,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PaymentOrderController.class)
+@Import(IdempotencyService.class)
 class PaymentOrderControllerTest {
 
     @Autowired
@@ -36,6 +50,21 @@ class PaymentOrderControllerTest {
     @MockBean
     private PaymentOrderService orderService;
 
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @MockBean
+    private BulkOrderService bulkOrderService;
+
+    @MockBean
+    private RateLimiterService rateLimiterService;
+
+    @MockBean
+    private OrderKeyResolver orderKeyResolver;
+
+    @MockBean
+    private LatencySloService latencySloService;
+
     private ObjectMapper objectMapper;
     private PaymentOrderDTO validOrderDTO;
 
@@ -76,6 +105,59 @@ class PaymentOrderControllerTest {
 
             verify(orderService).createOrder(any(PaymentOrderDTO.class));
         }
+
+        @Test
+        void createOrder_WithRepeatedIdempotencyKey_CreatesOnce() throws Exception {
+            when(orderService.createOrder(any(PaymentOrderDTO.class))).thenReturn(validOrderDTO);
+
+            for (int i = 0; i < 2; i++) {
+                mockMvc.perform(post("/v1/payment-orders")
+                                .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, "create-key-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(validOrderDTO)))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.data.orderReference").value("ORD-TEST123"));
+            }
+
+            verify(orderService, times(1)).createOrder(any(PaymentOrderDTO.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Create Orders in Bulk")
+    class CreateOrdersBulk {
+        @Test
+        @SuppressWarnings("unchecked")
+        void createOrdersBulk_StreamsPerItemResults() throws Exception {
+            when(bulkOrderService.importOrders(any(), any())).thenAnswer(inv -> {
+                Consumer<BulkOrderItemResult> sink = inv.getArgument(1);
+                sink.accept(BulkOrderItemResult.accepted(0, "ORD-BULK0001"));
+                sink.accept(BulkOrderItemResult.rejected(1, Map.of("customerName", "Customer name is required")));
+                return new BulkOrderSummary(2, 1, 1, true, null);
+            });
+
+            mockMvc.perform(post("/v1/payment-orders/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(List.of(validOrderDTO, new PaymentOrderDTO()))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(true))
+                    .andExpect(jsonPath("$.data.results.length()").value(2))
+                    .andExpect(jsonPath("$.data.results[0].orderReference").value("ORD-BULK0001"))
+                    .andExpect(jsonPath("$.data.results[1].accepted").value(false))
+                    .andExpect(jsonPath("$.data.summary.accepted").value(1))
+                    .andExpect(jsonPath("$.data.summary.rejected").value(1));
+        }
+
+        @Test
+        void createOrdersBulk_NotAnArray_Returns400() throws Exception {
+            mockMvc.perform(post("/v1/payment-orders/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(validOrderDTO)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.success").value(false));
+
+            verifyNoInteractions(bulkOrderService);
+        }
     }
 
     @Nested
@@ -96,11 +178,13 @@ class PaymentOrderControllerTest {
         @Test
         void getOrderById_NotFound_Returns404() throws Exception {
             when(orderService.getOrderById(999L))
-                    .thenThrow(new ResourceNotFoundException("Payment order not found with ID: 999"));
+                    .thenThrow(new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND,
+                            "Payment order not found with ID: 999"));
 
             mockMvc.perform(get("/v1/payment-orders/999"))
                     .andExpect(status().isNotFound())
-                    .andExpect(jsonPath("$.success").value(false));
+                    .andExpect(jsonPath("$.success").value(false))
+                    .andExpect(jsonPath("$.errorCode").value("ORDER_NOT_FOUND"));
         }
     }
 
@@ -142,6 +226,21 @@ class PaymentOrderControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.data[0].customerId").value("CUST001"));
         }
+
+        @Test
+        void getOrdersByCustomerId_WithFields_ReturnsOnlyRequestedFields() throws Exception {
+            when(orderService.getOrderFields(PaymentOrderCriteria.byCustomerId("CUST001"),
+                    List.of("orderReference", "status")))
+                    .thenReturn(List.of(Map.of("orderReference", "ORD-TEST123", "status", "PENDING")));
+
+            mockMvc.perform(get("/v1/payment-orders/customer/CUST001").param("fields", "orderReference,status"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data[0].orderReference").value("ORD-TEST123"))
+                    .andExpect(jsonPath("$.data[0].status").value("PENDING"))
+                    .andExpect(jsonPath("$.data[0].beneficiaryName").doesNotExist());
+
+            verify(orderService, never()).getOrdersByCustomerId(anyString());
+        }
     }
 
     @Nested
@@ -0,0 +1,281 @@
+package com.example.paymentsystem.controller;
+
+import com.example.paymentsystem.config.SqlBudgetFilter;
+import com.example.paymentsystem.config.SqlStatementCounter;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentExecution;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.exception.SqlBudgetExceededException;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.repository.PaymentExecutionRepository;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.service.PaymentGatewayService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Pins the number of SQL statements every endpoint issues against a real database, so an N+1
+ * or an extra round trip fails a test instead of showing up in production. Fixtures spread
+ * executions over two orders so lazily loaded associations would be counted.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlStatementCountTest {
+
+    private static final String ORDER_JSON = """
+            {"customerId":"CUST-SQL","customerName":"John Doe","customerEmail":"john@example.com",
+             "amount":100.00,"currency":"USD","paymentMethod":"CREDIT_CARD",
+             "beneficiaryName":"ABC Corp","beneficiaryAccount":"1234567890","beneficiaryBank":"XYZ Bank"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentExecutionRepository executionRepository;
+
+    @Autowired
+    private OrderReadModel readModel;
+
+    @MockBean
+    private PaymentGatewayService gatewayService;
+
+    private PaymentOrder order;
+    private PaymentOrder otherOrder;
+    private PaymentExecution succeeded;
+    private PaymentExecution failed;
+
+    @BeforeEach
+    void setUp() {
+        when(gatewayService.processPayment(any(), any())).thenReturn(true);
+
+        order = orderRepository.save(order("ORD-SQL00001"));
+        otherOrder = orderRepository.save(order("ORD-SQL00002"));
+        succeeded = executionRepository.save(execution("EXE-SQL00001", order, ExecutionStatus.SUCCESS));
+        failed = executionRepository.save(execution("EXE-SQL00002", order, ExecutionStatus.FAILED));
+        executionRepository.save(execution("EXE-SQL00003", otherOrder, ExecutionStatus.SUCCESS));
+        // Fixtures bypass the services, so the read model has not seen them
+        readModel.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executionRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Nested
+    @DisplayName("Payment order endpoints")
+    class OrderEndpoints {
+        @Test
+        void createOrder() throws Exception {
+            // order insert + outbox insert
+            assertStatements(2, post("/v1/payment-orders").contentType(MediaType.APPLICATION_JSON).content(ORDER_JSON));
+        }
+
+        // Lookups by id and reference and the customer and status listings come from the read model
+
+        @Test
+        void getOrderById() throws Exception {
+            assertStatements(0, get("/v1/payment-orders/" + order.getId()));
+        }
+
+        @Test
+        void getOrderByReference() throws Exception {
+            assertStatements(0, get("/v1/payment-orders/reference/ORD-SQL00001"));
+        }
+
+        @Test
+        void getOrderByIdUnknownToReadModel() throws Exception {
+            PaymentOrder unseen = orderRepository.save(order("ORD-SQL00004"));
+            assertStatements(1, get("/v1/payment-orders/" + unseen.getId()));
+        }
+
+        @Test
+        void listOrders() throws Exception {
+            assertStatements(1, get("/v1/payment-orders"));
+            assertStatements(0, get("/v1/payment-orders/customer/CUST-SQL"));
+            assertStatements(1, get("/v1/payment-orders/customer/CUST-SQL").param("fields", "orderReference,status"));
+            assertStatements(0, get("/v1/payment-orders/status/PENDING"));
+            assertStatements(1, get("/v1/payment-orders/date-range")
+                    .param("startDate", "2000-01-01T00:00:00").param("endDate", "2100-01-01T00:00:00"));
+            assertStatements(1, get("/v1/payment-orders/amount-range").param("minAmount", "1").param("maxAmount", "1000"));
+        }
+
+        @Test
+        void updateOrder() throws Exception {
+            assertStatements(2, put("/v1/payment-orders/" + order.getId())
+                    .contentType(MediaType.APPLICATION_JSON).content(ORDER_JSON));
+        }
+
+        @Test
+        void updateOrderStatus() throws Exception {
+            assertStatements(3, patch("/v1/payment-orders/" + order.getId() + "/status").param("status", "PROCESSING"));
+        }
+
+        @Test
+        void cancelOrder() throws Exception {
+            assertStatements(3, patch("/v1/payment-orders/" + order.getId() + "/cancel"));
+        }
+
+        @Test
+        void deleteOrder() throws Exception {
+            PaymentOrder unused = orderRepository.save(order("ORD-SQL00003"));
+            assertStatements(5, delete("/v1/payment-orders/" + unused.getId()));
+        }
+
+        @Test
+        void customerStats() throws Exception {
+            // The total comes from the read model, only the count is a query
+            assertStatements(1, get("/v1/payment-orders/customer/CUST-SQL/stats").param("status", "PENDING"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Payment order view endpoints")
+    class OrderViewEndpoints {
+        @Test
+        void getOrderViews() throws Exception {
+            assertStatements(0, get("/v1/payment-order-views/" + order.getId()));
+            assertStatements(0, get("/v1/payment-order-views/reference/ORD-SQL00001"));
+            assertStatements(0, get("/v1/payment-order-views/customer/CUST-SQL"));
+            assertStatements(0, get("/v1/payment-order-views/status/PENDING"));
+        }
+
+        @Test
+        void getOrderViewUnknownToReadModel() throws Exception {
+            // order, then its latest execution and attempt count
+            PaymentOrder unseen = orderRepository.save(order("ORD-SQL00004"));
+            assertStatements(2, get("/v1/payment-order-views/" + unseen.getId()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Payment execution endpoints")
+    class ExecutionEndpoints {
+        // Work on an existing execution first looks up its order's customer to pick an execution
+        // lane; executePayment gets the customer from the read model
+
+        @Test
+        void executePayment() throws Exception {
+            // 7 plus one outbox insert per status change: execution INITIATED, PROCESSING, SUCCESS and
+            // order PROCESSING, COMPLETED. The outcome is written in its own transaction after the
+            // gateway call, which reloads the execution and its order
+            assertStatements(12, post("/v1/payment-executions/execute/" + otherOrder.getId()));
+        }
+
+        @Test
+        void getExecution() throws Exception {
+            assertStatements(1, get("/v1/payment-executions/" + succeeded.getId()));
+            assertStatements(1, get("/v1/payment-executions/reference/EXE-SQL00001"));
+        }
+
+        @Test
+        void listExecutions() throws Exception {
+            assertStatements(1, get("/v1/payment-executions/order/" + order.getId()));
+            assertStatements(1, get("/v1/payment-executions/order-reference/ORD-SQL00001"));
+            assertStatements(1, get("/v1/payment-executions/status/SUCCESS"));
+            assertStatements(1, get("/v1/payment-executions/customer/CUST-SQL"));
+            assertStatements(1, get("/v1/payment-executions/customer/CUST-SQL")
+                    .param("fields", "executionReference,orderReference"));
+        }
+
+        @Test
+        void updateExecutionStatus() throws Exception {
+            assertStatements(6, patch("/v1/payment-executions/" + succeeded.getId() + "/status")
+                    .param("status", "SUCCESS"));
+        }
+
+        @Test
+        void settleExecution() throws Exception {
+            assertStatements(4, post("/v1/payment-executions/" + succeeded.getId() + "/settle"));
+        }
+
+        @Test
+        void reverseExecution() throws Exception {
+            assertStatements(6, post("/v1/payment-executions/" + succeeded.getId() + "/reverse"));
+        }
+
+        @Test
+        void retryExecution() throws Exception {
+            // One of them finds the order's owner for the rate limit bucket; the retry also moves
+            // the order to PROCESSING before the gateway call
+            assertStatements(14, post("/v1/payment-executions/" + failed.getId() + "/retry"));
+        }
+    }
+
+    @Test
+    @DisplayName("FAIL mode aborts the statement that crosses the budget")
+    void failModeThrowsOnceBudgetIsExceeded() {
+        SqlStatementCounter.start(1);
+        try {
+            SqlStatementCounter counter = new SqlStatementCounter();
+            counter.inspect("select 1");
+            assertThrows(SqlBudgetExceededException.class, () -> counter.inspect("select 2"));
+        } finally {
+            assertEquals(2, SqlStatementCounter.stop());
+        }
+    }
+
+    private void assertStatements(int expected, RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        int status = result.getResponse().getStatus();
+        assertTrue(status < 400, "Unexpected status " + status + ": " + result.getResponse().getContentAsString());
+        assertEquals(expected, result.getRequest().getAttribute(SqlBudgetFilter.STATEMENT_COUNT_ATTRIBUTE),
+                () -> "SQL statements for " + result.getRequest().getMethod() + " " + result.getRequest().getRequestURI());
+    }
+
+    private static PaymentOrder order(String reference) {
+        PaymentOrder order = new PaymentOrder();
+        order.setOrderReference(reference);
+        order.setCustomerId("CUST-SQL");
+        order.setCustomerName("John Doe");
+        order.setCustomerEmail("john@example.com");
+        order.setAmount(new BigDecimal("100.00"));
+        order.setCurrency("USD");
+        order.setStatus(PaymentOrderStatus.PENDING);
+        order.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        order.setBeneficiaryName("ABC Corp");
+        order.setBeneficiaryAccount("1234567890");
+        order.setBeneficiaryBank("XYZ Bank");
+        return order;
+    }
+
+    private static PaymentExecution execution(String reference, PaymentOrder order, ExecutionStatus status) {
+        PaymentExecution execution = new PaymentExecution();
+        execution.setExecutionReference(reference);
+        execution.setPaymentOrder(order);
+        execution.setStatus(status);
+        execution.setAmount(order.getAmount());
+        execution.setCurrency(order.getCurrency());
+        execution.setRetryAttempt(0);
+        execution.setCreatedAt(LocalDateTime.now());
+        return execution;
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.paymentsystem.dispatch;
+
+import com.example.paymentsystem.config.SqlStatementCounter;
+import com.example.paymentsystem.dispatch.ExecutionLanes.KeyBy;
+import com.example.paymentsystem.exception.ErrorCode;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import com.example.paymentsystem.exception.LaneSaturatedException;
+import com.example.paymentsystem.metrics.PaymentMetrics;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.repository.PaymentExecutionRepository;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionLanesTest {
+
+    @Mock
+    private PaymentOrderRepository orderRepository;
+
+    @Mock
+    private PaymentExecutionRepository executionRepository;
+
+    @Mock
+    private OrderReadModel readModel;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+    private ExecutionLanes lanes;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        lanes.shutdown();
+    }
+
+    @Test
+    @DisplayName("work for one key runs one at a time, in submission order")
+    void sameKeyRunsSerially() throws Exception {
+        lanes = lanes(4, 64);
+        int lane = lanes.laneIndex("CUST001");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int sequence = i;
+            results.add(callers.submit(() -> lanes.run("CUST001", () -> {
+                started.incrementAndGet();
+                await(release);
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(sequence);
+                sleep(2);
+                running.decrementAndGet();
+                return sequence;
+            })));
+            // The first item blocks on the lane; each later one is queued before the next is
+            // submitted, so the submission order is known
+            while (started.get() < 1 || lanes.getStats().getDepths().get(lane) < i) {
+                Thread.sleep(1);
+            }
+        }
+        release.countDown();
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(8, order.size());
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("keys on different lanes run in parallel")
+    void differentLanesRunInParallel() throws Exception {
+        lanes = lanes(4, 64);
+        Object first = keyOnLane(0);
+        Object second = keyOnLane(1);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        Future<Boolean> a = callers.submit(() -> lanes.run(first, () -> awaitOther(bothStarted)));
+        Future<Boolean> b = callers.submit(() -> lanes.run(second, () -> awaitOther(bothStarted)));
+
+        assertTrue(a.get(10, TimeUnit.SECONDS));
+        assertTrue(b.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("a full lane rejects new work and leaves the queued work to finish")
+    void fullLaneRejects() throws Exception {
+        lanes = lanes(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> running = callers.submit(() -> lanes.run("A", () -> {
+            started.countDown();
+            await(release);
+            return "running";
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> lanes.run("B", () -> "queued"));
+        while (lanes.getStats().getDepths().get(0) < 1) {
+            Thread.sleep(1);
+        }
+
+        LaneSaturatedException rejected = assertThrows(LaneSaturatedException.class,
+                () -> lanes.run("C", () -> "rejected"));
+        assertEquals(1, rejected.getRetryAfterSeconds());
+        assertEquals(1, lanes.getStats().getRejected());
+        assertEquals(1.0, registry.get("payment.execution.lanes.rejected").counter().count());
+        assertEquals(1.0, registry.get("payment.execution.lanes.depth").tag("lane", "0").gauge().value());
+
+        release.countDown();
+        assertEquals("running", running.get(10, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("work that has not started in time is withdrawn with a 503, work that has started is waited for")
+    void waitTimesOut() throws Exception {
+        lanes = lanes(1, 8, Duration.ofMillis(200), false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queuedRuns = new AtomicInteger();
+
+        Future<String> running = callers.submit(() -> lanes.run("A", () -> {
+            started.countDown();
+            await(release);
+            return "running";
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        LaneSaturatedException notStarted = assertThrows(LaneSaturatedException.class,
+                () -> lanes.run("B", queuedRuns::incrementAndGet));
+        assertEquals(ErrorCode.EXECUTION_LANE_TIMEOUT, notStarted.getErrorCode());
+        assertTrue(notStarted.getMessage().contains("did not start"), notStarted.getMessage());
+        assertEquals(0, lanes.getStats().getDepths().get(0));
+
+        // Started work is waited for past the timeout and its result returned
+        assertThrows(TimeoutException.class, () -> running.get(400, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertEquals("running", running.get(10, TimeUnit.SECONDS));
+        assertEquals("C", lanes.run("C", () -> "C"));
+        assertEquals(0, queuedRuns.get());
+    }
+
+    @Test
+    @DisplayName("the caller sees the work's own exception")
+    void workExceptionReachesCaller() {
+        lanes = lanes(2, 8);
+
+        InvalidOperationException thrown = assertThrows(InvalidOperationException.class,
+                () -> lanes.run("CUST001", () -> {
+                    throw new InvalidOperationException("Can only retry failed executions");
+                }));
+        assertEquals("Can only retry failed executions", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("orders are keyed by customer, from the read model or else the database")
+    void forOrderKeysByCustomer() {
+        lanes = lanes(8, 8);
+        when(readModel.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findCustomerIdById(1L)).thenReturn(Optional.of("CUST001"));
+
+        String thread = lanes.forOrder(1L, () -> Thread.currentThread().getName());
+
+        assertEquals("execution-lane-" + lanes.laneIndex("CUST001"), thread);
+    }
+
+    @Test
+    @DisplayName("statements issued on the lane count against the caller's SQL budget")
+    void sqlBudgetFollowsWork() {
+        lanes = lanes(2, 8);
+        SqlStatementCounter.start(-1);
+        try {
+            lanes.run("CUST001", () -> new SqlStatementCounter().inspect("select 1"));
+        } finally {
+            assertEquals(1, SqlStatementCounter.stop());
+        }
+    }
+
+    @Test
+    @DisplayName("in virtual thread mode the lanes run on virtual threads")
+    void virtualThreadLanes() {
+        lanes = lanes(2, 8, true);
+
+        Thread lane = lanes.run("CUST001", Thread::currentThread);
+
+        assertTrue(lane.isVirtual());
+        assertEquals("execution-lane-" + lanes.laneIndex("CUST001"), lane.getName());
+        ExecutionLanes platform = lanes(1, 8);
+        try {
+            assertFalse(platform.run("CUST001", Thread::currentThread).isVirtual());
+        } finally {
+            platform.shutdown();
+        }
+    }
+
+    private ExecutionLanes lanes(int count, int capacity) {
+        return lanes(count, capacity, false);
+    }
+
+    private ExecutionLanes lanes(int count, int capacity, boolean virtualThreads) {
+        return lanes(count, capacity, Duration.ofSeconds(10), virtualThreads);
+    }
+
+    private ExecutionLanes lanes(int count, int capacity, Duration waitTimeout, boolean virtualThreads) {
+        return new ExecutionLanes(orderRepository, executionRepository, readModel, ShardRouter.unsharded(),
+                new PaymentMetrics(registry), true, KeyBy.CUSTOMER, count, capacity, waitTimeout, virtualThreads);
+    }
+
+    private Object keyOnLane(int lane) {
+        for (int i = 0; ; i++) {
+            String key = "CUST" + i;
+            if (lanes.laneIndex(key) == lane) {
+                return key;
+            }
+        }
+    }
+
+    private static boolean awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -36,9 +36,34 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody());
         assertFalse(response.getBody().isSuccess());
         assertEquals("Payment order not found with ID: 999", response.getBody().getMessage());
+        assertEquals(ErrorCode.RESOURCE_NOT_FOUND, response.getBody().getErrorCode());
         assertNull(response.getBody().getData());
     }
 
+    @Test
+    @DisplayName("ResourceNotFoundException carries its specific error code into the response")
+    void handleResourceNotFoundException_SpecificCode() {
+        ResourceNotFoundException ex = new ResourceNotFoundException(
+                ErrorCode.EXECUTION_NOT_FOUND, "Payment execution not found with ID: 7");
+
+        ResponseEntity<ApiResponse<Void>> response = exceptionHandler.handleResourceNotFoundException(ex);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(ErrorCode.EXECUTION_NOT_FOUND, response.getBody().getErrorCode());
+    }
+
+    @Test
+    @DisplayName("Domain exceptions do not capture a stack trace")
+    void domainExceptions_AreStackless() {
+        assertEquals(0, new ResourceNotFoundException("missing").getStackTrace().length);
+        assertEquals(0, new InvalidOperationException("invalid").getStackTrace().length);
+
+        IllegalStateException cause = new IllegalStateException("root");
+        InvalidOperationException wrapped = new InvalidOperationException("invalid", cause);
+        assertSame(cause, wrapped.getCause());
+        assertTrue(cause.getStackTrace().length > 0);
+    }
+
     @Test
     @DisplayName("InvalidOperationException returns 400 and error response")
     void handleInvalidOperationException_Returns400() {
@@ -50,6 +75,7 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody());
         assertFalse(response.getBody().isSuccess());
         assertEquals("Cannot update order in status: COMPLETED", response.getBody().getMessage());
+        assertEquals(ErrorCode.INVALID_OPERATION, response.getBody().getErrorCode());
     }
 
     @Test
@@ -70,12 +96,26 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody());
         assertFalse(response.getBody().isSuccess());
         assertEquals("Validation failed", response.getBody().getMessage());
+        assertEquals(ErrorCode.VALIDATION_FAILED, response.getBody().getErrorCode());
         Map<String, String> errors = response.getBody().getData();
         assertNotNull(errors);
         assertTrue(errors.containsKey("customerId"));
         assertEquals("Customer ID is required", errors.get("customerId"));
     }
 
+    @Test
+    @DisplayName("SqlBudgetExceededException returns 500 with its own code and the budget")
+    void handleSqlBudgetExceededException_Returns500WithBudget() {
+        SqlBudgetExceededException ex = new SqlBudgetExceededException(
+                "Request exceeded its SQL budget (payment.sql-budget.max-statements) of 25 statements");
+
+        ResponseEntity<ApiResponse<Void>> response = exceptionHandler.handleSqlBudgetExceededException(ex);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(ErrorCode.SQL_BUDGET_EXCEEDED, response.getBody().getErrorCode());
+        assertTrue(response.getBody().getMessage().contains("payment.sql-budget.max-statements"));
+    }
+
     @Test
     @DisplayName("Generic Exception returns 500 and error response")
     void handleGlobalException_Returns500() {
@@ -87,5 +127,6 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody());
         assertFalse(response.getBody().isSuccess());
         assertTrue(response.getBody().getMessage().contains("Unexpected database error"));
+        assertEquals(ErrorCode.INTERNAL_ERROR, response.getBody().getErrorCode());
     }
 }
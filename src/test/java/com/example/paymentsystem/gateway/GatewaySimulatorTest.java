@@ -0,0 +1,140 @@
+package com.example.paymentsystem.gateway;
+
+import com.example.paymentsystem.config.GatewaySimulatorProperties;
+import com.example.paymentsystem.entity.PaymentMethod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewaySimulatorTest {
+
+    private static final int SAMPLES = 20_000;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Test
+    @DisplayName("defaults reproduce the original mock: one provider, fixed 1s, about 80% approved")
+    void defaults_MatchOriginalMock() {
+        GatewaySimulator simulator = new GatewaySimulator(new GatewaySimulatorProperties());
+
+        int approved = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            GatewaySimulator.Response response = simulator.simulate(PaymentMethod.UPI, random);
+            assertEquals("MOCK_GATEWAY", response.provider());
+            assertEquals(Duration.ofSeconds(1).toNanos(), response.latencyNanos());
+            if (response.result() == GatewaySimulator.Result.APPROVED) {
+                approved++;
+            }
+        }
+        assertEquals(0.8, approved / (double) SAMPLES, 0.02);
+    }
+
+    @Test
+    @DisplayName("log-normal latency is centred on the configured median")
+    void logNormal_MedianMatches() {
+        GatewaySimulatorProperties properties = new GatewaySimulatorProperties();
+        properties.getLatency().setDistribution(GatewaySimulatorProperties.Distribution.LOG_NORMAL);
+        properties.getLatency().setMedian(Duration.ofMillis(200));
+        properties.getLatency().setSigma(0.5);
+
+        long[] latencies = sample(new GatewaySimulator(properties));
+
+        assertEquals(Duration.ofMillis(200).toNanos(), latencies[SAMPLES / 2], Duration.ofMillis(10).toNanos());
+    }
+
+    @Test
+    @DisplayName("bimodal latency sends about tail-probability of calls to the slow mode")
+    void bimodal_TailFraction() {
+        GatewaySimulatorProperties properties = new GatewaySimulatorProperties();
+        GatewaySimulatorProperties.Latency latency = properties.getLatency();
+        latency.setDistribution(GatewaySimulatorProperties.Distribution.BIMODAL);
+        latency.setMedian(Duration.ofMillis(100));
+        latency.setSigma(0.2);
+        latency.setTailProbability(0.05);
+        latency.setTailMedian(Duration.ofSeconds(3));
+        latency.setTailSigma(0.2);
+
+        long slow = Arrays.stream(sample(new GatewaySimulator(properties)))
+                .filter(nanos -> nanos > Duration.ofSeconds(1).toNanos())
+                .count();
+
+        assertEquals(0.05, slow / (double) SAMPLES, 0.01);
+    }
+
+    @Test
+    @DisplayName("calls are split across providers by weight and use that provider's success rate")
+    void providers_WeightedWithOwnSuccessRate() {
+        GatewaySimulatorProperties properties = new GatewaySimulatorProperties();
+        properties.getProviders().put("ALWAYS", new GatewaySimulatorProperties.Provider(3.0, 1.0, null));
+        properties.getProviders().put("NEVER", new GatewaySimulatorProperties.Provider(1.0, 0.0, null));
+        GatewaySimulator simulator = new GatewaySimulator(properties);
+
+        int always = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            GatewaySimulator.Response response = simulator.simulate(PaymentMethod.UPI, random);
+            boolean approved = response.result() == GatewaySimulator.Result.APPROVED;
+            if (response.provider().equals("ALWAYS")) {
+                assertTrue(approved);
+                always++;
+            } else {
+                assertFalse(approved);
+            }
+        }
+        assertEquals(0.75, always / (double) SAMPLES, 0.02);
+    }
+
+    @Test
+    @DisplayName("the payment method rate multiplies the provider rate")
+    void methodSuccessRate_Multiplies() {
+        GatewaySimulatorProperties properties = new GatewaySimulatorProperties();
+        properties.setSuccessRate(1.0);
+        properties.getMethodSuccessRates().put(PaymentMethod.CREDIT_CARD, 0.0);
+        GatewaySimulator simulator = new GatewaySimulator(properties);
+
+        assertEquals(GatewaySimulator.Result.DECLINED, simulator.simulate(PaymentMethod.CREDIT_CARD, random).result());
+        assertEquals(GatewaySimulator.Result.APPROVED, simulator.simulate(PaymentMethod.UPI, random).result());
+        assertEquals(GatewaySimulator.Result.APPROVED, simulator.simulate(null, random).result());
+    }
+
+    @Test
+    @DisplayName("calls slower than the timeout, and injected timeouts, are cut off at the timeout")
+    void timeouts_CappedAtTimeout() {
+        GatewaySimulatorProperties properties = new GatewaySimulatorProperties();
+        properties.setTimeout(Duration.ofMillis(500));
+        GatewaySimulator.Response slow = new GatewaySimulator(properties).simulate(PaymentMethod.UPI, random);
+        assertEquals(GatewaySimulator.Result.TIMEOUT, slow.result());
+        assertEquals(Duration.ofMillis(500).toNanos(), slow.latencyNanos());
+
+        properties.setTimeout(Duration.ofSeconds(30));
+        properties.setTimeoutRate(1.0);
+        GatewaySimulator.Response injected = new GatewaySimulator(properties).simulate(PaymentMethod.UPI, random);
+        assertEquals(GatewaySimulator.Result.TIMEOUT, injected.result());
+        assertEquals(Duration.ofSeconds(30).toNanos(), injected.latencyNanos());
+    }
+
+    @Test
+    @DisplayName("injected errors keep the sampled latency")
+    void errorRate_InjectsErrors() {
+        GatewaySimulatorProperties properties = new GatewaySimulatorProperties();
+        properties.setErrorRate(1.0);
+
+        GatewaySimulator.Response response = new GatewaySimulator(properties).simulate(PaymentMethod.UPI, random);
+
+        assertEquals(GatewaySimulator.Result.ERROR, response.result());
+        assertEquals(Duration.ofSeconds(1).toNanos(), response.latencyNanos());
+    }
+
+    private long[] sample(GatewaySimulator simulator) {
+        long[] latencies = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            latencies[i] = simulator.simulate(PaymentMethod.UPI, random).latencyNanos();
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.paymentsystem.jfr;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentExecution;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentPhaseEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("shipped template enables the payment events and fields are recorded")
+    void recording_WithShippedTemplate_CapturesPhaseFields() throws Exception {
+        PaymentOrder order = new PaymentOrder();
+        order.setOrderReference("ORD-TEST123");
+        order.setStatus(PaymentOrderStatus.PENDING);
+        PaymentExecution execution = new PaymentExecution();
+        execution.setExecutionReference("EXE-TEST123");
+        execution.setPaymentOrder(order);
+        execution.setGatewayProvider("MOCK_GATEWAY");
+        execution.setStatus(ExecutionStatus.PROCESSING);
+
+        Path file = tempDir.resolve("payment.jfr");
+        try (Recording recording = new Recording(template())) {
+            recording.start();
+
+            OrderCreateEvent create = new OrderCreateEvent();
+            create.begin();
+            create.finish(order);
+
+            GatewayCallEvent gateway = new GatewayCallEvent();
+            gateway.begin();
+            gateway.finish(execution, "DECLINED");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith("com.example.payment."))
+                .toList();
+        assertEquals(2, events.size());
+
+        RecordedEvent gatewayEvent = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.example.payment.GatewayCall"))
+                .findFirst().orElseThrow();
+        assertEquals("EXE-TEST123", gatewayEvent.getString("reference"));
+        assertEquals("ORD-TEST123", gatewayEvent.getString("orderReference"));
+        assertEquals("MOCK_GATEWAY", gatewayEvent.getString("provider"));
+        assertEquals("DECLINED", gatewayEvent.getString("status"));
+        assertNotNull(gatewayEvent.getDuration());
+    }
+
+    @Test
+    @DisplayName("without a recording nothing is committed")
+    void finish_WithoutRecording_DoesNotCommit() {
+        ReversalEvent event = new ReversalEvent();
+        event.begin();
+        PaymentExecution execution = new PaymentExecution();
+        event.finish(execution);
+
+        assertFalse(event.shouldCommit());
+        assertNull(event.reference);
+    }
+
+    private static Configuration template() throws Exception {
+        try (InputStream in = PaymentPhaseEventTest.class.getResourceAsStream("/jfr/payment.jfc")) {
+            assertNotNull(in, "jfr/payment.jfc must be on the classpath");
+            return Configuration.create(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.paymentsystem.journal;
+
+import com.example.paymentsystem.dto.PaymentExecutionDTO;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.service.PaymentExecutionService;
+import com.example.paymentsystem.service.PaymentOrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "payment.journal.enabled=true",
+        "payment.outbox.relay-enabled=false",
+        "payment.gateway.simulator.latency.fixed=0s",
+        "payment.gateway.simulator.success-rate=1.0"
+})
+@DirtiesContext
+class ExecutionJournalIntegrationTest {
+
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("payment.journal.directory", () -> journalDir.toString());
+    }
+
+    @Autowired
+    private ExecutionJournal journal;
+
+    @Autowired
+    private PaymentOrderService orderService;
+
+    @Autowired
+    private PaymentExecutionService executionService;
+
+    @Test
+    @DisplayName("committed execution status changes are appended to the journal when it is enabled")
+    void execute_AppendsCommittedTransitions() {
+        long before = journal.getStats().getRecords();
+
+        PaymentExecutionDTO execution = executionService.executePayment(orderService.createOrder(orderDTO()).getId());
+
+        assertEquals(ExecutionStatus.SUCCESS, journal.getView().statusOf(execution.getId()));
+        assertEquals(before + 3, journal.getStats().getRecords());
+        assertEquals(journalDir.toString(), journal.getStats().getDirectory());
+        assertTrue(Files.exists(journalDir.resolve("journal.lock")));
+    }
+
+    private static PaymentOrderDTO orderDTO() {
+        PaymentOrderDTO dto = new PaymentOrderDTO();
+        dto.setCustomerId("CUST-JOURNAL");
+        dto.setCustomerName("John Doe");
+        dto.setCustomerEmail("john@example.com");
+        dto.setAmount(new BigDecimal("100.00"));
+        dto.setCurrency("USD");
+        dto.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        dto.setBeneficiaryName("ABC Corp");
+        dto.setBeneficiaryAccount("1234567890");
+        dto.setBeneficiaryBank("XYZ Bank");
+        return dto;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.paymentsystem.journal;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionJournalTest {
+
+    // Four records per segment
+    private static final int SEGMENT_BYTES = 4 * JournalRecord.SIZE;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("records round-trip through the fixed layout")
+    void append_RecordRoundTrips() throws Exception {
+        try (ExecutionJournal journal = new ExecutionJournal(dir, SEGMENT_BYTES)) {
+            JournalRecord written = journal.append(event(7, "EXE-ABCD1234", ExecutionStatus.PROCESSING, ExecutionStatus.SUCCESS));
+
+            assertEquals(1, written.sequence());
+            assertEquals(ExecutionStatus.SUCCESS, journal.getView().statusOf(7));
+        }
+        try (ExecutionJournal reopened = new ExecutionJournal(dir, SEGMENT_BYTES)) {
+            assertEquals(1, reopened.getStats().getReplayedRecords());
+            assertEquals(ExecutionStatus.SUCCESS, reopened.getView().statusOf(7));
+        }
+    }
+
+    @Test
+    @DisplayName("full segments roll over and replay rebuilds the view across all of them")
+    void append_RollsSegmentsAndReplays() throws Exception {
+        try (ExecutionJournal journal = new ExecutionJournal(dir, SEGMENT_BYTES)) {
+            for (long id = 1; id <= 5; id++) {
+                journal.append(event(id, "EXE-" + id, null, ExecutionStatus.INITIATED));
+                journal.append(event(id, "EXE-" + id, ExecutionStatus.INITIATED, ExecutionStatus.PROCESSING));
+            }
+            journal.append(event(3, "EXE-3", ExecutionStatus.PROCESSING, ExecutionStatus.FAILED));
+            assertEquals(3, journal.getStats().getSegments());
+        }
+
+        assertEquals(3, segmentFiles().size());
+        try (ExecutionJournal reopened = new ExecutionJournal(dir, SEGMENT_BYTES)) {
+            assertEquals(11, reopened.getStats().getReplayedRecords());
+            assertEquals(11, reopened.getStats().getLastSequence());
+            assertEquals(ExecutionStatus.FAILED, reopened.getView().statusOf(3));
+            assertEquals(4L, reopened.getView().countsByStatus().get(ExecutionStatus.PROCESSING));
+            assertEquals(1L, reopened.getView().countsByStatus().get(ExecutionStatus.FAILED));
+
+            JournalRecord next = reopened.append(event(6, "EXE-6", null, ExecutionStatus.INITIATED));
+            assertEquals(12, next.sequence());
+        }
+    }
+
+    @Test
+    @DisplayName("a torn record at the tail fails its CRC and is truncated on replay")
+    void replay_TruncatesDamagedTail() throws Exception {
+        try (ExecutionJournal journal = new ExecutionJournal(dir, SEGMENT_BYTES)) {
+            journal.append(event(1, "EXE-1", null, ExecutionStatus.INITIATED));
+            journal.append(event(1, "EXE-1", ExecutionStatus.INITIATED, ExecutionStatus.PROCESSING));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+            file.seek(JournalRecord.SIZE + 30);
+            file.write(0x5A);
+        }
+
+        try (ExecutionJournal reopened = new ExecutionJournal(dir, SEGMENT_BYTES)) {
+            assertEquals(1, reopened.getStats().getReplayedRecords());
+            assertEquals(1, reopened.getStats().getCorruptRecords());
+            assertEquals(ExecutionStatus.INITIATED, reopened.getView().statusOf(1));
+            assertEquals(2, reopened.append(event(1, "EXE-1", ExecutionStatus.INITIATED, ExecutionStatus.FAILED)).sequence());
+        }
+        try (ExecutionJournal again = new ExecutionJournal(dir, SEGMENT_BYTES)) {
+            assertEquals(0, again.getStats().getCorruptRecords());
+            assertEquals(ExecutionStatus.FAILED, again.getView().statusOf(1));
+        }
+    }
+
+    @Test
+    @DisplayName("a second journal on the same directory is refused")
+    void open_DirectoryLocked() throws Exception {
+        try (ExecutionJournal journal = new ExecutionJournal(dir, SEGMENT_BYTES)) {
+            assertThrows(IllegalStateException.class, () -> new ExecutionJournal(dir, SEGMENT_BYTES));
+        }
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    private static PaymentExecutionStatusChangedEvent event(long executionId, String reference,
+                                                            ExecutionStatus previous, ExecutionStatus status) {
+        return new PaymentExecutionStatusChangedEvent(executionId, reference, 100 + executionId, "ORD-1", "CUST001",
+                previous, status, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.paymentsystem.lease;
+
+import com.example.paymentsystem.repository.JobLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two managers with different node ids share one database and a clock the test moves by hand,
+ * standing in for two nodes.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LeaseManagerTest {
+
+    private static final Duration TTL = Duration.ofSeconds(15);
+    private static final Duration HEARTBEAT = Duration.ofSeconds(5);
+
+    @Autowired
+    private JobLeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final TestClock clock = new TestClock();
+    private LeaseManager nodeA;
+    private LeaseManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new LeaseManager(leaseRepository, clock, true, "node-a", TTL, HEARTBEAT);
+        nodeB = new LeaseManager(leaseRepository, clock, true, "node-b", TTL, HEARTBEAT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaseRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("one node runs an exclusive job until its lease expires, then the other takes over with a new token")
+    void exclusiveJobFailsOverAfterExpiry() {
+        List<Long> tokens = new ArrayList<>();
+
+        assertTrue(nodeA.runExclusive("purge", lease -> tokens.add(lease.fencingToken())));
+        assertFalse(nodeB.runExclusive("purge", lease -> fail("node-b must not run while node-a holds the lease")));
+
+        clock.advance(TTL.plusSeconds(1));
+        assertTrue(nodeB.runExclusive("purge", lease -> tokens.add(lease.fencingToken())));
+
+        assertEquals(List.of(1L, 2L), tokens);
+        assertFalse(nodeA.runExclusive("purge", lease -> fail("node-a lost the lease")));
+    }
+
+    @Test
+    @DisplayName("the heartbeat keeps a lease past its ttl")
+    void heartbeatRenews() {
+        assertTrue(nodeA.runExclusive("purge", lease -> { }));
+        for (int i = 0; i < 5; i++) {
+            clock.advance(HEARTBEAT);
+            nodeA.heartbeat();
+        }
+
+        assertFalse(nodeB.runExclusive("purge", lease -> fail("node-a renewed the lease")));
+    }
+
+    @Test
+    @DisplayName("a fenced write fails once the lease has a newer token")
+    void fenceRejectsStaleToken() {
+        Lease[] stale = new Lease[1];
+        nodeA.runExclusive("purge", lease -> stale[0] = lease);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> nodeA.fence(stale[0]));
+
+        clock.advance(TTL.plusSeconds(1));
+        assertTrue(nodeB.runExclusive("purge", lease -> { }));
+
+        assertThrows(LeaseLostException.class, () -> transaction.executeWithoutResult(status -> nodeA.fence(stale[0])));
+    }
+
+    @Test
+    @DisplayName("a released lease can be taken straight away")
+    void releaseHandsOver() {
+        Lease[] held = new Lease[1];
+        nodeA.runExclusive("purge", lease -> held[0] = lease);
+
+        nodeA.release(held[0]);
+
+        assertTrue(nodeB.runExclusive("purge", lease -> { }));
+    }
+
+    @Test
+    @DisplayName("partitions are shared between the live nodes and each is owned by one of them")
+    void partitionsRebalanceWhenANodeJoins() {
+        assertEquals(4, nodeA.runPartitioned("relay", 4, lease -> { }));
+        // node-b joins; every partition is still held by node-a
+        assertEquals(0, nodeB.runPartitioned("relay", 4, lease -> { }));
+
+        clock.advance(HEARTBEAT);
+        nodeA.heartbeat();
+        nodeB.heartbeat();
+        Set<Integer> ownedByA = partitions(nodeA);
+        Set<Integer> ownedByB = partitions(nodeB);
+
+        assertEquals(Set.of(0, 1), ownedByA);
+        assertEquals(Set.of(2, 3), ownedByB);
+    }
+
+    @Test
+    @DisplayName("a node deletes its member row on shutdown, and rows of nodes that vanished are purged")
+    void memberRowsDoNotAccumulate() {
+        nodeA.runPartitioned("relay", 4, lease -> { });
+        LeaseManager crashed = new LeaseManager(leaseRepository, clock, true, "node-crashed", TTL, HEARTBEAT);
+        crashed.runPartitioned("relay", 4, lease -> { });
+        assertTrue(leaseRepository.existsById("relay/member/node-crashed"));
+
+        nodeA.releaseAll();
+        assertFalse(leaseRepository.existsById("relay/member/node-a"));
+
+        // Expired, but not for long enough yet
+        clock.advance(TTL.plusSeconds(1));
+        nodeB.runPartitioned("relay", 4, lease -> { });
+        assertTrue(leaseRepository.existsById("relay/member/node-crashed"));
+
+        clock.advance(TTL.multipliedBy(4));
+        nodeB.heartbeat();
+        nodeB.runPartitioned("relay", 4, lease -> { });
+        assertFalse(leaseRepository.existsById("relay/member/node-crashed"));
+        assertTrue(leaseRepository.existsById("relay/member/node-b"));
+    }
+
+    @Test
+    @DisplayName("with leases disabled every job and partition runs locally")
+    void disabledRunsEverything() {
+        LeaseManager local = new LeaseManager(leaseRepository, clock, false, "node-a", TTL, HEARTBEAT);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(local.runExclusive("purge", lease -> runs.incrementAndGet()));
+        assertEquals(3, local.runPartitioned("relay", 3, lease -> runs.incrementAndGet()));
+
+        assertEquals(4, runs.get());
+        assertEquals(0, leaseRepository.count());
+    }
+
+    private static Set<Integer> partitions(LeaseManager node) {
+        Set<Integer> owned = new HashSet<>();
+        node.runPartitioned("relay", 4, lease -> owned.add(lease.partition()));
+        return owned;
+    }
+
+    private static final class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2024-03-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.paymentsystem.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000);
+    private final LogRateLimiter limiter = new LogRateLimiter(Duration.ofSeconds(1), nanos::get);
+
+    @Test
+    @DisplayName("first call is permitted, calls within the interval are denied")
+    void permitsOncePerInterval() {
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(LogRateLimiter.DENIED, limiter.tryAcquire());
+
+        nanos.addAndGet(Duration.ofMillis(999).toNanos());
+        assertEquals(LogRateLimiter.DENIED, limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("the next permit reports how many calls were suppressed, then resets")
+    void reportsSuppressedCount() {
+        limiter.tryAcquire();
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+        }
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(5, limiter.tryAcquire());
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(0, limiter.tryAcquire());
+    }
+}
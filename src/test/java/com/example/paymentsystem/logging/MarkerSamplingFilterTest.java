@@ -0,0 +1,64 @@
+package com.example.paymentsystem.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MarkerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkerSamplingFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private MarkerSamplingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new MarkerSamplingFilter();
+        filter.setSampleEvery(10);
+        filter.start();
+    }
+
+    @Test
+    @DisplayName("roughly one in sampleEvery marked INFO events pass")
+    void markedInfo_Sampled() {
+        int passed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.decide(event(Level.INFO, true)) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+        assertTrue(passed > 700 && passed < 1300, "passed " + passed);
+    }
+
+    @Test
+    @DisplayName("unmarked events and marked warnings are never sampled out")
+    void unmarkedOrWarn_AlwaysPass() {
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.INFO, false)));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.WARN, true)));
+        }
+    }
+
+    @Test
+    @DisplayName("sampleEvery of 1 disables sampling")
+    void sampleEveryOne_PassesEverything() {
+        filter.setSampleEvery(1);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(event(Level.INFO, true)));
+        }
+    }
+
+    private LoggingEvent event(Level level, boolean readPath) {
+        LoggingEvent event = new LoggingEvent(getClass().getName(), context.getLogger("test"), level,
+                "Fetching payment order", null, null);
+        if (readPath) {
+            event.addMarker(MarkerFactory.getMarker("READ_PATH"));
+        }
+        return event;
+    }
+}
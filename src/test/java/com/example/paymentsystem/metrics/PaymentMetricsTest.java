@@ -0,0 +1,85 @@
+package com.example.paymentsystem.metrics;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private PaymentMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new PaymentMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("transition counters are registered up front and counted by from/to")
+    void onExecutionStatusChanged_CountsTransition() {
+        assertEquals(0.0, transitions("NONE", "INITIATED"));
+
+        metrics.onExecutionStatusChanged(event(null, ExecutionStatus.INITIATED));
+        metrics.onExecutionStatusChanged(event(ExecutionStatus.PROCESSING, ExecutionStatus.SUCCESS));
+        metrics.onExecutionStatusChanged(event(ExecutionStatus.PROCESSING, ExecutionStatus.SUCCESS));
+
+        assertEquals(1.0, transitions("NONE", "INITIATED"));
+        assertEquals(2.0, transitions("PROCESSING", "SUCCESS"));
+        assertEquals(0.0, transitions("SUCCESS", "SETTLED"));
+    }
+
+    @Test
+    @DisplayName("gateway calls are timed per provider and outcome")
+    void recordGatewayCall_TimedByProviderAndOutcome() {
+        metrics.recordGatewayCall("MOCK_GATEWAY", PaymentMetrics.GatewayOutcome.SUCCESS, TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.recordGatewayCall("MOCK_GATEWAY", PaymentMetrics.GatewayOutcome.DECLINED, TimeUnit.MILLISECONDS.toNanos(60));
+        metrics.recordGatewayCall(null, PaymentMetrics.GatewayOutcome.ERROR, 1);
+
+        Timer success = registry.get("payment.gateway.calls")
+                .tags("provider", "MOCK_GATEWAY", "outcome", "SUCCESS").timer();
+        assertEquals(1, success.count());
+        assertEquals(40.0, success.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, registry.get("payment.gateway.calls")
+                .tags("provider", "MOCK_GATEWAY", "outcome", "DECLINED").timer().count());
+        assertEquals(1, registry.get("payment.gateway.calls")
+                .tags("provider", "UNKNOWN", "outcome", "ERROR").timer().count());
+    }
+
+    @Test
+    @DisplayName("execution timing is split into gateway and db phases and tracks in-flight work")
+    void executionFinished_SplitsPhases() {
+        metrics.executionStarted();
+        metrics.executionStarted();
+        assertEquals(2.0, registry.get("payment.executions.in_flight").gauge().value());
+
+        metrics.executionFinished(TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.MILLISECONDS.toNanos(70));
+
+        assertEquals(1.0, registry.get("payment.executions.in_flight").gauge().value());
+        assertEquals(100.0, phase("total"), 0.001);
+        assertEquals(70.0, phase("gateway"), 0.001);
+        assertEquals(30.0, phase("db"), 0.001);
+    }
+
+    private double transitions(String from, String to) {
+        return registry.get("payment.execution.transitions").tags("from", from, "to", to).counter().count();
+    }
+
+    private double phase(String phase) {
+        return registry.get("payment.execution.duration").tag("phase", phase).timer().totalTime(TimeUnit.MILLISECONDS);
+    }
+
+    private static PaymentExecutionStatusChangedEvent event(ExecutionStatus previous, ExecutionStatus status) {
+        return new PaymentExecutionStatusChangedEvent(1L, "EXE-TEST123", 1L, "ORD-TEST123", "CUST001",
+                previous, status, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.paymentsystem.money;
+
+import com.example.paymentsystem.exception.InvalidOperationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("amounts convert to minor units and back exactly")
+    void exactRoundTrip() {
+        Money money = Money.of(new BigDecimal("1234.5"), "USD");
+
+        assertEquals(123_450, money.minorUnits());
+        assertEquals(new BigDecimal("1234.50"), money.toBigDecimal());
+        assertEquals("USD 1234.50", money.toString());
+        assertEquals(money.minorUnits(), Money.minorUnits(new BigDecimal("1234.5"), "USD"));
+        assertEquals(1_234_560, Money.of(new BigDecimal("1234.560"), "KWD").minorUnits());
+        assertEquals(new BigDecimal("1234.560"), Money.of(new BigDecimal("1234.56"), "KWD").toBigDecimal());
+    }
+
+    @Test
+    @DisplayName("amounts with more decimals than the currency holds are rejected, not rounded")
+    void inexactAmountRejected() {
+        assertThrows(InvalidOperationException.class, () -> Money.of(new BigDecimal("10.005"), "USD"));
+        assertThrows(InvalidOperationException.class, () -> Money.of(new BigDecimal("1E+30"), "USD"));
+    }
+
+    @Test
+    @DisplayName("three-decimal currencies are limited to the two decimals the amount columns store")
+    void threeDecimalCurrencyLimitedToStoredScale() {
+        assertThrows(InvalidOperationException.class, () -> Money.of(new BigDecimal("1.234"), "KWD"));
+        assertThrows(InvalidOperationException.class, () -> Money.of(new BigDecimal("1.005"), "BHD"));
+        assertEquals(new BigDecimal("1.230"), Money.of(new BigDecimal("1.23"), "JOD").toBigDecimal());
+    }
+
+    @Test
+    @DisplayName("currencies are interned and never held to fewer decimals than the amount columns")
+    void currenciesInterned() {
+        assertSame(CurrencyUnit.of("EUR"), CurrencyUnit.of(new String("EUR".toCharArray())));
+        assertEquals(2, CurrencyUnit.of("JPY").scale());
+        assertEquals(3, CurrencyUnit.of("BHD").scale());
+        assertEquals(2, CurrencyUnit.of("ZZZ").scale());
+        assertNotSame(CurrencyUnit.of("usd"), CurrencyUnit.of("usd"));
+        assertEquals(CurrencyUnit.of("usd"), CurrencyUnit.of("usd"));
+    }
+
+    @Test
+    @DisplayName("sums and comparisons are only allowed within one currency")
+    void arithmeticWithinOneCurrency() {
+        Money ten = Money.of(new BigDecimal("10.00"), "USD");
+        Money five = Money.of(new BigDecimal("5"), "USD");
+
+        assertEquals(Money.of(new BigDecimal("15"), "USD"), ten.plus(five));
+        assertTrue(ten.compareTo(five) > 0);
+        assertTrue(ten.isPositive());
+        assertFalse(Money.zero(CurrencyUnit.of("USD")).isPositive());
+        assertThrows(InvalidOperationException.class, () -> ten.plus(Money.of(BigDecimal.TEN, "EUR")));
+        assertThrows(ArithmeticException.class,
+                () -> new Money(Long.MAX_VALUE, CurrencyUnit.of("USD")).plus(ten));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.paymentsystem.outbox;
+
+import com.example.paymentsystem.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("events are written as one JSON object per line with the payload inlined, on flush")
+    void publish_WritesOneLinePerEventOnFlush(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("outbox/outbox.jsonl");
+        try (JsonLinesOutboxSink sink = new JsonLinesOutboxSink(objectMapper, file)) {
+            sink.publish(new OutboxEvent(1L, "PaymentOrder", "42", "PaymentOrderStatusChanged",
+                    "{\"status\":\"PENDING\"}", LocalDateTime.of(2024, 1, 1, 12, 0)));
+            sink.publish(new OutboxEvent(2L, "PaymentOrder", "42", "PaymentOrderStatusChanged",
+                    "{\"status\":\"CANCELLED\"}", LocalDateTime.of(2024, 1, 1, 12, 1)));
+            sink.flush();
+
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(2, lines.size());
+            JsonNode first = objectMapper.readTree(lines.get(0));
+            assertEquals(1, first.get("id").asLong());
+            assertEquals("42", first.get("aggregateId").asText());
+            assertEquals("PENDING", first.get("payload").get("status").asText());
+            assertEquals("CANCELLED", objectMapper.readTree(lines.get(1)).get("payload").get("status").asText());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.paymentsystem.outbox;
+
+import com.example.paymentsystem.dto.BulkOrderItemResult;
+import com.example.paymentsystem.dto.PaymentExecutionDTO;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.entity.OutboxEvent;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.repository.OutboxEventRepository;
+import com.example.paymentsystem.service.BulkOrderService;
+import com.example.paymentsystem.service.PaymentExecutionService;
+import com.example.paymentsystem.service.PaymentOrderService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "payment.outbox.relay-enabled=false",
+        "payment.gateway.simulator.latency.fixed=0s",
+        "payment.gateway.simulator.success-rate=1.0"
+})
+class OutboxIntegrationTest {
+
+    @TestConfiguration
+    static class BrokerConfig {
+
+        @Bean
+        @Primary
+        StubBroker stubBroker() {
+            return new StubBroker();
+        }
+    }
+
+    @Autowired
+    private PaymentOrderService orderService;
+
+    @Autowired
+    private PaymentExecutionService executionService;
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private StubBroker broker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        relay.relayPending();
+        broker.reset();
+    }
+
+    @Test
+    @DisplayName("every status change of an execution is relayed in order and the outbox is emptied")
+    void execute_RelaysStatusChangesInOrder() throws Exception {
+        PaymentOrderDTO order = orderService.createOrder(orderDTO());
+        PaymentExecutionDTO execution = executionService.executePayment(order.getId());
+
+        int relayed = relay.relayPending();
+
+        assertEquals(6, relayed);
+        assertEquals(0, outboxRepository.count());
+        List<OutboxEvent> delivered = broker.delivered();
+        assertEquals(Arrays.asList(null, "PENDING", "PROCESSING"), statuses(delivered, OutboxWriter.ORDER_AGGREGATE,
+                order.getId(), "previousStatus"));
+        assertEquals(List.of("PENDING", "PROCESSING", "COMPLETED"), statuses(delivered, OutboxWriter.ORDER_AGGREGATE,
+                order.getId(), "status"));
+        assertEquals(List.of("INITIATED", "PROCESSING", "SUCCESS"), statuses(delivered,
+                OutboxWriter.EXECUTION_AGGREGATE, execution.getId(), "status"));
+    }
+
+    @Test
+    @DisplayName("events of a rejected aggregate stay in the outbox until the sink accepts them")
+    void rejectedAggregate_RetriedOnNextRun() throws Exception {
+        PaymentOrderDTO order = orderService.createOrder(orderDTO());
+        orderService.cancelOrder(order.getId());
+        broker.reject(OutboxWriter.ORDER_AGGREGATE, order.getId());
+
+        assertEquals(0, relay.relayPending());
+        assertEquals(2, outboxRepository.count());
+
+        broker.reset();
+        assertEquals(2, relay.relayPending());
+        assertEquals(List.of("PENDING", "CANCELLED"), statuses(broker.delivered(), OutboxWriter.ORDER_AGGREGATE,
+                order.getId(), "status"));
+    }
+
+    @Test
+    @DisplayName("orders inserted through the bulk import record their creation with their ids")
+    void bulkImport_RecordsCreation() throws Exception {
+        String order = objectMapper.writeValueAsString(orderDTO());
+        List<BulkOrderItemResult> results = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser("[" + order + "," + order + "]")) {
+            parser.nextToken();
+            bulkOrderService.importOrders(parser, results::add);
+        }
+
+        assertEquals(2, relay.relayPending());
+        for (BulkOrderItemResult result : results) {
+            PaymentOrderDTO imported = orderService.getOrderByReference(result.getOrderReference());
+            assertEquals(Arrays.asList((String) null), statuses(broker.delivered(), OutboxWriter.ORDER_AGGREGATE,
+                    imported.getId(), "previousStatus"));
+            assertEquals(List.of(result.getOrderReference()), statuses(broker.delivered(),
+                    OutboxWriter.ORDER_AGGREGATE, imported.getId(), "orderReference"));
+        }
+    }
+
+    @Test
+    @DisplayName("deleting an order records a deletion event after its creation")
+    void delete_RecordsDeletion() {
+        PaymentOrderDTO order = orderService.createOrder(orderDTO());
+        orderService.deleteOrder(order.getId());
+
+        assertEquals(2, relay.relayPending());
+        assertEquals(List.of("PaymentOrderStatusChanged", "PaymentOrderDeleted"), broker.delivered().stream()
+                .filter(event -> event.getAggregateId().equals(order.getId().toString()))
+                .map(OutboxEvent::getEventType)
+                .toList());
+    }
+
+    private List<String> statuses(List<OutboxEvent> events, String aggregateType, Long aggregateId, String field)
+            throws Exception {
+        List<String> values = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (event.getAggregateType().equals(aggregateType) && event.getAggregateId().equals(aggregateId.toString())) {
+                JsonNode value = objectMapper.readTree(event.getPayload()).get(field);
+                values.add(value.isNull() ? null : value.asText());
+            }
+        }
+        return values;
+    }
+
+    private static PaymentOrderDTO orderDTO() {
+        PaymentOrderDTO dto = new PaymentOrderDTO();
+        dto.setCustomerId("CUST-OUTBOX");
+        dto.setCustomerName("John Doe");
+        dto.setCustomerEmail("john@example.com");
+        dto.setAmount(new BigDecimal("100.00"));
+        dto.setCurrency("USD");
+        dto.setPaymentMethod(PaymentMethod.UPI);
+        dto.setBeneficiaryName("ABC Corp");
+        dto.setBeneficiaryAccount("1234567890");
+        dto.setBeneficiaryBank("XYZ Bank");
+        return dto;
+    }
+}
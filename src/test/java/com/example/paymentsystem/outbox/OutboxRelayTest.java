@@ -0,0 +1,123 @@
+package com.example.paymentsystem.outbox;
+
+import com.example.paymentsystem.entity.OutboxEvent;
+import com.example.paymentsystem.lease.Lease;
+import com.example.paymentsystem.lease.LeaseLostException;
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.repository.OutboxEventRepository;
+import com.example.paymentsystem.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private LeaseManager leaseManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final StubBroker broker = new StubBroker();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxRepository, broker, leaseManager, ShardRouter.unsharded(), transactionManager, true, 3, 4);
+    }
+
+    @Test
+    @DisplayName("delivers events in id order and deletes them after the flush")
+    void relayBatch_DeliversInOrderAndDeletes() {
+        List<OutboxEvent> batch = List.of(event(1, "7"), event(2, "8"), event(3, "7"));
+
+        assertEquals(3, relay.relayBatch(batch));
+
+        assertEquals(List.of(1L, 2L, 3L), broker.delivered().stream().map(OutboxEvent::getId).toList());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("a rejected event holds back later events of its aggregate only")
+    void relayBatch_RejectedAggregateHeldBack() {
+        broker.reject(OutboxWriter.EXECUTION_AGGREGATE, "7");
+        List<OutboxEvent> batch = List.of(event(1, "7"), event(2, "8"), event(3, "7"), event(4, "8"));
+
+        assertEquals(2, relay.relayBatch(batch));
+
+        assertEquals(List.of(2L, 4L), broker.delivered().stream().map(OutboxEvent::getId).toList());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(2L, 4L));
+    }
+
+    @Test
+    @DisplayName("nothing is deleted when the flush fails")
+    void relayBatch_FlushFails_KeepsEvents() {
+        broker.failFlush(true);
+
+        assertEquals(0, relay.relayBatch(List.of(event(1, "7"))));
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("relayPending keeps draining while batches come back full")
+    void relayPending_DrainsFullBatches() {
+        when(outboxRepository.findOldest(any(Pageable.class)))
+                .thenReturn(List.of(event(1, "1"), event(2, "2"), event(3, "3")))
+                .thenReturn(List.of(event(4, "4")));
+
+        assertEquals(4, relay.relayPending());
+
+        verify(outboxRepository, times(2)).findOldest(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("a partition lease relays only its partition and fences the delete")
+    void relayPending_WithLease_RelaysPartitionAndFencesDelete() {
+        Lease lease = new Lease("outbox-relay/partition/1", "node-a", 7, 1);
+        when(outboxRepository.findOldestInPartition(eq(4), eq(1), any(Pageable.class)))
+                .thenReturn(List.of(event(1, "5"), event(2, "9")));
+
+        assertEquals(2, relay.relayPending(lease));
+
+        verify(outboxRepository, never()).findOldest(any(Pageable.class));
+        verify(leaseManager).fence(lease);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("a node that lost the partition keeps the batch for the new owner")
+    void relayPending_LeaseLost_StopsWithoutDeleting() {
+        Lease lease = new Lease("outbox-relay/partition/1", "node-a", 7, 1);
+        when(outboxRepository.findOldestInPartition(eq(4), eq(1), any(Pageable.class)))
+                .thenReturn(List.of(event(1, "5"), event(2, "9"), event(3, "13")));
+        doThrow(new LeaseLostException(lease)).when(leaseManager).fence(lease);
+
+        assertEquals(0, relay.relayPending(lease));
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxRepository, times(1)).findOldestInPartition(eq(4), eq(1), any(Pageable.class));
+    }
+
+    private static OutboxEvent event(long id, String aggregateId) {
+        return new OutboxEvent(id, OutboxWriter.EXECUTION_AGGREGATE, aggregateId, "PaymentExecutionStatusChanged",
+                "{}", LocalDateTime.now());
+    }
+}
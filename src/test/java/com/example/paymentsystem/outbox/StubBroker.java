@@ -0,0 +1,57 @@
+package com.example.paymentsystem.outbox;
+
+import com.example.paymentsystem.entity.OutboxEvent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-memory stand-in for a message broker. Events become visible in {@link #delivered()} only on
+ * flush, like a producer that acknowledges on commit; aggregates can be made to fail on publish.
+ */
+class StubBroker implements OutboxSink {
+
+    private final List<OutboxEvent> pending = new ArrayList<>();
+    private final List<OutboxEvent> delivered = new ArrayList<>();
+    private final Set<String> rejectedAggregates = new HashSet<>();
+    private boolean failFlush;
+
+    @Override
+    public synchronized void publish(OutboxEvent event) {
+        if (rejectedAggregates.contains(event.getAggregateType() + ":" + event.getAggregateId())) {
+            throw new IllegalStateException("broker rejected " + event.getId());
+        }
+        pending.add(event);
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (failFlush) {
+            pending.clear();
+            throw new IllegalStateException("broker unavailable");
+        }
+        delivered.addAll(pending);
+        pending.clear();
+    }
+
+    synchronized void reject(String aggregateType, Object aggregateId) {
+        rejectedAggregates.add(aggregateType + ":" + aggregateId);
+    }
+
+    synchronized void failFlush(boolean failFlush) {
+        this.failFlush = failFlush;
+    }
+
+    synchronized List<OutboxEvent> delivered() {
+        return List.copyOf(delivered);
+    }
+
+    synchronized void reset() {
+        pending.clear();
+        delivered.clear();
+        rejectedAggregates.clear();
+        failFlush = false;
+    }
+}
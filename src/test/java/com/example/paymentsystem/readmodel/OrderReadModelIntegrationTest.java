@@ -0,0 +1,96 @@
+package com.example.paymentsystem.readmodel;
+
+import com.example.paymentsystem.dto.PaymentExecutionDTO;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.dto.PaymentOrderViewDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import com.example.paymentsystem.service.OrderViewService;
+import com.example.paymentsystem.service.PaymentExecutionService;
+import com.example.paymentsystem.service.PaymentOrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "payment.outbox.relay-enabled=false",
+        "payment.gateway.simulator.latency.fixed=0s",
+        "payment.gateway.simulator.success-rate=1.0"
+})
+class OrderReadModelIntegrationTest {
+
+    @Autowired
+    private PaymentOrderService orderService;
+
+    @Autowired
+    private PaymentExecutionService executionService;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private OrderReadModel readModel;
+
+    @Test
+    @DisplayName("committed order and execution changes are visible in the view straight away")
+    void committedChanges_VisibleInView() {
+        assertTrue(readModel.isServing());
+        String customerId = "CUST-" + UUID.randomUUID();
+        PaymentOrderDTO order = orderService.createOrder(orderDTO(customerId));
+
+        PaymentOrderViewDTO created = orderViewService.getOrderView(order.getId());
+        assertEquals(PaymentOrderStatus.PENDING, created.getOrder().getStatus());
+        assertNull(created.getLatestExecutionId());
+        assertEquals(0, created.getExecutionAttempts());
+
+        PaymentExecutionDTO execution = executionService.executePayment(order.getId());
+
+        PaymentOrderViewDTO executed = orderViewService.getOrderViewByReference(order.getOrderReference());
+        assertEquals(PaymentOrderStatus.COMPLETED, executed.getOrder().getStatus());
+        assertEquals(execution.getId(), executed.getLatestExecutionId());
+        assertEquals(ExecutionStatus.SUCCESS, executed.getLatestExecutionStatus());
+        assertEquals(1, executed.getExecutionAttempts());
+        assertEquals(PaymentOrderStatus.COMPLETED, orderService.getOrderById(order.getId()).getStatus());
+        assertEquals(1, orderViewService.getOrderViewsByCustomerId(customerId).size());
+        assertTrue(orderViewService.getOrderViewsByStatus(PaymentOrderStatus.COMPLETED).stream()
+                .anyMatch(view -> view.getOrder().getId().equals(order.getId())));
+    }
+
+    @Test
+    @DisplayName("a rejected execution leaves the view as it was")
+    void rejectedExecution_ViewUnchanged() {
+        String customerId = "CUST-" + UUID.randomUUID();
+        PaymentOrderDTO order = orderService.createOrder(orderDTO(customerId));
+        orderService.cancelOrder(order.getId());
+
+        assertThrows(InvalidOperationException.class, () -> executionService.executePayment(order.getId()));
+
+        PaymentOrderViewDTO view = orderViewService.getOrderView(order.getId());
+        assertEquals(PaymentOrderStatus.CANCELLED, view.getOrder().getStatus());
+        assertEquals(0, view.getExecutionAttempts());
+        assertEquals(PaymentOrderStatus.CANCELLED,
+                orderService.getOrdersByCustomerId(customerId).get(0).getStatus());
+    }
+
+    private static PaymentOrderDTO orderDTO(String customerId) {
+        PaymentOrderDTO dto = new PaymentOrderDTO();
+        dto.setCustomerId(customerId);
+        dto.setCustomerName("John Doe");
+        dto.setCustomerEmail("john@example.com");
+        dto.setAmount(new BigDecimal("100.00"));
+        dto.setCurrency("USD");
+        dto.setPaymentMethod(PaymentMethod.UPI);
+        dto.setBeneficiaryName("ABC Corp");
+        dto.setBeneficiaryAccount("1234567890");
+        dto.setBeneficiaryBank("XYZ Bank");
+        return dto;
+    }
+}
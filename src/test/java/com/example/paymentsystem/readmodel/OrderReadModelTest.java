@@ -0,0 +1,245 @@
+package com.example.paymentsystem.readmodel;
+
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.dto.ReadModelStatsDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import com.example.paymentsystem.event.PaymentOrderChangedEvent;
+import com.example.paymentsystem.event.PaymentOrderDeletedEvent;
+import com.example.paymentsystem.repository.PaymentExecutionRepository;
+import com.example.paymentsystem.repository.PaymentExecutionRepository.LatestExecutionSummary;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderReadModelTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_789);
+
+    @Mock
+    private PaymentOrderRepository orderRepository;
+
+    @Mock
+    private PaymentExecutionRepository executionRepository;
+
+    private OrderReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        readModel = new OrderReadModel(orderRepository, executionRepository, ShardRouter.unsharded(), true, 100, 2);
+    }
+
+    @Test
+    @DisplayName("order and execution events keep the view and its indexes current")
+    void eventsMaintainViewAndIndexes() {
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(order(1L, "CUST001", PaymentOrderStatus.PENDING, T0)));
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(order(2L, "CUST001", PaymentOrderStatus.PENDING, T0)));
+
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(
+                order(1L, "CUST001", PaymentOrderStatus.PROCESSING, T0.plusSeconds(1))));
+        readModel.onExecutionStatusChanged(execution(10L, 1L, null, ExecutionStatus.INITIATED, T0.plusSeconds(1)));
+        readModel.onExecutionStatusChanged(execution(10L, 1L, ExecutionStatus.INITIATED, ExecutionStatus.FAILED,
+                T0.plusSeconds(2)));
+        readModel.onExecutionStatusChanged(execution(11L, 1L, null, ExecutionStatus.INITIATED, T0.plusSeconds(3)));
+
+        OrderView view = readModel.findByReference("ORD-00000001").orElseThrow();
+        assertEquals(PaymentOrderStatus.PROCESSING, view.order().status());
+        assertEquals(11L, view.latestExecution().id());
+        assertEquals(ExecutionStatus.INITIATED, view.latestExecution().status());
+        assertEquals(2, view.executionAttempts());
+
+        assertEquals(List.of(1L, 2L), ids(readModel.findByCustomerId("CUST001")));
+        assertEquals(List.of(2L), ids(readModel.findByStatus(PaymentOrderStatus.PENDING)));
+        assertEquals(List.of(1L), ids(readModel.findByStatus(PaymentOrderStatus.PROCESSING)));
+
+        readModel.onOrderDeleted(new PaymentOrderDeletedEvent(2L));
+        assertTrue(readModel.findById(2L).isEmpty());
+        assertTrue(readModel.findByStatus(PaymentOrderStatus.PENDING).isEmpty());
+        assertEquals(List.of(1L), ids(readModel.findByCustomerId("CUST001")));
+    }
+
+    @Test
+    @DisplayName("an order update older than the view is ignored")
+    void staleOrderUpdateIgnored() {
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(
+                order(1L, "CUST001", PaymentOrderStatus.COMPLETED, T0.plusSeconds(5))));
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(order(1L, "CUST001", PaymentOrderStatus.PENDING, T0)));
+
+        assertEquals(PaymentOrderStatus.COMPLETED, readModel.findById(1L).orElseThrow().order().status());
+        assertTrue(readModel.findByStatus(PaymentOrderStatus.PENDING).isEmpty());
+    }
+
+    @Test
+    @DisplayName("the DTO carries the order exactly, timestamps included")
+    void toOrderDtoRoundTripsTimestamps() {
+        PaymentOrder order = order(1L, "CUST001", PaymentOrderStatus.COMPLETED, T0);
+        order.setCompletedAt(T0.plusNanos(1));
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(order));
+
+        PaymentOrderDTO dto = readModel.findById(1L).orElseThrow().toOrderDTO();
+
+        assertEquals(T0, dto.getCreatedAt());
+        assertEquals(T0.plusNanos(1), dto.getCompletedAt());
+        assertNull(dto.getScheduledAt());
+        assertEquals(new BigDecimal("100.00"), dto.getAmount());
+        assertEquals("ORD-00000001", dto.getOrderReference());
+        assertEquals(PaymentMethod.CREDIT_CARD, dto.getPaymentMethod());
+    }
+
+    @Test
+    @DisplayName("rebuild pages through the orders, attaches latest executions and starts serving")
+    void rebuildLoadsPagesAndServes() {
+        when(orderRepository.findPageAfter(eq(0L), any())).thenReturn(List.of(
+                order(1L, "CUST001", PaymentOrderStatus.COMPLETED, T0),
+                order(2L, "CUST002", PaymentOrderStatus.PENDING, T0)));
+        when(orderRepository.findPageAfter(eq(2L), any())).thenReturn(List.of(
+                order(3L, "CUST001", PaymentOrderStatus.FAILED, T0)));
+        when(executionRepository.findLatestByOrderIds(any())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.contains(1L)
+                    ? List.of(new Summary(1L, 20L, "EXE-00000020", ExecutionStatus.SUCCESS, T0, 3L))
+                    : List.of();
+        });
+
+        assertFalse(readModel.isServing());
+        readModel.rebuild();
+
+        assertTrue(readModel.isServing());
+        OrderView first = readModel.findById(1L).orElseThrow();
+        assertEquals(20L, first.latestExecution().id());
+        assertEquals(3, first.executionAttempts());
+        assertNull(readModel.findById(3L).orElseThrow().latestExecution());
+        assertEquals(List.of(1L, 3L), ids(readModel.findByCustomerId("CUST001")));
+        assertEquals(3, readModel.getStats().getRebuiltOrders());
+    }
+
+    @Test
+    @DisplayName("past max-orders the model empties itself and stops serving")
+    void overflowStopsServing() {
+        readModel = new OrderReadModel(orderRepository, executionRepository, ShardRouter.unsharded(), true, 2, 10);
+        when(orderRepository.findPageAfter(anyLong(), any())).thenReturn(List.of());
+        readModel.rebuild();
+        assertTrue(readModel.isServing());
+
+        for (long id = 1; id <= 3; id++) {
+            readModel.onOrderChanged(PaymentOrderChangedEvent.of(order(id, "CUST001", PaymentOrderStatus.PENDING, T0)));
+        }
+
+        assertFalse(readModel.isServing());
+        ReadModelStatsDTO stats = readModel.getStats();
+        assertTrue(stats.isOverflowed());
+        assertEquals(0, stats.getOrders());
+    }
+
+    @Test
+    @DisplayName("with other instances sharing the database the model is never loaded and never serves")
+    void multipleInstancesDisableTheModel() {
+        readModel = new OrderReadModel(orderRepository, executionRepository, ShardRouter.unsharded(), true, false, 100, 2);
+
+        readModel.onApplicationReady();
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(order(1L, "CUST001", PaymentOrderStatus.PENDING, T0)));
+
+        assertFalse(readModel.isEnabled());
+        assertFalse(readModel.isServing());
+        assertTrue(readModel.findById(1L).isEmpty());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("customer totals sum the orders in a status, across currencies as the database does")
+    void sumAmountByCustomerAndStatus() {
+        for (long id = 1; id <= 3; id++) {
+            readModel.onOrderChanged(PaymentOrderChangedEvent.of(order(id, "CUST001", PaymentOrderStatus.PENDING, T0)));
+        }
+        PaymentOrder completed = order(4L, "CUST001", PaymentOrderStatus.COMPLETED, T0);
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(completed));
+        PaymentOrder yen = order(5L, "CUST002", PaymentOrderStatus.PENDING, T0);
+        yen.setCurrency("JPY");
+        yen.setAmount(new BigDecimal("1500"));
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(yen));
+        readModel.onOrderChanged(PaymentOrderChangedEvent.of(order(6L, "CUST002", PaymentOrderStatus.PENDING, T0)));
+
+        assertEquals(new BigDecimal("300.00"), readModel.sumAmount("CUST001", PaymentOrderStatus.PENDING));
+        assertEquals(new BigDecimal("100.00"), readModel.sumAmount("CUST001", PaymentOrderStatus.COMPLETED));
+        assertEquals(0, new BigDecimal("1600").compareTo(readModel.sumAmount("CUST002", PaymentOrderStatus.PENDING)));
+        assertEquals(BigDecimal.ZERO, readModel.sumAmount("CUST001", PaymentOrderStatus.FAILED));
+        assertEquals(BigDecimal.ZERO, readModel.sumAmount("CUST999", PaymentOrderStatus.PENDING));
+        assertEquals(new BigDecimal("100.00"), readModel.findById(1L).orElseThrow().toOrderDTO().getAmount());
+    }
+
+    @Test
+    @DisplayName("stats estimate the footprint and do not charge pooled strings to each order")
+    void statsEstimateFootprint() {
+        for (long id = 1; id <= 10; id++) {
+            readModel.onOrderChanged(PaymentOrderChangedEvent.of(order(id, "CUST00" + (id % 2), PaymentOrderStatus.PENDING, T0)));
+        }
+
+        ReadModelStatsDTO stats = readModel.getStats();
+
+        assertEquals(10, stats.getOrders());
+        assertEquals(2, stats.getCustomers());
+        assertEquals(10, stats.getOrdersByStatus().get(PaymentOrderStatus.PENDING));
+        assertTrue(stats.getEstimatedBytesPerOrder() > Footprint.INDEX_ENTRY + Footprint.ORDER);
+        assertEquals(stats.getEstimatedBytesPerOrder() * 1_000_000, stats.getEstimatedBytesPerMillionOrders(), 1_000_000);
+
+        OrderView view = readModel.findById(1L).orElseThrow();
+        StringPool pool = new StringPool(16);
+        long unpooled = Footprint.of(view, pool);
+        pool.canonical(view.order().beneficiaryBank());
+        assertTrue(unpooled > Footprint.of(view, pool));
+    }
+
+    private static List<Long> ids(List<OrderView> views) {
+        return views.stream().map(OrderView::id).toList();
+    }
+
+    private static PaymentOrder order(Long id, String customerId, PaymentOrderStatus status, LocalDateTime updatedAt) {
+        PaymentOrder order = new PaymentOrder();
+        order.setId(id);
+        order.setOrderReference(String.format("ORD-%08d", id));
+        order.setCustomerId(customerId);
+        order.setCustomerName("John Doe");
+        order.setCustomerEmail("john@example.com");
+        order.setAmount(new BigDecimal("100.00"));
+        order.setCurrency("USD");
+        order.setStatus(status);
+        order.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        order.setBeneficiaryName("ABC Corp");
+        order.setBeneficiaryAccount("1234567890");
+        order.setBeneficiaryBank("XYZ Bank");
+        order.setCreatedAt(T0);
+        order.setUpdatedAt(updatedAt);
+        return order;
+    }
+
+    private static PaymentExecutionStatusChangedEvent execution(Long id, Long orderId, ExecutionStatus previous,
+                                                                ExecutionStatus status, LocalDateTime at) {
+        return new PaymentExecutionStatusChangedEvent(id, String.format("EXE-%08d", id), orderId,
+                String.format("ORD-%08d", orderId), "CUST001", previous, status, at);
+    }
+
+    private record Summary(Long getOrderId, Long getExecutionId, String getExecutionReference,
+                           ExecutionStatus getStatus, LocalDateTime getUpdatedAt, Long getAttempts)
+            implements LatestExecutionSummary {
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.paymentsystem.reference;
+
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.shard.ShardContext;
+import com.example.paymentsystem.shard.ShardRouter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReferenceGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+    private final ReferenceGenerator generator = new ReferenceGenerator(clock::get, 7);
+
+    @Test
+    @DisplayName("references are a prefix and 13 base32 characters encoding the issue time")
+    void referenceFormat() {
+        String order = generator.nextOrderReference();
+        String execution = generator.nextExecutionReference();
+
+        assertTrue(order.matches("ORD-[0-9A-HJKMNP-TV-Z]{13}"), order);
+        assertTrue(execution.matches("EXE-[0-9A-HJKMNP-TV-Z]{13}"), execution);
+        assertEquals(Instant.ofEpochMilli(NOW), ReferenceGenerator.issuedAt(order));
+    }
+
+    @Test
+    @DisplayName("references sort in the order they were issued, within and across milliseconds")
+    void referencesSortInIssueOrder() {
+        List<String> issued = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1_000 == 0) {
+                clock.addAndGet(1);
+            }
+            issued.add(generator.nextOrderReference());
+        }
+
+        List<String> sorted = new ArrayList<>(issued);
+        sorted.sort(null);
+        assertEquals(issued, sorted);
+        assertEquals(issued.size(), new HashSet<>(issued).size());
+    }
+
+    @Test
+    @DisplayName("more than 4096 references in one millisecond borrow from the next without repeating")
+    void sequenceOverflowBorrowsNextMillisecond() {
+        Set<String> issued = new HashSet<>();
+        String last = null;
+        for (int i = 0; i < 5_000; i++) {
+            last = generator.nextOrderReference();
+            assertTrue(issued.add(last), last);
+        }
+
+        assertEquals(Instant.ofEpochMilli(NOW + 1), ReferenceGenerator.issuedAt(last));
+    }
+
+    @Test
+    @DisplayName("a clock stepping backwards does not make references go backwards")
+    void clockGoingBackwards() {
+        String before = generator.nextOrderReference();
+        clock.addAndGet(-5_000);
+
+        String after = generator.nextOrderReference();
+
+        assertTrue(after.compareTo(before) > 0, before + " then " + after);
+    }
+
+    @Test
+    @DisplayName("concurrent callers never get the same reference")
+    void uniqueAcrossThreads() {
+        ReferenceGenerator shared = new ReferenceGenerator(System::currentTimeMillis, 1);
+        ConcurrentLinkedQueue<String> issued = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> callers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            callers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    issued.add(shared.nextExecutionReference());
+                }
+            }));
+        }
+        callers.forEach(CompletableFuture::join);
+
+        assertEquals(160_000, new HashSet<>(issued).size());
+    }
+
+    @Test
+    @DisplayName("two nodes issuing in the same millisecond get different references")
+    void nodesDoNotCollide() {
+        ReferenceGenerator other = new ReferenceGenerator(clock::get, 8);
+
+        assertNotEquals(generator.nextOrderReference(), other.nextOrderReference());
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceGenerator(clock::get, ReferenceGenerator.MAX_NODES));
+    }
+
+    @Test
+    @DisplayName("under a shard the reference carries the shard tag the router reads back")
+    void shardTag() {
+        ShardRouter router = new ShardRouter(true, List.of("shard-0", "shard-1", "shard-2"), 128, 64);
+        try {
+            String reference = router.onShard(2, generator::nextOrderReference);
+
+            assertTrue(reference.startsWith("ORD-02"), reference);
+            assertEquals(2, router.shardForReference(reference));
+            assertEquals(-1, router.shardForReference(generator.nextOrderReference()));
+        } finally {
+            router.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("without job leases the node id has to be configured")
+    void leasesDisabledNeedsNodeId() {
+        LeaseManager leaseManager = mock(LeaseManager.class);
+        when(leaseManager.isEnabled()).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> new ReferenceGenerator(leaseManager, ShardRouter.unsharded(), -1));
+        assertEquals(3, new ReferenceGenerator(leaseManager, ShardRouter.unsharded(), 3).getNodeId());
+    }
+
+    @Test
+    @DisplayName("a lapsed node id lease is taken back, and one held by another node stops issuing")
+    void lostLeaseStopsIssuing() {
+        LeaseManager leaseManager = mock(LeaseManager.class);
+        ReferenceGenerator leased = new ReferenceGenerator(clock::get, 5, leaseManager, ShardRouter.unsharded());
+        when(leaseManager.heldUntil("reference-node/5"))
+                .thenReturn(Optional.of(Instant.ofEpochMilli(NOW + 1000)));
+
+        leased.nextOrderReference();
+        clock.addAndGet(999);
+        leased.nextOrderReference();
+        verify(leaseManager, times(1)).heldUntil("reference-node/5");
+
+        // The heartbeat stopped renewing; nobody else took the lease
+        clock.addAndGet(1);
+        when(leaseManager.runExclusive(eq("reference-node/5"), any())).thenReturn(true);
+        when(leaseManager.heldUntil("reference-node/5"))
+                .thenReturn(Optional.of(Instant.ofEpochMilli(NOW + 1000)), Optional.of(Instant.ofEpochMilli(NOW + 5000)));
+        leased.nextOrderReference();
+
+        // Another node has it now
+        clock.addAndGet(4000);
+        when(leaseManager.heldUntil("reference-node/5")).thenReturn(Optional.empty());
+        when(leaseManager.runExclusive(eq("reference-node/5"), any())).thenReturn(false);
+        assertThrows(IllegalStateException.class, leased::nextOrderReference);
+        assertThrows(IllegalStateException.class, leased::nextExecutionReference);
+    }
+
+    @Test
+    @DisplayName("the node id lease is taken on the home shard even while issuing for another shard")
+    void leaseCheckedOnHomeShard() {
+        LeaseManager leaseManager = mock(LeaseManager.class);
+        ShardRouter router = new ShardRouter(true, List.of("shard-0", "shard-1"), 128, 64);
+        try {
+            ReferenceGenerator leased = new ReferenceGenerator(clock::get, 5, leaseManager, router);
+            List<Integer> leaseShards = new ArrayList<>();
+            when(leaseManager.heldUntil("reference-node/5"))
+                    .thenReturn(Optional.empty(), Optional.of(Instant.ofEpochMilli(NOW + 1000)));
+            when(leaseManager.runExclusive(eq("reference-node/5"), any())).thenAnswer(inv -> {
+                leaseShards.add(ShardContext.current());
+                return true;
+            });
+
+            assertTrue(router.onShard(1, leased::nextOrderReference).startsWith("ORD-01"));
+            assertEquals(List.of(ShardRouter.HOME_SHARD), leaseShards);
+        } finally {
+            router.shutdown();
+        }
+    }
+}
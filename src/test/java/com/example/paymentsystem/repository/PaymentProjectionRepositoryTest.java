@@ -0,0 +1,125 @@
+package com.example.paymentsystem.repository;
+
+import com.example.paymentsystem.dto.PaymentExecutionCriteria;
+import com.example.paymentsystem.dto.PaymentOrderCriteria;
+import com.example.paymentsystem.entity.*;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(PaymentProjectionRepository.class)
+class PaymentProjectionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PaymentProjectionRepository projectionRepository;
+
+    private PaymentOrder order;
+
+    @BeforeEach
+    void setUp() {
+        order = entityManager.persist(order("ORD-PROJ0001", "CUST001", new BigDecimal("100.00")));
+        entityManager.persist(order("ORD-PROJ0002", "CUST002", new BigDecimal("900.00")));
+        entityManager.persist(execution("EXE-PROJ0001", order, ExecutionStatus.FAILED));
+        entityManager.persist(execution("EXE-PROJ0002", order, ExecutionStatus.SUCCESS));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("order projection returns only the requested fields in request order")
+    void findOrderFields_ReturnsRequestedFieldsOnly() {
+        List<Map<String, Object>> rows = projectionRepository.findOrderFields(
+                PaymentOrderCriteria.byCustomerId("CUST001"), List.of("status", "orderReference", "amount"));
+
+        assertEquals(1, rows.size());
+        assertEquals(List.of("status", "orderReference", "amount"), List.copyOf(rows.get(0).keySet()));
+        assertEquals("ORD-PROJ0001", rows.get(0).get("orderReference"));
+        assertEquals(PaymentOrderStatus.PENDING, rows.get(0).get("status"));
+    }
+
+    @Test
+    @DisplayName("order projection applies amount range")
+    void findOrderFields_AmountRange() {
+        List<Map<String, Object>> rows = projectionRepository.findOrderFields(
+                PaymentOrderCriteria.amountBetween(new BigDecimal("500"), new BigDecimal("1000")),
+                List.of("orderReference"));
+
+        assertEquals(1, rows.size());
+        assertEquals("ORD-PROJ0002", rows.get(0).get("orderReference"));
+    }
+
+    @Test
+    @DisplayName("execution projection resolves order fields through the association")
+    void findExecutionFields_IncludesOrderFields() {
+        List<Map<String, Object>> rows = projectionRepository.findExecutionFields(
+                PaymentExecutionCriteria.byCustomerId("CUST001"),
+                List.of("executionReference", "status", "paymentOrderId", "orderReference"));
+
+        assertEquals(2, rows.size());
+        assertTrue(rows.stream().allMatch(row -> order.getId().equals(row.get("paymentOrderId"))));
+        assertTrue(rows.stream().allMatch(row -> "ORD-PROJ0001".equals(row.get("orderReference"))));
+        assertFalse(rows.get(0).containsKey("gatewayResponse"));
+    }
+
+    @Test
+    @DisplayName("execution projection filters by status")
+    void findExecutionFields_ByStatus() {
+        List<Map<String, Object>> rows = projectionRepository.findExecutionFields(
+                PaymentExecutionCriteria.byStatus(ExecutionStatus.SUCCESS), List.of("executionReference"));
+
+        assertEquals(1, rows.size());
+        assertEquals("EXE-PROJ0002", rows.get(0).get("executionReference"));
+    }
+
+    @Test
+    @DisplayName("unknown fields are rejected")
+    void findOrderFields_UnknownField_ThrowsInvalidOperation() {
+        assertThrows(InvalidOperationException.class, () -> projectionRepository.findOrderFields(
+                PaymentOrderCriteria.all(), List.of("orderReference", "executions")));
+    }
+
+    private static PaymentOrder order(String reference, String customerId, BigDecimal amount) {
+        PaymentOrder order = new PaymentOrder();
+        order.setOrderReference(reference);
+        order.setCustomerId(customerId);
+        order.setCustomerName("John Doe");
+        order.setCustomerEmail("john@example.com");
+        order.setAmount(amount);
+        order.setCurrency("USD");
+        order.setStatus(PaymentOrderStatus.PENDING);
+        order.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        order.setBeneficiaryName("ABC Corp");
+        order.setBeneficiaryAccount("1234567890");
+        order.setBeneficiaryBank("XYZ Bank");
+        return order;
+    }
+
+    private static PaymentExecution execution(String reference, PaymentOrder order, ExecutionStatus status) {
+        PaymentExecution execution = new PaymentExecution();
+        execution.setExecutionReference(reference);
+        execution.setPaymentOrder(order);
+        execution.setStatus(status);
+        execution.setAmount(order.getAmount());
+        execution.setCurrency(order.getCurrency());
+        execution.setRetryAttempt(0);
+        execution.setGatewayResponse("Payment processed successfully");
+        execution.setCreatedAt(LocalDateTime.now());
+        return execution;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.dto.BulkOrderItemResult;
+import com.example.paymentsystem.dto.BulkOrderSummary;
+import com.example.paymentsystem.entity.OutboxEvent;
+import com.example.paymentsystem.outbox.OutboxWriter;
+import com.example.paymentsystem.reference.ReferenceGenerator;
+import com.example.paymentsystem.service.impl.BulkOrderServiceImpl;
+import com.example.paymentsystem.shard.ShardRouter;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkOrderServiceTest {
+
+    private static final String VALID_ORDER = """
+            {"customerId":"CUST001","customerName":"John Doe","customerEmail":"john@example.com",
+             "amount":100.00,"currency":"USD","paymentMethod":"CREDIT_CARD","beneficiaryName":"ABC Corp",
+             "beneficiaryAccount":"1234567890","beneficiaryBank":"XYZ Bank"}
+            """;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ObjectMapper objectMapper;
+    private BulkOrderServiceImpl bulkOrderService;
+    private List<BulkOrderItemResult> results;
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        bulkOrderService = new BulkOrderServiceImpl(jdbcTemplate, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper, eventPublisher,
+                new OutboxWriter(null, objectMapper), ShardRouter.unsharded(),
+                new ReferenceGenerator(System::currentTimeMillis, 0), 2);
+        results = new ArrayList<>();
+        lenient().when(insertOrders()).thenAnswer(inv -> generateIds(inv.getArgument(1), inv.getArgument(2)));
+    }
+
+    @Test
+    @DisplayName("valid orders are inserted in batches of the configured size")
+    void importOrders_ValidOrders_InsertedInBatches() throws Exception {
+        BulkOrderSummary summary = importOrders("[" + VALID_ORDER + "," + VALID_ORDER + "," + VALID_ORDER + "]");
+
+        assertTrue(summary.isCompleted());
+        assertEquals(3, summary.getReceived());
+        assertEquals(3, summary.getAccepted());
+        assertEquals(0, summary.getRejected());
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(r -> r.isAccepted() && r.getOrderReference().startsWith("ORD-")));
+        verify(jdbcTemplate, times(2)).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+    }
+
+    @Test
+    @DisplayName("each order's creation event is inserted into the outbox with the id its insert generated")
+    @SuppressWarnings("unchecked")
+    void importOrders_OutboxEventsCarryGeneratedIds() throws Exception {
+        importOrders("[" + VALID_ORDER + "," + VALID_ORDER + "," + VALID_ORDER + "]");
+
+        ArgumentCaptor<Collection<OutboxEvent>> events = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(contains("outbox_events"), events.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        List<OutboxEvent> outbox = events.getAllValues().stream().flatMap(Collection::stream).toList();
+        assertEquals(List.of("100", "101", "102"), outbox.stream().map(OutboxEvent::getAggregateId).toList());
+        for (int i = 0; i < outbox.size(); i++) {
+            assertEquals(OutboxWriter.ORDER_AGGREGATE, outbox.get(i).getAggregateType());
+            assertEquals(results.get(i).getOrderReference(),
+                    objectMapper.readTree(outbox.get(i).getPayload()).get("orderReference").asText());
+        }
+    }
+
+    @Test
+    @DisplayName("invalid orders are rejected with field errors and not inserted")
+    void importOrders_InvalidOrder_RejectedWithFieldErrors() throws Exception {
+        BulkOrderSummary summary = importOrders("[" + VALID_ORDER + ",{\"customerId\":\"CUST001\"}]");
+
+        assertEquals(1, summary.getAccepted());
+        assertEquals(1, summary.getRejected());
+        BulkOrderItemResult rejected = results.stream().filter(r -> !r.isAccepted()).findFirst().orElseThrow();
+        assertEquals(1, rejected.getIndex());
+        assertTrue(rejected.getErrors().containsKey("customerName"));
+    }
+
+    @Test
+    @DisplayName("elements that cannot be mapped to an order are rejected")
+    void importOrders_UnknownPaymentMethod_Rejected() throws Exception {
+        BulkOrderSummary summary = importOrders("[" + VALID_ORDER.replace("CREDIT_CARD", "CHEQUE") + "]");
+
+        assertEquals(0, summary.getAccepted());
+        assertEquals(1, summary.getRejected());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("amounts with more decimals than the currency holds are rejected rather than rounded")
+    void importOrders_InexactAmount_Rejected() throws Exception {
+        BulkOrderSummary summary = importOrders("[" + VALID_ORDER.replace("100.00", "100.005") + "]");
+
+        assertEquals(0, summary.getAccepted());
+        assertEquals(1, summary.getRejected());
+        assertTrue(results.get(0).getErrors().containsKey("amount"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("a failed batch is retried order by order and only the failing orders are rejected")
+    void importOrders_BatchFails_OnlyFailingOrdersRejected() throws Exception {
+        when(insertOrders())
+                .thenThrow(new DataIntegrityViolationException("batch failed"))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(inv -> generateIds(inv.getArgument(1), inv.getArgument(2)));
+
+        BulkOrderSummary summary = importOrders("[" + VALID_ORDER + "," + VALID_ORDER + "," + VALID_ORDER + "]");
+
+        assertTrue(summary.isCompleted());
+        assertEquals(2, summary.getAccepted());
+        assertEquals(1, summary.getRejected());
+        BulkOrderItemResult rejected = results.stream().filter(r -> !r.isAccepted()).findFirst().orElseThrow();
+        assertEquals(0, rejected.getIndex());
+        assertEquals("duplicate key", rejected.getErrors().get("order"));
+        assertTrue(results.stream().anyMatch(r -> r.isAccepted() && r.getIndex() == 1));
+        // The batch of two, each of its orders alone, then the last order's own batch
+        verify(jdbcTemplate, times(4)).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        // Only the inserts that succeeded write outbox events
+        verify(jdbcTemplate, times(2)).batchUpdate(contains("outbox_events"), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("malformed JSON stops the upload but keeps orders read so far")
+    void importOrders_MalformedJson_StopsAndReportsError() throws Exception {
+        BulkOrderSummary summary = importOrders("[" + VALID_ORDER + ", {\"customerId\": ");
+
+        assertFalse(summary.isCompleted());
+        assertNotNull(summary.getError());
+        assertEquals(1, summary.getAccepted());
+    }
+
+    private int[] insertOrders() {
+        return jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class));
+    }
+
+    private int[] generateIds(BatchPreparedStatementSetter setter, KeyHolder keyHolder) {
+        Stream.generate(() -> Map.<String, Object>of("ID", nextId.getAndIncrement()))
+                .limit(setter.getBatchSize())
+                .forEach(keyHolder.getKeyList()::add);
+        return new int[setter.getBatchSize()];
+    }
+
+    private BulkOrderSummary importOrders(String json) throws Exception {
+        JsonParser parser = objectMapper.createParser(json);
+        parser.nextToken();
+        return bulkOrderService.importOrders(parser, results::add);
+    }
+}
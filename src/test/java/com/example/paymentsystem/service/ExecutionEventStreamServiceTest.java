@@ -0,0 +1,130 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionEventStreamServiceTest {
+
+    private RecordingStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new RecordingStreamService();
+    }
+
+    @Test
+    @DisplayName("status change is delivered to order and customer subscribers")
+    void onExecutionStatusChanged_DeliversToOrderAndCustomerSubscribers() {
+        RecordingEmitter orderEmitter = (RecordingEmitter) streamService.subscribeToOrder(1L);
+        RecordingEmitter customerEmitter = (RecordingEmitter) streamService.subscribeToCustomer("CUST001");
+        RecordingEmitter otherOrderEmitter = (RecordingEmitter) streamService.subscribeToOrder(2L);
+
+        streamService.onExecutionStatusChanged(event(1L, "CUST001", ExecutionStatus.SUCCESS));
+
+        assertEquals(1, orderEmitter.sent.size());
+        assertEquals(1, customerEmitter.sent.size());
+        assertTrue(otherOrderEmitter.sent.isEmpty());
+        assertEquals(3, streamService.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("subscriber whose connection fails is dropped")
+    void onExecutionStatusChanged_FailingSubscriber_IsRemoved() {
+        RecordingEmitter emitter = (RecordingEmitter) streamService.subscribeToOrder(1L);
+        emitter.failOnSend = true;
+
+        streamService.onExecutionStatusChanged(event(1L, "CUST001", ExecutionStatus.FAILED));
+
+        assertEquals(0, streamService.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("the committing thread only queues the event; a sender thread writes it")
+    void onExecutionStatusChanged_DoesNotSendOnCallerThread() {
+        List<Runnable> senders = new ArrayList<>();
+        streamService = new RecordingStreamService(2, senders::add);
+        RecordingEmitter emitter = (RecordingEmitter) streamService.subscribeToOrder(1L);
+
+        streamService.onExecutionStatusChanged(event(1L, "CUST001", ExecutionStatus.PROCESSING));
+        streamService.onExecutionStatusChanged(event(1L, "CUST001", ExecutionStatus.SUCCESS));
+
+        assertTrue(emitter.sent.isEmpty());
+        assertEquals(1, senders.size());
+        senders.get(0).run();
+        assertEquals(2, emitter.sent.size());
+    }
+
+    @Test
+    @DisplayName("a subscriber that falls a full queue behind is disconnected")
+    void onExecutionStatusChanged_LaggingSubscriber_IsDisconnected() {
+        streamService = new RecordingStreamService(2, task -> { });
+        RecordingEmitter laggard = (RecordingEmitter) streamService.subscribeToOrder(1L);
+        streamService.subscribeToCustomer("CUST001");
+
+        streamService.onExecutionStatusChanged(event(1L, "OTHER", ExecutionStatus.INITIATED));
+        streamService.onExecutionStatusChanged(event(1L, "OTHER", ExecutionStatus.PROCESSING));
+        streamService.onExecutionStatusChanged(event(1L, "OTHER", ExecutionStatus.SUCCESS));
+
+        assertTrue(laggard.sent.isEmpty());
+        assertEquals(1, streamService.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("heartbeat is sent to idle subscribers")
+    void sendHeartbeats_ReachesAllSubscribers() {
+        RecordingEmitter orderEmitter = (RecordingEmitter) streamService.subscribeToOrder(1L);
+        RecordingEmitter customerEmitter = (RecordingEmitter) streamService.subscribeToCustomer("CUST001");
+
+        streamService.sendHeartbeats();
+
+        assertEquals(1, orderEmitter.sent.size());
+        assertEquals(1, customerEmitter.sent.size());
+    }
+
+    private static PaymentExecutionStatusChangedEvent event(Long orderId, String customerId, ExecutionStatus status) {
+        return new PaymentExecutionStatusChangedEvent(10L, "EXE-TEST123", orderId, "ORD-TEST123",
+                customerId, ExecutionStatus.PROCESSING, status, LocalDateTime.now());
+    }
+
+    private static class RecordingStreamService extends ExecutionEventStreamService {
+
+        RecordingStreamService() {
+            this(16, Runnable::run);
+        }
+
+        RecordingStreamService(int queueCapacity, Executor senders) {
+            super(60_000L, queueCapacity, senders);
+        }
+
+        @Override
+        SseEmitter newEmitter() {
+            return new RecordingEmitter();
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<SseEventBuilder> sent = new ArrayList<>();
+        private boolean failOnSend;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failOnSend) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder);
+        }
+    }
+}
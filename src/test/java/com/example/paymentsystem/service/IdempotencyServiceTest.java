@@ -0,0 +1,178 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.entity.IdempotencyRecord;
+import com.example.paymentsystem.exception.InvalidOperationException;
+import com.example.paymentsystem.lease.LeaseManager;
+import com.example.paymentsystem.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    private IdempotencyService idempotencyService;
+    private AtomicInteger invocations;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(recordRepository, new ObjectMapper().findAndRegisterModules(),
+                (LeaseManager) null, Duration.ofHours(24), Duration.ofMinutes(10), 5_000L);
+        invocations = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("without a key the action always runs")
+    void execute_NoKey_RunsAction() {
+        idempotencyService.execute("create-order", null, "fp", PaymentOrderDTO.class, this::createOrder);
+        idempotencyService.execute("create-order", null, "fp", PaymentOrderDTO.class, this::createOrder);
+
+        assertEquals(2, invocations.get());
+        verifyNoInteractions(recordRepository);
+    }
+
+    @Test
+    @DisplayName("replayed key returns the original response without running the action")
+    void execute_SameKey_ReplaysOriginalResponse() {
+        when(recordRepository.findById("create-order:key-1")).thenReturn(Optional.empty());
+
+        PaymentOrderDTO first = idempotencyService.execute("create-order", "key-1", "fp",
+                PaymentOrderDTO.class, this::createOrder);
+        PaymentOrderDTO replay = idempotencyService.execute("create-order", "key-1", "fp",
+                PaymentOrderDTO.class, this::createOrder);
+
+        assertEquals(1, invocations.get());
+        assertEquals(first.getOrderReference(), replay.getOrderReference());
+        verify(recordRepository).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("key stored by an earlier process is replayed from the database")
+    void execute_StoredRecord_ReplaysFromDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        when(recordRepository.findById("create-order:key-1")).thenReturn(Optional.of(new IdempotencyRecord(
+                "create-order:key-1", "fp", "{\"orderReference\":\"ORD-STORED01\"}", now, now.plusHours(1))));
+
+        PaymentOrderDTO replay = idempotencyService.execute("create-order", "key-1", "fp",
+                PaymentOrderDTO.class, this::createOrder);
+
+        assertEquals(0, invocations.get());
+        assertEquals("ORD-STORED01", replay.getOrderReference());
+    }
+
+    @Test
+    @DisplayName("reusing a key for a different request is rejected")
+    void execute_DifferentFingerprint_ThrowsInvalidOperation() {
+        when(recordRepository.findById("create-order:key-1")).thenReturn(Optional.empty());
+        idempotencyService.execute("create-order", "key-1", "fp-1", PaymentOrderDTO.class, this::createOrder);
+
+        assertThrows(InvalidOperationException.class, () -> idempotencyService.execute(
+                "create-order", "key-1", "fp-2", PaymentOrderDTO.class, this::createOrder));
+    }
+
+    @Test
+    @DisplayName("failed requests are not remembered")
+    void execute_ActionFails_KeyCanBeRetried() {
+        when(recordRepository.findById("create-order:key-1")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("create-order", "key-1", "fp",
+                PaymentOrderDTO.class, () -> {
+                    throw new IllegalStateException("gateway down");
+                }));
+        idempotencyService.execute("create-order", "key-1", "fp", PaymentOrderDTO.class, this::createOrder);
+
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    @DisplayName("concurrent duplicates wait for the in-flight request instead of running again")
+    void execute_ConcurrentDuplicates_AreCoalesced() throws Exception {
+        when(recordRepository.findById("execute-payment:key-1")).thenReturn(Optional.empty());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<PaymentOrderDTO> first = executor.submit(() -> idempotencyService.execute(
+                    "execute-payment", "key-1", "1", PaymentOrderDTO.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return createOrder();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<PaymentOrderDTO> duplicate = executor.submit(() -> idempotencyService.execute(
+                    "execute-payment", "key-1", "1", PaymentOrderDTO.class, this::createOrder));
+
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS).getOrderReference(),
+                    duplicate.get(5, TimeUnit.SECONDS).getOrderReference());
+            assertEquals(1, invocations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("blank key is rejected")
+    void execute_BlankKey_ThrowsInvalidOperation() {
+        assertThrows(InvalidOperationException.class, () -> idempotencyService.execute(
+                "create-order", " ", "fp", PaymentOrderDTO.class, this::createOrder));
+    }
+
+    @Test
+    @DisplayName("the fingerprint is a SHA-256 of the payload that ignores decimal scale")
+    void fingerprint_IgnoresDecimalScaleButNotValue() {
+        PaymentOrderDTO first = new PaymentOrderDTO();
+        first.setCustomerId("CUST001");
+        first.setAmount(new BigDecimal("100.0"));
+        PaymentOrderDTO sameAmount = new PaymentOrderDTO();
+        sameAmount.setCustomerId("CUST001");
+        sameAmount.setAmount(new BigDecimal("100.00"));
+        PaymentOrderDTO otherAmount = new PaymentOrderDTO();
+        otherAmount.setCustomerId("CUST001");
+        otherAmount.setAmount(new BigDecimal("100.01"));
+
+        String fingerprint = idempotencyService.fingerprint(first);
+
+        assertEquals(64, fingerprint.length());
+        assertEquals(fingerprint, idempotencyService.fingerprint(sameAmount));
+        assertNotEquals(fingerprint, idempotencyService.fingerprint(otherAmount));
+    }
+
+    private PaymentOrderDTO createOrder() {
+        PaymentOrderDTO dto = new PaymentOrderDTO();
+        dto.setOrderReference("ORD-" + invocations.incrementAndGet());
+        return dto;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.config.SloProperties;
+import com.example.paymentsystem.dto.RouteLatencyDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencySloServiceTest {
+
+    private static final String ROUTE = "GET /v1/payment-orders/{id}";
+
+    private SloProperties properties;
+    private LatencySloService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SloProperties();
+        properties.setSliceMs(15_000);
+        properties.getTargets().add(new SloProperties.Target(ROUTE, Duration.ofMillis(25), Duration.ofMillis(50)));
+        service = new LatencySloService(properties);
+    }
+
+    @Test
+    @DisplayName("configured routes are reported before any traffic")
+    void getReport_IncludesConfiguredRoutesWithoutTraffic() {
+        RouteLatencyDTO route = single(service.getReport());
+
+        assertEquals(ROUTE, route.getRoute());
+        assertEquals(50.0, route.getP99TargetMs());
+        assertFalse(route.isViolated());
+        assertEquals(List.of("1m", "5m", "15m"), route.getWindows().stream().map(RouteLatencyDTO.WindowStats::getWindow).toList());
+        assertEquals(0, route.getWindows().get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("recorded latencies become visible once their slice is rotated in")
+    void record_VisibleAfterRotate() {
+        recordMillis(10, 99);
+        recordMillis(40, 1);
+
+        assertEquals(0, window(service.getReport(), 0).getCount());
+
+        service.rotate();
+
+        RouteLatencyDTO.WindowStats oneMinute = window(service.getReport(), 0);
+        assertEquals(100, oneMinute.getCount());
+        assertEquals(10.0, oneMinute.getP50Ms(), 0.1);
+        assertEquals(40.0, oneMinute.getMaxMs(), 0.5);
+        assertFalse(oneMinute.isViolated());
+    }
+
+    @Test
+    @DisplayName("a p99 above target flags the window and the route")
+    void getReport_FlagsP99Violation() {
+        recordMillis(10, 90);
+        recordMillis(80, 10);
+        service.rotate();
+
+        RouteLatencyDTO route = single(service.getReport());
+        assertTrue(route.isViolated());
+        assertTrue(route.getWindows().get(0).isViolated());
+        assertEquals(80.0, route.getWindows().get(0).getP99Ms(), 1.0);
+    }
+
+    @Test
+    @DisplayName("slices slide out of the 1m window but stay in the 5m and 15m windows")
+    void windowsSlide() {
+        recordMillis(80, 10);
+        service.rotate();
+        for (int i = 0; i < 4; i++) {
+            service.rotate();
+        }
+
+        RouteLatencyDTO route = single(service.getReport());
+        assertEquals(0, route.getWindows().get(0).getCount());
+        assertFalse(route.getWindows().get(0).isViolated());
+        assertEquals(10, route.getWindows().get(1).getCount());
+        assertEquals(10, route.getWindows().get(2).getCount());
+
+        for (int i = 0; i < 60; i++) {
+            service.rotate();
+        }
+        route = single(service.getReport());
+        assertEquals(0, route.getWindows().get(2).getCount());
+        assertFalse(route.isViolated());
+    }
+
+    @Test
+    @DisplayName("routes without a target are measured but never violate")
+    void unconfiguredRoute_NeverViolates() {
+        service.record("GET /v1/admin/slo", TimeUnit.SECONDS.toNanos(5));
+        service.rotate();
+
+        RouteLatencyDTO route = service.getReport().stream()
+                .filter(r -> r.getRoute().equals("GET /v1/admin/slo")).findFirst().orElseThrow();
+        assertNull(route.getP99TargetMs());
+        assertEquals(1, route.getWindows().get(0).getCount());
+        assertFalse(route.isViolated());
+    }
+
+    @Test
+    @DisplayName("nothing is recorded when disabled")
+    void disabled_RecordsNothing() {
+        properties.setEnabled(false);
+        recordMillis(80, 10);
+        service.rotate();
+
+        assertEquals(0, window(service.getReport(), 0).getCount());
+    }
+
+    private void recordMillis(long millis, int times) {
+        for (int i = 0; i < times; i++) {
+            service.record(ROUTE, TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    private static RouteLatencyDTO single(List<RouteLatencyDTO> report) {
+        assertEquals(1, report.size());
+        return report.get(0);
+    }
+
+    private static RouteLatencyDTO.WindowStats window(List<RouteLatencyDTO> report, int index) {
+        return single(report).getWindows().get(index);
+    }
+}
@@ -1,27 +1,45 @@
 package com.example.paymentsystem.service;
 
+import com.example.paymentsystem.dispatch.ExecutionLanes;
+import com.example.paymentsystem.dto.PaymentExecutionCriteria;
 import com.example.paymentsystem.dto.PaymentExecutionDTO;
 import com.example.paymentsystem.entity.*;
+import com.example.paymentsystem.event.PaymentExecutionStatusChangedEvent;
 import com.example.paymentsystem.exception.InvalidOperationException;
 import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.metrics.PaymentMetrics;
+import com.example.paymentsystem.outbox.OutboxWriter;
+import com.example.paymentsystem.reference.ReferenceGenerator;
 import com.example.paymentsystem.repository.PaymentExecutionRepository;
 import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.repository.PaymentProjectionRepository;
 import com.example.paymentsystem.service.impl.PaymentExecutionServiceImpl;
+import com.example.paymentsystem.tracing.PaymentTracing;
+import io.micrometer.tracing.Tracer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,6 +60,30 @@ class PaymentExecutionServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PaymentProjectionRepository projectionRepository;
+
+    @Mock
+    private PaymentMetrics paymentMetrics;
+
+    @Spy
+    private PaymentTracing paymentTracing = new PaymentTracing(Tracer.NOOP);
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Spy
+    private ReferenceGenerator referenceGenerator = new ReferenceGenerator(System::currentTimeMillis, 0);
+
+    @Mock
+    private ExecutionLanes executionLanes;
+
+    @Mock
+    private TransactionOperations transactionOperations;
+
     @InjectMocks
     private PaymentExecutionServiceImpl executionService;
 
@@ -51,6 +93,13 @@ class PaymentExecutionServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(executionLanes.forOrder(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(executionLanes.forExecution(anyLong(), any(Supplier.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(transactionOperations.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
         testOrder = new PaymentOrder();
         testOrder.setId(1L);
         testOrder.setOrderReference("ORD-TEST123");
@@ -78,17 +127,27 @@ class PaymentExecutionServiceTest {
         testExecutionDTO.setCurrency("USD");
     }
 
+    /**
+     * Saves assign the id, and finalize finds the execution the claim saved under it.
+     */
+    private void stubExecutionSaves(long id) {
+        AtomicReference<PaymentExecution> saved = new AtomicReference<>();
+        when(executionRepository.save(any(PaymentExecution.class))).thenAnswer(inv -> {
+            PaymentExecution e = inv.getArgument(0);
+            e.setId(id);
+            saved.set(e);
+            return e;
+        });
+        when(executionRepository.findByIdForUpdate(id)).thenAnswer(inv -> Optional.ofNullable(saved.get()));
+    }
+
     @Nested
     @DisplayName("Execute Payment")
     class ExecutePayment {
         @Test
         void executePayment_Success() {
             when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
-            when(executionRepository.save(any(PaymentExecution.class))).thenAnswer(inv -> {
-                PaymentExecution e = inv.getArgument(0);
-                e.setId(1L);
-                return e;
-            });
+            stubExecutionSaves(1L);
             when(gatewayService.processPayment(any(PaymentExecution.class), any(PaymentOrder.class)))
                     .thenReturn(true);
             when(modelMapper.map(any(PaymentExecution.class), eq(PaymentExecutionDTO.class)))
@@ -102,12 +161,99 @@ class PaymentExecutionServiceTest {
             verify(gatewayService).processPayment(any(PaymentExecution.class), eq(testOrder));
         }
 
+        @Test
+        void executePayment_PublishesEachStatusTransition() {
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+            stubExecutionSaves(1L);
+            when(gatewayService.processPayment(any(PaymentExecution.class), any(PaymentOrder.class)))
+                    .thenReturn(true);
+            when(modelMapper.map(any(PaymentExecution.class), eq(PaymentExecutionDTO.class)))
+                    .thenReturn(testExecutionDTO);
+
+            executionService.executePayment(1L);
+
+            ArgumentCaptor<PaymentExecutionStatusChangedEvent> captor =
+                    ArgumentCaptor.forClass(PaymentExecutionStatusChangedEvent.class);
+            verify(eventPublisher, times(3)).publishEvent(captor.capture());
+            List<PaymentExecutionStatusChangedEvent> events = captor.getAllValues();
+            assertNull(events.get(0).previousStatus());
+            assertEquals(ExecutionStatus.INITIATED, events.get(0).status());
+            assertEquals(ExecutionStatus.PROCESSING, events.get(1).status());
+            assertEquals(ExecutionStatus.PROCESSING, events.get(2).previousStatus());
+            assertEquals(ExecutionStatus.SUCCESS, events.get(2).status());
+            assertEquals(1L, events.get(2).orderId());
+            assertEquals("CUST001", events.get(2).customerId());
+        }
+
+        @Test
+        void executePayment_WritesOutboxEventPerTransition() {
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+            stubExecutionSaves(1L);
+            when(gatewayService.processPayment(any(PaymentExecution.class), any(PaymentOrder.class)))
+                    .thenReturn(true);
+            when(modelMapper.map(any(PaymentExecution.class), eq(PaymentExecutionDTO.class)))
+                    .thenReturn(testExecutionDTO);
+
+            executionService.executePayment(1L);
+
+            ArgumentCaptor<PaymentExecutionStatusChangedEvent> captor =
+                    ArgumentCaptor.forClass(PaymentExecutionStatusChangedEvent.class);
+            verify(outboxWriter, times(3)).executionStatusChanged(captor.capture());
+            assertEquals(ExecutionStatus.SUCCESS, captor.getAllValues().get(2).status());
+            InOrder inOrder = inOrder(outboxWriter);
+            inOrder.verify(outboxWriter).orderStatusChanged(testOrder, PaymentOrderStatus.PENDING);
+            inOrder.verify(outboxWriter).orderStatusChanged(testOrder, PaymentOrderStatus.PROCESSING);
+            assertEquals(PaymentOrderStatus.COMPLETED, testOrder.getStatus());
+        }
+
+        @Test
+        void executePayment_DeclinedByGateway_RecordsMetrics() {
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+            stubExecutionSaves(1L);
+            when(gatewayService.processPayment(any(PaymentExecution.class), any(PaymentOrder.class)))
+                    .thenAnswer(inv -> {
+                        PaymentExecution e = inv.getArgument(0);
+                        e.setGatewayProvider("MOCK_GATEWAY");
+                        e.setErrorCode("GATEWAY_DECLINED");
+                        return false;
+                    });
+            when(modelMapper.map(any(PaymentExecution.class), eq(PaymentExecutionDTO.class)))
+                    .thenReturn(testExecutionDTO);
+
+            executionService.executePayment(1L);
+
+            verify(paymentMetrics).executionStarted();
+            verify(paymentMetrics).recordGatewayCall(eq("MOCK_GATEWAY"),
+                    eq(PaymentMetrics.GatewayOutcome.DECLINED), anyLong());
+            verify(paymentMetrics).executionFinished(anyLong(), anyLong());
+        }
+
+        @Test
+        void executePayment_OpensSpanPerPhase() {
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+            stubExecutionSaves(1L);
+            when(gatewayService.processPayment(any(PaymentExecution.class), any(PaymentOrder.class)))
+                    .thenReturn(true);
+            when(modelMapper.map(any(PaymentExecution.class), eq(PaymentExecutionDTO.class)))
+                    .thenReturn(testExecutionDTO);
+
+            executionService.executePayment(1L);
+
+            verify(paymentTracing).start("payment.execute");
+            verify(paymentTracing).inSpan(eq("payment.order.lookup"), any());
+            verify(paymentTracing).inSpan(eq("payment.execution.claim"), any());
+            verify(paymentTracing).inSpan(eq("payment.execution.mark-processing"), any());
+            verify(paymentTracing).start("payment.gateway.call");
+            verify(paymentTracing).start("payment.execution.finalize");
+        }
+
         @Test
         void executePayment_OrderNotFound_ThrowsResourceNotFoundException() {
             when(orderRepository.findById(999L)).thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, () -> executionService.executePayment(999L));
             verify(executionRepository, never()).save(any());
+            verify(paymentMetrics).executionFinished(anyLong(), eq(0L));
         }
 
         @Test
@@ -126,6 +272,52 @@ class PaymentExecutionServiceTest {
 
             assertThrows(InvalidOperationException.class, () -> executionService.executePayment(1L));
         }
+
+        @Test
+        void executePayment_OrderAlreadyProcessing_ThrowsInvalidOperation() {
+            testOrder.setStatus(PaymentOrderStatus.PROCESSING);
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+
+            assertThrows(InvalidOperationException.class, () -> executionService.executePayment(1L));
+            verify(executionRepository, never()).save(any());
+        }
+
+        @Test
+        void executePayment_GatewayCalledOutsideTransactionAndLane() {
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+            stubExecutionSaves(1L);
+            when(gatewayService.processPayment(any(PaymentExecution.class), any(PaymentOrder.class)))
+                    .thenReturn(true);
+            when(modelMapper.map(any(PaymentExecution.class), eq(PaymentExecutionDTO.class)))
+                    .thenReturn(testExecutionDTO);
+
+            executionService.executePayment(1L);
+
+            InOrder inOrder = inOrder(executionLanes, transactionOperations, gatewayService);
+            inOrder.verify(executionLanes).forOrder(eq(1L), any());
+            inOrder.verify(transactionOperations).execute(any());
+            inOrder.verify(gatewayService).processPayment(any(PaymentExecution.class), any(PaymentOrder.class));
+            inOrder.verify(transactionOperations).execute(any());
+        }
+
+        @Test
+        void executePayment_ExecutionChangedDuringGatewayCall_KeepsTheChange() {
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+            stubExecutionSaves(1L);
+            when(gatewayService.processPayment(any(PaymentExecution.class), any(PaymentOrder.class)))
+                    .thenAnswer(inv -> {
+                        // An operator marks the execution failed while the gateway is answering
+                        inv.<PaymentExecution>getArgument(0).setStatus(ExecutionStatus.FAILED);
+                        return true;
+                    });
+            when(modelMapper.map(any(PaymentExecution.class), eq(PaymentExecutionDTO.class)))
+                    .thenReturn(testExecutionDTO);
+
+            executionService.executePayment(1L);
+
+            verify(eventPublisher, times(2)).publishEvent(any(PaymentExecutionStatusChangedEvent.class));
+            assertEquals(PaymentOrderStatus.PROCESSING, testOrder.getStatus());
+        }
     }
 
     @Nested
@@ -213,6 +405,24 @@ class PaymentExecutionServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Get Execution Fields")
+    class GetExecutionFields {
+        @Test
+        void getExecutionFields_UsesProjectionWithoutMapping() {
+            PaymentExecutionCriteria criteria = PaymentExecutionCriteria.byStatus(ExecutionStatus.SUCCESS);
+            List<String> fields = List.of("executionReference", "status");
+            when(projectionRepository.findExecutionFields(criteria, fields))
+                    .thenReturn(List.of(Map.of("executionReference", "EXE-TEST123", "status", ExecutionStatus.SUCCESS)));
+
+            List<Map<String, Object>> result = executionService.getExecutionFields(criteria, fields);
+
+            assertEquals(1, result.size());
+            assertEquals("EXE-TEST123", result.get(0).get("executionReference"));
+            verifyNoInteractions(executionRepository, modelMapper);
+        }
+    }
+
     @Nested
     @DisplayName("Update Execution Status")
     class UpdateExecutionStatus {
@@ -246,11 +456,7 @@ class PaymentExecutionServiceTest {
         void retryExecution_Success() {
             testExecution.setStatus(ExecutionStatus.FAILED);
             when(executionRepository.findById(1L)).thenReturn(Optional.of(testExecution));
-            when(executionRepository.save(any(PaymentExecution.class))).thenAnswer(inv -> {
-                PaymentExecution e = inv.getArgument(0);
-                e.setId(2L);
-                return e;
-            });
+            stubExecutionSaves(2L);
             when(gatewayService.processPayment(any(PaymentExecution.class), any(PaymentOrder.class)))
                     .thenReturn(true);
             when(modelMapper.map(any(PaymentExecution.class), eq(PaymentExecutionDTO.class)))
@@ -293,6 +499,7 @@ class PaymentExecutionServiceTest {
             ArgumentCaptor<PaymentExecution> captor = ArgumentCaptor.forClass(PaymentExecution.class);
             verify(executionRepository).save(captor.capture());
             assertEquals(ExecutionStatus.SETTLED, captor.getValue().getStatus());
+            verify(eventPublisher).publishEvent(any(PaymentExecutionStatusChangedEvent.class));
         }
 
         @Test
@@ -343,4 +550,42 @@ class PaymentExecutionServiceTest {
             assertThrows(ResourceNotFoundException.class, () -> executionService.reverseExecution(999L));
         }
     }
+
+    @Nested
+    @DisplayName("Fail Stale Executions")
+    class FailStaleExecutions {
+        @Test
+        void failStaleExecutions_ProcessingExecution_FailsItAndItsOrder() {
+            LocalDateTime claimedBefore = LocalDateTime.now().minusMinutes(5);
+            testExecution.setStatus(ExecutionStatus.PROCESSING);
+            testOrder.setStatus(PaymentOrderStatus.PROCESSING);
+            when(executionRepository.findStaleExecutions(ExecutionStatus.PROCESSING, claimedBefore))
+                    .thenReturn(List.of(testExecution));
+            when(executionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testExecution));
+
+            assertEquals(1, executionService.failStaleExecutions(claimedBefore));
+
+            assertEquals(ExecutionStatus.FAILED, testExecution.getStatus());
+            assertEquals("EXECUTION_ABANDONED", testExecution.getErrorCode());
+            assertEquals(PaymentOrderStatus.FAILED, testOrder.getStatus());
+            verify(executionRepository).save(testExecution);
+            verify(outboxWriter).executionStatusChanged(any(PaymentExecutionStatusChangedEvent.class));
+        }
+
+        @Test
+        void failStaleExecutions_OutcomeRecordedMeanwhile_LeavesItAlone() {
+            LocalDateTime claimedBefore = LocalDateTime.now().minusMinutes(5);
+            PaymentExecution stale = new PaymentExecution();
+            stale.setId(1L);
+            stale.setStatus(ExecutionStatus.PROCESSING);
+            when(executionRepository.findStaleExecutions(ExecutionStatus.PROCESSING, claimedBefore))
+                    .thenReturn(List.of(stale));
+            when(executionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testExecution));
+
+            assertEquals(0, executionService.failStaleExecutions(claimedBefore));
+
+            assertEquals(ExecutionStatus.SUCCESS, testExecution.getStatus());
+            verify(executionRepository, never()).save(any());
+        }
+    }
 }
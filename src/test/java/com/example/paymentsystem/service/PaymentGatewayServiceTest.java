@@ -1,5 +1,6 @@
 package com.example.paymentsystem.service;
 
+import com.example.paymentsystem.config.GatewaySimulatorProperties;
 import com.example.paymentsystem.entity.PaymentExecution;
 import com.example.paymentsystem.entity.PaymentOrder;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -51,6 +53,38 @@ class PaymentGatewayServiceTest {
         assertNotNull(testExecution.getGatewayResponse());
     }
 
+    @Test
+    @DisplayName("processPayment reports an injected timeout as GATEWAY_TIMEOUT")
+    void processPayment_InjectedTimeout_Fails() {
+        GatewaySimulatorProperties properties = instantGateway();
+        properties.setTimeout(Duration.ofMillis(1));
+        properties.setTimeoutRate(1.0);
+
+        assertFalse(new PaymentGatewayService(properties).processPayment(testExecution, testOrder));
+        assertEquals("GATEWAY_TIMEOUT", testExecution.getErrorCode());
+        assertEquals("MOCK_GATEWAY", testExecution.getGatewayProvider());
+    }
+
+    @Test
+    @DisplayName("processPayment reports an injected error as GATEWAY_ERROR")
+    void processPayment_InjectedError_Fails() {
+        GatewaySimulatorProperties properties = instantGateway();
+        properties.setErrorRate(1.0);
+
+        assertFalse(new PaymentGatewayService(properties).processPayment(testExecution, testOrder));
+        assertEquals("GATEWAY_ERROR", testExecution.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("processPayment declines with GATEWAY_DECLINED when the approval rate is zero")
+    void processPayment_ZeroSuccessRate_Declines() {
+        GatewaySimulatorProperties properties = instantGateway();
+        properties.setSuccessRate(0.0);
+
+        assertFalse(new PaymentGatewayService(properties).processPayment(testExecution, testOrder));
+        assertEquals("GATEWAY_DECLINED", testExecution.getErrorCode());
+    }
+
     @Test
     @DisplayName("validatePaymentDetails returns true for valid order")
     void validatePaymentDetails_ValidOrder_ReturnsTrue() {
@@ -98,4 +132,10 @@ class PaymentGatewayServiceTest {
     void initiateRefund_ReturnsTrue() {
         assertTrue(gatewayService.initiateRefund("GW-12345"));
     }
+
+    private static GatewaySimulatorProperties instantGateway() {
+        GatewaySimulatorProperties properties = new GatewaySimulatorProperties();
+        properties.getLatency().setFixed(Duration.ZERO);
+        return properties;
+    }
 }
@@ -1,26 +1,34 @@
 package com.example.paymentsystem.service;
 
+import com.example.paymentsystem.dto.PaymentOrderCriteria;
 import com.example.paymentsystem.dto.PaymentOrderDTO;
 import com.example.paymentsystem.entity.PaymentMethod;
 import com.example.paymentsystem.entity.PaymentOrder;
 import com.example.paymentsystem.entity.PaymentOrderStatus;
 import com.example.paymentsystem.exception.InvalidOperationException;
 import com.example.paymentsystem.exception.ResourceNotFoundException;
+import com.example.paymentsystem.outbox.OutboxWriter;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.reference.ReferenceGenerator;
 import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.repository.PaymentProjectionRepository;
 import com.example.paymentsystem.service.impl.PaymentOrderServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +44,21 @@ class PaymentOrderServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private PaymentProjectionRepository projectionRepository;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderReadModel readModel;
+
+    @Spy
+    private ReferenceGenerator referenceGenerator = new ReferenceGenerator(System::currentTimeMillis, 0);
+
     @InjectMocks
     private PaymentOrderServiceImpl orderService;
 
@@ -92,6 +115,16 @@ class PaymentOrderServiceTest {
         verify(orderRepository, times(1)).save(any(PaymentOrder.class));
     }
 
+    @Test
+    void testCreateOrder_ThreeDecimalAmount_RejectedRatherThanRounded() {
+        testOrder.setAmount(new BigDecimal("1.234"));
+        testOrder.setCurrency("KWD");
+        when(modelMapper.map(testOrderDTO, PaymentOrder.class)).thenReturn(testOrder);
+
+        assertThrows(InvalidOperationException.class, () -> orderService.createOrder(testOrderDTO));
+        verify(orderRepository, never()).save(any(PaymentOrder.class));
+    }
+
     @Test
     void testGetOrderById_Success() {
         // Arrange
@@ -175,11 +208,13 @@ class PaymentOrderServiceTest {
         when(modelMapper.map(testOrder, PaymentOrderDTO.class)).thenReturn(testOrderDTO);
 
         // Act
+        PaymentOrderStatus previousStatus = testOrder.getStatus();
         PaymentOrderDTO result = orderService.updateOrderStatus(1L, PaymentOrderStatus.PROCESSING);
 
         // Assert
         assertNotNull(result);
         verify(orderRepository, times(1)).save(any(PaymentOrder.class));
+        verify(outboxWriter).orderStatusChanged(testOrder, previousStatus);
     }
 
     @Test
@@ -189,10 +224,12 @@ class PaymentOrderServiceTest {
         when(orderRepository.save(any(PaymentOrder.class))).thenReturn(testOrder);
 
         // Act
+        PaymentOrderStatus previousStatus = testOrder.getStatus();
         assertDoesNotThrow(() -> orderService.cancelOrder(1L));
 
         // Assert
         verify(orderRepository, times(1)).save(any(PaymentOrder.class));
+        verify(outboxWriter).orderStatusChanged(testOrder, previousStatus);
     }
 
     @Test
@@ -206,6 +243,7 @@ class PaymentOrderServiceTest {
 
         // Assert
         verify(orderRepository, times(1)).deleteById(1L);
+        verify(outboxWriter).orderDeleted(1L);
     }
 
     @Test
@@ -293,6 +331,20 @@ class PaymentOrderServiceTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void testGetOrderFields_UsesProjectionWithoutMapping() {
+        PaymentOrderCriteria criteria = PaymentOrderCriteria.byCustomerId("CUST001");
+        List<String> fields = List.of("orderReference", "status");
+        when(projectionRepository.findOrderFields(criteria, fields))
+                .thenReturn(List.of(Map.of("orderReference", "ORD-TEST123", "status", PaymentOrderStatus.PENDING)));
+
+        List<Map<String, Object>> result = orderService.getOrderFields(criteria, fields);
+
+        assertEquals(1, result.size());
+        assertEquals("ORD-TEST123", result.get(0).get("orderReference"));
+        verifyNoInteractions(orderRepository, modelMapper);
+    }
+
     @Test
     void testUpdateOrder_Success() {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
@@ -0,0 +1,132 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.config.RateLimitProperties;
+import com.example.paymentsystem.dto.RateLimitBucketDTO;
+import com.example.paymentsystem.entity.PaymentMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterServiceTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private RateLimitProperties properties;
+    private RateLimiterService rateLimiterService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setDefaults(new RateLimitProperties.Limit(3, 1.0));
+        properties.getMethods().put(PaymentMethod.UPI, new RateLimitProperties.Limit(10, 100.0));
+        rateLimiterService = new RateLimiterService(properties, clock::get);
+    }
+
+    @Test
+    @DisplayName("admits a full burst, then rejects with the time until the next token")
+    void tryAcquire_BurstThenReject() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiterService.tryAcquire("CUST001", null));
+        }
+
+        long wait = rateLimiterService.tryAcquire("CUST001", null);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, rateLimiterService.tryAcquire("CUST001", null));
+    }
+
+    @Test
+    @DisplayName("customers and payment methods have independent buckets")
+    void tryAcquire_IndependentBuckets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiterService.tryAcquire("CUST001", null);
+        }
+
+        assertTrue(rateLimiterService.tryAcquire("CUST001", null) > 0);
+        assertEquals(0, rateLimiterService.tryAcquire("CUST002", null));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiterService.tryAcquire("CUST001", PaymentMethod.UPI));
+        }
+        assertTrue(rateLimiterService.tryAcquire("CUST001", PaymentMethod.UPI) > 0);
+    }
+
+    @Test
+    @DisplayName("disabled limiter admits everything")
+    void tryAcquire_Disabled() {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, rateLimiterService.tryAcquire("CUST001", null));
+        }
+        assertTrue(rateLimiterService.getBuckets().isEmpty());
+    }
+
+    @Test
+    @DisplayName("bucket levels report tokens left and refill over time")
+    void getBuckets_ReportsLevels() {
+        rateLimiterService.tryAcquire("CUST001", null);
+        rateLimiterService.tryAcquire("CUST001", null);
+
+        List<RateLimitBucketDTO> buckets = rateLimiterService.getBuckets();
+        assertEquals(1, buckets.size());
+        assertEquals("CUST001", buckets.get(0).getCustomerId());
+        assertEquals(3, buckets.get(0).getCapacity());
+        assertEquals(1.0, buckets.get(0).getAvailableTokens(), 1e-9);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+        assertEquals(2.5, rateLimiterService.getBuckets().get(0).getAvailableTokens(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("only fully refilled buckets are evicted")
+    void evictIdleBuckets_RemovesFullBuckets() {
+        rateLimiterService.tryAcquire("CUST001", null);
+        rateLimiterService.tryAcquire("CUST002", null);
+        rateLimiterService.tryAcquire("CUST002", null);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        rateLimiterService.evictIdleBuckets();
+
+        List<RateLimitBucketDTO> buckets = rateLimiterService.getBuckets();
+        assertEquals(1, buckets.size());
+        assertEquals("CUST002", buckets.get(0).getCustomerId());
+    }
+
+    @Test
+    @DisplayName("concurrent callers never exceed the burst")
+    void tryAcquire_Concurrent_NeverOverAdmits() throws Exception {
+        properties.setDefaults(new RateLimitProperties.Limit(50, 0.001));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        try {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (rateLimiterService.tryAcquire("CUST001", null) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(50, admitted.get());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.paymentsystem.service;
+
+import com.example.paymentsystem.dto.PaymentExecutionDTO;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentExecution;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.entity.PaymentOrder;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.reference.ReferenceGenerator;
+import com.example.paymentsystem.repository.PaymentExecutionRepository;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "payment.execution.recovery.enabled=false",
+        "payment.outbox.relay-enabled=false",
+        "payment.gateway.simulator.latency.fixed=0s",
+        "payment.gateway.simulator.success-rate=1.0"
+})
+class StaleExecutionReaperTest {
+
+    @Autowired
+    private StaleExecutionReaper reaper;
+
+    @Autowired
+    private PaymentOrderService orderService;
+
+    @Autowired
+    private PaymentExecutionService executionService;
+
+    @Autowired
+    private PaymentOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentExecutionRepository executionRepository;
+
+    @Autowired
+    private ReferenceGenerator referenceGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("an execution claimed long ago without an outcome is failed, and its order can be retried")
+    void staleClaimIsFailedAndRetryable() {
+        PaymentExecution stale = claimWithoutOutcome(LocalDateTime.now().minusMinutes(10));
+        PaymentExecution recent = claimWithoutOutcome(LocalDateTime.now());
+
+        assertEquals(1, reaper.reap());
+
+        PaymentExecution failed = executionRepository.findById(stale.getId()).orElseThrow();
+        assertEquals(ExecutionStatus.FAILED, failed.getStatus());
+        assertEquals("EXECUTION_ABANDONED", failed.getErrorCode());
+        assertEquals(PaymentOrderStatus.FAILED, failed.getPaymentOrder().getStatus());
+        assertEquals(ExecutionStatus.PROCESSING, executionRepository.findById(recent.getId()).orElseThrow().getStatus());
+
+        PaymentExecutionDTO retried = executionService.retryExecution(stale.getId());
+        assertEquals(ExecutionStatus.SUCCESS, retried.getStatus());
+        assertEquals(PaymentOrderStatus.COMPLETED, orderService.getOrderById(failed.getPaymentOrder().getId()).getStatus());
+    }
+
+    /**
+     * What a node that stopped after the claim leaves behind. The claim time is written directly,
+     * since Hibernate stamps the creation time itself.
+     */
+    private PaymentExecution claimWithoutOutcome(LocalDateTime claimedAt) {
+        PaymentOrder order = orderRepository.findById(orderService.createOrder(orderDTO()).getId()).orElseThrow();
+        order.setStatus(PaymentOrderStatus.PROCESSING);
+        orderRepository.save(order);
+
+        PaymentExecution execution = new PaymentExecution();
+        execution.setExecutionReference(referenceGenerator.nextExecutionReference());
+        execution.setPaymentOrder(order);
+        execution.setAmount(order.getAmount());
+        execution.setCurrency(order.getCurrency());
+        execution.setStatus(ExecutionStatus.PROCESSING);
+        execution.setRetryAttempt(0);
+        execution = executionRepository.save(execution);
+        jdbcTemplate.update("UPDATE payment_executions SET created_at = ? WHERE id = ?", claimedAt, execution.getId());
+        return execution;
+    }
+
+    private static PaymentOrderDTO orderDTO() {
+        PaymentOrderDTO dto = new PaymentOrderDTO();
+        dto.setCustomerId("CUST-STALE");
+        dto.setCustomerName("John Doe");
+        dto.setCustomerEmail("john@example.com");
+        dto.setAmount(new BigDecimal("100.00"));
+        dto.setCurrency("USD");
+        dto.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        dto.setBeneficiaryName("ABC Corp");
+        dto.setBeneficiaryAccount("1234567890");
+        dto.setBeneficiaryBank("XYZ Bank");
+        return dto;
+    }
+}
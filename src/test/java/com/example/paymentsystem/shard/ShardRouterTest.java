@@ -0,0 +1,122 @@
+package com.example.paymentsystem.shard;
+
+import com.example.paymentsystem.exception.ErrorCode;
+import com.example.paymentsystem.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    private final ShardRouter router = new ShardRouter(true, List.of("shard-0", "shard-1", "shard-2"), 128, 64);
+
+    @AfterEach
+    void tearDown() {
+        router.shutdown();
+    }
+
+    @Test
+    @DisplayName("customers spread evenly over the shards")
+    void customersSpreadEvenly() {
+        int[] counts = new int[3];
+        for (int i = 0; i < 30_000; i++) {
+            counts[router.shardForCustomer("CUST" + i)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > 8_500 && count < 11_500, "uneven spread " + List.of(counts[0], counts[1], counts[2]));
+        }
+    }
+
+    @Test
+    @DisplayName("adding a shard only moves the customers it takes over")
+    void addingAShardMovesOnlyItsShare() {
+        ShardRouter grown = new ShardRouter(true, List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128, 64);
+        int moved = 0;
+        try {
+            for (int i = 0; i < 30_000; i++) {
+                String customer = "CUST" + i;
+                int before = router.shardForCustomer(customer);
+                int after = grown.shardForCustomer(customer);
+                if (before != after) {
+                    assertEquals(3, after, customer + " moved between existing shards");
+                    moved++;
+                }
+            }
+        } finally {
+            grown.shutdown();
+        }
+
+        assertTrue(moved > 30_000 / 4 * 0.8 && moved < 30_000 / 4 * 1.2, "moved " + moved);
+    }
+
+    @Test
+    @DisplayName("ids and references name the shard that issued them")
+    void idsAndReferencesNameTheirShard() {
+        assertEquals(0, router.shardForId(1L));
+        assertEquals(1, router.shardForId(2L));
+        assertEquals(2, router.shardForId(67L));
+        // Shard 9 does not exist
+        assertEquals(ShardRouter.HOME_SHARD, router.shardForId(10L));
+
+        assertEquals(2, router.shardForReference("ORD-0201JAZ3Q5XK0G7"));
+        assertEquals(1, router.shardForReference("EXE-0101JAZ3Q5XK0G7"));
+        assertEquals(-1, router.shardForReference("ORD-01JAZ3Q5XK0G7"));
+        assertEquals(-1, router.shardForReference("ORD-0901JAZ3Q5XK0G7"));
+        // References issued before the time-ordered generator
+        assertEquals(2, router.shardForReference("ORD-02A1B2C3D4"));
+        assertEquals(-1, router.shardForReference("ORD-A1B2C3D4"));
+        assertEquals(2, router.onShard(2, ShardContext::current));
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    @DisplayName("a reference without a shard is looked up on each shard until one has it")
+    void legacyReferenceTriesEveryShard() {
+        List<Integer> tried = new ArrayList<>();
+
+        Integer found = router.onShardOfReference("ORD-A1B2C3D4", () -> {
+            tried.add(ShardContext.current());
+            if (ShardContext.current() != 1) {
+                throw new ResourceNotFoundException(ErrorCode.ORDER_NOT_FOUND, "not here");
+            }
+            return ShardContext.current();
+        });
+
+        assertEquals(1, found);
+        assertEquals(List.of(0, 1), tried);
+    }
+
+    @Test
+    @DisplayName("gather runs the query on every shard and concatenates in shard order")
+    void gatherConcatenatesInShardOrder() {
+        List<String> gathered = router.gather(() -> List.of(Thread.currentThread().getName().substring(0, 13),
+                "shard " + ShardContext.current()));
+
+        assertEquals(List.of("shard-gather-", "shard 0", "shard-gather-", "shard 1", "shard-gather-", "shard 2"),
+                gathered);
+        assertThrows(IllegalStateException.class, () -> router.gather(() -> {
+            if (ShardContext.current() == 2) {
+                throw new IllegalStateException("shard 2 down");
+            }
+            return List.of();
+        }));
+    }
+
+    @Test
+    @DisplayName("an unsharded router runs everything inline on the home shard")
+    void unshardedRunsInline() {
+        ShardRouter unsharded = ShardRouter.unsharded();
+
+        assertEquals(ShardRouter.HOME_SHARD, unsharded.shardForCustomer("CUST001"));
+        assertEquals(ShardRouter.HOME_SHARD, unsharded.shardForId(2L));
+        assertNull(unsharded.onShard(1, ShardContext::current));
+        String caller = Thread.currentThread().getName();
+        assertEquals(List.of(caller), unsharded.gather(() -> List.of(Thread.currentThread().getName())));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.paymentsystem.shard;
+
+import com.example.paymentsystem.dto.PaymentExecutionDTO;
+import com.example.paymentsystem.dto.PaymentOrderDTO;
+import com.example.paymentsystem.entity.ExecutionStatus;
+import com.example.paymentsystem.entity.PaymentMethod;
+import com.example.paymentsystem.entity.PaymentOrderStatus;
+import com.example.paymentsystem.readmodel.OrderReadModel;
+import com.example.paymentsystem.repository.PaymentExecutionRepository;
+import com.example.paymentsystem.repository.PaymentOrderRepository;
+import com.example.paymentsystem.service.PaymentExecutionService;
+import com.example.paymentsystem.service.PaymentOrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three in-memory H2 databases standing in for three shards.
+ */
+@SpringBootTest(properties = {
+        "payment.sharding.enabled=true",
+        "payment.sharding.shards[0].url=jdbc:h2:mem:shard-test-0",
+        "payment.sharding.shards[0].username=sa",
+        "payment.sharding.shards[1].url=jdbc:h2:mem:shard-test-1",
+        "payment.sharding.shards[1].username=sa",
+        "payment.sharding.shards[2].url=jdbc:h2:mem:shard-test-2",
+        "payment.sharding.shards[2].username=sa",
+        "spring.jpa.open-in-view=false",
+        "payment.read-model.enabled=false",
+        "payment.outbox.relay-enabled=false",
+        "payment.gateway.simulator.latency.fixed=0s",
+        "payment.gateway.simulator.success-rate=1.0"
+})
+class ShardingIntegrationTest {
+
+    @Autowired
+    private PaymentOrderService orderService;
+
+    @Autowired
+    private PaymentExecutionService executionService;
+
+    @Autowired
+    private ShardRouter router;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private ShardSchemaInitializer schemaInitializer;
+
+    @Autowired
+    private PaymentOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentExecutionRepository executionRepository;
+
+    @Test
+    @DisplayName("an order is stored on its customer's shard only, and its id and reference lead back there")
+    void orderStoredOnCustomerShard() {
+        for (String customerId : customerOnEveryShard()) {
+            int shard = router.shardForCustomer(customerId);
+
+            PaymentOrderDTO order = orderService.createOrder(orderDTO(customerId));
+
+            for (int i = 0; i < dataSource.size(); i++) {
+                assertEquals(i == shard ? 1 : 0, ordersOnShard(i, order.getOrderReference()), "shard " + i);
+            }
+            assertEquals(shard, router.shardForId(order.getId()));
+            assertEquals(shard, router.shardForReference(order.getOrderReference()));
+            assertEquals(order.getOrderReference(), orderService.getOrderById(order.getId()).getOrderReference());
+            assertEquals(order.getId(), orderService.getOrderByReference(order.getOrderReference()).getId());
+            assertEquals(1, orderService.getOrdersByCustomerId(customerId).size());
+        }
+    }
+
+    @Test
+    @DisplayName("executions are stored next to their order and found by id, reference and customer")
+    void executionsFollowTheirOrder() {
+        for (String customerId : customerOnEveryShard()) {
+            int shard = router.shardForCustomer(customerId);
+            PaymentOrderDTO order = orderService.createOrder(orderDTO(customerId));
+
+            PaymentExecutionDTO execution = executionService.executePayment(order.getId());
+
+            assertEquals(ExecutionStatus.SUCCESS, execution.getStatus());
+            assertEquals(shard, router.shardForId(execution.getId()));
+            assertEquals(shard, router.shardForReference(execution.getExecutionReference()));
+            assertEquals(execution.getId(),
+                    executionService.getExecutionByReference(execution.getExecutionReference()).getId());
+            assertEquals(1, executionService.getExecutionsByCustomerId(customerId).size());
+            assertEquals(PaymentOrderStatus.COMPLETED, orderService.getOrderById(order.getId()).getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("listings not scoped to a customer are gathered from every shard")
+    void listingsGatherEveryShard() {
+        List<Long> created = new ArrayList<>();
+        for (String customerId : customerOnEveryShard()) {
+            created.add(orderService.createOrder(orderDTO(customerId)).getId());
+        }
+
+        Set<Long> all = orderService.getAllOrders().stream().map(PaymentOrderDTO::getId).collect(Collectors.toSet());
+        Set<Long> pending = orderService.getOrdersByStatus(PaymentOrderStatus.PENDING).stream()
+                .map(PaymentOrderDTO::getId)
+                .collect(Collectors.toSet());
+
+        assertTrue(all.containsAll(created));
+        assertTrue(pending.containsAll(created));
+    }
+
+    @Test
+    @DisplayName("the read model rebuilds from every shard")
+    void readModelRebuildsFromEveryShard() {
+        List<PaymentOrderDTO> created = new ArrayList<>();
+        for (String customerId : customerOnEveryShard()) {
+            created.add(orderService.createOrder(orderDTO(customerId)));
+        }
+        OrderReadModel readModel = new OrderReadModel(orderRepository, executionRepository, router, true, 10_000, 2);
+
+        readModel.rebuild();
+
+        assertTrue(readModel.isServing());
+        for (PaymentOrderDTO order : created) {
+            assertTrue(readModel.findByReference(order.getOrderReference()).isPresent(), order.getOrderReference());
+        }
+    }
+
+    @Test
+    @DisplayName("starting another node leaves identity columns that already step by the stride alone")
+    void restartKeepsIdentity() {
+        String customerId = customerOnEveryShard().get(1);
+        int shard = router.shardForCustomer(customerId);
+        // Ids another node has issued meanwhile, above what this node could see
+        long issued = 64L * 10_000 + shard + 1;
+        new JdbcTemplate(dataSource.shard(shard))
+                .execute("ALTER TABLE payment_orders ALTER COLUMN id RESTART WITH " + issued);
+
+        schemaInitializer.initialize();
+
+        assertEquals(issued, orderService.createOrder(orderDTO(customerId)).getId());
+    }
+
+    private List<String> customerOnEveryShard() {
+        String[] customers = new String[router.getShardNames().size()];
+        String run = UUID.randomUUID().toString();
+        for (int i = 0, found = 0; found < customers.length; i++) {
+            String customerId = "CUST-" + run + "-" + i;
+            int shard = router.shardForCustomer(customerId);
+            if (customers[shard] == null) {
+                customers[shard] = customerId;
+                found++;
+            }
+        }
+        return List.of(customers);
+    }
+
+    private long ordersOnShard(int shard, String orderReference) {
+        return new JdbcTemplate(dataSource.shard(shard)).queryForObject(
+                "SELECT COUNT(*) FROM payment_orders WHERE order_reference = ?", Long.class, orderReference);
+    }
+
+    private static PaymentOrderDTO orderDTO(String customerId) {
+        PaymentOrderDTO dto = new PaymentOrderDTO();
+        dto.setCustomerId(customerId);
+        dto.setCustomerName("John Doe");
+        dto.setCustomerEmail("john@example.com");
+        dto.setAmount(new BigDecimal("100.00"));
+        dto.setCurrency("USD");
+        dto.setPaymentMethod(PaymentMethod.UPI);
+        dto.setBeneficiaryName("ABC Corp");
+        dto.setBeneficiaryAccount("1234567890");
+        dto.setBeneficiaryBank("XYZ Bank");
+        return dto;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.paymentsystem.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesSpanExporterTest {
+
+    @Test
+    @DisplayName("spans are appended as one JSON object per line, creating the directory")
+    void export_WritesOneLinePerSpan(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("traces/spans.jsonl");
+        try (SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new JsonLinesSpanExporter(new ObjectMapper(), file)))
+                .build()) {
+            Tracer tracer = tracerProvider.get("test");
+
+            Span root = tracer.spanBuilder("http post").setNoParent().startSpan();
+            root.setAttribute("payment.order.id", "1");
+            tracer.spanBuilder("payment.order.lookup").setParent(Context.root().with(root)).startSpan().end();
+            root.end();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"name\":\"payment.order.lookup\""));
+        assertTrue(lines.get(0).contains("\"parentSpanId\""));
+        assertFalse(lines.get(1).contains("\"parentSpanId\""));
+        assertTrue(lines.get(1).contains("\"payment.order.id\":\"1\""));
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.paymentsystem.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TailSamplingSpanExporterTest {
+
+    private static final long SLOW_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final long PENDING_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    // Span timestamps are relative to this; the SDK treats a start timestamp of 0 as unset
+    private static final long EPOCH_NANOS = TimeUnit.DAYS.toNanos(20_000);
+
+    private final CapturingExporter captured = new CapturingExporter();
+    private final AtomicLong clock = new AtomicLong();
+    private TailSamplingSpanExporter exporter;
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void tearDown() {
+        if (tracerProvider != null) {
+            tracerProvider.close();
+        }
+    }
+
+    @Test
+    @DisplayName("fast successful traces are dropped when the baseline ratio is zero")
+    void fastTrace_Dropped() {
+        Tracer tracer = tracer(0.0);
+
+        Span root = startSpan(tracer, "http post", null, 0);
+        endSpan(startSpan(tracer, "payment.order.lookup", root, 10), 20);
+        endSpan(root, TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertTrue(captured.spans.isEmpty());
+    }
+
+    @Test
+    @DisplayName("traces whose root is slower than the threshold are exported whole")
+    void slowTrace_Kept() {
+        Tracer tracer = tracer(0.0);
+
+        Span root = startSpan(tracer, "http post", null, 0);
+        endSpan(startSpan(tracer, "payment.gateway.call", root, 10), SLOW_NANOS);
+        endSpan(root, SLOW_NANOS + 10);
+
+        assertEquals(List.of("payment.gateway.call", "http post"), captured.names());
+    }
+
+    @Test
+    @DisplayName("a failed child keeps a fast trace")
+    void errorTrace_Kept() {
+        Tracer tracer = tracer(0.0);
+
+        Span root = startSpan(tracer, "http post", null, 0);
+        Span gateway = startSpan(tracer, "payment.gateway.call", root, 10);
+        gateway.setStatus(StatusCode.ERROR);
+        endSpan(gateway, 20);
+        endSpan(root, 30);
+
+        assertEquals(2, captured.spans.size());
+    }
+
+    @Test
+    @DisplayName("the baseline ratio keeps ordinary traces")
+    void baselineRatio_KeepsFastTraces() {
+        Tracer tracer = tracer(1.0);
+
+        Span root = startSpan(tracer, "http get", null, 0);
+        endSpan(root, 10);
+
+        assertEquals(List.of("http get"), captured.names());
+    }
+
+    @Test
+    @DisplayName("spans ending after their root follow the decision already made for the trace")
+    void lateSpan_FollowsDecision() {
+        Tracer tracer = tracer(0.0);
+
+        Span root = startSpan(tracer, "http post", null, 0);
+        Span async = startSpan(tracer, "async.notify", root, 10);
+        endSpan(root, SLOW_NANOS);
+        endSpan(async, SLOW_NANOS + 100);
+
+        assertEquals(List.of("http post", "async.notify"), captured.names());
+    }
+
+    @Test
+    @DisplayName("traces whose root never ends are decided after the pending timeout")
+    void orphanTrace_DecidedAfterTimeout() {
+        Tracer tracer = tracer(0.0);
+
+        Span root = startSpan(tracer, "http post", null, 0);
+        Span child = startSpan(tracer, "payment.execution.claim", root, 10);
+        child.setStatus(StatusCode.ERROR);
+        endSpan(child, 20);
+        assertEquals(1, exporter.pendingTraceCount());
+        assertTrue(captured.spans.isEmpty());
+
+        clock.addAndGet(PENDING_TIMEOUT_NANOS);
+        endSpan(startSpan(tracer, "http get", null, 0), 10);
+
+        assertEquals(List.of("payment.execution.claim"), captured.names());
+        assertEquals(0, exporter.pendingTraceCount());
+    }
+
+    private Tracer tracer(double baselineRatio) {
+        exporter = new TailSamplingSpanExporter(captured, SLOW_NANOS, baselineRatio, 100,
+                PENDING_TIMEOUT_NANOS, clock::get);
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        return tracerProvider.get("test");
+    }
+
+    private static Span startSpan(Tracer tracer, String name, Span parent, long startNanos) {
+        return tracer.spanBuilder(name)
+                .setParent(parent != null ? Context.root().with(parent) : Context.root())
+                .setStartTimestamp(EPOCH_NANOS + startNanos, TimeUnit.NANOSECONDS)
+                .startSpan();
+    }
+
+    private static void endSpan(Span span, long endNanos) {
+        span.end(EPOCH_NANOS + endNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class CapturingExporter implements SpanExporter {
+
+        private final List<SpanData> spans = new ArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.addAll(batch);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        private List<String> names() {
+            return spans.stream().map(SpanData::getName).toList();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.paymentsystem.vthread;
+
+import com.example.paymentsystem.dto.VirtualThreadStatsDTO;
+import com.example.paymentsystem.metrics.PaymentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PinningMonitorTest {
+
+    private SimpleMeterRegistry registry;
+    private PinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        monitor = new PinningMonitor(new PaymentMetrics(registry), true, true, Duration.ofMillis(5));
+    }
+
+    @Test
+    @DisplayName("events are grouped by the first frame outside the JDK and attributed to the nearest application frame")
+    void groupsBySite() {
+        List<String> stack = List.of(
+                "java.lang.VirtualThread.parkOnCarrierThread:675",
+                "java.lang.Thread.sleep:509",
+                "org.h2.mvstore.FileStore.sync:120",
+                "org.h2.engine.SessionLocal.commit:300",
+                "com.example.paymentsystem.service.PaymentExecutionServiceImpl.executePayment:88");
+
+        monitor.record(stack, 30_000_000);
+        monitor.record(stack, 10_000_000);
+
+        VirtualThreadStatsDTO stats = monitor.getStats();
+        assertEquals(2, stats.getPinnedEvents());
+        VirtualThreadStatsDTO.PinningSite site = stats.getSites().get(0);
+        assertEquals("org.h2.mvstore.FileStore.sync:120", site.getSite());
+        assertEquals("com.example.paymentsystem.service.PaymentExecutionServiceImpl.executePayment:88", site.getCaller());
+        assertEquals(2, site.getCount());
+        assertEquals(40, site.getTotalTimeMs());
+        assertEquals(30, site.getMaxTimeMs());
+        assertEquals(2, registry.get("payment.virtual_threads.pinned").timer().count());
+    }
+
+    @Test
+    @DisplayName("sites past the cap are counted together instead of growing the table")
+    void capsSites() {
+        for (int i = 0; i < PinningMonitor.MAX_SITES + 10; i++) {
+            monitor.record(List.of("org.example.Lib.method" + i + ":1"), 1_000_000);
+        }
+
+        VirtualThreadStatsDTO stats = monitor.getStats();
+        assertEquals(PinningMonitor.MAX_SITES + 1, stats.getSites().size());
+        assertEquals(10, stats.getSites().stream()
+                .filter(site -> PinningMonitor.OTHER_SITE.equals(site.getSite()))
+                .findFirst().orElseThrow().getCount());
+    }
+
+    @Test
+    @DisplayName("a virtual thread sleeping inside synchronized is reported from the flight recorder")
+    void detectsPinnedVirtualThread() throws Exception {
+        monitor.start();
+        try {
+            Object lock = new Object();
+            Thread thread = Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            thread.join();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (monitor.getStats().getSites().stream()
+                    .noneMatch(s -> s.getSite().startsWith(PinningMonitorTest.class.getName()))
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            // Other tests running virtual threads in this JVM may add sites of their own
+            VirtualThreadStatsDTO.PinningSite site = monitor.getStats().getSites().stream()
+                    .filter(s -> s.getSite().startsWith(PinningMonitorTest.class.getName()))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("no pinned event was recorded here"));
+            assertTrue(site.getMaxTimeMs() >= 40, "pinned for " + site.getMaxTimeMs() + "ms");
+            assertTrue(monitor.getStats().getSites().stream().allMatch(s -> s.getMaxTimeMs() >= 5));
+        } finally {
+            monitor.stop();
+        }
+    }
+}